@@ -0,0 +1,64 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.benchmarks;
+
+import com.graphhopper.jsprit.core.algorithm.VehicleRoutingAlgorithm;
+import com.graphhopper.jsprit.core.algorithm.box.Jsprit;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import com.graphhopper.jsprit.core.util.Solutions;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a complete run of the default algorithm with a fixed number of iterations and a fixed seed.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlgorithmBenchmark {
+
+    @Param({"RANDOM", "CLUSTERED", "PICKUP_DELIVERY"})
+    public Instances.Type type;
+
+    @Param({"100", "400"})
+    public int noJobs;
+
+    @Param({"500"})
+    public int iterations;
+
+    private VehicleRoutingProblem vrp;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        vrp = Instances.create(type, noJobs, 42);
+    }
+
+    @Benchmark
+    public VehicleRoutingProblemSolution searchSolutions() {
+        VehicleRoutingAlgorithm algorithm = Jsprit.Builder.newInstance(vrp).setRandom(new Random(42)).buildAlgorithm();
+        algorithm.setMaxIterations(iterations);
+        return Solutions.bestOf(algorithm.searchSolutions());
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.benchmarks;
+
+import com.graphhopper.jsprit.core.algorithm.recreate.InsertionData;
+import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the insertion hot path: evaluating the best insertion of every unassigned job into every route of a
+ * half-built solution (ServiceInsertionCalculator for services, ShipmentInsertionCalculatorFlex for shipments),
+ * and a complete regret insertion of the unassigned jobs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InsertionBenchmark {
+
+    @Param({"RANDOM", "CLUSTERED", "PICKUP_DELIVERY"})
+    public Instances.Type type;
+
+    @Param({"200", "1000"})
+    public int noJobs;
+
+    /**
+     * Fresh copies of the partial solution's routes, since regret insertion modifies them.
+     */
+    @State(Scope.Thread)
+    public static class Routes {
+
+        private List<VehicleRoute> routes;
+
+        @Setup(Level.Invocation)
+        public void setup(InsertionBenchmark benchmark) {
+            routes = benchmark.fixture.copyOfRoutes();
+        }
+
+    }
+
+    private InsertionFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fixture = new InsertionFixture(Instances.create(type, noJobs, 42), 0.5, 42);
+    }
+
+    @Benchmark
+    public void getInsertionData(Blackhole blackhole) {
+        for (Job job : fixture.unassignedJobs) {
+            for (VehicleRoute route : fixture.routes) {
+                InsertionData insertionData = fixture.calculator.getInsertionData(route, job, route.getVehicle(),
+                    route.getDepartureTime(), route.getDriver(), Double.MAX_VALUE);
+                blackhole.consume(insertionData);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object regretInsertion(Routes routes) {
+        return fixture.insertion.insertJobs(routes.routes, fixture.unassignedJobs);
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.benchmarks;
+
+import com.graphhopper.jsprit.core.algorithm.listener.VehicleRoutingAlgorithmListeners;
+import com.graphhopper.jsprit.core.algorithm.recreate.JobInsertionCostsCalculator;
+import com.graphhopper.jsprit.core.algorithm.recreate.JobInsertionCostsCalculatorBuilder;
+import com.graphhopper.jsprit.core.algorithm.recreate.RegretInsertionFast;
+import com.graphhopper.jsprit.core.algorithm.recreate.listener.InsertionListener;
+import com.graphhopper.jsprit.core.algorithm.state.StateManager;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.constraint.ConstraintManager;
+import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.vehicle.InfiniteFleetManagerFactory;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleFleetManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Wires state manager, constraints, insertion calculator and regret insertion the way the default algorithm
+ * does, and builds a partial solution where a given share of the jobs is already routed.
+ */
+class InsertionFixture {
+
+    final VehicleRoutingProblem vrp;
+
+    final StateManager stateManager;
+
+    final JobInsertionCostsCalculator calculator;
+
+    final RegretInsertionFast insertion;
+
+    final List<VehicleRoute> routes = new ArrayList<>();
+
+    final List<Job> unassignedJobs = new ArrayList<>();
+
+    InsertionFixture(VehicleRoutingProblem vrp, double shareOfRoutedJobs, long seed) {
+        this.vrp = vrp;
+        stateManager = new StateManager(vrp);
+        stateManager.updateLoadStates();
+        stateManager.updateTimeWindowStates();
+        ConstraintManager constraintManager = new ConstraintManager(vrp, stateManager);
+        constraintManager.addLoadConstraint();
+        constraintManager.addTimeWindowConstraint();
+        VehicleFleetManager fleetManager = new InfiniteFleetManagerFactory(vrp.getVehicles()).createFleetManager();
+        List<InsertionListener> insertionListeners = new ArrayList<>();
+        List<VehicleRoutingAlgorithmListeners.PrioritizedVRAListener> algorithmListeners = new ArrayList<>();
+        calculator = new JobInsertionCostsCalculatorBuilder(insertionListeners, algorithmListeners)
+            .setLocalLevel(true)
+            .setStateManager(stateManager)
+            .setConstraintManager(constraintManager)
+            .setVehicleRoutingProblem(vrp)
+            .setVehicleFleetManager(fleetManager)
+            .build();
+        insertion = new RegretInsertionFast(calculator, vrp, fleetManager);
+        insertion.setRandom(new Random(seed));
+        insertion.addListener(stateManager);
+        for (InsertionListener listener : insertionListeners) insertion.addListener(listener);
+
+        List<Job> jobs = new ArrayList<>(vrp.getJobs().values());
+        int noRoutedJobs = (int) (jobs.size() * shareOfRoutedJobs);
+        List<Job> routedJobs = new ArrayList<>(jobs.subList(0, noRoutedJobs));
+        unassignedJobs.addAll(jobs.subList(noRoutedJobs, jobs.size()));
+        unassignedJobs.addAll(insertion.insertJobs(routes, routedJobs));
+        stateManager.informInsertionStarts(routes, unassignedJobs);
+    }
+
+    /**
+     * Returns copies of the routes of the partial solution.
+     *
+     * @return route copies
+     */
+    List<VehicleRoute> copyOfRoutes() {
+        List<VehicleRoute> copies = new ArrayList<>(routes.size());
+        for (VehicleRoute route : routes) copies.add(VehicleRoute.copyOf(route));
+        return copies;
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.benchmarks;
+
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.job.Shipment;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TimeWindow;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleType;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+
+import java.util.Random;
+
+/**
+ * Generates Solomon/Homberger-style benchmark instances, i.e. customers on a 100x100 grid around a central
+ * depot with unit demands, narrow time windows and an infinite fleet of identical vehicles.
+ * <p>Instances are fully determined by their parameters and the seed, thus results are comparable across runs.
+ */
+public class Instances {
+
+    private static final double HORIZON = 1000.;
+
+    private static final double SERVICE_TIME = 10.;
+
+    private static final int CAPACITY = 200;
+
+    private static final Location DEPOT = Location.newInstance(50, 50);
+
+    /**
+     * Type of generated instance.
+     */
+    public enum Type {
+
+        /**
+         * Customers with time windows, uniformly distributed (like Solomon R1).
+         */
+        RANDOM,
+
+        /**
+         * Customers with time windows, grouped in clusters (like Solomon C1).
+         */
+        CLUSTERED,
+
+        /**
+         * Pickup and delivery shipments with time windows, uniformly distributed.
+         */
+        PICKUP_DELIVERY
+
+    }
+
+    private Instances() {
+    }
+
+    /**
+     * Creates a problem of the given type.
+     *
+     * @param type   type of instance
+     * @param noJobs number of services or shipments
+     * @param seed   random seed
+     * @return the problem
+     */
+    public static VehicleRoutingProblem create(Type type, int noJobs, long seed) {
+        Random random = new Random(seed);
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+        VehicleType vehicleType = VehicleTypeImpl.Builder.newInstance("type").addCapacityDimension(0, CAPACITY)
+            .setCostPerDistance(1.).build();
+        vrpBuilder.addVehicle(VehicleImpl.Builder.newInstance("vehicle").setStartLocation(DEPOT).setType(vehicleType)
+            .setLatestArrival(HORIZON).build());
+        vrpBuilder.setFleetSize(VehicleRoutingProblem.FleetSize.INFINITE);
+        if (type == Type.PICKUP_DELIVERY) {
+            for (int i = 0; i < noJobs; i++) {
+                Location pickup = randomLocation(random);
+                Location delivery = randomLocation(random);
+                TimeWindow pickupTimeWindow = timeWindow(random, pickup);
+                vrpBuilder.addJob(Shipment.Builder.newInstance("shipment" + i).addSizeDimension(0, 1 + random.nextInt(40))
+                    .setPickupLocation(pickup).setPickupServiceTime(SERVICE_TIME).setPickupTimeWindow(pickupTimeWindow)
+                    .setDeliveryLocation(delivery).setDeliveryServiceTime(SERVICE_TIME)
+                    .setDeliveryTimeWindow(TimeWindow.newInstance(pickupTimeWindow.getStart(), HORIZON - distance(delivery, DEPOT)))
+                    .build());
+            }
+        } else {
+            Location[] centres = new Location[10];
+            for (int c = 0; c < centres.length; c++) {
+                centres[c] = Location.newInstance(10 + random.nextDouble() * 80, 10 + random.nextDouble() * 80);
+            }
+            for (int i = 0; i < noJobs; i++) {
+                Location location;
+                if (type == Type.CLUSTERED) {
+                    Location centre = centres[random.nextInt(centres.length)];
+                    location = Location.newInstance(clamp(centre.getCoordinate().getX() + random.nextGaussian() * 5),
+                        clamp(centre.getCoordinate().getY() + random.nextGaussian() * 5));
+                } else {
+                    location = randomLocation(random);
+                }
+                vrpBuilder.addJob(Service.Builder.newInstance("service" + i).addSizeDimension(0, 1 + random.nextInt(40))
+                    .setLocation(location).setServiceTime(SERVICE_TIME).setTimeWindow(timeWindow(random, location))
+                    .build());
+            }
+        }
+        return vrpBuilder.build();
+    }
+
+    private static Location randomLocation(Random random) {
+        return Location.newInstance(random.nextDouble() * 100, random.nextDouble() * 100);
+    }
+
+    private static double clamp(double coordinate) {
+        return Math.max(0., Math.min(100., coordinate));
+    }
+
+    private static double distance(Location from, Location to) {
+        double dx = from.getCoordinate().getX() - to.getCoordinate().getX();
+        double dy = from.getCoordinate().getY() - to.getCoordinate().getY();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static TimeWindow timeWindow(Random random, Location location) {
+        double distanceToDepot = distance(DEPOT, location);
+        double earliest = distanceToDepot;
+        double latest = HORIZON - distanceToDepot - SERVICE_TIME;
+        double width = 30. + random.nextDouble() * 60.;
+        double centre = earliest + random.nextDouble() * (latest - earliest);
+        return TimeWindow.newInstance(Math.max(earliest, centre - width / 2.), Math.min(latest, centre + width / 2.));
+    }
+
+}
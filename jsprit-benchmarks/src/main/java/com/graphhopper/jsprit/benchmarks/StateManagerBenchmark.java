@@ -0,0 +1,60 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.benchmarks;
+
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the StateManager's route updates, i.e. a full forward and backward pass of the load and time window
+ * updaters over all routes of a complete solution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StateManagerBenchmark {
+
+    @Param({"RANDOM", "PICKUP_DELIVERY"})
+    public Instances.Type type;
+
+    @Param({"200", "1000"})
+    public int noJobs;
+
+    private InsertionFixture fixture;
+
+    private List<VehicleRoute> routes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fixture = new InsertionFixture(Instances.create(type, noJobs, 42), 1., 42);
+        routes = fixture.routes;
+    }
+
+    @Benchmark
+    public void updateRouteStates() {
+        fixture.stateManager.informInsertionStarts(routes, Collections.emptyList());
+    }
+
+}
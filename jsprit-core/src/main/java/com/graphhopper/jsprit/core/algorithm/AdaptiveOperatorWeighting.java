@@ -0,0 +1,147 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm;
+
+import com.graphhopper.jsprit.core.algorithm.listener.AlgorithmStartsListener;
+import com.graphhopper.jsprit.core.algorithm.listener.IterationStartsListener;
+import com.graphhopper.jsprit.core.algorithm.listener.StrategySelectedListener;
+import com.graphhopper.jsprit.core.algorithm.module.IndependentRuinAndRecreateModule;
+import com.graphhopper.jsprit.core.algorithm.selector.AdaptiveWeights;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+
+import java.util.Collection;
+
+/**
+ * Adaptive large neighbourhood search: rewards the selected search strategy each iteration and re-weights strategies
+ * by reward per millisecond at the end of every segment. If a strategy selects its ruin and insertion operators
+ * independently ({@link IndependentRuinAndRecreateModule}), these operators are re-weighted as well, each by its own
+ * runtime.
+ * <p>
+ * A strategy earns newBestReward if it finds a new best solution, improvementReward if it improves the best current
+ * solution and acceptedReward if its solution is accepted otherwise. Since rewards are divided by runtime, expensive
+ * strategies need to contribute proportionally more to keep their share.
+ * <p>
+ * Register it with the algorithm whose {@link SearchStrategyManager} it was created for.
+ */
+public class AdaptiveOperatorWeighting implements AlgorithmStartsListener, IterationStartsListener, StrategySelectedListener {
+
+    private final SearchStrategyManager strategyManager;
+
+    private final int segmentLength;
+
+    private double newBestReward = 33;
+
+    private double improvementReward = 9;
+
+    private double acceptedReward = 13;
+
+    private double bestCost;
+
+    private double currentCost;
+
+    private long iterationStart;
+
+    private int iterationsInSegment;
+
+    /**
+     * @param strategyManager the strategy manager whose strategies are to be re-weighted
+     * @param segmentLength   number of iterations between two weight adaptions
+     * @param reactionFactor  how fast weights follow the observed reward rates, in (0,1]
+     * @param minWeightShare  lower bound of a weight relative to the average weight, in [0,1]
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public AdaptiveOperatorWeighting(SearchStrategyManager strategyManager, int segmentLength, double reactionFactor, double minWeightShare) {
+        if (segmentLength < 1) throw new IllegalArgumentException("segment length must be positive, got: " + segmentLength);
+        this.strategyManager = strategyManager;
+        this.segmentLength = segmentLength;
+        strategyManager.setAdaptiveWeights(new AdaptiveWeights(reactionFactor, minWeightShare));
+        for (SearchStrategy strategy : strategyManager.getStrategies()) {
+            for (SearchStrategyModule module : strategy.getSearchStrategyModules()) {
+                if (module instanceof IndependentRuinAndRecreateModule independentModule) {
+                    independentModule.getRuinSelector().setAdaptiveWeights(new AdaptiveWeights(reactionFactor, minWeightShare));
+                    independentModule.getInsertionSelector().setAdaptiveWeights(new AdaptiveWeights(reactionFactor, minWeightShare));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the rewards. Defaults are 33, 9 and 13.
+     *
+     * @param newBestReward     reward for a new best solution
+     * @param improvementReward reward for improving the best current solution
+     * @param acceptedReward    reward for any other accepted solution
+     * @return this
+     */
+    public AdaptiveOperatorWeighting setRewards(double newBestReward, double improvementReward, double acceptedReward) {
+        this.newBestReward = newBestReward;
+        this.improvementReward = improvementReward;
+        this.acceptedReward = acceptedReward;
+        return this;
+    }
+
+    @Override
+    public void informAlgorithmStarts(VehicleRoutingProblem problem, VehicleRoutingAlgorithm algorithm, Collection<VehicleRoutingProblemSolution> solutions) {
+        bestCost = minCost(solutions);
+        iterationsInSegment = 0;
+    }
+
+    @Override
+    public void informIterationStarts(int i, VehicleRoutingProblem problem, Collection<VehicleRoutingProblemSolution> solutions) {
+        currentCost = minCost(solutions);
+        iterationStart = System.nanoTime();
+    }
+
+    @Override
+    public void informSelectedStrategy(SearchStrategy.DiscoveredSolution discoveredSolution, VehicleRoutingProblem vehicleRoutingProblem, Collection<VehicleRoutingProblemSolution> vehicleRoutingProblemSolutions) {
+        long elapsed = System.nanoTime() - iterationStart;
+        double reward = 0;
+        if (discoveredSolution != null) {
+            double cost = discoveredSolution.getSolution().getCost();
+            if (cost < bestCost) {
+                reward = newBestReward;
+                bestCost = cost;
+            } else if (cost < currentCost) reward = improvementReward;
+            else if (discoveredSolution.isAccepted()) reward = acceptedReward;
+        }
+        strategyManager.reward(reward, elapsed);
+        SearchStrategy strategy = strategyManager.getLastSelectedStrategy();
+        if (strategy != null) {
+            for (SearchStrategyModule module : strategy.getSearchStrategyModules()) {
+                if (module instanceof IndependentRuinAndRecreateModule independentModule) independentModule.reward(reward);
+            }
+        }
+        if (++iterationsInSegment == segmentLength) {
+            iterationsInSegment = 0;
+            strategyManager.adaptWeights();
+            for (SearchStrategy s : strategyManager.getStrategies()) {
+                for (SearchStrategyModule module : s.getSearchStrategyModules()) {
+                    if (module instanceof IndependentRuinAndRecreateModule independentModule) independentModule.adaptWeights();
+                }
+            }
+        }
+    }
+
+    private static double minCost(Collection<VehicleRoutingProblemSolution> solutions) {
+        double min = Double.MAX_VALUE;
+        for (VehicleRoutingProblemSolution solution : solutions) min = Math.min(min, solution.getCost());
+        return min;
+    }
+
+}
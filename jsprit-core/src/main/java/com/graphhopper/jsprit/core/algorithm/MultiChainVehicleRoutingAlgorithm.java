@@ -0,0 +1,275 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm;
+
+import com.graphhopper.jsprit.core.algorithm.listener.AlgorithmEventListener;
+import com.graphhopper.jsprit.core.algorithm.listener.IterationStartsListener;
+import com.graphhopper.jsprit.core.algorithm.listener.VehicleRoutingAlgorithmListener;
+import com.graphhopper.jsprit.core.algorithm.termination.PrematureAlgorithmTermination;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.solution.SolutionCostCalculator;
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import com.graphhopper.jsprit.core.util.Solutions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Algorithm that runs a number of independent search chains on separate threads and periodically
+ * exchanges their best solutions.
+ * <p>
+ * Each chain is a complete {@link VehicleRoutingAlgorithm} with its own {@link SearchStrategyManager},
+ * state manager, acceptor and random number generator. Every <code>migrationInterval</code> iterations a
+ * chain publishes its best solution to a shared elite slot. If the elite solution is better than the best
+ * solution of the chain, a copy of it replaces the worst solution in the chain's memory.
+ * <p>
+ * Max iterations and termination criteria apply to each chain individually, i.e. with a {@link
+ * com.graphhopper.jsprit.core.algorithm.termination.TimeTermination} all chains stop after the given
+ * wall-clock time. Termination criteria are shared by the chains and called under a lock, thus they do not
+ * need to be thread-safe. Listeners registered with this algorithm are only informed when the algorithm
+ * starts and ends. Iteration-level listeners need to be added to the chains themselves (see {@link #getChains()})
+ * and are then called concurrently.
+ * <p>
+ * This algorithm has no search strategies of its own, i.e. {@link #getSearchStrategyManager()} returns an empty
+ * manager. Initial solutions are copied for each chain, thus chains never share solutions or routes.
+ */
+public class MultiChainVehicleRoutingAlgorithm extends VehicleRoutingAlgorithm {
+
+    private static class SynchronizedTermination implements PrematureAlgorithmTermination {
+
+        private final PrematureAlgorithmTermination termination;
+
+        SynchronizedTermination(PrematureAlgorithmTermination termination) {
+            this.termination = termination;
+        }
+
+        @Override
+        public boolean isPrematureBreak(SearchStrategy.DiscoveredSolution discoveredSolution) {
+            synchronized (termination) {
+                return termination.isPrematureBreak(discoveredSolution);
+            }
+        }
+    }
+
+    /**
+     * Terminates a chain once its thread is interrupted, i.e. when the search is cancelled (see {@link #searchSolutions()}).
+     */
+    private static final PrematureAlgorithmTermination INTERRUPTION = discoveredSolution -> Thread.currentThread().isInterrupted();
+
+    private class Migration implements IterationStartsListener {
+
+        @Override
+        public void informIterationStarts(int i, VehicleRoutingProblem problem, Collection<VehicleRoutingProblemSolution> solutions) {
+            if (i == 1 || (i - 1) % migrationInterval != 0 || solutions.isEmpty()) return;
+            migrate(solutions);
+        }
+
+    }
+
+    private final static Logger logger = LoggerFactory.getLogger(MultiChainVehicleRoutingAlgorithm.class);
+
+    private final VehicleRoutingProblem problem;
+
+    private final List<VehicleRoutingAlgorithm> chains;
+
+    private final int migrationInterval;
+
+    private final Object migrationLock = new Object();
+
+    private VehicleRoutingProblemSolution elite;
+
+    private boolean forwardsEvents = false;
+
+    /**
+     * Constructs the multi-chain algorithm.
+     *
+     * @param problem           the problem to be solved
+     * @param chains            the search chains, each with its own strategies, states and acceptor
+     * @param migrationInterval number of iterations after which each chain exchanges its best solution
+     */
+    public MultiChainVehicleRoutingAlgorithm(VehicleRoutingProblem problem, List<VehicleRoutingAlgorithm> chains, int migrationInterval) {
+        super(problem, new SearchStrategyManager(), objectiveFunctionOf(chains));
+        if (migrationInterval < 1)
+            throw new IllegalArgumentException("migration interval must be at least 1, but is " + migrationInterval);
+        this.problem = problem;
+        this.chains = new ArrayList<>(chains);
+        this.migrationInterval = migrationInterval;
+        for (VehicleRoutingAlgorithm chain : this.chains) {
+            chain.addListener(new Migration());
+            chain.addTerminationCriterion(INTERRUPTION);
+        }
+    }
+
+    private static SolutionCostCalculator objectiveFunctionOf(List<VehicleRoutingAlgorithm> chains) {
+        if (chains.isEmpty()) throw new IllegalArgumentException("at least one search chain is required");
+        return chains.get(0).getObjectiveFunction();
+    }
+
+    /**
+     * Returns the search chains of this algorithm.
+     *
+     * @return unmodifiable list of chains
+     */
+    public List<VehicleRoutingAlgorithm> getChains() {
+        return Collections.unmodifiableList(chains);
+    }
+
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    /**
+     * Adds a deep copy of solution to each chain.
+     *
+     * @param solution the solution to be added
+     */
+    @Override
+    public void addInitialSolution(VehicleRoutingProblemSolution solution) {
+        for (VehicleRoutingAlgorithm chain : chains) {
+            chain.addInitialSolution(VehicleRoutingProblemSolution.copyOf(solution));
+        }
+    }
+
+    @Override
+    public void setPrematureAlgorithmTermination(PrematureAlgorithmTermination prematureAlgorithmTermination) {
+        PrematureAlgorithmTermination termination = new SynchronizedTermination(prematureAlgorithmTermination);
+        for (VehicleRoutingAlgorithm chain : chains) {
+            chain.setPrematureAlgorithmTermination(termination);
+            chain.addTerminationCriterion(INTERRUPTION);
+        }
+    }
+
+    @Override
+    public void addTerminationCriterion(PrematureAlgorithmTermination terminationCriterion) {
+        PrematureAlgorithmTermination termination = new SynchronizedTermination(terminationCriterion);
+        for (VehicleRoutingAlgorithm chain : chains) {
+            chain.addTerminationCriterion(termination);
+        }
+    }
+
+    /**
+     * Adds a listener that is informed when the algorithm starts and ends. Iteration-level callbacks
+     * are not forwarded to the chains.
+     *
+     * @param l the listener
+     */
+    @Override
+    public void addListener(VehicleRoutingAlgorithmListener l) {
+        getAlgorithmListeners().addListener(l);
+    }
+
+    /**
+     * Adds an event listener that receives the events of all chains. Events are delivered one at a time,
+     * but in no particular order across chains.
+     *
+     * @param listener the event listener to add
+     */
+    @Override
+    public void addEventListener(AlgorithmEventListener listener) {
+        super.addEventListener(listener);
+        if (!forwardsEvents) {
+            forwardsEvents = true;
+            for (VehicleRoutingAlgorithm chain : chains) {
+                chain.addEventListener(event -> {
+                    synchronized (this) {
+                        emit(event);
+                    }
+                });
+            }
+        }
+    }
+
+    @Override
+    public void setMaxIterations(int maxIterations) {
+        super.setMaxIterations(maxIterations);
+        for (VehicleRoutingAlgorithm chain : chains) {
+            chain.setMaxIterations(maxIterations);
+        }
+    }
+
+    /**
+     * Runs all chains in parallel and returns the union of their solutions.
+     * <p>
+     * If a chain fails or the calling thread is interrupted, the remaining chains are cancelled and the failure is
+     * propagated, i.e. partial results are never returned.
+     *
+     * @return Collection<VehicleRoutingProblemSolution> the solutions of all chains
+     * @throws RuntimeException if a chain fails or the calling thread is interrupted while waiting for the chains
+     */
+    @Override
+    public Collection<VehicleRoutingProblemSolution> searchSolutions() {
+        logger.info("algorithm starts: [chains={}][maxIterations={}][migrationInterval={}]", chains.size(), getMaxIterations(), migrationInterval);
+        double now = System.currentTimeMillis();
+        synchronized (migrationLock) {
+            elite = null;
+        }
+        Collection<VehicleRoutingProblemSolution> solutions = new ArrayList<>();
+        getAlgorithmListeners().algorithmStarts(problem, this, solutions);
+        ExecutorService executorService = Executors.newFixedThreadPool(chains.size());
+        try {
+            List<Future<Collection<VehicleRoutingProblemSolution>>> futures = new ArrayList<>();
+            for (VehicleRoutingAlgorithm chain : chains) {
+                futures.add(executorService.submit(chain::searchSolutions));
+            }
+            for (Future<Collection<VehicleRoutingProblemSolution>> future : futures) {
+                solutions.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            executorService.shutdownNow();
+            throw new RuntimeException(e);
+        } finally {
+            executorService.shutdown();
+        }
+        getAlgorithmListeners().algorithmEnds(problem, solutions);
+        logger.info("took {} seconds", ((System.currentTimeMillis() - now) / 1000.0));
+        return solutions;
+    }
+
+    private void migrate(Collection<VehicleRoutingProblemSolution> solutions) {
+        VehicleRoutingProblemSolution best = Solutions.bestOf(solutions);
+        VehicleRoutingProblemSolution immigrant = null;
+        synchronized (migrationLock) {
+            if (elite == null || best.getCost() < elite.getCost()) {
+                elite = VehicleRoutingProblemSolution.copyOf(best);
+            } else if (elite.getCost() < best.getCost()) {
+                immigrant = VehicleRoutingProblemSolution.copyOf(elite);
+            }
+        }
+        if (immigrant == null) return;
+        VehicleRoutingProblemSolution worst = null;
+        for (VehicleRoutingProblemSolution solution : solutions) {
+            if (worst == null || solution.getCost() > worst.getCost()) worst = solution;
+        }
+        solutions.remove(worst);
+        solutions.add(immigrant);
+        logger.debug("chain adopts elite solution with costs {}", immigrant.getCost());
+    }
+
+}
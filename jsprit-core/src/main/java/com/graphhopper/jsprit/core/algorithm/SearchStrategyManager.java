@@ -19,6 +19,7 @@ package com.graphhopper.jsprit.core.algorithm;
 
 import com.graphhopper.jsprit.core.algorithm.listener.SearchStrategyListener;
 import com.graphhopper.jsprit.core.algorithm.listener.SearchStrategyModuleListener;
+import com.graphhopper.jsprit.core.algorithm.selector.AdaptiveWeights;
 import com.graphhopper.jsprit.core.util.RandomNumberGeneration;
 
 import java.util.*;
@@ -40,6 +41,10 @@ public class SearchStrategyManager {
 
     private int strategyIndex = 0;
 
+    private int lastSelectedIndex = -1;
+
+    private AdaptiveWeights adaptiveWeights = null;
+
     public void setRandom(Random random) {
         this.random = random;
     }
@@ -86,6 +91,49 @@ public class SearchStrategyManager {
         updateSumWeights();
     }
 
+    /**
+     * Enables adaptive weights, i.e. strategy weights follow the rewards reported with {@link #reward(double, long)}
+     * whenever {@link #adaptWeights()} is called.
+     *
+     * @param adaptiveWeights the weight adaption, or null to keep weights fixed
+     */
+    public void setAdaptiveWeights(AdaptiveWeights adaptiveWeights) {
+        this.adaptiveWeights = adaptiveWeights;
+    }
+
+    /**
+     * Returns the strategy selected in the last call to {@link #getRandomStrategy()}.
+     *
+     * @return the last selected strategy, or null if no strategy has been selected yet
+     */
+    public SearchStrategy getLastSelectedStrategy() {
+        return lastSelectedIndex < 0 ? null : strategies.get(lastSelectedIndex);
+    }
+
+    /**
+     * Reports the reward and runtime of the strategy selected last. Does nothing unless adaptive weights are enabled.
+     *
+     * @param reward       reward earned by the strategy
+     * @param elapsedNanos runtime of the strategy
+     */
+    public void reward(double reward, long elapsedNanos) {
+        if (adaptiveWeights == null || lastSelectedIndex < 0) return;
+        adaptiveWeights.record(lastSelectedIndex, reward, elapsedNanos);
+    }
+
+    /**
+     * Adapts strategy weights to the rewards reported since the last call. Does nothing unless adaptive weights are
+     * enabled.
+     */
+    public void adaptWeights() {
+        if (adaptiveWeights == null) return;
+        double[] w = new double[weights.size()];
+        for (int i = 0; i < w.length; i++) w[i] = weights.get(i);
+        if (!adaptiveWeights.adapt(w)) return;
+        for (int i = 0; i < w.length; i++) weights.set(i, w[i]);
+        updateSumWeights();
+    }
+
     private void updateSumWeights() {
         double sum = 0.;
         for (double w : weights) {
@@ -108,10 +156,12 @@ public class SearchStrategyManager {
         for (int i = 0; i < weights.size(); i++) {
             cumulativeProbability += weights.get(i) / sumWeights;
             if (randomValue < cumulativeProbability) {
+                lastSelectedIndex = i;
                 return strategies.get(i);
             }
         }
-        return strategies.get(strategies.size() - 1);
+        lastSelectedIndex = strategies.size() - 1;
+        return strategies.get(lastSelectedIndex);
     }
 
     public void addSearchStrategyListener(SearchStrategyListener strategyListener) {
@@ -20,6 +20,7 @@ package com.graphhopper.jsprit.core.algorithm;
 import com.graphhopper.jsprit.core.algorithm.SearchStrategy.DiscoveredSolution;
 import com.graphhopper.jsprit.core.algorithm.listener.*;
 import com.graphhopper.jsprit.core.algorithm.listener.events.*;
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
 import com.graphhopper.jsprit.core.algorithm.termination.PrematureAlgorithmTermination;
 import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
 import com.graphhopper.jsprit.core.problem.job.Job;
@@ -108,6 +109,8 @@ public class VehicleRoutingAlgorithm {
 
     private final SolutionCostCalculator objectiveFunction;
 
+    private AlgorithmMetrics metrics;
+
     public VehicleRoutingAlgorithm(VehicleRoutingProblem problem, SearchStrategyManager searchStrategyManager) {
         super();
         this.problem = problem;
@@ -249,7 +252,12 @@ public class VehicleRoutingAlgorithm {
             if (hasEventListeners()) {
                 emit(new StrategySelected(iteration, System.currentTimeMillis(), strategy.getId()));
             }
+            long strategyStart = metrics != null ? System.nanoTime() : 0;
             DiscoveredSolution discoveredSolution = strategy.run(problem, solutions);
+            if (metrics != null) {
+                String strategyId = discoveredSolution != null && discoveredSolution.getStrategyId() != null ? discoveredSolution.getStrategyId() : strategy.getId();
+                metrics.recordStrategy(strategyId, System.nanoTime() - strategyStart);
+            }
 
             // Emit strategy executed event after the strategy runs with the dynamic strategy ID
             if (hasEventListeners() && discoveredSolution != null) {
@@ -431,6 +439,19 @@ public class VehicleRoutingAlgorithm {
         algoListeners.algorithmStarts(problem, this, solutions);
     }
 
+    /**
+     * Sets the collector that records the time spent per search strategy. If null (default), nothing is recorded.
+     *
+     * @param metrics the metrics collector
+     */
+    public void setMetrics(AlgorithmMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public AlgorithmMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Sets max number of iterations.
      *
@@ -0,0 +1,99 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.acceptor;
+
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+
+/**
+ * Acceptor that keeps the memorized solutions diverse, i.e. it turns the solution memory into an elite pool.
+ * <p>
+ * <p>If the new solution is a near-duplicate of a solution in memory, i.e. the similarity of their
+ * {@link SolutionFingerprint}s is at least <code>maxSimilarity</code>, the new solution only replaces this
+ * solution if it is better, otherwise it is rejected. All other solutions are passed to the decorated acceptor, which
+ * still controls the size of the memory and the acceptance criterion. Thus, with a memory of more than one solution,
+ * the memory is not filled with clones, and a selector such as
+ * {@link com.graphhopper.jsprit.core.algorithm.selector.SelectRandomly} restarts from diverse elites.
+ * <p>
+ * <p>Note that the decorated acceptor still needs to be registered as listener if it is one, e.g. {@link SchrimpfAcceptance}.
+ */
+public class DiversityAcceptance implements SolutionAcceptor {
+
+    private final SolutionAcceptor acceptor;
+
+    private final double maxSimilarity;
+
+    private Map<VehicleRoutingProblemSolution, SolutionFingerprint> fingerprints = new IdentityHashMap<>();
+
+    /**
+     * @param acceptor      acceptor deciding on solutions that are not near-duplicates
+     * @param maxSimilarity similarity from which on two solutions are considered to be near-duplicates (between 0 and 1)
+     */
+    public DiversityAcceptance(SolutionAcceptor acceptor, double maxSimilarity) {
+        if (maxSimilarity < 0 || maxSimilarity > 1)
+            throw new IllegalArgumentException("maxSimilarity must be between 0 and 1, but is " + maxSimilarity);
+        this.acceptor = acceptor;
+        this.maxSimilarity = maxSimilarity;
+    }
+
+    @Override
+    public boolean acceptSolution(Collection<VehicleRoutingProblemSolution> solutions, VehicleRoutingProblemSolution newSolution) {
+        SolutionFingerprint newFingerprint = SolutionFingerprint.of(newSolution);
+        Map<VehicleRoutingProblemSolution, SolutionFingerprint> memorized = new IdentityHashMap<>();
+        VehicleRoutingProblemSolution mostSimilar = null;
+        double maxSimilarityFound = -1;
+        for (VehicleRoutingProblemSolution solution : solutions) {
+            SolutionFingerprint fingerprint = fingerprints.get(solution);
+            if (fingerprint == null) fingerprint = SolutionFingerprint.of(solution);
+            memorized.put(solution, fingerprint);
+            double similarity = fingerprint.similarity(newFingerprint);
+            if (similarity >= maxSimilarity && similarity > maxSimilarityFound) {
+                maxSimilarityFound = similarity;
+                mostSimilar = solution;
+            }
+        }
+        fingerprints = memorized;
+        boolean solutionAccepted;
+        if (mostSimilar != null) {
+            solutionAccepted = newSolution.getCost() < mostSimilar.getCost();
+            if (solutionAccepted) {
+                solutions.remove(mostSimilar);
+                solutions.add(newSolution);
+            }
+        } else {
+            solutionAccepted = acceptor.acceptSolution(solutions, newSolution);
+        }
+        if (solutionAccepted) fingerprints.put(newSolution, newFingerprint);
+        return solutionAccepted;
+    }
+
+    @Override
+    public double getCurrentThreshold() {
+        return acceptor.getCurrentThreshold();
+    }
+
+    @Override
+    public String toString() {
+        return "[name=DiversityAcceptance][maxSimilarity=" + maxSimilarity + "][acceptor=" + acceptor + "]";
+    }
+
+}
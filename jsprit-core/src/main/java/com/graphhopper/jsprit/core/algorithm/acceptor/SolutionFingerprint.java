@@ -0,0 +1,125 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.acceptor;
+
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
+
+import java.util.Arrays;
+
+/**
+ * Cheap structural fingerprint of a solution, i.e. the sorted set of hashed edges (pairs of consecutive activities)
+ * of all its routes.
+ * <p>
+ * <p>Two solutions that serve the jobs in the same order have the same edges, no matter in which order their routes
+ * are stored or which vehicles are used. The similarity of two fingerprints is the Jaccard index of their edge sets.
+ */
+public final class SolutionFingerprint {
+
+    private static final int START = 0x5ea7c0de;
+
+    private static final int END = 0x0e11d0e5;
+
+    /**
+     * Computes the fingerprint of the specified solution.
+     *
+     * @param solution solution to fingerprint
+     * @return fingerprint
+     */
+    public static SolutionFingerprint of(VehicleRoutingProblemSolution solution) {
+        int noEdges = 0;
+        for (VehicleRoute route : solution.getRoutes()) {
+            if (!route.isEmpty()) noEdges += route.getActivities().size() + 1;
+        }
+        long[] edges = new long[noEdges];
+        int i = 0;
+        for (VehicleRoute route : solution.getRoutes()) {
+            if (route.isEmpty()) continue;
+            int prev = START;
+            for (TourActivity act : route.getActivities()) {
+                int node = nodeOf(act);
+                edges[i++] = edge(prev, node);
+                prev = node;
+            }
+            edges[i++] = edge(prev, END);
+        }
+        Arrays.sort(edges);
+        int size = 0;
+        for (int k = 0; k < edges.length; k++) {
+            if (k == 0 || edges[k] != edges[k - 1]) edges[size++] = edges[k];
+        }
+        return new SolutionFingerprint(size == edges.length ? edges : Arrays.copyOf(edges, size));
+    }
+
+    private static int nodeOf(TourActivity act) {
+        if (act instanceof TourActivity.JobActivity) {
+            return 31 * ((TourActivity.JobActivity) act).getJob().getId().hashCode() + act.getName().hashCode();
+        }
+        return act.getName().hashCode();
+    }
+
+    private static long edge(int from, int to) {
+        //mixes both nodes such that hashed edges spread well (finalizer of splitmix64)
+        long z = ((long) from << 32) ^ (to & 0xffffffffL);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private final long[] edges;
+
+    private SolutionFingerprint(long[] edges) {
+        this.edges = edges;
+    }
+
+    /**
+     * Returns the number of distinct edges.
+     *
+     * @return number of edges
+     */
+    public int getNoEdges() {
+        return edges.length;
+    }
+
+    /**
+     * Returns the similarity of this and the other fingerprint, i.e. the number of shared edges divided by the number
+     * of edges in both. Two empty fingerprints are considered to be equal.
+     *
+     * @param other fingerprint to compare with
+     * @return similarity between 0 (nothing in common) and 1 (same edges)
+     */
+    public double similarity(SolutionFingerprint other) {
+        long[] a = edges;
+        long[] b = other.edges;
+        if (a.length == 0 && b.length == 0) return 1.0;
+        int i = 0;
+        int j = 0;
+        int shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) i++;
+            else j++;
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+}
@@ -18,6 +18,8 @@
 
 package com.graphhopper.jsprit.core.algorithm.box;
 
+import com.graphhopper.jsprit.core.algorithm.AdaptiveOperatorWeighting;
+import com.graphhopper.jsprit.core.algorithm.MultiChainVehicleRoutingAlgorithm;
 import com.graphhopper.jsprit.core.algorithm.PrettyAlgorithmBuilder;
 import com.graphhopper.jsprit.core.algorithm.SearchStrategy;
 import com.graphhopper.jsprit.core.algorithm.SearchStrategyModule;
@@ -25,7 +27,9 @@ import com.graphhopper.jsprit.core.algorithm.VehicleRoutingAlgorithm;
 import com.graphhopper.jsprit.core.algorithm.acceptor.SchrimpfAcceptance;
 import com.graphhopper.jsprit.core.algorithm.acceptor.SolutionAcceptor;
 import com.graphhopper.jsprit.core.algorithm.listener.AlgorithmEndsListener;
+import com.graphhopper.jsprit.core.algorithm.listener.AlgorithmStartsListener;
 import com.graphhopper.jsprit.core.algorithm.listener.IterationStartsListener;
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
 import com.graphhopper.jsprit.core.algorithm.module.IndependentRuinAndRecreateModule;
 import com.graphhopper.jsprit.core.algorithm.module.RuinAndRecreateModule;
 import com.graphhopper.jsprit.core.algorithm.recreate.*;
@@ -196,7 +200,14 @@ public class Jsprit {
         STRING_L_MIN("string_lmin"),
         STRING_L_MAX("string_lmax"),
         MIN_UNASSIGNED("min_unassigned"),
-        PROPORTION_UNASSIGNED("proportion_unassigned");
+        PROPORTION_UNASSIGNED("proportion_unassigned"),
+        SEARCH_CHAINS("search_chains"),
+        MIGRATION_INTERVAL("search_chains.migration_interval"),
+        ADAPTIVE_WEIGHTS("adaptive_weights"),
+        ADAPTIVE_WEIGHTS_SEGMENT("adaptive_weights.segment"),
+        ADAPTIVE_WEIGHTS_REACTION("adaptive_weights.reaction"),
+        ADAPTIVE_WEIGHTS_MIN_SHARE("adaptive_weights.min_share"),
+        INSERTION_CACHE("insertion.cache");
 
 
 
@@ -240,6 +251,8 @@ public class Jsprit {
 
         private SolutionAcceptor solutionAcceptor;
 
+        private WarmStart warmStart;
+
         private ScoringFunction regretScorer = null;
 
         private RegretScoringFunction regretScoringFunction = null;
@@ -258,8 +271,12 @@ public class Jsprit {
 
         private InsertionPositionFilter positionFilter = null;
 
+        private InsertionCostsLowerBound costsLowerBound = null;
+
         private InsertionRouteFilter routeFilter = null;
 
+        private AlgorithmMetrics metrics = null;
+
         // Independent operator selection
         private final List<WeightedOperator<InsertionOperatorFactory>> insertionOperators = new ArrayList<>();
         private final List<WeightedOperator<RuinOperatorFactory>> ruinOperators = new ArrayList<>();
@@ -323,6 +340,13 @@ public class Jsprit {
             defaults.put(Parameter.REGRET_DISTANCE_SCORER.toString(), ".05");
             defaults.put(Parameter.REGRET_TIME_WINDOW_SCORER.toString(), "-.1");
             defaults.put(Parameter.THREADS.toString(), "1");
+            defaults.put(Parameter.SEARCH_CHAINS.toString(), "1");
+            defaults.put(Parameter.MIGRATION_INTERVAL.toString(), "100");
+            defaults.put(Parameter.ADAPTIVE_WEIGHTS.toString(), String.valueOf(false));
+            defaults.put(Parameter.ADAPTIVE_WEIGHTS_SEGMENT.toString(), "100");
+            defaults.put(Parameter.ADAPTIVE_WEIGHTS_REACTION.toString(), "0.1");
+            defaults.put(Parameter.ADAPTIVE_WEIGHTS_MIN_SHARE.toString(), "0.1");
+            defaults.put(Parameter.INSERTION_CACHE.toString(), String.valueOf(false));
             int minShare = (int) Math.min(20, Math.max(3, vrp.getJobs().size() * 0.05));
             int maxShare = (int) Math.min(50, Math.max(5, vrp.getJobs().size() * 0.3));
             defaults.put(Parameter.RADIAL_MIN_SHARE.toString(), String.valueOf(minShare));
@@ -390,6 +414,89 @@ public class Jsprit {
             return this;
         }
 
+        /**
+         * Runs the search in a number of independent chains, each on its own thread and with its own
+         * strategies, states, acceptor and random number generator. Every <code>migrationInterval</code>
+         * iterations the chains exchange their best solution.
+         * <p>
+         * Chains cannot share stateful components, thus this cannot be combined with a custom state and
+         * constraint manager, fleet manager, acceptor, route filter, executor service or custom search strategies.
+         * If {@link Parameter#THREADS} is greater than 1, each chain sets up its own executor for concurrent insertion.
+         *
+         * @param noChains          number of search chains
+         * @param migrationInterval number of iterations between two solution exchanges
+         * @return this builder
+         * @see MultiChainVehicleRoutingAlgorithm
+         */
+        public Builder setSearchChains(int noChains, int migrationInterval) {
+            setProperty(Parameter.SEARCH_CHAINS, String.valueOf(noChains));
+            setProperty(Parameter.MIGRATION_INTERVAL, String.valueOf(migrationInterval));
+            return this;
+        }
+
+        /**
+         * Adapts the weights of search strategies, and of ruin and insertion operators in independent operator mode,
+         * to their improvement per millisecond every <code>segmentLength</code> iterations. The weights set
+         * initially serve as starting point.
+         *
+         * @param segmentLength  number of iterations between two weight adaptions
+         * @param reactionFactor how fast weights follow the observed improvement rates, in (0,1]
+         * @return this builder
+         * @see AdaptiveOperatorWeighting
+         */
+        public Builder setAdaptiveOperatorWeighting(int segmentLength, double reactionFactor) {
+            setProperty(Parameter.ADAPTIVE_WEIGHTS, String.valueOf(true));
+            setProperty(Parameter.ADAPTIVE_WEIGHTS_SEGMENT, String.valueOf(segmentLength));
+            setProperty(Parameter.ADAPTIVE_WEIGHTS_REACTION, String.valueOf(reactionFactor));
+            return this;
+        }
+
+        /**
+         * Caches insertion data per route and reuses it as long as the activity sequence of the route does not change,
+         * within an insertion and across iterations. This is only sound if insertion costs and constraints depend on
+         * nothing but the route they are evaluated on. This does not hold for {@link Parameter#FIXED_COST_PARAM} &gt; 0,
+         * since those costs depend on the number of assigned jobs. Activity costs are weighted with the share of
+         * assigned jobs as well, thus cached data is dropped whenever this share changes. Cached costs keep the insertion noise they were
+         * calculated with, thus consider turning noise off by setting {@link Parameter#INSERTION_NOISE_PROB} to 0.
+         *
+         * @param insertionCache true to cache insertion data
+         * @return this builder
+         */
+        public Builder setInsertionCache(boolean insertionCache) {
+            setProperty(Parameter.INSERTION_CACHE, String.valueOf(insertionCache));
+            return this;
+        }
+
+        /**
+         * Sets a collector that records time per search strategy, ruin and insertion operator, time spent in
+         * state updates, the number of insertion calculations and hard-constraint rejections. Without a collector
+         * (default), nothing is measured. When running more than one search chain, each chain records into its own
+         * collector (see {@link VehicleRoutingAlgorithm#getMetrics()} of the chains) that forwards to this one, thus
+         * this collector holds the totals of all chains.
+         *
+         * @param metrics the metrics collector
+         * @return this builder
+         * @see AlgorithmMetrics#snapshot()
+         * @see AlgorithmMetrics#registerMBean(String)
+         */
+        public Builder setMetrics(AlgorithmMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Starts the search from a previous solution instead of constructing one from scratch, and reuses the job
+         * neighborhoods of the previous problem if the warm start has already been used before.
+         *
+         * @param warmStart previous solution and precomputed structures
+         * @return this builder
+         * @see WarmStart
+         */
+        public Builder setWarmStart(WarmStart warmStart) {
+            this.warmStart = warmStart;
+            return this;
+        }
+
         public Builder setCustomAcceptor(SolutionAcceptor acceptor){
             this.solutionAcceptor = acceptor;
             return this;
@@ -501,6 +608,29 @@ public class Jsprit {
             return this;
         }
 
+        /**
+         * Sets a lower bound of insertion costs. Service and shipment insertion skip routes and positions
+         * whose lower bound cannot beat the best insertion found so far without evaluating constraints.
+         * <p>
+         * Example:
+         * <pre>
+         * Jsprit.Builder.newInstance(vrp)
+         *     .setCostsLowerBound(new TransportDetourLowerBound(vrp.getTransportCosts()))
+         *     .buildAlgorithm();
+         * </pre>
+         * If transport costs satisfy the triangle inequality (e.g. euclidean costs), declare it with
+         * <code>new TransportDetourLowerBound(vrp.getTransportCosts(), true)</code> to also skip shipment insertions
+         * by the bound of their pickup.
+         *
+         * @param costsLowerBound the lower bound, or null to evaluate all positions
+         * @return this builder
+         * @see TransportDetourLowerBound
+         */
+        public Builder setCostsLowerBound(InsertionCostsLowerBound costsLowerBound) {
+            this.costsLowerBound = costsLowerBound;
+            return this;
+        }
+
         /**
          * Sets the route filter for reducing route evaluations in regret insertion.
          * <p>
@@ -636,9 +766,39 @@ public class Jsprit {
                     ".addInsertionOperator(0.5, Insertion.regret())"
                 );
             }
+            int noChains = Integer.parseInt(properties.getProperty(Parameter.SEARCH_CHAINS.toString()));
+            if (noChains > 1) {
+                return buildMultiChainAlgorithm(noChains);
+            }
             return new Jsprit(this).create(vrp);
         }
 
+        private VehicleRoutingAlgorithm buildMultiChainAlgorithm(int noChains) {
+            if (stateManager != null || constraintManager != null || fleetManager != null || solutionAcceptor != null
+                || routeFilter != null || es != null || !customStrategies.isEmpty() || !strategyComponents.isEmpty()) {
+                throw new IllegalStateException(
+                    "Search chains cannot share stateful components. " +
+                    "Do not set state/constraint manager, fleet manager, acceptor, route filter, executor service or custom search strategies " +
+                    "when running more than one search chain."
+                );
+            }
+            // chains call transport costs concurrently anyway
+            JobNeighborhoods jobNeighborhoods = createJobNeighborhoods(vrp, warmStart, true);
+            List<VehicleRoutingAlgorithm> chains = new ArrayList<>(noChains);
+            for (int i = 0; i < noChains; i++) {
+                Jsprit jsprit = new Jsprit(this);
+                jsprit.random = new Random(random.nextLong());
+                jsprit.jobNeighborhoods = jobNeighborhoods;
+                jsprit.metrics = metrics == null ? null : new AlgorithmMetrics(metrics);
+                chains.add(jsprit.create(vrp));
+            }
+            int migrationInterval = Integer.parseInt(properties.getProperty(Parameter.MIGRATION_INTERVAL.toString()));
+            VehicleRoutingAlgorithm vra = new MultiChainVehicleRoutingAlgorithm(vrp, chains, migrationInterval);
+            vra.setMetrics(metrics);
+            vra.setMaxIterations(Integer.parseInt(properties.getProperty(Parameter.ITERATIONS.toString())));
+            return vra;
+        }
+
     }
 
     /**
@@ -721,10 +881,18 @@ public class Jsprit {
 
     private final InsertionPositionFilter positionFilter;
 
+    private final InsertionCostsLowerBound costsLowerBound;
+
     private final InsertionRouteFilter routeFilter;
 
+    private AlgorithmMetrics metrics;
+
     private VehicleFleetManager vehicleFleetManager;
 
+    private JobNeighborhoods jobNeighborhoods;
+
+    private final WarmStart warmStart;
+
     // Independent operator selection
     private final List<Builder.WeightedOperator<InsertionOperatorFactory>> insertionOperators;
     private final List<Builder.WeightedOperator<RuinOperatorFactory>> ruinOperators;
@@ -740,11 +908,14 @@ public class Jsprit {
         this.random = builder.random;
         this.activityInsertion = builder.activityInsertionCalculator;
         this.acceptor = builder.solutionAcceptor;
+        this.warmStart = builder.warmStart;
         this.jobFilter = builder.jobFilter;
         this.shipmentCalculatorFactory = builder.shipmentCalculatorFactory;
         this.serviceCalculatorFactory = builder.serviceCalculatorFactory;
         this.positionFilter = builder.positionFilter;
+        this.costsLowerBound = builder.costsLowerBound;
         this.routeFilter = builder.routeFilter;
+        this.metrics = builder.metrics;
         regretScorer = builder.regretScorer;
         regretScoringFunction = builder.regretScoringFunction;
         customStrategies.putAll(builder.customStrategies);
@@ -797,6 +968,7 @@ public class Jsprit {
         if (stateManager == null) {
             stateManager = new StateManager(vrp);
         }
+        if (metrics != null) stateManager.setMetrics(metrics);
         if (constraintManager == null) {
             constraintManager = new ConstraintManager(vrp, stateManager);
         }
@@ -807,7 +979,7 @@ public class Jsprit {
         if (noThreads > 1) {
             if (es == null) {
                 setupExecutorInternally = true;
-                es = Executors.newFixedThreadPool(noThreads);
+                es = Executors.newWorkStealingPool(noThreads);
             }
         }
 
@@ -822,8 +994,10 @@ public class Jsprit {
         double noiseLevel = toDouble(getProperty(Parameter.INSERTION_NOISE_LEVEL.toString()));
         double noiseProbability = toDouble(getProperty(Parameter.INSERTION_NOISE_PROB.toString()));
 
-        JobNeighborhoods jobNeighborhoods = new JobNeighborhoodsFactory().createNeighborhoods(vrp, new AvgServiceAndShipmentDistance(vrp.getTransportCosts()), (int) (vrp.getJobs().values().size() * 0.5));
-        jobNeighborhoods.initialise();
+        if (jobNeighborhoods == null) {
+            // only initialise in parallel if insertion calls transport costs concurrently anyway
+            jobNeighborhoods = createJobNeighborhoods(vrp, warmStart, noThreads > 1);
+        }
 
         final double maxCosts;
         if (properties.containsKey(Parameter.MAX_TRANSPORT_COSTS.toString())) {
@@ -941,6 +1115,9 @@ public class Jsprit {
         if (es != null) {
             if (fastRegret) {
                 RegretInsertionConcurrentFast regretInsertion = (RegretInsertionConcurrentFast) new InsertionStrategyBuilder(vrp, vehicleFleetManager, stateManager, constraintManager)
+                    .setMetrics(metrics)
+                    .setCostsLowerBound(costsLowerBound)
+                    .setInsertionCache(toBoolean(getProperty(Parameter.INSERTION_CACHE.toString())))
                     .setInsertionStrategy(InsertionStrategyBuilder.Strategy.REGRET)
                     .setConcurrentMode(es, noThreads)
                     .setFastRegret(true)
@@ -960,6 +1137,9 @@ public class Jsprit {
             }
             else {
                 RegretInsertionConcurrent regretInsertion = (RegretInsertionConcurrent) new InsertionStrategyBuilder(vrp, vehicleFleetManager, stateManager, constraintManager)
+                    .setMetrics(metrics)
+                    .setCostsLowerBound(costsLowerBound)
+                    .setInsertionCache(toBoolean(getProperty(Parameter.INSERTION_CACHE.toString())))
                     .setInsertionStrategy(InsertionStrategyBuilder.Strategy.REGRET)
                     .setConcurrentMode(es, noThreads)
                     .considerFixedCosts(toDouble(getProperty(Parameter.FIXED_COST_PARAM.toString())))
@@ -977,6 +1157,9 @@ public class Jsprit {
         } else {
             if(fastRegret) {
                 RegretInsertionFast regretInsertion = (RegretInsertionFast) new InsertionStrategyBuilder(vrp, vehicleFleetManager, stateManager, constraintManager)
+                    .setMetrics(metrics)
+                    .setCostsLowerBound(costsLowerBound)
+                    .setInsertionCache(toBoolean(getProperty(Parameter.INSERTION_CACHE.toString())))
                     .setInsertionStrategy(InsertionStrategyBuilder.Strategy.REGRET)
                     .setFastRegret(true)
                     .setAllowVehicleSwitch(toBoolean(getProperty(Parameter.VEHICLE_SWITCH.toString())))
@@ -995,6 +1178,9 @@ public class Jsprit {
             }
             else{
                 RegretInsertion regretInsertion = (RegretInsertion) new InsertionStrategyBuilder(vrp, vehicleFleetManager, stateManager, constraintManager)
+                    .setMetrics(metrics)
+                    .setCostsLowerBound(costsLowerBound)
+                    .setInsertionCache(toBoolean(getProperty(Parameter.INSERTION_CACHE.toString())))
                     .setInsertionStrategy(InsertionStrategyBuilder.Strategy.REGRET)
                     .setAllowVehicleSwitch(toBoolean(getProperty(Parameter.VEHICLE_SWITCH.toString())))
                     .considerFixedCosts(toDouble(getProperty(Parameter.FIXED_COST_PARAM.toString())))
@@ -1013,6 +1199,9 @@ public class Jsprit {
         AbstractInsertionStrategy best;
         if ((vrp.getVehicles().size() == 1 && !isInfinite) || vrp.getJobs().size() < 100 || es == null) {
             BestInsertion bestInsertion = (BestInsertion) new InsertionStrategyBuilder(vrp, vehicleFleetManager, stateManager, constraintManager)
+                .setMetrics(metrics)
+                .setCostsLowerBound(costsLowerBound)
+                .setInsertionCache(toBoolean(getProperty(Parameter.INSERTION_CACHE.toString())))
                 .setInsertionStrategy(InsertionStrategyBuilder.Strategy.BEST)
                 .considerFixedCosts(Double.valueOf(properties.getProperty(Parameter.FIXED_COST_PARAM.toString())))
                 .setAllowVehicleSwitch(toBoolean(getProperty(Parameter.VEHICLE_SWITCH.toString())))
@@ -1024,6 +1213,9 @@ public class Jsprit {
             best = bestInsertion;
         } else {
             BestInsertionConcurrent bestInsertion = (BestInsertionConcurrent) new InsertionStrategyBuilder(vrp, vehicleFleetManager, stateManager, constraintManager)
+                .setMetrics(metrics)
+                .setCostsLowerBound(costsLowerBound)
+                .setInsertionCache(toBoolean(getProperty(Parameter.INSERTION_CACHE.toString())))
                 .setInsertionStrategy(InsertionStrategyBuilder.Strategy.BEST)
                 .considerFixedCosts(Double.valueOf(properties.getProperty(Parameter.FIXED_COST_PARAM.toString())))
                 .setAllowVehicleSwitch(toBoolean(getProperty(Parameter.VEHICLE_SWITCH.toString())))
@@ -1041,6 +1233,9 @@ public class Jsprit {
         AbstractInsertionStrategy cheapest;
         if (es == null) {
             cheapest = (CheapestInsertion) new InsertionStrategyBuilder(vrp, vehicleFleetManager, stateManager, constraintManager)
+                    .setMetrics(metrics)
+                    .setCostsLowerBound(costsLowerBound)
+                    .setInsertionCache(toBoolean(getProperty(Parameter.INSERTION_CACHE.toString())))
                     .setInsertionStrategy(InsertionStrategyBuilder.Strategy.CHEAPEST)
                     .considerFixedCosts(Double.valueOf(properties.getProperty(Parameter.FIXED_COST_PARAM.toString())))
                     .setAllowVehicleSwitch(toBoolean(getProperty(Parameter.VEHICLE_SWITCH.toString())))
@@ -1051,6 +1246,9 @@ public class Jsprit {
                     .build();
         } else {
             cheapest = (CheapestInsertionConcurrent) new InsertionStrategyBuilder(vrp, vehicleFleetManager, stateManager, constraintManager)
+                    .setMetrics(metrics)
+                    .setCostsLowerBound(costsLowerBound)
+                    .setInsertionCache(toBoolean(getProperty(Parameter.INSERTION_CACHE.toString())))
                     .setInsertionStrategy(InsertionStrategyBuilder.Strategy.CHEAPEST)
                     .setConcurrentMode(es, noThreads)
                     .considerFixedCosts(Double.valueOf(properties.getProperty(Parameter.FIXED_COST_PARAM.toString())))
@@ -1239,6 +1437,7 @@ public class Jsprit {
                 "independent", insertionSelector, ruinSelector
             );
             independentModule.setRandom(random);
+            independentModule.setMetrics(metrics);
             independentModule.setMinUnassignedJobsToBeReinserted(
                 Integer.valueOf(properties.getProperty(Parameter.MIN_UNASSIGNED.toString()))
             );
@@ -1255,13 +1454,15 @@ public class Jsprit {
         }
 
         String constructionMethod = getProperty(Parameter.CONSTRUCTION.toString());
+        InsertionStrategy construction;
         if (constructionMethod.equals(Construction.BEST_INSERTION.toString())) {
-            prettyBuilder.constructInitialSolutionWith(best, objectiveFunction);
+            construction = best;
         } else if (constructionMethod.equals(Construction.CHEAPEST_INSERTION.toString())) {
-            prettyBuilder.constructInitialSolutionWith(cheapest, objectiveFunction);
+            construction = cheapest;
         } else {
-            prettyBuilder.constructInitialSolutionWith(regret, objectiveFunction);
+            construction = regret;
         }
+        prettyBuilder.constructInitialSolutionWith(construction, objectiveFunction);
         prettyBuilder.withObjectiveFunction(objectiveFunction);
 
 
@@ -1277,15 +1478,65 @@ public class Jsprit {
         if(toBoolean(getProperty(Parameter.BREAK_SCHEDULING.toString()))) {
             vra.addListener(new BreakScheduling(vrp, stateManager, constraintManager));
         }
+        if (toBoolean(getProperty(Parameter.ADAPTIVE_WEIGHTS.toString()))) {
+            vra.addListener(new AdaptiveOperatorWeighting(vra.getSearchStrategyManager(),
+                Integer.parseInt(getProperty(Parameter.ADAPTIVE_WEIGHTS_SEGMENT.toString())),
+                Double.parseDouble(getProperty(Parameter.ADAPTIVE_WEIGHTS_REACTION.toString())),
+                Double.parseDouble(getProperty(Parameter.ADAPTIVE_WEIGHTS_MIN_SHARE.toString()))));
+        }
+        if (warmStart != null) {
+            vra.addInitialSolution(warmStart.getSolution(vrp));
+            //insert jobs that are not part of the previous solution (after costs of initial solutions have been recalculated)
+            vra.addListener((AlgorithmStartsListener) (problem, algorithm, solutions) -> {
+                for (VehicleRoutingProblemSolution solution : solutions) {
+                    if (solution.getUnassignedJobs().isEmpty()) continue;
+                    Collection<Job> badJobs = construction.insertJobs(solution.getRoutes(), new ArrayList<>(solution.getUnassignedJobs()));
+                    solution.getUnassignedJobs().clear();
+                    solution.getUnassignedJobs().addAll(badJobs);
+                    solution.setCost(objectiveFunction.getCosts(solution));
+                }
+            });
+        }
         handleExecutorShutdown(vra);
+        vra.setMetrics(metrics);
         vra.setMaxIterations(Integer.parseInt(properties.getProperty(Parameter.ITERATIONS.toString())));
 
         return vra;
 
     }
 
+    private static JobNeighborhoods createJobNeighborhoods(VehicleRoutingProblem vrp, WarmStart warmStart, boolean parallel) {
+        if (warmStart == null) return createJobNeighborhoods(vrp, parallel);
+        JobNeighborhoods previous = warmStart.getJobNeighborhoods();
+        int capacity = getNeighborhoodCapacity(vrp);
+        if (previous != null) {
+            /*
+             * keep the previous capacity while the problem has changed slightly. a grown capacity would require most
+             * neighborhoods to be calculated from scratch
+             */
+            int previousCapacity = warmStart.getNeighborhoodCapacity();
+            if (Math.abs(capacity - previousCapacity) <= Math.max(1, previousCapacity / 10)) capacity = previousCapacity;
+        }
+        JobNeighborhoods jobNeighborhoods = new JobNeighborhoodsFactory().setParallel(parallel)
+            .createNeighborhoods(vrp, new AvgServiceAndShipmentDistance(vrp.getTransportCosts()), capacity, previous);
+        jobNeighborhoods.initialise();
+        warmStart.setJobNeighborhoods(jobNeighborhoods, capacity);
+        return jobNeighborhoods;
+    }
+
+    private static int getNeighborhoodCapacity(VehicleRoutingProblem vrp) {
+        return (int) (vrp.getJobs().values().size() * 0.5);
+    }
+
+    private static JobNeighborhoods createJobNeighborhoods(VehicleRoutingProblem vrp, boolean parallel) {
+        JobNeighborhoods jobNeighborhoods = new JobNeighborhoodsFactory().setParallel(parallel).createNeighborhoods(vrp, new AvgServiceAndShipmentDistance(vrp.getTransportCosts()), getNeighborhoodCapacity(vrp));
+        jobNeighborhoods.initialise();
+        return jobNeighborhoods;
+    }
+
     private SearchStrategyModule configureModule(RuinAndRecreateModule ruinAndRecreateModule) {
         ruinAndRecreateModule.setRandom(random);
+        ruinAndRecreateModule.setMetrics(metrics);
         ruinAndRecreateModule.setMinUnassignedJobsToBeReinserted(Integer.valueOf(properties.getProperty(Parameter.MIN_UNASSIGNED.toString())));
         ruinAndRecreateModule.setProportionOfUnassignedJobsToBeReinserted(Double.valueOf(properties.getProperty(Parameter.PROPORTION_UNASSIGNED.toString())));
         return ruinAndRecreateModule;
@@ -0,0 +1,153 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.box;
+
+import com.graphhopper.jsprit.core.algorithm.ruin.JobNeighborhoods;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.solution.spec.ActivitySpec;
+import com.graphhopper.jsprit.core.problem.solution.spec.RouteSpec;
+import com.graphhopper.jsprit.core.problem.solution.spec.SolutionSpec;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Starting point to re-optimise a problem after small changes, e.g. when a few jobs have been added or cancelled.
+ * <p>
+ * <p>It carries the previous solution and, once used by {@link Jsprit.Builder#setWarmStart(WarmStart)}, the job
+ * neighborhoods of the previous problem. The algorithm then starts from the previous solution instead of constructing
+ * one from scratch: activities of jobs and routes of vehicles that are no longer part of the problem are dropped, and
+ * jobs not in the previous solution (e.g. added jobs) are inserted with the construction heuristic. Neighborhoods of
+ * jobs that are part of both problems are derived from the previous ones instead of being recalculated.
+ * <p>
+ * <p>Jobs are recognized by identity or, if the new problem has been built from new job objects, by id, type and
+ * activity locations. A job whose location has changed is treated like a removed and an added job.
+ * <pre>
+ * WarmStart warmStart = WarmStart.of(SolutionSpec.from(previousSolution));
+ * VehicleRoutingAlgorithm vra = Jsprit.Builder.newInstance(changedProblem).setWarmStart(warmStart).buildAlgorithm();
+ * VehicleRoutingProblemSolution solution = Solutions.bestOf(vra.searchSolutions());
+ * warmStart = warmStart.next(solution); // for the next re-plan
+ * </pre>
+ */
+public final class WarmStart {
+
+    /**
+     * Creates a warm start from a previous solution.
+     *
+     * @param previousSolution the previous solution
+     * @return warm start
+     */
+    public static WarmStart of(SolutionSpec previousSolution) {
+        return new WarmStart(previousSolution, null);
+    }
+
+    private record Neighborhoods(JobNeighborhoods jobNeighborhoods, int capacity) {
+    }
+
+    private final SolutionSpec solution;
+
+    private volatile Neighborhoods neighborhoods;
+
+    private WarmStart(SolutionSpec solution, Neighborhoods neighborhoods) {
+        this.solution = solution;
+        this.neighborhoods = neighborhoods;
+    }
+
+    /**
+     * Returns the previous solution.
+     *
+     * @return spec of previous solution
+     */
+    public SolutionSpec getSolution() {
+        return solution;
+    }
+
+    /**
+     * Removes jobs from the previous solution such that they are re-inserted, e.g. jobs whose time windows have changed.
+     * Jobs that are not part of the new problem at all are removed automatically.
+     *
+     * @param jobIds ids of jobs to be removed
+     * @return warm start without these jobs
+     */
+    public WarmStart withoutJobs(Collection<String> jobIds) {
+        return new WarmStart(solution.withoutJobs(jobIds), neighborhoods);
+    }
+
+    /**
+     * Removes routes from the previous solution such that their jobs are re-inserted. Routes of vehicles that are not
+     * part of the new problem at all are removed automatically.
+     *
+     * @param vehicleIds ids of vehicles whose routes are to be removed
+     * @return warm start without routes of these vehicles
+     */
+    public WarmStart withoutVehicles(Collection<String> vehicleIds) {
+        return new WarmStart(solution.withoutVehicles(vehicleIds), neighborhoods);
+    }
+
+    /**
+     * Returns the warm start for the next re-plan, i.e. with the specified solution as previous solution and the
+     * neighborhoods of the problem this warm start has last been used for.
+     *
+     * @param newSolution the solution of the last re-plan
+     * @return warm start for the next re-plan
+     */
+    public WarmStart next(VehicleRoutingProblemSolution newSolution) {
+        return new WarmStart(SolutionSpec.from(newSolution), neighborhoods);
+    }
+
+    JobNeighborhoods getJobNeighborhoods() {
+        Neighborhoods neighborhoods = this.neighborhoods;
+        return neighborhoods == null ? null : neighborhoods.jobNeighborhoods();
+    }
+
+    /*
+     * number of neighbors memorized per job by the previous neighborhoods, or -1 if there are none
+     */
+    int getNeighborhoodCapacity() {
+        Neighborhoods neighborhoods = this.neighborhoods;
+        return neighborhoods == null ? -1 : neighborhoods.capacity();
+    }
+
+    void setJobNeighborhoods(JobNeighborhoods jobNeighborhoods, int capacity) {
+        this.neighborhoods = new Neighborhoods(jobNeighborhoods, capacity);
+    }
+
+    /*
+     * previous solution without jobs and vehicles that are unknown to vrp. Vehicles of initial routes are removed as
+     * well since their routes are given by vrp.
+     */
+    SolutionSpec getSolution(VehicleRoutingProblem vrp) {
+        Set<String> vehicleIds = new HashSet<>();
+        for (Vehicle vehicle : vrp.getVehicles()) vehicleIds.add(vehicle.getId());
+        for (VehicleRoute route : vrp.getInitialVehicleRoutes()) vehicleIds.remove(route.getVehicle().getId());
+        Set<String> unknownVehicleIds = new HashSet<>();
+        Set<String> unknownJobIds = new HashSet<>();
+        for (RouteSpec route : solution.routes()) {
+            if (!vehicleIds.contains(route.vehicleId())) unknownVehicleIds.add(route.vehicleId());
+            for (ActivitySpec activity : route.activities()) {
+                if (!vrp.getJobs().containsKey(activity.jobId())) unknownJobIds.add(activity.jobId());
+            }
+        }
+        return solution.withoutVehicles(unknownVehicleIds).withoutJobs(unknownJobIds);
+    }
+
+}
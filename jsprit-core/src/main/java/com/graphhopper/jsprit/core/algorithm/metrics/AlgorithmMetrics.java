@@ -0,0 +1,241 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Collects hot-path metrics of a running algorithm, i.e. time spent per search strategy, ruin and insertion
+ * operator, time spent in state updates, number of insertion calculations and insertion cache hits, and number of
+ * hard-constraint rejections.
+ * <p>Recording is lock-free, i.e. one collector can be shared by concurrently running algorithms or threads.
+ * A collector can also be created with a parent, e.g. one per search chain, to keep the metrics of each algorithm
+ * apart while the parent still records the totals.
+ * The collector is attached via {@link com.graphhopper.jsprit.core.algorithm.box.Jsprit.Builder#setMetrics(AlgorithmMetrics)};
+ * if no collector is attached, nothing is measured at all.
+ * <p>Metrics can be read with {@link #snapshot()} or exported via JMX with {@link #registerMBean(String)}.
+ */
+public class AlgorithmMetrics implements AlgorithmMetricsMXBean {
+
+    private static final String DOMAIN = "com.graphhopper.jsprit";
+
+    private final ConcurrentMap<String, LatencyHistogram> strategies = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, LatencyHistogram> ruins = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, LatencyHistogram> recreates = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram stateUpdates = new LatencyHistogram();
+
+    private final LongAdder insertionCalculations = new LongAdder();
+
+    private final LongAdder insertionCacheHits = new LongAdder();
+
+    private final ConcurrentMap<String, LongAdder> constraintRejections = new ConcurrentHashMap<>();
+
+    private final AlgorithmMetrics parent;
+
+    private ObjectName objectName;
+
+    public AlgorithmMetrics() {
+        this(null);
+    }
+
+    /**
+     * Constructs a collector that forwards everything it records to parent as well.
+     *
+     * @param parent collector that records the totals, or null
+     */
+    public AlgorithmMetrics(AlgorithmMetrics parent) {
+        this.parent = parent;
+    }
+
+    public void recordStrategy(String strategyId, long nanos) {
+        histogram(strategies, strategyId).record(nanos);
+        if (parent != null) parent.recordStrategy(strategyId, nanos);
+    }
+
+    public void recordRuin(String ruinName, long nanos) {
+        histogram(ruins, ruinName).record(nanos);
+        if (parent != null) parent.recordRuin(ruinName, nanos);
+    }
+
+    public void recordRecreate(String insertionName, long nanos) {
+        histogram(recreates, insertionName).record(nanos);
+        if (parent != null) parent.recordRecreate(insertionName, nanos);
+    }
+
+    public void recordStateUpdate(long nanos) {
+        stateUpdates.record(nanos);
+        if (parent != null) parent.recordStateUpdate(nanos);
+    }
+
+    public void countInsertionCalculation() {
+        insertionCalculations.increment();
+        if (parent != null) parent.countInsertionCalculation();
+    }
+
+    public void countInsertionCacheHit() {
+        insertionCacheHits.increment();
+        if (parent != null) parent.countInsertionCacheHit();
+    }
+
+    public void countConstraintRejection(String constraintName) {
+        constraintRejections.computeIfAbsent(String.valueOf(constraintName), k -> new LongAdder()).increment();
+        if (parent != null) parent.countConstraintRejection(constraintName);
+    }
+
+    private static LatencyHistogram histogram(ConcurrentMap<String, LatencyHistogram> histograms, String name) {
+        String key = String.valueOf(name);
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns a snapshot of all metrics recorded so far.
+     *
+     * @return the snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> rejections = new TreeMap<>();
+        constraintRejections.forEach((name, adder) -> rejections.put(name, adder.sum()));
+        return new MetricsSnapshot(snapshot(strategies), snapshot(ruins), snapshot(recreates), stateUpdates.snapshot(),
+            insertionCalculations.sum(), insertionCacheHits.sum(), Collections.unmodifiableMap(rejections));
+    }
+
+    private static Map<String, LatencyHistogram.Snapshot> snapshot(Map<String, LatencyHistogram> histograms) {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    @Override
+    public void reset() {
+        strategies.values().forEach(LatencyHistogram::reset);
+        ruins.values().forEach(LatencyHistogram::reset);
+        recreates.values().forEach(LatencyHistogram::reset);
+        stateUpdates.reset();
+        insertionCalculations.reset();
+        insertionCacheHits.reset();
+        constraintRejections.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Registers this collector at the platform MBeanServer as <code>com.graphhopper.jsprit:type=AlgorithmMetrics,name=&lt;name&gt;</code>.
+     *
+     * @param name name that distinguishes this collector from others
+     * @return the object name this collector is registered with
+     * @throws IllegalStateException if name is invalid or already taken
+     */
+    public synchronized ObjectName registerMBean(String name) {
+        if (objectName != null) throw new IllegalStateException("metrics are already registered as " + objectName);
+        try {
+            ObjectName on = new ObjectName(DOMAIN + ":type=AlgorithmMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+            objectName = on;
+            return on;
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("cannot register metrics as " + name, e);
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Unregisters this collector from the platform MBeanServer. Does nothing if it has not been registered.
+     */
+    public synchronized void unregisterMBean() {
+        if (objectName == null) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            // already gone
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public Map<String, Double> getStrategyTimeMillis() {
+        return totalMillis(strategies);
+    }
+
+    @Override
+    public Map<String, Long> getStrategyExecutions() {
+        return collect(strategies, h -> h.snapshot().count());
+    }
+
+    @Override
+    public Map<String, Double> getRuinTimeMillis() {
+        return totalMillis(ruins);
+    }
+
+    @Override
+    public Map<String, Double> getRecreateTimeMillis() {
+        return totalMillis(recreates);
+    }
+
+    @Override
+    public double getStateUpdateTimeMillis() {
+        return stateUpdates.snapshot().total() / 1e6;
+    }
+
+    @Override
+    public long getInsertionCalculations() {
+        return insertionCalculations.sum();
+    }
+
+    @Override
+    public long getInsertionCacheHits() {
+        return insertionCacheHits.sum();
+    }
+
+    @Override
+    public Map<String, Long> getConstraintRejections() {
+        return collect(constraintRejections, LongAdder::sum);
+    }
+
+    private static Map<String, Double> totalMillis(Map<String, LatencyHistogram> histograms) {
+        return collect(histograms, h -> h.snapshot().total() / 1e6);
+    }
+
+    private static <T, R> Map<String, R> collect(Map<String, T> source, Function<T, R> mapper) {
+        Map<String, R> result = new TreeMap<>();
+        source.forEach((name, value) -> result.put(name, mapper.apply(value)));
+        return result;
+    }
+
+}
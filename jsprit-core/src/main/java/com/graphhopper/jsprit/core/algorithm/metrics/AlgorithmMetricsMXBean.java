@@ -0,0 +1,45 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view on {@link AlgorithmMetrics}. Times are totals in milliseconds.
+ */
+public interface AlgorithmMetricsMXBean {
+
+    Map<String, Double> getStrategyTimeMillis();
+
+    Map<String, Long> getStrategyExecutions();
+
+    Map<String, Double> getRuinTimeMillis();
+
+    Map<String, Double> getRecreateTimeMillis();
+
+    double getStateUpdateTimeMillis();
+
+    long getInsertionCalculations();
+
+    long getInsertionCacheHits();
+
+    Map<String, Long> getConstraintRejections();
+
+    void reset();
+
+}
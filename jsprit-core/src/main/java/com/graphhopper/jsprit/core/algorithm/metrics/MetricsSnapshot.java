@@ -0,0 +1,42 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.metrics;
+
+import java.util.Map;
+
+/**
+ * Immutable view on {@link AlgorithmMetrics}. All durations are in nanoseconds.
+ *
+ * @param strategies            wall time per search strategy (one value per iteration)
+ * @param ruins                 time per ruin operator, keyed by the configured module or operator name
+ * @param recreates             time per insertion operator, keyed by the configured module or operator name
+ * @param stateUpdates          time of StateManager's route updates
+ * @param insertionCalculations number of insertion calculations, i.e. calls of the job-type specific calculators
+ * @param insertionCacheHits    number of insertion calculations answered by the insertion cache instead
+ * @param constraintRejections  number of rejected insertion contexts and positions, per hard constraint
+ */
+public record MetricsSnapshot(
+    Map<String, LatencyHistogram.Snapshot> strategies,
+    Map<String, LatencyHistogram.Snapshot> ruins,
+    Map<String, LatencyHistogram.Snapshot> recreates,
+    LatencyHistogram.Snapshot stateUpdates,
+    long insertionCalculations,
+    long insertionCacheHits,
+    Map<String, Long> constraintRejections
+) {
+}
@@ -20,6 +20,7 @@ package com.graphhopper.jsprit.core.algorithm.module;
 import com.graphhopper.jsprit.core.algorithm.DynamicStrategyIdProvider;
 import com.graphhopper.jsprit.core.algorithm.SearchStrategyModule;
 import com.graphhopper.jsprit.core.algorithm.listener.SearchStrategyModuleListener;
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
 import com.graphhopper.jsprit.core.algorithm.recreate.InsertionStrategy;
 import com.graphhopper.jsprit.core.algorithm.recreate.listener.InsertionListener;
 import com.graphhopper.jsprit.core.algorithm.ruin.RuinStrategy;
@@ -52,6 +53,9 @@ public class IndependentRuinAndRecreateModule implements SearchStrategyModule, D
     private Random random = RandomNumberGeneration.newInstance();
     private int minUnassignedJobsToBeReinserted = Integer.MAX_VALUE;
     private double proportionOfUnassignedJobsToBeReinserted = 1d;
+    private AlgorithmMetrics metrics;
+    private long lastRuinNanos;
+    private long lastInsertionNanos;
 
     /**
      * Creates a new independent ruin-and-recreate module.
@@ -99,6 +103,15 @@ public class IndependentRuinAndRecreateModule implements SearchStrategyModule, D
         this.proportionOfUnassignedJobsToBeReinserted = proportionOfUnassignedJobsToBeReinserted;
     }
 
+    /**
+     * Sets the collector that records the time spent in ruin and insertion, keyed by the selected operator names.
+     *
+     * @param metrics the metrics collector, or null to record nothing
+     */
+    public void setMetrics(AlgorithmMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public VehicleRoutingProblemSolution runAndGetSolution(VehicleRoutingProblemSolution previousVrpSolution) {
         // Select operators independently
@@ -106,7 +119,10 @@ public class IndependentRuinAndRecreateModule implements SearchStrategyModule, D
         InsertionStrategy insertion = insertionSelector.select();
 
         // Perform ruin
+        long ruinStart = System.nanoTime();
         Collection<Job> ruinedJobs = ruin.ruin(previousVrpSolution.getRoutes());
+        lastRuinNanos = System.nanoTime() - ruinStart;
+        if (metrics != null) metrics.recordRuin(ruinSelector.getLastSelectedName(), lastRuinNanos);
         Set<Job> ruinedJobSet = new HashSet<>(ruinedJobs);
 
         // Handle previously unassigned jobs
@@ -133,7 +149,10 @@ public class IndependentRuinAndRecreateModule implements SearchStrategyModule, D
         orderedRuinedJobs.sort(Comparator.comparing(Job::getId));
 
         // Perform insertion
+        long recreateStart = System.nanoTime();
         Collection<Job> unassignedJobs = insertion.insertJobs(previousVrpSolution.getRoutes(), orderedRuinedJobs);
+        lastInsertionNanos = System.nanoTime() - recreateStart;
+        if (metrics != null) metrics.recordRecreate(insertionSelector.getLastSelectedName(), lastInsertionNanos);
 
         // Update solution
         previousVrpSolution.getUnassignedJobs().clear();
@@ -167,6 +186,27 @@ public class IndependentRuinAndRecreateModule implements SearchStrategyModule, D
         }
     }
 
+    /**
+     * Reports the reward of the last execution to both selectors, each with the runtime of its own operator.
+     *
+     * @param reward reward earned by the last execution
+     * @see WeightedOperatorSelector#reward(double, long)
+     */
+    public void reward(double reward) {
+        ruinSelector.reward(reward, lastRuinNanos);
+        insertionSelector.reward(reward, lastInsertionNanos);
+    }
+
+    /**
+     * Adapts the weights of both selectors.
+     *
+     * @see WeightedOperatorSelector#adaptWeights()
+     */
+    public void adaptWeights() {
+        ruinSelector.adaptWeights();
+        insertionSelector.adaptWeights();
+    }
+
     /**
      * Returns the insertion selector.
      */
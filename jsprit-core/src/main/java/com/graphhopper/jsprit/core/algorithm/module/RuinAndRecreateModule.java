@@ -19,6 +19,7 @@ package com.graphhopper.jsprit.core.algorithm.module;
 
 import com.graphhopper.jsprit.core.algorithm.SearchStrategyModule;
 import com.graphhopper.jsprit.core.algorithm.listener.SearchStrategyModuleListener;
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
 import com.graphhopper.jsprit.core.algorithm.recreate.InsertionStrategy;
 import com.graphhopper.jsprit.core.algorithm.recreate.listener.InsertionListener;
 import com.graphhopper.jsprit.core.algorithm.ruin.RuinStrategy;
@@ -44,6 +45,8 @@ public class RuinAndRecreateModule implements SearchStrategyModule {
 
     private double proportionOfUnassignedJobsToBeReinserted = 1d;
 
+    private AlgorithmMetrics metrics;
+
     public RuinAndRecreateModule(String moduleName, InsertionStrategy insertion, RuinStrategy ruin) {
         super();
         this.insertion = insertion;
@@ -78,9 +81,21 @@ public class RuinAndRecreateModule implements SearchStrategyModule {
         this.proportionOfUnassignedJobsToBeReinserted = proportionOfUnassignedJobsToBeReinserted;
     }
 
+    /**
+     * Sets the collector that records the time spent in ruin and insertion, keyed by the name of this module. If null
+     * (default), nothing is recorded.
+     *
+     * @param metrics the metrics collector
+     */
+    public void setMetrics(AlgorithmMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public VehicleRoutingProblemSolution runAndGetSolution(VehicleRoutingProblemSolution previousVrpSolution) {
+        long ruinStart = metrics != null ? System.nanoTime() : 0;
         Collection<Job> ruinedJobs = ruin.ruin(previousVrpSolution.getRoutes());
+        if (metrics != null) metrics.recordRuin(moduleName, System.nanoTime() - ruinStart);
         Set<Job> ruinedJobSet = new HashSet<>(ruinedJobs);
         List<Job> stillUnassignedInThisIteration = new ArrayList<>();
         if (previousVrpSolution.getUnassignedJobs().size() < minUnassignedJobsToBeReinserted) {
@@ -102,7 +117,9 @@ public class RuinAndRecreateModule implements SearchStrategyModule {
         // Additionally, ArrayList is faster for iteration than iterating over a HashSet
         List<Job> orderedRuinedJobs = new ArrayList<>(ruinedJobSet);
         orderedRuinedJobs.sort(Comparator.comparing(Job::getId));
+        long recreateStart = metrics != null ? System.nanoTime() : 0;
         Collection<Job> unassignedJobs = insertion.insertJobs(previousVrpSolution.getRoutes(), orderedRuinedJobs);
+        if (metrics != null) metrics.recordRecreate(moduleName, System.nanoTime() - recreateStart);
         previousVrpSolution.getUnassignedJobs().clear();
         previousVrpSolution.getUnassignedJobs().addAll(unassignedJobs);
         previousVrpSolution.getUnassignedJobs().addAll(stillUnassignedInThisIteration);
@@ -1,5 +1,6 @@
 package com.graphhopper.jsprit.core.algorithm.recreate;
 
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
 import com.graphhopper.jsprit.core.problem.constraint.ConstraintManager;
 import com.graphhopper.jsprit.core.problem.constraint.HardActivityConstraint;
 import com.graphhopper.jsprit.core.problem.constraint.HardActivityConstraint.ConstraintsStatus;
@@ -22,12 +23,29 @@ import java.util.List;
  */
 public abstract class AbstractInsertionCalculator implements JobInsertionCostsCalculator {
 
+    private AlgorithmMetrics metrics;
+
+    /**
+     * Sets the collector that counts constraint rejections. A hard route constraint is counted once per rejected
+     * insertion context, a hard activity constraint once per rejected insertion position.
+     *
+     * @param metrics the metrics collector, or null to count nothing
+     */
+    void setMetrics(AlgorithmMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private void countRejection(HardConstraint constraint) {
+        if (metrics != null) metrics.countConstraintRejection(constraint.getClass().getSimpleName());
+    }
+
     /**
      * Check if route constraints are fulfilled
      */
     protected InsertionData checkRouteConstraints(JobInsertionContext insertionContext, ConstraintManager constraintManager) {
         for (HardRouteConstraint hardRouteConstraint : constraintManager.getHardRouteConstraints()) {
             if (!hardRouteConstraint.fulfilled(insertionContext)) {
+                countRejection(hardRouteConstraint);
                 InsertionData emptyInsertionData = new InsertionData.NoInsertionFound();
                 emptyInsertionData.addFailedConstrainName(hardRouteConstraint.getClass().getSimpleName());
                 return emptyInsertionData;
@@ -46,10 +64,12 @@ public abstract class AbstractInsertionCalculator implements JobInsertionCostsCa
         for (HardActivityConstraint c : constraintManager.getCriticalHardActivityConstraints()) {
             ConstraintsStatus status = c.fulfilled(iFacts, prevAct, newAct, nextAct, prevActDepTime);
             if (status.equals(ConstraintsStatus.NOT_FULFILLED_BREAK)) {
+                countRejection(c);
                 failedActivityConstraints.add(c);
                 return status;
             } else {
                 if (status.equals(ConstraintsStatus.NOT_FULFILLED)) {
+                    countRejection(c);
                     failed.add(c);
                     notFulfilled = status;
                 }
@@ -63,10 +83,12 @@ public abstract class AbstractInsertionCalculator implements JobInsertionCostsCa
         for (HardActivityConstraint c : constraintManager.getHighPrioHardActivityConstraints()) {
             ConstraintsStatus status = c.fulfilled(iFacts, prevAct, newAct, nextAct, prevActDepTime);
             if (status.equals(ConstraintsStatus.NOT_FULFILLED_BREAK)) {
+                countRejection(c);
                 failedActivityConstraints.add(c);
                 return status;
             } else {
                 if (status.equals(ConstraintsStatus.NOT_FULFILLED)) {
+                    countRejection(c);
                     failed.add(c);
                     notFulfilled = status;
                 }
@@ -80,6 +102,7 @@ public abstract class AbstractInsertionCalculator implements JobInsertionCostsCa
         for (HardActivityConstraint constraint : constraintManager.getLowPrioHardActivityConstraints()) {
             ConstraintsStatus status = constraint.fulfilled(iFacts, prevAct, newAct, nextAct, prevActDepTime);
             if (status.equals(ConstraintsStatus.NOT_FULFILLED_BREAK) || status.equals(ConstraintsStatus.NOT_FULFILLED)) {
+                countRejection(constraint);
                 failedActivityConstraints.add(constraint);
                 return status;
             }
@@ -42,24 +42,53 @@ import java.util.concurrent.Future;
 
 public final class BestInsertionConcurrent extends AbstractInsertionStrategy {
 
-    static class Insertion {
+    /*
+     * Evaluates a contiguous slice of routes for one job. Batches are created once and reused for every job, i.e. they
+     * also serve as per-thread scratch space.
+     */
+    private final class Batch implements Callable<Batch> {
 
-        private final VehicleRoute route;
+        private final List<String> failedConstraintNames = new ArrayList<>();
 
-        private final InsertionData insertionData;
+        private List<VehicleRoute> routes;
 
-        public Insertion(VehicleRoute vehicleRoute, InsertionData insertionData) {
-            super();
-            this.route = vehicleRoute;
-            this.insertionData = insertionData;
-        }
+        private int fromIndex;
+
+        private int toIndex;
+
+        private Job job;
+
+        private VehicleRoute bestRoute;
+
+        private InsertionData bestInsertionData;
+
+        private double bestInsertionCost;
 
-        public VehicleRoute getRoute() {
-            return route;
+        private void reset(List<VehicleRoute> routes, int fromIndex, int toIndex, Job job) {
+            this.routes = routes;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.job = job;
         }
 
-        public InsertionData getInsertionData() {
-            return insertionData;
+        @Override
+        public Batch call() {
+            failedConstraintNames.clear();
+            bestRoute = null;
+            bestInsertionData = null;
+            bestInsertionCost = Double.MAX_VALUE;
+            for (int i = fromIndex; i < toIndex; i++) {
+                VehicleRoute route = routes.get(i);
+                InsertionData iData = bestInsertionCostCalculator.getInsertionData(route, job, NO_NEW_VEHICLE_YET, NO_NEW_DEPARTURE_TIME_YET, NO_NEW_DRIVER_YET, bestInsertionCost);
+                if (iData instanceof NoInsertionFound) {
+                    failedConstraintNames.addAll(iData.getFailedConstraintNames());
+                } else if (iData.getInsertionCost() < bestInsertionCost) {
+                    bestRoute = route;
+                    bestInsertionData = iData;
+                    bestInsertionCost = iData.getInsertionCost();
+                }
+            }
+            return this;
         }
 
     }
@@ -76,22 +105,35 @@ public final class BestInsertionConcurrent extends AbstractInsertionStrategy {
 
     private final ExecutorService executorService;
 
+    private final List<Batch> batches;
+
     /**
-     * @deprecated use {@link #BestInsertionConcurrent(JobInsertionCostsCalculator, ExecutorService, VehicleRoutingProblem)} instead.
-     * The nuOfBatches parameter is unused.
+     * Routes are partitioned into <code>nuOfBatches</code> contiguous batches per job, each evaluated by one task.
+     * Usually, this is the number of threads of the executor service.
+     *
+     * @param jobInsertionCalculator calculator of insertion costs
+     * @param executorService        executor evaluating the batches
+     * @param nuOfBatches            max. number of batches routes are partitioned into
+     * @param vehicleRoutingProblem  the problem
      */
-    @Deprecated
     public BestInsertionConcurrent(JobInsertionCostsCalculator jobInsertionCalculator, ExecutorService executorService, int nuOfBatches, VehicleRoutingProblem vehicleRoutingProblem) {
-        this(jobInsertionCalculator, executorService, vehicleRoutingProblem);
-    }
-
-    public BestInsertionConcurrent(JobInsertionCostsCalculator jobInsertionCalculator, ExecutorService executorService, VehicleRoutingProblem vehicleRoutingProblem) {
         super(vehicleRoutingProblem);
         bestInsertionCostCalculator = jobInsertionCalculator;
         this.executorService = executorService;
+        this.batches = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, nuOfBatches); i++) {
+            batches.add(new Batch());
+        }
         logger.debug("initialise {}", this);
     }
 
+    /**
+     * Partitions routes into as many batches as there are available processors.
+     */
+    public BestInsertionConcurrent(JobInsertionCostsCalculator jobInsertionCalculator, ExecutorService executorService, VehicleRoutingProblem vehicleRoutingProblem) {
+        this(jobInsertionCalculator, executorService, Runtime.getRuntime().availableProcessors(), vehicleRoutingProblem);
+    }
+
     @Override
     public String toString() {
         return "[name=bestInsertion]";
@@ -103,26 +145,19 @@ public final class BestInsertionConcurrent extends AbstractInsertionStrategy {
         List<Job> unassignedJobList = new ArrayList<>(unassignedJobs);
         Collections.shuffle(unassignedJobList, random);
         unassignedJobList.sort(new AccordingToPriorities());
-        List<Callable<Insertion>> tasks = new ArrayList<>();
+        List<VehicleRoute> routes = new ArrayList<>(vehicleRoutes);
         for (final Job unassignedJob : unassignedJobList) {
             List<String> failedConstraintNames = new ArrayList<>();
-            Insertion bestInsertion = null;
+            VehicleRoute bestRoute = null;
+            InsertionData bestInsertionData = null;
             double bestInsertionCost = Double.MAX_VALUE;
-            tasks.clear();
-            for (VehicleRoute route : vehicleRoutes) {
-                tasks.add(() -> getBestInsertion(route, unassignedJob));
-            }
+            List<Batch> activeBatches = partition(routes, unassignedJob);
             try {
-                List<Future<Insertion>> futureResponses = executorService.invokeAll(tasks);
-                for (Future<Insertion> futureResponse : futureResponses) {
-                    Insertion insertion = futureResponse.get();
-                    if (insertion.insertionData instanceof NoInsertionFound) {
-                        failedConstraintNames.addAll(insertion.getInsertionData().getFailedConstraintNames());
-                        continue;
-                    }
-                    if (insertion.getInsertionData().getInsertionCost() < bestInsertionCost) {
-                        bestInsertion = insertion;
-                        bestInsertionCost = insertion.getInsertionData().getInsertionCost();
+                if (activeBatches.size() == 1) {
+                    activeBatches.get(0).call();
+                } else {
+                    for (Future<Batch> futureResponse : executorService.invokeAll(activeBatches)) {
+                        futureResponse.get();
                     }
                 }
             } catch (InterruptedException e) {
@@ -130,36 +165,43 @@ public final class BestInsertionConcurrent extends AbstractInsertionStrategy {
             } catch (ExecutionException e) {
                 throw new RuntimeException(e);
             }
+            //batches are visited in route order, thus ties are resolved as in sequential best insertion
+            for (Batch batch : activeBatches) {
+                failedConstraintNames.addAll(batch.failedConstraintNames);
+                if (batch.bestInsertionData != null && batch.bestInsertionCost < bestInsertionCost) {
+                    bestRoute = batch.bestRoute;
+                    bestInsertionData = batch.bestInsertionData;
+                    bestInsertionCost = batch.bestInsertionCost;
+                }
+            }
 
             VehicleRoute newRoute = VehicleRoute.emptyRoute();
             InsertionData newIData = bestInsertionCostCalculator.getInsertionData(newRoute, unassignedJob, NO_NEW_VEHICLE_YET, NO_NEW_DEPARTURE_TIME_YET, NO_NEW_DRIVER_YET, bestInsertionCost);
             if (newIData.getInsertionCost() < bestInsertionCost) {
-                bestInsertion = new Insertion(newRoute, newIData);
+                bestRoute = newRoute;
+                bestInsertionData = newIData;
                 vehicleRoutes.add(newRoute);
+                routes.add(newRoute);
             } else if (newIData instanceof NoInsertionFound) {
                 failedConstraintNames.addAll(newIData.getFailedConstraintNames());
             }
-            if (bestInsertion == null) {
+            if (bestInsertionData == null) {
                 badJobs.add(unassignedJob);
                 markUnassigned(unassignedJob, failedConstraintNames);
             } else {
-                insertJob(unassignedJob, bestInsertion.getInsertionData(), bestInsertion.getRoute());
+                insertJob(unassignedJob, bestInsertionData, bestRoute);
             }
         }
         return badJobs;
     }
 
-
-    private Insertion getBestInsertion(VehicleRoute vehicleRoute, Job unassignedJob) {
-        InsertionData empty = new InsertionData.NoInsertionFound();
-        InsertionData iData = bestInsertionCostCalculator.getInsertionData(vehicleRoute, unassignedJob, NO_NEW_VEHICLE_YET, NO_NEW_DEPARTURE_TIME_YET, NO_NEW_DRIVER_YET, Double.MAX_VALUE);
-        if (iData instanceof NoInsertionFound) {
-            empty.getFailedConstraintNames().addAll(iData.getFailedConstraintNames());
-            return new Insertion(null, empty);
-        } else {
-            return new Insertion(vehicleRoute, iData);
+    private List<Batch> partition(List<VehicleRoute> routes, Job job) {
+        int nuOfRoutes = routes.size();
+        int nuOfBatches = Math.max(1, Math.min(batches.size(), nuOfRoutes));
+        for (int i = 0; i < nuOfBatches; i++) {
+            batches.get(i).reset(routes, i * nuOfRoutes / nuOfBatches, (i + 1) * nuOfRoutes / nuOfBatches, job);
         }
+        return batches.subList(0, nuOfBatches);
     }
 
-
 }
@@ -0,0 +1,71 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.recreate;
+
+import com.graphhopper.jsprit.core.problem.misc.JobInsertionContext;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
+
+/**
+ * Cheap lower bound of the activity level insertion costs, i.e. of the costs calculated by the
+ * {@link ActivityInsertionCostsCalculator} plus the costs of soft activity constraints.
+ * <p>
+ * Insertion calculators use the bound to skip routes and positions that cannot beat the best known
+ * insertion costs without evaluating hard constraints and exact costs. Combined with an
+ * {@link InsertionPositionFilter} this reduces the number of constraint evaluations on long routes.
+ * <p>
+ * Implementations must never overestimate costs. Otherwise, cheaper insertions are missed. If no
+ * bound can be given, return <code>Double.NEGATIVE_INFINITY</code>.
+ *
+ * @see TransportDetourLowerBound
+ */
+public interface InsertionCostsLowerBound {
+
+    /**
+     * Returns a lower bound of the activity level costs of inserting newAct at any position of the
+     * route in the insertion context.
+     *
+     * @param iContext insertion context
+     * @param newAct   the activity to insert
+     * @return lower bound of costs over all positions
+     */
+    double getRouteLowerBound(JobInsertionContext iContext, TourActivity newAct);
+
+    /**
+     * Returns a lower bound of the activity level costs of inserting newAct between prevAct and nextAct.
+     *
+     * @param iContext       insertion context
+     * @param prevAct        activity before the insertion position
+     * @param newAct         the activity to insert
+     * @param nextAct        activity after the insertion position
+     * @param prevActDepTime departure time at prevAct
+     * @return lower bound of costs at this position
+     */
+    double getActivityLowerBound(JobInsertionContext iContext, TourActivity prevAct, TourActivity newAct, TourActivity nextAct, double prevActDepTime);
+
+    /**
+     * Returns true if inserting an activity never reduces activity level costs, e.g. because transport costs satisfy
+     * the triangle inequality. Only then the bound of the pickup of a shipment also bounds the costs of inserting pickup
+     * and delivery, i.e. routes and pickup positions may be skipped by the pickup bound alone.
+     *
+     * @return true if activity insertion costs are never negative, false otherwise
+     */
+    default boolean isDetourNonNegative() {
+        return false;
+    }
+
+}
@@ -18,6 +18,7 @@
 package com.graphhopper.jsprit.core.algorithm.recreate;
 
 import com.graphhopper.jsprit.core.algorithm.listener.VehicleRoutingAlgorithmListeners;
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
 import com.graphhopper.jsprit.core.algorithm.recreate.listener.InsertionListener;
 import com.graphhopper.jsprit.core.algorithm.state.StateManager;
 import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
@@ -81,8 +82,14 @@ public class InsertionStrategyBuilder {
 
     private InsertionPositionFilter positionFilter;
 
+    private InsertionCostsLowerBound costsLowerBound;
+
+    private boolean insertionCache = false;
+
     private Random random = RandomNumberGeneration.getRandom();
 
+    private AlgorithmMetrics metrics;
+
     public InsertionStrategyBuilder(VehicleRoutingProblem vrp, VehicleFleetManager vehicleFleetManager, StateManager stateManager, ConstraintManager constraintManager) {
         super();
         this.vrp = vrp;
@@ -120,6 +127,31 @@ public class InsertionStrategyBuilder {
         return this;
     }
 
+    /**
+     * Sets the lower bound of insertion costs. Routes and positions whose lower bound cannot beat the
+     * best known insertion are skipped without evaluating constraints.
+     *
+     * @param costsLowerBound the lower bound, or null to evaluate all positions
+     * @return this builder
+     */
+    public InsertionStrategyBuilder setCostsLowerBound(InsertionCostsLowerBound costsLowerBound) {
+        this.costsLowerBound = costsLowerBound;
+        return this;
+    }
+
+    /**
+     * Enables caching of insertion data per route version. Routes whose activity sequence did not change since
+     * the last calculation are not evaluated again. Only sound without insertion noise and for costs and
+     * constraints that depend on nothing but the route they are evaluated on.
+     *
+     * @param insertionCache true to cache insertion data
+     * @return this builder
+     */
+    public InsertionStrategyBuilder setInsertionCache(boolean insertionCache) {
+        this.insertionCache = insertionCache;
+        return this;
+    }
+
     public InsertionStrategyBuilder setInsertionStrategy(Strategy strategy) {
         this.strategy = strategy;
         return this;
@@ -198,6 +230,17 @@ public class InsertionStrategyBuilder {
         return this;
     }
 
+    /**
+     * Sets the collector that counts insertion calculations and constraint rejections.
+     *
+     * @param metrics the metrics collector, or null to count nothing
+     * @return this builder
+     */
+    public InsertionStrategyBuilder setMetrics(AlgorithmMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     public InsertionStrategyBuilder setConcurrentMode(ExecutorService executor, int nuOfThreads) {
         this.executor = executor;
         this.nuOfThreads = nuOfThreads;
@@ -222,6 +265,9 @@ public class InsertionStrategyBuilder {
             calcBuilder.setBreakCalculatorFactory(breakInsertionCalculatorFactory);
         if (positionFilter != null)
             calcBuilder.setPositionFilter(positionFilter);
+        if (costsLowerBound != null)
+            calcBuilder.setCostsLowerBound(costsLowerBound);
+        calcBuilder.setInsertionCache(insertionCache);
         calcBuilder.setConstraintManager(constraintManager);
         calcBuilder.setStateManager(stateManager);
         calcBuilder.setVehicleRoutingProblem(vrp);
@@ -231,6 +277,7 @@ public class InsertionStrategyBuilder {
             calcBuilder.considerFixedCosts(weightOfFixedCosts);
         }
         calcBuilder.setAllowVehicleSwitch(allowVehicleSwitch);
+        calcBuilder.setMetrics(metrics);
         JobInsertionCostsCalculator costCalculator = calcBuilder.build();
 
         InsertionStrategy insertion;
@@ -270,7 +317,7 @@ public class InsertionStrategyBuilder {
 
             } else {
                 if (isFastRegret) {
-                    RegretInsertionConcurrentFast regret = new RegretInsertionConcurrentFast(costCalculator, vrp, executor, fleetManager);
+                    RegretInsertionConcurrentFast regret = new RegretInsertionConcurrentFast(costCalculator, vrp, executor, nuOfThreads, fleetManager);
                     regret.setSwitchAllowed(allowVehicleSwitch);
                     regret.setRandom(random);
                     insertion = regret;
@@ -18,17 +18,22 @@
 package com.graphhopper.jsprit.core.algorithm.recreate;
 
 import com.graphhopper.jsprit.core.algorithm.listener.VehicleRoutingAlgorithmListeners.PrioritizedVRAListener;
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
 import com.graphhopper.jsprit.core.algorithm.recreate.listener.InsertionListener;
 import com.graphhopper.jsprit.core.problem.JobActivityFactory;
 import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
 import com.graphhopper.jsprit.core.problem.constraint.ConstraintManager;
+import com.graphhopper.jsprit.core.problem.cost.WaitingTimeCosts;
 import com.graphhopper.jsprit.core.problem.job.*;
 import com.graphhopper.jsprit.core.problem.misc.JobInsertionContext;
 import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
 import com.graphhopper.jsprit.core.problem.solution.route.state.RouteAndActivityStateGetter;
 import com.graphhopper.jsprit.core.problem.vehicle.VehicleFleetManager;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleType;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -97,6 +102,12 @@ public class JobInsertionCostsCalculatorBuilder {
 
     private InsertionPositionFilter positionFilter;
 
+    private InsertionCostsLowerBound costsLowerBound;
+
+    private boolean insertionCache = false;
+
+    private AlgorithmMetrics metrics;
+
     /**
      * Constructs the builder.
      * <p>
@@ -142,6 +153,42 @@ public class JobInsertionCostsCalculatorBuilder {
         return this;
     }
 
+    /**
+     * Sets the lower bound of insertion costs that allows service and shipment insertion to skip routes and
+     * positions that cannot beat the best known insertion.
+     *
+     * @param costsLowerBound the lower bound, or null to evaluate all positions
+     * @return this builder
+     */
+    public JobInsertionCostsCalculatorBuilder setCostsLowerBound(InsertionCostsLowerBound costsLowerBound) {
+        this.costsLowerBound = costsLowerBound;
+        return this;
+    }
+
+    /**
+     * Enables caching of insertion data per route version, such that routes whose activity sequence did not change
+     * since the last calculation are not evaluated again. This is only sound if insertion costs and constraints
+     * depend on nothing but the route they are evaluated on, i.e. without insertion noise.
+     *
+     * @param insertionCache true to cache insertion data
+     * @return this builder
+     */
+    public JobInsertionCostsCalculatorBuilder setInsertionCache(boolean insertionCache) {
+        this.insertionCache = insertionCache;
+        return this;
+    }
+
+    /**
+     * Sets the collector that counts insertion calculations and constraint rejections.
+     *
+     * @param metrics the metrics collector, or null to count nothing
+     * @return this builder
+     */
+    public JobInsertionCostsCalculatorBuilder setMetrics(AlgorithmMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     /**
      * Sets activityStates. MUST be set.
      *
@@ -303,10 +350,21 @@ public class JobInsertionCostsCalculatorBuilder {
         if (positionFilter != null && shipmentCalculatorFactory instanceof ShipmentInsertionCalculatorFactory) {
             ((ShipmentInsertionCalculatorFactory) shipmentCalculatorFactory).setPositionFilter(positionFilter);
         }
+        if (costsLowerBound != null && shipmentCalculatorFactory instanceof ShipmentInsertionCalculatorFactory) {
+            ((ShipmentInsertionCalculatorFactory) shipmentCalculatorFactory).setCostsLowerBound(costsLowerBound);
+        }
+        if (costsLowerBound != null && serviceCalculatorFactory instanceof ServiceInsertionCalculatorFactory) {
+            ((ServiceInsertionCalculatorFactory) serviceCalculatorFactory).setCostsLowerBound(costsLowerBound);
+        }
 
         JobInsertionCostsCalculator shipmentInsertion = shipmentCalculatorFactory.create(vrp, actInsertionCalc, activityFactory, constraintManager);
         JobInsertionCostsCalculator serviceInsertion = serviceCalculatorFactory.create(vrp, actInsertionCalc, activityFactory, constraintManager);
         JobInsertionCostsCalculator breakInsertion = breakCalculatorFactory.create(vrp, actInsertionCalc, activityFactory, constraintManager);
+        for (JobInsertionCostsCalculator calculator : Arrays.asList(shipmentInsertion, serviceInsertion, breakInsertion)) {
+            if (calculator instanceof AbstractInsertionCalculator) {
+                ((AbstractInsertionCalculator) calculator).setMetrics(metrics);
+            }
+        }
 
         // Use LinkedHashMap to preserve insertion order for deterministic iteration
         Map<Class<? extends Job>, JobInsertionCostsCalculator> calculators = new LinkedHashMap<>();
@@ -321,14 +379,37 @@ public class JobInsertionCostsCalculatorBuilder {
         VehicleTypeDependentJobInsertionCalculator mainCalculator =
                 new VehicleTypeDependentJobInsertionCalculator(vrp, fleetManager, calculators);
         mainCalculator.setVehicleSwitchAllowed(allowVehicleSwitch);
+        mainCalculator.setMetrics(metrics);
+        RouteInsertionCache routeInsertionCache = null;
+        if (insertionCache) {
+            routeInsertionCache = configLocal == null || !activityCostsDependOnRatio(vrp) ? new RouteInsertionCache()
+                : new RouteInsertionCache(((LocalActivityInsertionCostsCalculator) actInsertionCalc)::getSolutionCompletenessRatio);
+            mainCalculator.setInsertionCache(routeInsertionCache);
+        }
 
         CalculatorPlusListeners calculatorPlusListeners = new CalculatorPlusListeners(mainCalculator);
         if (configLocal != null) {
             calculatorPlusListeners.insertionListener.add(configLocal);
         }
+        if (routeInsertionCache != null) {
+            calculatorPlusListeners.insertionListener.add(routeInsertionCache);
+        }
         return calculatorPlusListeners;
     }
 
+    /*
+     * The solution completeness ratio only weights activity costs. With the default activity costs and no vehicle
+     * type paying for waiting or service time, these are always zero.
+     */
+    private static boolean activityCostsDependOnRatio(VehicleRoutingProblem vrp) {
+        if (vrp.getActivityCosts().getClass() != WaitingTimeCosts.class) return true;
+        for (VehicleType type : vrp.getTypes()) {
+            VehicleTypeImpl.VehicleCostParams costParams = type.getVehicleCostParams();
+            if (costParams.perWaitingTimeUnit != 0. || costParams.perServiceTimeUnit != 0.) return true;
+        }
+        return false;
+    }
+
     private CalculatorPlusListeners createStandardRoute(final VehicleRoutingProblem vrp, RouteAndActivityStateGetter activityStates2, int forwardLooking, int solutionMemory) {
         ActivityInsertionCostsCalculator routeLevelCostEstimator;
         if (activityInsertionCostCalculator == null && addDefaultCostCalc) {
@@ -365,6 +446,7 @@ public class JobInsertionCostsCalculatorBuilder {
         VehicleTypeDependentJobInsertionCalculator mainCalculator =
                 new VehicleTypeDependentJobInsertionCalculator(vrp, fleetManager, calculators);
         mainCalculator.setVehicleSwitchAllowed(allowVehicleSwitch);
+        mainCalculator.setMetrics(metrics);
 
         return new CalculatorPlusListeners(mainCalculator);
     }
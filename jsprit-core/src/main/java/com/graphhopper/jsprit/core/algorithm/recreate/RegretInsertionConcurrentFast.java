@@ -28,7 +28,9 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Insertion based on regret approach.
@@ -42,6 +44,54 @@ import java.util.concurrent.ExecutorService;
  */
 public class RegretInsertionConcurrentFast extends AbstractInsertionStrategy {
 
+    /*
+     * Updates the insertion queues of a contiguous slice of unassigned jobs. Batches are created once and reused in
+     * every round, i.e. no task is allocated per job.
+     */
+    private final class Batch implements Callable<Void> {
+
+        private final List<VehicleRoute> lastModifiedRoute = new ArrayList<>(1);
+
+        private BoundedInsertionQueue[] queues;
+
+        private Collection<VehicleRoute> routes;
+
+        private List<Job> jobs;
+
+        private int fromIndex;
+
+        private int toIndex;
+
+        private boolean firstRun;
+
+        private void reset(BoundedInsertionQueue[] queues, Collection<VehicleRoute> routes, List<Job> jobs, int fromIndex, int toIndex, boolean firstRun, VehicleRoute lastModified) {
+            this.queues = queues;
+            this.routes = routes;
+            this.jobs = jobs;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.firstRun = firstRun;
+            lastModifiedRoute.clear();
+            if (lastModified != null) lastModifiedRoute.add(lastModified);
+        }
+
+        @Override
+        public Void call() {
+            for (int i = fromIndex; i < toIndex; i++) {
+                Job unassignedJob = jobs.get(i);
+                int jobIndex = vrp.getJobIndex(unassignedJob);
+                if (firstRun || dependsOnOtherRoutes(jobIndex)) {
+                    // Use spatial filtering when updating all routes
+                    InsertionDataUpdater.updateBoundedWithFilter(switchAllowed, initialVehicleIds, fleetManager, insertionCostsCalculator, queues[jobIndex], unassignedJob, routes, routeFilter);
+                } else {
+                    // Only update the modified route, no spatial filtering
+                    InsertionDataUpdater.updateBounded(switchAllowed, initialVehicleIds, fleetManager, insertionCostsCalculator, queues[jobIndex], unassignedJob, lastModifiedRoute);
+                }
+            }
+            return null;
+        }
+
+    }
 
     private static final Logger logger = LoggerFactory.getLogger(RegretInsertionConcurrentFast.class);
 
@@ -65,6 +115,10 @@ public class RegretInsertionConcurrentFast extends AbstractInsertionStrategy {
 
     private InsertionRouteFilter routeFilter = null;
 
+    private final List<Batch> batches;
+
+    private final List<Job> jobList = new ArrayList<>();
+
 
     /**
      * Sets the scoring function.
@@ -89,16 +143,37 @@ public class RegretInsertionConcurrentFast extends AbstractInsertionStrategy {
         this.regretK = k;
     }
 
-    public RegretInsertionConcurrentFast(JobInsertionCostsCalculator jobInsertionCalculator, VehicleRoutingProblem vehicleRoutingProblem, ExecutorService executorService, VehicleFleetManager fleetManager) {
+    /**
+     * Unassigned jobs are partitioned into <code>nuOfBatches</code> contiguous batches per round, each evaluated by one
+     * task. Usually, this is the number of threads of the executor service.
+     *
+     * @param jobInsertionCalculator calculator of insertion costs
+     * @param vehicleRoutingProblem  the problem
+     * @param executorService        executor evaluating the batches
+     * @param nuOfBatches            max. number of batches jobs are partitioned into
+     * @param fleetManager           the fleet manager
+     */
+    public RegretInsertionConcurrentFast(JobInsertionCostsCalculator jobInsertionCalculator, VehicleRoutingProblem vehicleRoutingProblem, ExecutorService executorService, int nuOfBatches, VehicleFleetManager fleetManager) {
         super(vehicleRoutingProblem);
         this.regretScoringFunction = new DefaultRegretScoringFunction(new DefaultScorer(vehicleRoutingProblem));
         this.insertionCostsCalculator = jobInsertionCalculator;
         this.executor = executorService;
         this.fleetManager = fleetManager;
         this.initialVehicleIds = getInitialVehicleIds(vehicleRoutingProblem);
+        this.batches = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, nuOfBatches); i++) {
+            batches.add(new Batch());
+        }
         logger.debug("initialise " + this);
     }
 
+    /**
+     * Partitions unassigned jobs into as many batches as there are available processors.
+     */
+    public RegretInsertionConcurrentFast(JobInsertionCostsCalculator jobInsertionCalculator, VehicleRoutingProblem vehicleRoutingProblem, ExecutorService executorService, VehicleFleetManager fleetManager) {
+        this(jobInsertionCalculator, vehicleRoutingProblem, executorService, Runtime.getRuntime().availableProcessors(), fleetManager);
+    }
+
     @Override
     public String toString() {
         return "[name=regretInsertion][additionalScorer=" + regretScoringFunction + "]";
@@ -196,58 +271,40 @@ public class RegretInsertionConcurrentFast extends AbstractInsertionStrategy {
     }
 
     private void updateInsertionData(final BoundedInsertionQueue[] queues, final Collection<VehicleRoute> routes, Collection<Job> unassignedJobs, final boolean firstRun, final VehicleRoute lastModified) {
-        List<Callable<Void>> tasks = new ArrayList<>();
-        for (final Job unassignedJob : unassignedJobs) {
+        jobList.clear();
+        for (Job unassignedJob : unassignedJobs) {
             int jobIndex = vrp.getJobIndex(unassignedJob);
             if (queues[jobIndex] == null) {
                 queues[jobIndex] = new BoundedInsertionQueue();
             }
-            if(firstRun) {
-                // First run: calculate insertions for all routes
-                makeCallables(tasks, true, queues[jobIndex], unassignedJob, routes, lastModified);
-            }
-            else{
-                if (dependencyTypes == null || dependencyTypes[jobIndex] == null) {
-                    // Only update the modified route
-                    makeCallables(tasks, false, queues[jobIndex], unassignedJob, routes, lastModified);
-                }
-                else {
-                    DependencyType dependencyType = dependencyTypes[jobIndex];
-                    if (dependencyType.equals(DependencyType.INTER_ROUTE) || dependencyType.equals(DependencyType.INTRA_ROUTE)) {
-                        // Dependencies require updating all routes
-                        makeCallables(tasks, true, queues[jobIndex], unassignedJob, routes, lastModified);
-                    } else {
-                        // Only update the modified route
-                        makeCallables(tasks, false, queues[jobIndex], unassignedJob, routes, lastModified);
-                    }
-                }
-            }
+            jobList.add(unassignedJob);
+        }
+        int nuOfJobs = jobList.size();
+        int nuOfBatches = Math.max(1, Math.min(batches.size(), nuOfJobs));
+        for (int i = 0; i < nuOfBatches; i++) {
+            batches.get(i).reset(queues, routes, jobList, i * nuOfJobs / nuOfBatches, (i + 1) * nuOfJobs / nuOfBatches, firstRun, lastModified);
         }
         try {
-            executor.invokeAll(tasks);
+            if (nuOfBatches == 1) {
+                batches.get(0).call();
+            } else {
+                for (Future<Void> future : executor.invokeAll(batches.subList(0, nuOfBatches))) {
+                    future.get();
+                }
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
         }
     }
 
-    private void makeCallables(List<Callable<Void>> tasks, boolean updateAll, final BoundedInsertionQueue queue, final Job unassignedJob, final Collection<VehicleRoute> routes, final VehicleRoute lastModified) {
-        if(updateAll) {
-            // Use spatial filtering when updating all routes
-            final InsertionRouteFilter filter = this.routeFilter;
-            tasks.add(() -> {
-                InsertionDataUpdater.updateBoundedWithFilter(switchAllowed, initialVehicleIds, fleetManager, insertionCostsCalculator, queue, unassignedJob, routes, filter);
-                return null;
-            });
-        }
-        else {
-            // No spatial filtering for single route update
-            tasks.add(() -> {
-                InsertionDataUpdater.updateBounded(switchAllowed, initialVehicleIds, fleetManager, insertionCostsCalculator, queue, unassignedJob, Arrays.asList(lastModified));
-                return null;
-            });
-        }
+    // Inter- and intra-route dependencies require updating all routes
+    private boolean dependsOnOtherRoutes(int jobIndex) {
+        if (dependencyTypes == null || dependencyTypes[jobIndex] == null) return false;
+        DependencyType dependencyType = dependencyTypes[jobIndex];
+        return dependencyType.equals(DependencyType.INTER_ROUTE) || dependencyType.equals(DependencyType.INTRA_ROUTE);
     }
 
-
 }
@@ -0,0 +1,174 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.recreate;
+
+import com.graphhopper.jsprit.core.algorithm.recreate.listener.InsertionStartsListener;
+import com.graphhopper.jsprit.core.algorithm.recreate.listener.JobInsertedListener;
+import com.graphhopper.jsprit.core.problem.driver.Driver;
+import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivities;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Caches insertion data per route version, i.e. per activity sequence (see {@link TourActivities#getVersion()}).
+ * Since routes are copied lazily from one iteration to the next, routes the ruin did not touch keep their version
+ * and the best insertion positions computed for them can be reused until the route changes.
+ * <p>
+ * Entries are keyed by job, the vehicle and departure time of the route, and the vehicle, departure time and driver
+ * the job is evaluated for. NoInsertionFound is only reused if it was computed with a best known cost at least as
+ * high as the one requested, since the calculator may have pruned positions with the higher bound.
+ * <p>
+ * The cache is only sound if insertion costs and hard constraints depend on nothing but the route they are
+ * evaluated on. Random insertion noise is frozen once cached, and constraints or costs based on other routes or on
+ * the solution as a whole may yield outdated results.
+ * <p>
+ * Activity costs are weighted with the solution completeness ratio (see
+ * {@link LocalActivityInsertionCostsCalculator#setSolutionCompletenessRatio(double)}), which changes while jobs
+ * are inserted. Thus, the ratio is part of the key, i.e. an entry is only reused with the ratio it was calculated
+ * with. If activity costs cannot depend on the ratio, the cache should be created without ratio supplier.
+ * <p>
+ * Entries of routes that change during insertion are dropped when the job is inserted, entries of routes that
+ * are no longer part of the solution when the next insertion starts.
+ */
+class RouteInsertionCache implements InsertionStartsListener, JobInsertedListener {
+
+    private record Key(Job job, Vehicle routeVehicle, double routeDepartureTime, Vehicle vehicle,
+                       double departureTime, Driver driver, double solutionCompletenessRatio) {
+    }
+
+    private record Entry(InsertionData insertionData, double bestKnownCost) {
+    }
+
+    private static final long EMPTY_ROUTE_VERSION = new TourActivities().getVersion();
+
+    private final Map<Long, Map<Key, Entry>> entries = new ConcurrentHashMap<>();
+
+    private final Map<VehicleRoute, Long> routeVersions = new IdentityHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final DoubleSupplier solutionCompletenessRatio;
+
+    RouteInsertionCache() {
+        this(() -> 1.);
+    }
+
+    /**
+     * @param solutionCompletenessRatio supplies the ratio that insertion costs are currently calculated with
+     */
+    RouteInsertionCache(DoubleSupplier solutionCompletenessRatio) {
+        this.solutionCompletenessRatio = solutionCompletenessRatio;
+    }
+
+    /**
+     * Returns the cached insertion data of job in route, or null if there is none that can be reused.
+     * Found insertion data is bound to route and gets new activities, thus it can be inserted as is.
+     */
+    InsertionData get(VehicleRoute route, Job job, Vehicle vehicle, double departureTime, Driver driver, double bestKnownCost) {
+        Map<Key, Entry> routeEntries = entries.get(route.getTourActivities().getVersion());
+        Entry entry = routeEntries == null ? null : routeEntries.get(key(route, job, vehicle, departureTime, driver));
+        if (entry == null || (!entry.insertionData().isFound() && bestKnownCost > entry.bestKnownCost())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (!entry.insertionData().isFound()) return entry.insertionData();
+        return bindTo(entry.insertionData(), route);
+    }
+
+    void put(VehicleRoute route, Job job, Vehicle vehicle, double departureTime, Driver driver, double bestKnownCost, InsertionData insertionData) {
+        entries.computeIfAbsent(route.getTourActivities().getVersion(), v -> new ConcurrentHashMap<>())
+            .put(key(route, job, vehicle, departureTime, driver), new Entry(insertionData, bestKnownCost));
+    }
+
+    /**
+     * @return number of lookups that could be answered from the cache
+     */
+    long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups that required a calculation
+     */
+    long getMisses() {
+        return misses.sum();
+    }
+
+    int size() {
+        int size = 0;
+        for (Map<Key, Entry> routeEntries : entries.values()) size += routeEntries.size();
+        return size;
+    }
+
+    @Override
+    public void informInsertionStarts(Collection<VehicleRoute> vehicleRoutes, Collection<Job> unassignedJobs) {
+        routeVersions.clear();
+        Set<Long> liveVersions = new HashSet<>();
+        liveVersions.add(EMPTY_ROUTE_VERSION);
+        for (VehicleRoute route : vehicleRoutes) {
+            long version = route.getTourActivities().getVersion();
+            routeVersions.put(route, version);
+            liveVersions.add(version);
+        }
+        entries.keySet().retainAll(liveVersions);
+    }
+
+    @Override
+    public void informJobInserted(Job job2insert, VehicleRoute inRoute, InsertionData insertionData) {
+        Long previousVersion = routeVersions.put(inRoute, inRoute.getTourActivities().getVersion());
+        if (previousVersion != null && previousVersion != EMPTY_ROUTE_VERSION) {
+            entries.remove(previousVersion);
+        }
+    }
+
+    private Key key(VehicleRoute route, Job job, Vehicle vehicle, double departureTime, Driver driver) {
+        return new Key(job, route.getVehicle(), route.getDepartureTime(), vehicle, departureTime, driver,
+            solutionCompletenessRatio.getAsDouble());
+    }
+
+    private static InsertionData bindTo(InsertionData cached, VehicleRoute route) {
+        InsertionData insertionData = new InsertionData(cached.getInsertionCost(), cached.getPickupInsertionIndex(),
+            cached.getDeliveryInsertionIndex(), cached.getSelectedVehicle(), cached.getSelectedDriver());
+        insertionData.setVehicleDepartureTime(cached.getVehicleDepartureTime());
+        insertionData.setAdditionalTime(cached.getAdditionalTime());
+        insertionData.setCostBreakdown(cached.getCostBreakdown());
+        for (Event event : cached.getEvents()) {
+            if (event instanceof InsertActivity insertActivity) {
+                insertionData.getEvents().add(new InsertActivity(route, insertActivity.getNewVehicle(),
+                    insertActivity.getActivity().duplicate(), insertActivity.getIndex()));
+            } else if (event instanceof InsertBreak insertBreak) {
+                insertionData.getEvents().add(new InsertBreak(route, insertBreak.getNewVehicle(),
+                    insertBreak.getActivity().duplicate(), insertBreak.getIndex()));
+            } else if (event instanceof SwitchVehicle switchVehicle) {
+                insertionData.getEvents().add(new SwitchVehicle(route, switchVehicle.getVehicle(), switchVehicle.getDepartureTime()));
+            } else {
+                insertionData.getEvents().add(event);
+            }
+        }
+        return insertionData;
+    }
+}
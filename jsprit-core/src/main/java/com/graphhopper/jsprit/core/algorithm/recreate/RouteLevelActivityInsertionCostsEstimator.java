@@ -70,14 +70,12 @@ class RouteLevelActivityInsertionCostsEstimator implements ActivityInsertionCost
     }
 
     private double actCostsOld(VehicleRoute vehicleRoute, TourActivity act) {
-        Double cost_at_act;
         if (act instanceof End) {
-            cost_at_act = stateManager.getRouteState(vehicleRoute, InternalStates.COSTS, Double.class);
-        } else {
-            cost_at_act = stateManager.getActivityState(act, InternalStates.COSTS, Double.class);
+            Double cost_at_act = stateManager.getRouteState(vehicleRoute, InternalStates.COSTS, Double.class);
+            if (cost_at_act == null) cost_at_act = 0.;
+            return cost_at_act;
         }
-        if (cost_at_act == null) cost_at_act = 0.;
-        return cost_at_act;
+        return stateManager.getActivityState(act, InternalStates.ACTIVITY_COSTS);
     }
 
     private List<TourActivity> getForwardLookingPath(VehicleRoute route, int actIndex) {
@@ -63,6 +63,8 @@ final class ServiceInsertionCalculator extends AbstractInsertionCalculator {
 
     private final ConstraintManager constraintManager;
 
+    private InsertionCostsLowerBound costsLowerBound;
+
     public ServiceInsertionCalculator(VehicleRoutingTransportCosts routingCosts, VehicleRoutingActivityCosts activityCosts, ActivityInsertionCostsCalculator activityInsertionCostsCalculator, ConstraintManager constraintManager, JobActivityFactory activityFactory) {
         super();
         this.transportCosts = routingCosts;
@@ -74,6 +76,25 @@ final class ServiceInsertionCalculator extends AbstractInsertionCalculator {
         logger.debug("initialise {}", this);
     }
 
+    /**
+     * Sets the lower bound of insertion costs. Routes and positions whose lower bound cannot beat the best known
+     * costs are skipped without evaluating constraints.
+     *
+     * @param costsLowerBound the lower bound, or null to evaluate all positions
+     */
+    public void setCostsLowerBound(InsertionCostsLowerBound costsLowerBound) {
+        this.costsLowerBound = costsLowerBound;
+    }
+
+    /**
+     * Gets the lower bound of insertion costs.
+     *
+     * @return the lower bound, or null if not set
+     */
+    public InsertionCostsLowerBound getCostsLowerBound() {
+        return costsLowerBound;
+    }
+
     @Override
     public String toString() {
         return "[name=calculatesServiceInsertion]";
@@ -116,6 +137,13 @@ final class ServiceInsertionCalculator extends AbstractInsertionCalculator {
         InsertionCostBreakdown bestBreakdown = null;
 		TimeWindow bestTimeWindow = null;
 
+        /*
+        skip route if even its lower bound cannot beat best known costs. without known costs nothing can be skipped
+         */
+        if (costsLowerBound != null && bestCost < Double.MAX_VALUE && additionalICostsAtRouteLevel + costsLowerBound.getRouteLowerBound(insertionContext, deliveryAct2Insert) >= bestCost) {
+            return new InsertionData.NoInsertionFound();
+        }
+
         /*
         generate new start and end for new vehicle
          */
@@ -138,33 +166,38 @@ final class ServiceInsertionCalculator extends AbstractInsertionCalculator {
                 tourEnd = true;
             }
             boolean not_fulfilled_break = true;
-			for(TimeWindow timeWindow : service.getTimeWindows()) {
-                deliveryAct2Insert.setTheoreticalEarliestOperationStartTime(timeWindow.getStart());
-                deliveryAct2Insert.setTheoreticalLatestOperationStartTime(timeWindow.getEnd());
-                activityContext.setInsertionIndex(actIndex);
-                insertionContext.setActivityContext(activityContext);
-                ConstraintsStatus status = fulfilled(insertionContext, prevAct, deliveryAct2Insert, nextAct, prevActStartTime, failedActivityConstraints, constraintManager);
-                if (status.equals(ConstraintsStatus.FULFILLED)) {
-                    InsertionCostBreakdown actBreakdown = constraintManager.getActivityCostsBreakdown(
-                            insertionContext, prevAct, deliveryAct2Insert, nextAct, prevActStartTime);
-                    double additionalICostsAtActLevel = actBreakdown.getTotal();
-                    double additionalTransportationCosts = activityInsertionCostsCalculator.getCosts(insertionContext, prevAct, nextAct, deliveryAct2Insert, prevActStartTime);
-                    double totalCost = additionalICostsAtRouteLevel + additionalICostsAtActLevel + additionalTransportationCosts;
-                    if (totalCost < bestCost) {
-                        bestCost = totalCost;
-                        insertionIndex = actIndex;
-                        bestTimeWindow = timeWindow;
-                        // Build complete breakdown for this position
-                        bestBreakdown = new InsertionCostBreakdown();
-                        bestBreakdown.merge(routeBreakdown);
-                        bestBreakdown.merge(actBreakdown);
-                        bestBreakdown.add("ActivityInsertion", additionalTransportationCosts);
+            if (costsLowerBound != null && additionalICostsAtRouteLevel + costsLowerBound.getActivityLowerBound(insertionContext, prevAct, deliveryAct2Insert, nextAct, prevActStartTime) >= bestCost) {
+                // position cannot beat best known costs, skip it without evaluating constraints
+                not_fulfilled_break = false;
+            } else {
+                for (TimeWindow timeWindow : service.getTimeWindows()) {
+                    deliveryAct2Insert.setTheoreticalEarliestOperationStartTime(timeWindow.getStart());
+                    deliveryAct2Insert.setTheoreticalLatestOperationStartTime(timeWindow.getEnd());
+                    activityContext.setInsertionIndex(actIndex);
+                    insertionContext.setActivityContext(activityContext);
+                    ConstraintsStatus status = fulfilled(insertionContext, prevAct, deliveryAct2Insert, nextAct, prevActStartTime, failedActivityConstraints, constraintManager);
+                    if (status.equals(ConstraintsStatus.FULFILLED)) {
+                        InsertionCostBreakdown actBreakdown = constraintManager.getActivityCostsBreakdown(
+                                insertionContext, prevAct, deliveryAct2Insert, nextAct, prevActStartTime);
+                        double additionalICostsAtActLevel = actBreakdown.getTotal();
+                        double additionalTransportationCosts = activityInsertionCostsCalculator.getCosts(insertionContext, prevAct, nextAct, deliveryAct2Insert, prevActStartTime);
+                        double totalCost = additionalICostsAtRouteLevel + additionalICostsAtActLevel + additionalTransportationCosts;
+                        if (totalCost < bestCost) {
+                            bestCost = totalCost;
+                            insertionIndex = actIndex;
+                            bestTimeWindow = timeWindow;
+                            // Build complete breakdown for this position
+                            bestBreakdown = new InsertionCostBreakdown();
+                            bestBreakdown.merge(routeBreakdown);
+                            bestBreakdown.merge(actBreakdown);
+                            bestBreakdown.add("ActivityInsertion", additionalTransportationCosts);
+                        }
+                        not_fulfilled_break = false;
+                    } else if (status.equals(ConstraintsStatus.NOT_FULFILLED)) {
+                        not_fulfilled_break = false;
                     }
-                    not_fulfilled_break = false;
-                } else if (status.equals(ConstraintsStatus.NOT_FULFILLED)) {
-                    not_fulfilled_break = false;
                 }
-			}
+            }
             if(not_fulfilled_break) break;
             double nextActArrTime = prevActStartTime + transportCosts.getTransportTime(prevAct.getLocation(), nextAct.getLocation(), prevActStartTime, newDriver, newVehicle);
             prevActStartTime = Math.max(nextActArrTime, nextAct.getTheoreticalEarliestOperationStartTime()) + activityCosts.getActivityDuration(prevAct, nextAct, nextActArrTime, newDriver, newVehicle);
@@ -23,8 +23,26 @@ import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
 import com.graphhopper.jsprit.core.problem.constraint.ConstraintManager;
 
 public class ServiceInsertionCalculatorFactory implements JobInsertionCostsCalculatorFactory {
+
+    private InsertionCostsLowerBound costsLowerBound;
+
+    /**
+     * Sets the lower bound of insertion costs that allows skipping routes and positions.
+     *
+     * @param costsLowerBound the lower bound, or null to evaluate all positions
+     * @return this factory for chaining
+     */
+    public ServiceInsertionCalculatorFactory setCostsLowerBound(InsertionCostsLowerBound costsLowerBound) {
+        this.costsLowerBound = costsLowerBound;
+        return this;
+    }
+
     @Override
     public JobInsertionCostsCalculator create(VehicleRoutingProblem vrp, ActivityInsertionCostsCalculator activityInsertionCostsCalculator, JobActivityFactory jobActivityFactory, ConstraintManager constraintManager) {
-        return new ServiceInsertionCalculator(vrp.getTransportCosts(), vrp.getActivityCosts(), activityInsertionCostsCalculator, constraintManager, jobActivityFactory);
+        ServiceInsertionCalculator calculator = new ServiceInsertionCalculator(vrp.getTransportCosts(), vrp.getActivityCosts(), activityInsertionCostsCalculator, constraintManager, jobActivityFactory);
+        if (costsLowerBound != null) {
+            calculator.setCostsLowerBound(costsLowerBound);
+        }
+        return calculator;
     }
 }
@@ -59,6 +59,8 @@ final class ShipmentInsertionCalculator extends AbstractInsertionCalculator {
 
     private InsertionPositionFilter positionFilter;
 
+    private InsertionCostsLowerBound costsLowerBound;
+
     public ShipmentInsertionCalculator(VehicleRoutingTransportCosts routingCosts, VehicleRoutingActivityCosts activityCosts, ActivityInsertionCostsCalculator activityInsertionCostsCalculator, ConstraintManager constraintManager, JobActivityFactory jobActivityFactory) {
         super();
         this.activityInsertionCostsCalculator = activityInsertionCostsCalculator;
@@ -91,6 +93,26 @@ final class ShipmentInsertionCalculator extends AbstractInsertionCalculator {
         return positionFilter;
     }
 
+    /**
+     * Sets the lower bound of insertion costs. Delivery positions whose lower bound cannot beat the best known costs
+     * are skipped without evaluating constraints. Routes and pickup positions are only skipped by the bound of the
+     * pickup if {@link InsertionCostsLowerBound#isDetourNonNegative()}.
+     *
+     * @param costsLowerBound the lower bound, or null to evaluate all positions
+     */
+    public void setCostsLowerBound(InsertionCostsLowerBound costsLowerBound) {
+        this.costsLowerBound = costsLowerBound;
+    }
+
+    /**
+     * Gets the lower bound of insertion costs.
+     *
+     * @return the lower bound, or null if not set
+     */
+    public InsertionCostsLowerBound getCostsLowerBound() {
+        return costsLowerBound;
+    }
+
     @Override
     public String toString() {
         return "[name=calculatesShipmentInsertion]";
@@ -133,6 +155,15 @@ final class ShipmentInsertionCalculator extends AbstractInsertionCalculator {
         double bestCost = bestKnownCosts;
         InsertionCostBreakdown bestBreakdown = null;
 
+        /*
+        skip route if even the lower bound of its pickup insertion cannot beat best known costs. this requires the
+        delivery insertion to never reduce costs
+         */
+        boolean boundByPickup = costsLowerBound != null && costsLowerBound.isDetourNonNegative();
+        if (boundByPickup && bestCost < Double.MAX_VALUE && additionalICostsAtRouteLevel + costsLowerBound.getRouteLowerBound(insertionContext, pickupShipment) >= bestCost) {
+            return new InsertionData.NoInsertionFound();
+        }
+
         int pickupInsertionIndex = InsertionData.NO_INDEX;
         int deliveryInsertionIndex = InsertionData.NO_INDEX;
 
@@ -199,6 +230,15 @@ final class ShipmentInsertionCalculator extends AbstractInsertionCalculator {
                 prevActEndTime = activities.get(i - 1).getEndTime();
             }
 
+            // Skip pickup position if its lower bound cannot beat best known costs
+            if (boundByPickup && additionalICostsAtRouteLevel + costsLowerBound.getActivityLowerBound(insertionContext, prevAct, pickupShipment, nextAct, prevActEndTime) >= bestCost) {
+                double nextActArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct.getLocation(), nextAct.getLocation(), prevActEndTime, newDriver, newVehicle);
+                prevActEndTime = Math.max(nextActArrTime, nextAct.getTheoreticalEarliestOperationStartTime()) + activityCosts.getActivityDuration(prevAct, nextAct, nextActArrTime, newDriver, newVehicle);
+                prevAct = nextAct;
+                i++;
+                continue;
+            }
+
             LOGGER.trace("Evaluating pickup at position {}", i);
 
             boolean pickupInsertionNotFulfilledBreak = true;
@@ -253,6 +293,11 @@ final class ShipmentInsertionCalculator extends AbstractInsertionCalculator {
 
                     // Check if we should evaluate this delivery position
                     boolean shouldEvaluateDelivery = (filteredDeliveryPositions == null || filteredDeliveryPositions.contains(j));
+                    if (shouldEvaluateDelivery && timingRequired && costsLowerBound != null
+                            && pickupAIC + additionalPickupICosts + additionalICostsAtRouteLevel
+                            + costsLowerBound.getActivityLowerBound(insertionContext, prevAct_deliveryLoop, deliverShipment, nextAct_deliveryLoop, prevActEndTime_deliveryLoop) >= bestCost) {
+                        shouldEvaluateDelivery = false;
+                    }
 
                     if (shouldEvaluateDelivery) {
                         LOGGER.trace("Evaluating delivery at position {}", j);
@@ -26,6 +26,8 @@ public class ShipmentInsertionCalculatorFactory implements JobInsertionCostsCalc
 
     private InsertionPositionFilter positionFilter;
 
+    private InsertionCostsLowerBound costsLowerBound;
+
     /**
      * Sets the position filter for reducing position evaluations in shipment insertion.
      *
@@ -37,12 +39,26 @@ public class ShipmentInsertionCalculatorFactory implements JobInsertionCostsCalc
         return this;
     }
 
+    /**
+     * Sets the lower bound of insertion costs that allows skipping routes and positions.
+     *
+     * @param costsLowerBound the lower bound, or null to evaluate all positions
+     * @return this factory for chaining
+     */
+    public ShipmentInsertionCalculatorFactory setCostsLowerBound(InsertionCostsLowerBound costsLowerBound) {
+        this.costsLowerBound = costsLowerBound;
+        return this;
+    }
+
     @Override
     public JobInsertionCostsCalculator create(VehicleRoutingProblem vrp, ActivityInsertionCostsCalculator activityInsertionCostsCalculator, JobActivityFactory jobActivityFactory, ConstraintManager constraintManager) {
         ShipmentInsertionCalculator calculator = new ShipmentInsertionCalculator(vrp.getTransportCosts(), vrp.getActivityCosts(), activityInsertionCostsCalculator, constraintManager, jobActivityFactory);
         if (positionFilter != null) {
             calculator.setPositionFilter(positionFilter);
         }
+        if (costsLowerBound != null) {
+            calculator.setCostsLowerBound(costsLowerBound);
+        }
         return calculator;
     }
 }
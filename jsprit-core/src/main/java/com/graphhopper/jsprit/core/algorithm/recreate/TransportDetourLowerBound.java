@@ -0,0 +1,187 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.recreate;
+
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.cost.VehicleRoutingTransportCosts;
+import com.graphhopper.jsprit.core.problem.driver.Driver;
+import com.graphhopper.jsprit.core.problem.misc.JobInsertionContext;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.ActWithoutStaticLocation;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.DeliverShipment;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.End;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivities;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
+
+import java.util.List;
+
+/**
+ * Bounds insertion costs by the transport cost detour, i.e. by c_ik + c_kj - c_ij, as calculated by
+ * {@link LocalActivityInsertionCostsCalculator}.
+ * <p>
+ * For a whole route the detour is bounded by <code>min_i c_ik + min_j c_kj - max_ij c_ij</code> which
+ * costs one pass over the route but no constraint evaluations. The longest leg between the activities of a route
+ * only depends on its activity sequence and vehicle, thus it is cached per route version
+ * (see {@link TourActivities#getVersion()}) and shared by all jobs evaluated for that route.
+ * <p>
+ * The bound is valid if transport costs do not depend on time and if the remaining activity level costs,
+ * i.e. activity costs, waiting time savings and soft activity constraints, do not reduce insertion costs.
+ * This is the case for the default setup without waiting time costs. Routes with activities without static
+ * location (e.g. breaks) are not bounded.
+ * <p>
+ * Shipments are only bounded by their pickup if transport costs are declared to satisfy the triangle inequality,
+ * since only then the detour of the delivery cannot be negative. This does not hold for many asymmetric or road
+ * network matrices, thus it needs to be declared explicitly. Otherwise, only delivery positions are bounded.
+ */
+public class TransportDetourLowerBound implements InsertionCostsLowerBound {
+
+    /**
+     * Legs of a route version that do not depend on the job to insert. Immutable, thus it can be shared by threads.
+     */
+    private record RouteLegs(long version, Vehicle vehicle, Driver driver, boolean bounded, double maxInnerLeg,
+                             Location first, Location last) {
+    }
+
+    private static final int NO_CACHED_ROUTES = 256;
+
+    private final VehicleRoutingTransportCosts transportCosts;
+
+    // direct-mapped by route version, entries of other routes are simply overwritten
+    private final RouteLegs[] routeLegs = new RouteLegs[NO_CACHED_ROUTES];
+
+    private final boolean triangleInequality;
+
+    /**
+     * Creates a bound that does not assume the triangle inequality.
+     *
+     * @param transportCosts the transport costs
+     */
+    public TransportDetourLowerBound(VehicleRoutingTransportCosts transportCosts) {
+        this(transportCosts, false);
+    }
+
+    /**
+     * Creates a bound.
+     *
+     * @param transportCosts     the transport costs
+     * @param triangleInequality true if transport costs satisfy c_ij <= c_ik + c_kj for all i, j and k (e.g. euclidean
+     *                           costs), which lets shipments be skipped by the bound of their pickup
+     */
+    public TransportDetourLowerBound(VehicleRoutingTransportCosts transportCosts, boolean triangleInequality) {
+        this.transportCosts = transportCosts;
+        this.triangleInequality = triangleInequality;
+    }
+
+    @Override
+    public boolean isDetourNonNegative() {
+        return triangleInequality;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The bound refers to activities that are inserted between existing activities, i.e. services and pickups.
+     */
+    @Override
+    public double getRouteLowerBound(JobInsertionContext iContext, TourActivity newAct) {
+        if (newAct instanceof ActWithoutStaticLocation) return Double.NEGATIVE_INFINITY;
+        VehicleRoute route = iContext.getRoute();
+        Vehicle newVehicle = iContext.getNewVehicle();
+        Driver newDriver = iContext.getNewDriver();
+        Location newLocation = newAct.getLocation();
+        List<TourActivity> activities = route.getActivities();
+
+        double minIn = cost(newVehicle.getStartLocation(), newLocation, newDriver, newVehicle);
+        double minOut = Double.MAX_VALUE;
+        double maxLeg = 0.;
+        if (!activities.isEmpty()) {
+            RouteLegs legs = getRouteLegs(route);
+            if (!legs.bounded()) return Double.NEGATIVE_INFINITY;
+            maxLeg = Math.max(legs.maxInnerLeg(), cost(newVehicle.getStartLocation(), legs.first(), route.getDriver(), route.getVehicle()));
+            for (TourActivity act : activities) {
+                Location location = act.getLocation();
+                minIn = Math.min(minIn, cost(location, newLocation, newDriver, newVehicle));
+                minOut = Math.min(minOut, cost(newLocation, location, newDriver, newVehicle));
+            }
+            if (newVehicle.isReturnToDepot()) {
+                maxLeg = Math.max(maxLeg, cost(legs.last(), newVehicle.getEndLocation(), route.getDriver(), route.getVehicle()));
+            }
+        }
+        if (newVehicle.isReturnToDepot()) {
+            minOut = Math.min(minOut, cost(newLocation, newVehicle.getEndLocation(), newDriver, newVehicle));
+            return minIn + minOut - maxLeg;
+        }
+        // appending at the end costs c_ik only
+        if (activities.isEmpty()) return minIn;
+        return minIn + Math.min(0., minOut - maxLeg);
+    }
+
+    @Override
+    public double getActivityLowerBound(JobInsertionContext iContext, TourActivity prevAct, TourActivity newAct, TourActivity nextAct, double prevActDepTime) {
+        if (prevAct instanceof ActWithoutStaticLocation || newAct instanceof ActWithoutStaticLocation || nextAct instanceof ActWithoutStaticLocation) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        Vehicle newVehicle = iContext.getNewVehicle();
+        Driver newDriver = iContext.getNewDriver();
+        double costsIn = cost(prevAct.getLocation(), newAct.getLocation(), newDriver, newVehicle);
+        if (nextAct instanceof End && !newVehicle.isReturnToDepot()) return costsIn;
+        double costsOut = cost(newAct.getLocation(), nextAct.getLocation(), newDriver, newVehicle);
+        double oldCosts;
+        if (iContext.getRoute().isEmpty()) {
+            oldCosts = newAct instanceof DeliverShipment ? cost(prevAct.getLocation(), nextAct.getLocation(), newDriver, newVehicle) : 0.;
+        } else {
+            oldCosts = cost(prevAct.getLocation(), nextAct.getLocation(), iContext.getRoute().getDriver(), iContext.getRoute().getVehicle());
+        }
+        return costsIn + costsOut - oldCosts;
+    }
+
+    private RouteLegs getRouteLegs(VehicleRoute route) {
+        long version = route.getTourActivities().getVersion();
+        int slot = (int) (version ^ (version >>> 32)) & (NO_CACHED_ROUTES - 1);
+        RouteLegs legs = routeLegs[slot];
+        if (legs == null || legs.version() != version || legs.vehicle() != route.getVehicle() || legs.driver() != route.getDriver()) {
+            legs = calculateRouteLegs(route, version);
+            routeLegs[slot] = legs;
+        }
+        return legs;
+    }
+
+    private RouteLegs calculateRouteLegs(VehicleRoute route, long version) {
+        Location first = null;
+        Location prevLocation = null;
+        double maxInnerLeg = 0.;
+        for (TourActivity act : route.getActivities()) {
+            if (act instanceof ActWithoutStaticLocation) {
+                return new RouteLegs(version, route.getVehicle(), route.getDriver(), false, 0., null, null);
+            }
+            Location location = act.getLocation();
+            if (prevLocation == null) {
+                first = location;
+            } else {
+                maxInnerLeg = Math.max(maxInnerLeg, cost(prevLocation, location, route.getDriver(), route.getVehicle()));
+            }
+            prevLocation = location;
+        }
+        return new RouteLegs(version, route.getVehicle(), route.getDriver(), true, maxInnerLeg, first, prevLocation);
+    }
+
+    private double cost(Location from, Location to, Driver driver, Vehicle vehicle) {
+        return transportCosts.getTransportCost(from, to, 0., driver, vehicle);
+    }
+
+}
@@ -17,12 +17,14 @@
  */
 package com.graphhopper.jsprit.core.algorithm.recreate;
 
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
 import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
 import com.graphhopper.jsprit.core.problem.driver.Driver;
 import com.graphhopper.jsprit.core.problem.job.Job;
 import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
 import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
 import com.graphhopper.jsprit.core.problem.vehicle.VehicleFleetManager;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +53,10 @@ final class VehicleTypeDependentJobInsertionCalculator implements JobInsertionCo
      */
     private boolean vehicleSwitchAllowed = false;
 
+    private AlgorithmMetrics metrics;
+
+    private RouteInsertionCache insertionCache;
+
     public VehicleTypeDependentJobInsertionCalculator(
             VehicleRoutingProblem vrp,
             VehicleFleetManager fleetManager,
@@ -84,6 +90,27 @@ final class VehicleTypeDependentJobInsertionCalculator implements JobInsertionCo
         this.vehicleSwitchAllowed = vehicleSwitchAllowed;
     }
 
+    /**
+     * Sets the collector that counts insertion calculations and insertion cache hits. A calculation is one evaluation
+     * of the job-type specific calculator for one route and vehicle. Constraint rejections are counted by the job-type
+     * specific calculators.
+     *
+     * @param metrics the metrics collector, or null to count nothing
+     */
+    void setMetrics(AlgorithmMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the cache that returns previous results of the job-type specific calculators for routes whose activity
+     * sequence did not change. Cache hits are not counted as insertion calculations.
+     *
+     * @param insertionCache the cache, or null to calculate every insertion
+     */
+    void setInsertionCache(RouteInsertionCache insertionCache) {
+        this.insertionCache = insertionCache;
+    }
+
     @Override
     public InsertionData getInsertionData(VehicleRoute currentRoute, Job jobToInsert,
             Vehicle vehicle, double newVehicleDepartureTime, Driver driver, double bestKnownCost) {
@@ -92,7 +119,7 @@ final class VehicleTypeDependentJobInsertionCalculator implements JobInsertionCo
 
         // If specific vehicle provided, delegate directly
         if (vehicle != null) {
-            return calculator.getInsertionData(currentRoute, jobToInsert, vehicle,
+            return calculate(calculator, currentRoute, jobToInsert, vehicle,
                     newVehicleDepartureTime, driver, bestKnownCost);
         }
 
@@ -100,24 +127,80 @@ final class VehicleTypeDependentJobInsertionCalculator implements JobInsertionCo
         Driver selectedDriver = currentRoute.getDriver();
         InsertionData bestIData = new InsertionData.NoInsertionFound();
         double bestCost = bestKnownCost;
+        int bestIndex = -1;
 
-        for (Vehicle v : getRelevantVehicles(currentRoute)) {
+        /*
+         * vehicles are evaluated cheapest type first such that the best known costs passed to the calculators are
+         * tight early and more expensive types are skipped by their lower bounds. Vehicles that precede the best one
+         * in relevance order still win ties, i.e. the result is the same as evaluating them in relevance order.
+         */
+        List<Vehicle> vehicles = getRelevantVehicles(currentRoute);
+        for (int index : getEvaluationOrder(vehicles, currentRoute.hasVehicle())) {
+            Vehicle v = vehicles.get(index);
             double depTime = getDepartureTime(currentRoute, v);
-            InsertionData iData = calculator.getInsertionData(currentRoute, jobToInsert,
-                    v, depTime, selectedDriver, bestCost);
+            double bound = index < bestIndex ? Math.nextUp(bestCost) : bestCost;
+            InsertionData iData = calculate(calculator, currentRoute, jobToInsert,
+                    v, depTime, selectedDriver, bound);
 
             if (!iData.isFound()) {
                 bestIData.getFailedConstraintNames().addAll(iData.getFailedConstraintNames());
                 continue;
             }
-            if (iData.getInsertionCost() < bestCost) {
+            double cost = iData.getInsertionCost();
+            if (cost < bestCost || (cost == bestCost && index < bestIndex)) {
                 bestIData = iData;
-                bestCost = iData.getInsertionCost();
+                bestCost = cost;
+                bestIndex = index;
             }
         }
         return bestIData;
     }
 
+    /*
+     * returns the positions of vehicles in the order they are to be evaluated, i.e. the vehicle of the route
+     * first (if it has one), then the others by ascending fixed, distance and time dependent costs of their type
+     */
+    private static int[] getEvaluationOrder(List<Vehicle> vehicles, boolean keepFirst) {
+        int[] order = new int[vehicles.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        for (int i = keepFirst ? 2 : 1; i < order.length; i++) {
+            int index = order[i];
+            int j = i - 1;
+            while (j >= (keepFirst ? 1 : 0) && isCheaper(vehicles.get(index), vehicles.get(order[j]))) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+        return order;
+    }
+
+    private static boolean isCheaper(Vehicle vehicle, Vehicle other) {
+        VehicleTypeImpl.VehicleCostParams costs = getCostParams(vehicle);
+        VehicleTypeImpl.VehicleCostParams otherCosts = getCostParams(other);
+        if (costs == null || otherCosts == null) return false;
+        if (costs.fix != otherCosts.fix) return costs.fix < otherCosts.fix;
+        if (costs.perDistanceUnit != otherCosts.perDistanceUnit) return costs.perDistanceUnit < otherCosts.perDistanceUnit;
+        return costs.perTransportTimeUnit < otherCosts.perTransportTimeUnit;
+    }
+
+    private InsertionData calculate(JobInsertionCostsCalculator calculator, VehicleRoute route, Job job,
+            Vehicle vehicle, double departureTime, Driver driver, double bestKnownCost) {
+        if (insertionCache != null) {
+            InsertionData cached = insertionCache.get(route, job, vehicle, departureTime, driver, bestKnownCost);
+            if (cached != null) {
+                if (metrics != null) metrics.countInsertionCacheHit();
+                return cached;
+            }
+        }
+        InsertionData iData = calculator.getInsertionData(route, job, vehicle, departureTime, driver, bestKnownCost);
+        if (insertionCache != null) {
+            insertionCache.put(route, job, vehicle, departureTime, driver, bestKnownCost, iData);
+        }
+        if (metrics != null) metrics.countInsertionCalculation();
+        return iData;
+    }
+
     @Override
     public List<InsertionData> getAllInsertionPositions(VehicleRoute currentRoute, Job jobToInsert,
             Vehicle vehicle, double newVehicleDepartureTime, Driver driver) {
@@ -151,7 +234,11 @@ final class VehicleTypeDependentJobInsertionCalculator implements JobInsertionCo
         return calculator;
     }
 
-    private Collection<Vehicle> getRelevantVehicles(VehicleRoute route) {
+    private static VehicleTypeImpl.VehicleCostParams getCostParams(Vehicle vehicle) {
+        return vehicle.getType() == null ? null : vehicle.getType().getVehicleCostParams();
+    }
+
+    private List<Vehicle> getRelevantVehicles(VehicleRoute route) {
         List<Vehicle> relevantVehicles = new ArrayList<>();
 
         if (route.hasVehicle()) {
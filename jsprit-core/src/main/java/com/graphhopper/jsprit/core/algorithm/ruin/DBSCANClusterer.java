@@ -25,94 +25,26 @@ import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
 import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
 import com.graphhopper.jsprit.core.util.RandomNumberGeneration;
 import com.graphhopper.jsprit.core.util.RandomUtils;
-import org.apache.commons.math3.ml.clustering.Cluster;
-import org.apache.commons.math3.ml.clustering.Clusterable;
-import org.apache.commons.math3.ml.distance.DistanceMeasure;
 
 import java.util.*;
 
 /**
+ * Clusters the jobs of a route with DBSCAN, i.e. jobs whose distance is within epsilon belong to the same cluster if
+ * one of them has at least minPts such neighbors. Jobs that do not belong to a cluster are noise.
+ * <p>
+ * <p>The distance of two jobs is the average transport cost between their activity locations. Distances are
+ * calculated once per route into a primitive matrix such that region queries are plain array scans. Jobs are visited
+ * in route order, and clusters are expanded as in commons-math's DBSCAN.
+ * <p>
  * Created by schroeder on 04/02/15.
  */
 public class DBSCANClusterer {
 
-    private static class LocationWrapper implements Clusterable {
+    private static final int UNVISITED = 0;
 
-        private static int objCounter = 0;
+    private static final int NOISE = 1;
 
-        private final Job job;
-
-        private final List<Location> locations;
-
-        private final int id;
-
-        public LocationWrapper(Job job, List<Location> locations) {
-            this.locations = locations;
-            objCounter++;
-            this.job = job;
-            this.id = objCounter;
-        }
-
-        public List<Location> getLocations() {
-            return locations;
-        }
-
-        @Override
-        public double[] getPoint() {
-            return new double[]{id};
-        }
-
-        public Job getJob() {
-            return job;
-        }
-    }
-
-    private static class MyDistance implements DistanceMeasure {
-
-        private final Map<Integer, LocationWrapper> locations;
-
-        private final VehicleRoutingTransportCosts costs;
-
-        // Cache for computed distances: key = (id1 << 20) | id2 (assuming ids < 2^20)
-        private final Map<Long, Double> distanceCache;
-
-        public MyDistance(List<LocationWrapper> locations, VehicleRoutingTransportCosts costs) {
-            this.locations = new HashMap<>();
-            for (LocationWrapper lw : locations) {
-                this.locations.put((int) lw.getPoint()[0], lw);
-            }
-            this.costs = costs;
-            this.distanceCache = new HashMap<>();
-        }
-
-        @Override
-        public double compute(double[] doubles, double[] doubles1) {
-            int id1 = (int) doubles[0];
-            int id2 = (int) doubles1[0];
-
-            // Create symmetric cache key (order-independent)
-            long cacheKey = id1 < id2 ? ((long) id1 << 20) | id2 : ((long) id2 << 20) | id1;
-
-            Double cached = distanceCache.get(cacheKey);
-            if (cached != null) {
-                return cached;
-            }
-
-            LocationWrapper l1 = locations.get(id1);
-            LocationWrapper l2 = locations.get(id2);
-            int count = 0;
-            double sum = 0;
-            for (Location loc_1 : l1.getLocations()) {
-                for (Location loc_2 : l2.getLocations()) {
-                    sum += costs.getTransportCost(loc_1, loc_2, 0, null, null);
-                    count++;
-                }
-            }
-            double result = sum / (double) count;
-            distanceCache.put(cacheKey, result);
-            return result;
-        }
-    }
+    private static final int PART_OF_CLUSTER = 2;
 
     private VehicleRoutingTransportCosts costs;
 
@@ -147,62 +79,117 @@ public class DBSCANClusterer {
     }
 
     public List<List<Job>> getClusters(VehicleRoute route) {
-        List<LocationWrapper> locations = getLocationWrappers(route);
-        List<Cluster<LocationWrapper>> clusterResults = getClusters(route, locations);
-        return makeList(clusterResults);
+        return cluster(route);
+    }
+
+    public List<Job> getRandomCluster(VehicleRoute route) {
+        if (route.isEmpty()) return Collections.emptyList();
+        List<List<Job>> clusters = cluster(route);
+        if (clusters.isEmpty()) return Collections.emptyList();
+        return RandomUtils.nextItem(clusters, random);
     }
 
-    private List<LocationWrapper> getLocationWrappers(VehicleRoute route) {
-        List<LocationWrapper> locations = new ArrayList<>(route.getTourActivities().getJobs().size());
-        Map<Job, List<Location>> jobs2locations = new HashMap<>();
+    private List<List<Job>> cluster(VehicleRoute route) {
+        Map<Job, List<Location>> jobs2locations = new LinkedHashMap<>();
         for (TourActivity act : route.getActivities()) {
             if (act instanceof TourActivity.JobActivity) {
                 Job job = ((TourActivity.JobActivity) act).getJob();
-                if (!jobs2locations.containsKey(job)) {
-                    jobs2locations.put(job, new ArrayList<>());
-                }
-                jobs2locations.get(job).add(act.getLocation());
+                jobs2locations.computeIfAbsent(job, j -> new ArrayList<>(2)).add(act.getLocation());
             }
         }
-        for (Job j : jobs2locations.keySet()) {
-            locations.add(new LocationWrapper(j, jobs2locations.get(j)));
+        double eps;
+        if (epsDistance != null) eps = epsDistance;
+        else eps = Math.max(0, sample(costs, route));
+
+        int n = jobs2locations.size();
+        Job[] jobs = new Job[n];
+        List<List<Location>> locations = new ArrayList<>(n);
+        int index = 0;
+        for (Map.Entry<Job, List<Location>> entry : jobs2locations.entrySet()) {
+            jobs[index++] = entry.getKey();
+            locations.add(entry.getValue());
+        }
+        double[] distances = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double distance = distance(locations.get(i), locations.get(j));
+                distances[i * n + j] = distance;
+                distances[j * n + i] = distance;
+            }
         }
-        return locations;
-    }
 
-    private List<Cluster<LocationWrapper>> getClusters(VehicleRoute route, List<LocationWrapper> locations) {
-        double sampledDistance;
-        if (epsDistance != null) sampledDistance = epsDistance;
-        else sampledDistance = Math.max(0, sample(costs, route));
-        org.apache.commons.math3.ml.clustering.DBSCANClusterer<LocationWrapper> clusterer = new org.apache.commons.math3.ml.clustering.DBSCANClusterer<>(sampledDistance, minNoOfJobsInCluster, new MyDistance(locations, costs));
-        return clusterer.cluster(locations);
+        List<List<Job>> clusters = new ArrayList<>();
+        int[] status = new int[n];
+        int[] neighbors = new int[n];
+        int[] seeds = new int[n];
+        boolean[] isSeed = new boolean[n];
+        for (int point = 0; point < n; point++) {
+            if (status[point] != UNVISITED) continue;
+            int noNeighbors = getNeighbors(point, distances, n, eps, neighbors);
+            if (noNeighbors >= minNoOfJobsInCluster) {
+                clusters.add(expandCluster(point, neighbors, noNeighbors, jobs, distances, eps, status, seeds, isSeed));
+            } else {
+                status[point] = NOISE;
+            }
+        }
+        return clusters;
     }
 
-    private List<List<Job>> makeList(List<Cluster<LocationWrapper>> clusterResults) {
-        List<List<Job>> l = new ArrayList<>();
-        for (Cluster<LocationWrapper> c : clusterResults) {
-            List<Job> l_ = getJobList(c);
-            l.add(l_);
+    private List<Job> expandCluster(int point, int[] neighbors, int noNeighbors, Job[] jobs, double[] distances,
+                                    double eps, int[] status, int[] seeds, boolean[] isSeed) {
+        int n = jobs.length;
+        List<Job> cluster = new ArrayList<>();
+        cluster.add(jobs[point]);
+        status[point] = PART_OF_CLUSTER;
+        int noSeeds = 0;
+        for (int i = 0; i < noNeighbors; i++) {
+            seeds[noSeeds++] = neighbors[i];
+            isSeed[neighbors[i]] = true;
+        }
+        for (int index = 0; index < noSeeds; index++) {
+            int current = seeds[index];
+            int currentStatus = status[current];
+            if (currentStatus == UNVISITED) {
+                int noCurrentNeighbors = getNeighbors(current, distances, n, eps, neighbors);
+                if (noCurrentNeighbors >= minNoOfJobsInCluster) {
+                    for (int i = 0; i < noCurrentNeighbors; i++) {
+                        int neighbor = neighbors[i];
+                        if (!isSeed[neighbor]) {
+                            seeds[noSeeds++] = neighbor;
+                            isSeed[neighbor] = true;
+                        }
+                    }
+                }
+            }
+            if (currentStatus != PART_OF_CLUSTER) {
+                status[current] = PART_OF_CLUSTER;
+                cluster.add(jobs[current]);
+            }
         }
-        return l;
+        for (int index = 0; index < noSeeds; index++) isSeed[seeds[index]] = false;
+        return cluster;
     }
 
-    private List<Job> getJobList(Cluster<LocationWrapper> c) {
-        List<Job> l_ = new ArrayList<>();
-        if (c == null) return l_;
-        for (LocationWrapper lw : c.getPoints()) {
-            l_.add(lw.getJob());
+    /*
+     * writes all points within eps of point (except point itself) to neighbors and returns their number
+     */
+    private static int getNeighbors(int point, double[] distances, int n, double eps, int[] neighbors) {
+        int noNeighbors = 0;
+        int offset = point * n;
+        for (int other = 0; other < n; other++) {
+            if (other != point && distances[offset + other] <= eps) neighbors[noNeighbors++] = other;
         }
-        return l_;
+        return noNeighbors;
     }
 
-    public List<Job> getRandomCluster(VehicleRoute route) {
-        if (route.isEmpty()) return Collections.emptyList();
-        List<LocationWrapper> locations = getLocationWrappers(route);
-        List<Cluster<LocationWrapper>> clusterResults = getClusters(route, locations);
-        if (clusterResults.isEmpty()) return Collections.emptyList();
-        Cluster<LocationWrapper> randomCluster = RandomUtils.nextItem(clusterResults, random);
-        return getJobList(randomCluster);
+    private double distance(List<Location> locations1, List<Location> locations2) {
+        double sum = 0;
+        for (Location location1 : locations1) {
+            for (Location location2 : locations2) {
+                sum += costs.getTransportCost(location1, location2, 0, null, null);
+            }
+        }
+        return sum / (double) (locations1.size() * locations2.size());
     }
 
     private double sample(VehicleRoutingTransportCosts costs, VehicleRoute r) {
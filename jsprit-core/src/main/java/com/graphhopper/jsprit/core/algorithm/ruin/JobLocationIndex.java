@@ -0,0 +1,238 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.ruin;
+
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.job.Activity;
+import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.util.Coordinate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Static 2-d tree over the coordinates of job activities to find the activities nearest to a coordinate by euclidean
+ * distance in O(k log n) instead of scanning all activities.
+ * <p>
+ * <p>Only jobs whose activities all have a static location with coordinate are indexed (see {@link #contains(Job)}),
+ * i.e. activities of locationless jobs need to be considered separately.
+ */
+final class JobLocationIndex {
+
+    static JobLocationIndex of(Collection<Job> jobs) {
+        int noPoints = 0;
+        for (Job job : jobs) {
+            if (hasCoordinates(job)) noPoints += job.getActivities().size();
+        }
+        Set<Job> indexed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Job[] pointJobs = new Job[noPoints];
+        double[] x = new double[noPoints];
+        double[] y = new double[noPoints];
+        int p = 0;
+        for (Job job : jobs) {
+            if (!hasCoordinates(job)) continue;
+            indexed.add(job);
+            for (Activity activity : job.getActivities()) {
+                Coordinate coordinate = activity.getLocation().getCoordinate();
+                pointJobs[p] = job;
+                x[p] = coordinate.getX();
+                y[p] = coordinate.getY();
+                p++;
+            }
+        }
+        return new JobLocationIndex(indexed, pointJobs, x, y);
+    }
+
+    private static boolean hasCoordinates(Job job) {
+        if (job.getActivities().isEmpty()) return false;
+        for (Activity activity : job.getActivities()) {
+            Location location = activity.getLocation();
+            if (location == null || location.getCoordinate() == null) return false;
+        }
+        return true;
+    }
+
+    private final Set<Job> indexed;
+
+    private final Job[] jobs;
+
+    private final double[] x;
+
+    private final double[] y;
+
+    private int[] heapPositions = new int[0];
+
+    private double[] heapDistances = new double[0];
+
+    private int heapSize;
+
+    private JobLocationIndex(Set<Job> indexed, Job[] jobs, double[] x, double[] y) {
+        this.indexed = indexed;
+        this.jobs = jobs;
+        this.x = x;
+        this.y = y;
+        build(0, jobs.length, 0);
+    }
+
+    /**
+     * Returns the number of indexed jobs.
+     */
+    int size() {
+        return indexed.size();
+    }
+
+    /**
+     * Returns true if all activities of job are part of this index.
+     */
+    boolean contains(Job job) {
+        return indexed.contains(job);
+    }
+
+    /**
+     * Finds the k activities nearest to (x,y) whose job is accepted. Their jobs and euclidean distances are written to
+     * the specified arrays in ascending order of distance. A job is found once per activity.
+     *
+     * @param x         x-coordinate
+     * @param y         y-coordinate
+     * @param k         maximum number of activities to be found
+     * @param accept    jobs whose activities qualify
+     * @param jobs      array of at least k elements the jobs are written to
+     * @param distances array of at least k elements the distances are written to
+     * @return number of activities found
+     */
+    int findNearest(double x, double y, int k, Predicate<Job> accept, Job[] jobs, double[] distances) {
+        if (k <= 0) return 0;
+        if (heapPositions.length < k) {
+            heapPositions = new int[k];
+            heapDistances = new double[k];
+        }
+        heapSize = 0;
+        search(0, this.jobs.length, 0, x, y, k, accept);
+        int noFound = heapSize;
+        while (heapSize > 0) {
+            jobs[heapSize - 1] = this.jobs[heapPositions[0]];
+            distances[heapSize - 1] = Math.sqrt(heapDistances[0]);
+            removeMax();
+        }
+        return noFound;
+    }
+
+    private void search(int from, int to, int depth, double qx, double qy, int k, Predicate<Job> accept) {
+        if (from >= to) return;
+        int mid = (from + to) >>> 1;
+        if (accept.test(jobs[mid])) {
+            double dx = x[mid] - qx;
+            double dy = y[mid] - qy;
+            offer(mid, dx * dx + dy * dy, k);
+        }
+        double diff = (depth & 1) == 0 ? qx - x[mid] : qy - y[mid];
+        if (diff < 0) {
+            search(from, mid, depth + 1, qx, qy, k, accept);
+            if (heapSize < k || diff * diff < heapDistances[0]) search(mid + 1, to, depth + 1, qx, qy, k, accept);
+        } else {
+            search(mid + 1, to, depth + 1, qx, qy, k, accept);
+            if (heapSize < k || diff * diff < heapDistances[0]) search(from, mid, depth + 1, qx, qy, k, accept);
+        }
+    }
+
+    private void offer(int position, double distance, int k) {
+        if (heapSize < k) {
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapDistances[parent] >= distance) break;
+                heapDistances[i] = heapDistances[parent];
+                heapPositions[i] = heapPositions[parent];
+                i = parent;
+            }
+            heapDistances[i] = distance;
+            heapPositions[i] = position;
+        } else if (distance < heapDistances[0]) {
+            siftDown(position, distance);
+        }
+    }
+
+    private void removeMax() {
+        heapSize--;
+        if (heapSize > 0) siftDown(heapPositions[heapSize], heapDistances[heapSize]);
+    }
+
+    private void siftDown(int position, double distance) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapDistances[child + 1] > heapDistances[child]) child++;
+            if (heapDistances[child] <= distance) break;
+            heapDistances[i] = heapDistances[child];
+            heapPositions[i] = heapPositions[child];
+            i = child;
+        }
+        heapDistances[i] = distance;
+        heapPositions[i] = position;
+    }
+
+    /*
+     * arranges points such that the median of [from,to) with respect to the split dimension of depth is at its middle,
+     * smaller ones are left and larger ones are right of it
+     */
+    private void build(int from, int to, int depth) {
+        if (to - from <= 1) return;
+        int mid = (from + to) >>> 1;
+        double[] keys = (depth & 1) == 0 ? x : y;
+        select(keys, from, to - 1, mid);
+        build(from, mid, depth + 1);
+        build(mid + 1, to, depth + 1);
+    }
+
+    private void select(double[] keys, int left, int right, int n) {
+        while (left < right) {
+            int pivotIndex = partition(keys, left, right, (left + right) >>> 1);
+            if (pivotIndex == n) return;
+            if (n < pivotIndex) right = pivotIndex - 1;
+            else left = pivotIndex + 1;
+        }
+    }
+
+    private int partition(double[] keys, int left, int right, int pivotIndex) {
+        double pivot = keys[pivotIndex];
+        swap(pivotIndex, right);
+        int store = left;
+        for (int i = left; i < right; i++) {
+            if (keys[i] < pivot) swap(store++, i);
+        }
+        swap(right, store);
+        return store;
+    }
+
+    private void swap(int a, int b) {
+        Job job = jobs[a];
+        jobs[a] = jobs[b];
+        jobs[b] = job;
+        double t = x[a];
+        x[a] = x[b];
+        x[b] = t;
+        t = y[a];
+        y[a] = y[b];
+        y[b] = t;
+    }
+
+}
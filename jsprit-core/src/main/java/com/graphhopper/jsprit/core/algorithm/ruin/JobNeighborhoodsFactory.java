@@ -26,12 +26,56 @@ import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
  */
 public class JobNeighborhoodsFactory {
 
+    private static final int MIN_RESERVE = 10;
+
+    private boolean parallel = false;
+
+    /**
+     * Sets whether neighborhoods with capacity are initialised in parallel on the common fork-join pool. The job
+     * distance, and thus usually the transport costs, is then called from several threads and must be thread-safe.
+     * Default is false.
+     *
+     * @param parallel true to initialise neighborhoods in parallel
+     * @return this factory
+     */
+    public JobNeighborhoodsFactory setParallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
     public JobNeighborhoods createNeighborhoods(VehicleRoutingProblem vrp, JobDistance jobDistance) {
         return new JobNeighborhoodsImpl(vrp, jobDistance);
     }
 
     public JobNeighborhoods createNeighborhoods(VehicleRoutingProblem vrp, JobDistance jobDistance, int capacity) {
-        return new JobNeighborhoodsOptimized(vrp, jobDistance, capacity);
+        JobNeighborhoodsOptimized neighborhoods = new JobNeighborhoodsOptimized(vrp, jobDistance, capacity);
+        neighborhoods.setParallel(parallel);
+        return neighborhoods;
+    }
+
+    /**
+     * Creates neighborhoods that reuse the neighborhoods of a previous problem for jobs that are part of both problems.
+     * To be reusable themselves, the neighborhoods memorize a few more neighbors than capacity.
+     * This only takes effect if previous neighborhoods have been created with capacity by this factory and have been
+     * initialised. Jobs are part of both problems if they are the same objects, or if they have the same id, type and
+     * activity locations. Reuse works best with the previous capacity, since neighborhoods that need to grow are
+     * mostly calculated from scratch.
+     *
+     * @param vrp         the (slightly) changed problem
+     * @param jobDistance distance between jobs, must be the same as for the previous neighborhoods
+     * @param capacity    number of neighbors memorized per job
+     * @param previous    neighborhoods of the previous problem, or null for the first problem of a sequence
+     * @return neighborhoods
+     */
+    public JobNeighborhoods createNeighborhoods(VehicleRoutingProblem vrp, JobDistance jobDistance, int capacity, JobNeighborhoods previous) {
+        JobNeighborhoodsOptimized previousNeighborhoods = previous instanceof JobNeighborhoodsOptimized ? (JobNeighborhoodsOptimized) previous : null;
+        JobNeighborhoodsOptimized neighborhoods = new JobNeighborhoodsOptimized(vrp, jobDistance, capacity, getReserve(capacity), previousNeighborhoods);
+        neighborhoods.setParallel(parallel);
+        return neighborhoods;
+    }
+
+    private static int getReserve(int capacity) {
+        return Math.max(MIN_RESERVE, capacity / 10);
     }
 
 }
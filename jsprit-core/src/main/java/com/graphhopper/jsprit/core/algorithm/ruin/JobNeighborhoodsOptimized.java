@@ -20,12 +20,14 @@ package com.graphhopper.jsprit.core.algorithm.ruin;
 
 import com.graphhopper.jsprit.core.algorithm.ruin.distance.JobDistance;
 import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.job.Activity;
 import com.graphhopper.jsprit.core.problem.job.Job;
 import com.graphhopper.jsprit.core.util.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * Created by schroeder on 07/01/15.
@@ -78,18 +80,55 @@ class JobNeighborhoodsOptimized implements JobNeighborhoods {
 
     private final int capacity;
 
+    private final int reserve;
+
+    private JobNeighborhoodsOptimized previous;
+
     private double maxDistance = 0.;
 
+    private int noCandidates = 0;
+
+    private boolean parallel = false;
+
     public JobNeighborhoodsOptimized(VehicleRoutingProblem vrp, JobDistance jobDistance, int capacity) {
+        this(vrp, jobDistance, capacity, 0, null);
+    }
+
+    /**
+     * Neighborhoods of jobs that are also part of the previous problem are derived from their previous neighborhoods,
+     * i.e. only distances to added jobs need to be calculated. A job is part of the previous problem if it is the same
+     * object or if the previous problem has a job of the same type with the same id and the same activity locations.
+     * The latter assumes that the job distance only depends on activity locations.
+     * <p>
+     * Only if a previous neighborhood has been truncated and does not contain enough remaining neighbors to fill the
+     * new one (e.g. since neighbors have been removed or the capacity has grown), the neighborhood is calculated from
+     * scratch. To make this rare, up to <code>reserve</code> neighbors beyond the capacity are memorized, which are
+     * used up as neighbors are removed over subsequent problems. The max distance is the max of the previous one and
+     * the distances to added jobs, i.e. removed jobs do not lower it.
+     *
+     * @param reserve  number of neighbors memorized beyond capacity, but not returned
+     * @param previous initialised neighborhoods of the previous problem, or null
+     */
+    JobNeighborhoodsOptimized(VehicleRoutingProblem vrp, JobDistance jobDistance, int capacity, int reserve, JobNeighborhoodsOptimized previous) {
         super();
         this.vrp = vrp;
         this.jobDistance = jobDistance;
         this.capacity = capacity;
+        this.reserve = reserve;
+        this.previous = previous;
         neighbors = new int[vrp.getJobsInclusiveInitialJobsInRoutes().size()+1][capacity];
         jobs = new Job[vrp.getJobsInclusiveInitialJobsInRoutes().size()+1];
         logger.debug("initialize {}", this);
     }
 
+    /**
+     * Sets whether neighborhoods are calculated in parallel on the common fork-join pool. The job distance (and thus
+     * usually the transport costs) is then called concurrently and must be thread-safe. Default is false.
+     */
+    void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     @Override
     public Iterator<Job> getNearestNeighborsIterator(int nNeighbors, Job neighborTo) {
         int jobIndex = vrp.getJobIndex(neighborTo);
@@ -98,7 +137,7 @@ class JobNeighborhoodsOptimized implements JobNeighborhoods {
         }
 
         int[] neighbors = this.neighbors[jobIndex - 1];
-        return new ArrayIterator(nNeighbors,neighbors,jobs);
+        return new ArrayIterator(Math.min(nNeighbors, capacity), neighbors, jobs);
     }
 
     @Override
@@ -117,33 +156,196 @@ class JobNeighborhoodsOptimized implements JobNeighborhoods {
         logger.debug("pre-process distances between locations ...");
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
-        for (Job job_i : vrp.getJobsInclusiveInitialJobsInRoutes().values()) {
-            if (job_i.getActivities().get(0).getLocation() == null) continue;
-            int jobIndex_i = vrp.getJobIndex(job_i);
-            jobs[jobIndex_i] = job_i;
-            List<ReferencedJob> jobList = new ArrayList<>(vrp.getJobsInclusiveInitialJobsInRoutes().values().size());
-            for (Job job_j : vrp.getJobsInclusiveInitialJobsInRoutes().values()) {
-                if (job_j.getActivities().get(0).getLocation() == null) continue;
-                if (job_i == job_j) continue;
-                double distance = jobDistance.getDistance(job_i, job_j);
-                if (distance > maxDistance) maxDistance = distance;
-                ReferencedJob referencedJob = new ReferencedJob(job_j, distance);
-                jobList.add(referencedJob);
-            }
-            jobList.sort(getComparator());
-            int neiborhoodSize = Math.min(capacity, jobList.size());
-            int[] jobIndices = new int[neiborhoodSize];
-            for (int index = 0; index < neiborhoodSize; index++) {
-                jobIndices[index] = vrp.getJobIndex(jobList.get(index).getJob());
+        List<Job> jobsWithLocation = new ArrayList<>(vrp.getJobsInclusiveInitialJobsInRoutes().size());
+        for (Job job : vrp.getJobsInclusiveInitialJobsInRoutes().values()) {
+            if (job.getActivities().get(0).getLocation() == null) continue;
+            jobs[vrp.getJobIndex(job)] = job;
+            jobsWithLocation.add(job);
+        }
+        Job[] candidates = jobsWithLocation.toArray(new Job[0]);
+        noCandidates = candidates.length;
+        if (previous == null) {
+            maxDistance = candidateIndices(candidates.length)
+                .mapToDouble(i -> calculateNeighbors(candidates, i))
+                .max().orElse(0.);
+        } else {
+            int[] previousIndices = new int[candidates.length];
+            int[] currentIndices = new int[previous.jobs.length];
+            List<Job> added = new ArrayList<>();
+            for (int i = 0; i < candidates.length; i++) {
+                previousIndices[i] = previous.indexOfEquivalent(candidates[i]);
+                if (previousIndices[i] > 0) currentIndices[previousIndices[i]] = vrp.getJobIndex(candidates[i]);
+                else added.add(candidates[i]);
             }
-            neighbors[jobIndex_i - 1] = jobIndices;
+            Job[] addedJobs = added.toArray(new Job[0]);
+            logger.debug("reuse neighborhoods of previous problem, {} jobs added", addedJobs.length);
+            maxDistance = candidateIndices(candidates.length)
+                .mapToDouble(i -> previousIndices[i] > 0 ? updateNeighbors(candidates, i, addedJobs, previousIndices[i], currentIndices) : calculateNeighbors(candidates, i))
+                .max().orElse(0.);
+            maxDistance = Math.max(maxDistance, previous.maxDistance);
+            //do not keep the chain of previous problems alive
+            previous = null;
         }
         stopWatch.stop();
         logger.debug("pre-processing comp-time: {}", stopWatch);
     }
 
-    private Comparator<ReferencedJob> getComparator(){
-        return Comparator.comparingDouble(ReferencedJob::getDistance);
+    private IntStream candidateIndices(int noCandidates) {
+        IntStream indices = IntStream.range(0, noCandidates);
+        return parallel ? indices.parallel() : indices;
+    }
+
+    /**
+     * Selects the <code>capacity</code> nearest neighbors of candidates[i] with a bounded max-heap, i.e. in
+     * O(n log k) instead of sorting all n distances. Ties are resolved by candidate order, as a stable sort would do.
+     *
+     * @return the max distance from candidates[i] to any other candidate
+     */
+    private double calculateNeighbors(Job[] candidates, int i) {
+        Job job_i = candidates[i];
+        int neighborhoodSize = Math.min(capacity + reserve, candidates.length - 1);
+        double[] heapDistances = new double[neighborhoodSize];
+        int[] heapPositions = new int[neighborhoodSize];
+        int heapSize = 0;
+        double max = 0.;
+        for (int j = 0; j < candidates.length; j++) {
+            if (j == i) continue;
+            double distance = jobDistance.getDistance(job_i, candidates[j]);
+            if (distance > max) max = distance;
+            if (heapSize < neighborhoodSize) {
+                int child = heapSize++;
+                while (child > 0) {
+                    int parent = (child - 1) >>> 1;
+                    if (heapDistances[parent] > distance) break;
+                    heapDistances[child] = heapDistances[parent];
+                    heapPositions[child] = heapPositions[parent];
+                    child = parent;
+                }
+                heapDistances[child] = distance;
+                heapPositions[child] = j;
+            } else if (neighborhoodSize > 0 && distance < heapDistances[0]) {
+                siftDown(heapDistances, heapPositions, heapSize, distance, j);
+            }
+        }
+        int[] jobIndices = new int[neighborhoodSize];
+        for (int index = neighborhoodSize - 1; index >= 0; index--) {
+            jobIndices[index] = vrp.getJobIndex(candidates[heapPositions[0]]);
+            heapSize--;
+            siftDown(heapDistances, heapPositions, heapSize, heapDistances[heapSize], heapPositions[heapSize]);
+        }
+        neighbors[vrp.getJobIndex(job_i) - 1] = jobIndices;
+        return max;
+    }
+
+    /**
+     * Merges the previous neighborhood of candidates[i] (without removed jobs) with the added jobs.
+     *
+     * @param previousIndex  index of candidates[i] in the previous problem
+     * @param currentIndices index in this problem by index in the previous problem, 0 if the job has been removed
+     * @return the max distance from candidates[i] to any added job
+     */
+    private double updateNeighbors(Job[] candidates, int i, Job[] addedJobs, int previousIndex, int[] currentIndices) {
+        Job job_i = candidates[i];
+        int[] previousNeighbors = previous.neighbors[previousIndex - 1];
+        boolean truncated = previousNeighbors.length < previous.noCandidates - 1;
+        //sort added jobs by distance, ties resolved by candidate order
+        Job[] added = new Job[addedJobs.length];
+        double[] addedDistances = new double[addedJobs.length];
+        int noAdded = 0;
+        double max = 0.;
+        for (Job addedJob : addedJobs) {
+            if (addedJob == job_i) continue;
+            double distance = jobDistance.getDistance(job_i, addedJob);
+            if (distance > max) max = distance;
+            int k = noAdded++;
+            while (k > 0 && addedDistances[k - 1] > distance) {
+                added[k] = added[k - 1];
+                addedDistances[k] = addedDistances[k - 1];
+                k--;
+            }
+            added[k] = addedJob;
+            addedDistances[k] = distance;
+        }
+        //remaining previous neighbors, still sorted by distance
+        int[] remaining = new int[previousNeighbors.length];
+        int noRemaining = 0;
+        for (int previousNeighbor : previousNeighbors) {
+            int neighborIndex = currentIndices[previousNeighbor];
+            if (neighborIndex > 0) remaining[noRemaining++] = neighborIndex;
+        }
+        //merge added jobs in, binary searching their positions such that only O(log n) distances per added job are needed
+        double[] remainingDistances = new double[noRemaining];
+        Arrays.fill(remainingDistances, Double.NaN);
+        int neighborhoodSize = Math.min(capacity + reserve, candidates.length - 1);
+        int[] jobIndices = new int[neighborhoodSize];
+        int size = 0;
+        int r = 0;
+        for (int a = 0; a < noAdded && size < neighborhoodSize; a++) {
+            int low = r;
+            int high = noRemaining;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (Double.isNaN(remainingDistances[mid])) remainingDistances[mid] = jobDistance.getDistance(job_i, jobs[remaining[mid]]);
+                if (remainingDistances[mid] <= addedDistances[a]) low = mid + 1;
+                else high = mid;
+            }
+            //jobs beyond a truncated previous neighborhood might be nearer than this added job
+            if (truncated && low == noRemaining) break;
+            while (r < low && size < neighborhoodSize) jobIndices[size++] = remaining[r++];
+            if (size < neighborhoodSize) jobIndices[size++] = vrp.getJobIndex(added[a]);
+        }
+        while (r < noRemaining && size < neighborhoodSize) jobIndices[size++] = remaining[r++];
+        //the neighborhood is only known up to here. use up the reserve, but not the capacity
+        if (truncated && size < Math.min(capacity, candidates.length - 1)) return calculateNeighbors(candidates, i);
+        neighbors[vrp.getJobIndex(job_i) - 1] = size == neighborhoodSize ? jobIndices : Arrays.copyOf(jobIndices, size);
+        return max;
+    }
+
+    /*
+     * index of job in this problem if it is one of the candidates, otherwise 0
+     */
+    private int indexOf(Job job) {
+        int index = vrp.getJobIndex(job);
+        if (index > 0 && index < jobs.length && jobs[index] == job) return index;
+        return 0;
+    }
+
+    /*
+     * index of job, or of a candidate with the same id, type and activity locations, otherwise 0
+     */
+    private int indexOfEquivalent(Job job) {
+        int index = indexOf(job);
+        if (index > 0) return index;
+        Job candidate = vrp.getJobsInclusiveInitialJobsInRoutes().get(job.getId());
+        if (candidate == null || candidate.getClass() != job.getClass()) return 0;
+        List<Activity> activities = job.getActivities();
+        List<Activity> candidateActivities = candidate.getActivities();
+        if (activities.size() != candidateActivities.size()) return 0;
+        for (int a = 0; a < activities.size(); a++) {
+            if (!Objects.equals(activities.get(a).getLocation(), candidateActivities.get(a).getLocation())) return 0;
+        }
+        return indexOf(candidate);
+    }
+
+    private static void siftDown(double[] heapDistances, int[] heapPositions, int heapSize, double distance, int position) {
+        int parent = 0;
+        int child;
+        while ((child = 2 * parent + 1) < heapSize) {
+            if (child + 1 < heapSize && isWorse(heapDistances, heapPositions, child + 1, child)) child++;
+            if (heapDistances[child] < distance || (heapDistances[child] == distance && heapPositions[child] < position))
+                break;
+            heapDistances[parent] = heapDistances[child];
+            heapPositions[parent] = heapPositions[child];
+            parent = child;
+        }
+        if (heapSize > 0) {
+            heapDistances[parent] = distance;
+            heapPositions[parent] = position;
+        }
+    }
+
+    private static boolean isWorse(double[] heapDistances, int[] heapPositions, int a, int b) {
+        return heapDistances[a] > heapDistances[b] || (heapDistances[a] == heapDistances[b] && heapPositions[a] > heapPositions[b]);
     }
 
     @Override
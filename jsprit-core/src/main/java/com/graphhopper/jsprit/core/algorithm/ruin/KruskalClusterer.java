@@ -17,85 +17,50 @@
  */
 package com.graphhopper.jsprit.core.algorithm.ruin;
 
+import com.graphhopper.jsprit.core.problem.Location;
 import com.graphhopper.jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import com.graphhopper.jsprit.core.problem.job.Job;
 import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
 import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
 import com.graphhopper.jsprit.core.util.RandomNumberGeneration;
 
 import java.util.*;
 
 /**
- * Clusters jobs in a route using Kruskal's Minimum Spanning Tree algorithm.
+ * Clusters jobs in a route using a Minimum Spanning Tree.
  * <p>
  * Algorithm:
- * 1. Build complete distance graph between all jobs in route
- * 2. Run Kruskal's algorithm to build MST
- * 3. Remove longest edge in MST
- * 4. Result: exactly 2 clusters (connected components)
+ * 1. Build the MST of the complete distance graph between all jobs in route
+ * 2. Remove longest edge in MST
+ * 3. Result: exactly 2 clusters (connected components)
+ * <p>
+ * The MST is built with Prim's algorithm on the dense graph, i.e. in O(n²) time with O(n) primitive scratch memory
+ * that is reused across calls, instead of materialising and sorting all n²/2 edges as Kruskal's algorithm would.
+ * Both yield a minimum spanning tree and thus the same clusters (up to ties).
+ * <p>
+ * Optionally, clusters are cached per route version (see {@link #setCacheSize(int)}) such that repeated
+ * clustering of unchanged routes is free.
  * <p>
  * Ranked #2 in Voigt (2025) "A review and ranking of operators in adaptive large
  * neighborhood search for vehicle routing problems."
  */
 public class KruskalClusterer {
 
-    private static class Edge implements Comparable<Edge> {
-        final int from;
-        final int to;
-        final double distance;
-
-        Edge(int from, int to, double distance) {
-            this.from = from;
-            this.to = to;
-            this.distance = distance;
-        }
-
-        @Override
-        public int compareTo(Edge other) {
-            return Double.compare(this.distance, other.distance);
-        }
-    }
-
-    private static class UnionFind {
-        private final int[] parent;
-        private final int[] rank;
-
-        UnionFind(int n) {
-            parent = new int[n];
-            rank = new int[n];
-            for (int i = 0; i < n; i++) {
-                parent[i] = i;
-                rank[i] = 0;
-            }
-        }
-
-        int find(int x) {
-            if (parent[x] != x) {
-                parent[x] = find(parent[x]); // path compression
-            }
-            return parent[x];
-        }
-
-        void union(int x, int y) {
-            int px = find(x);
-            int py = find(y);
-            if (px == py) return;
-
-            // union by rank
-            if (rank[px] < rank[py]) {
-                parent[px] = py;
-            } else if (rank[px] > rank[py]) {
-                parent[py] = px;
-            } else {
-                parent[py] = px;
-                rank[px]++;
-            }
-        }
+    private record CacheKey(long routeVersion, Vehicle vehicle) {
     }
 
     private final VehicleRoutingTransportCosts costs;
     private Random random = RandomNumberGeneration.getRandom();
 
+    private Map<CacheKey, List<List<Job>>> cache;
+
+    private Location[] locations = new Location[0];
+    private double[] minDistances = new double[0];
+    private int[] parents = new int[0];
+    private int[] order = new int[0];
+    private boolean[] inTree = new boolean[0];
+
     public KruskalClusterer(VehicleRoutingTransportCosts costs) {
         this.costs = costs;
     }
@@ -104,6 +69,27 @@ public class KruskalClusterer {
         this.random = random;
     }
 
+    /**
+     * Caches the clusters of up to cacheSize routes, keyed by route version and vehicle (see
+     * {@link com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivities#getVersion()}). Routes with the
+     * same version contain the same activity sequence and thus yield the same clusters. Least recently used entries
+     * are evicted first. A size of 0 (default) disables caching.
+     *
+     * @param cacheSize max. number of routes whose clusters are cached
+     */
+    public void setCacheSize(int cacheSize) {
+        if (cacheSize <= 0) {
+            cache = null;
+            return;
+        }
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, List<List<Job>>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
     /**
      * Returns two clusters from the route by cutting the longest MST edge.
      *
@@ -111,6 +97,19 @@ public class KruskalClusterer {
      * @return list containing exactly 2 clusters, or empty list if route has < 2 jobs
      */
     public List<List<Job>> getClusters(VehicleRoute route) {
+        if (cache == null) {
+            return calculateClusters(route);
+        }
+        CacheKey key = new CacheKey(route.getTourActivities().getVersion(), route.getVehicle());
+        List<List<Job>> clusters = cache.get(key);
+        if (clusters == null) {
+            clusters = calculateClusters(route);
+            cache.put(key, clusters);
+        }
+        return clusters;
+    }
+
+    private List<List<Job>> calculateClusters(VehicleRoute route) {
         List<Job> jobs = new ArrayList<>(route.getTourActivities().getJobs());
         // Sort by job ID for deterministic behavior (Set has no guaranteed order)
         jobs.sort(Comparator.comparing(Job::getId));
@@ -119,103 +118,86 @@ public class KruskalClusterer {
         if (n < 2) {
             return Collections.emptyList();
         }
+        ensureCapacity(n);
 
-        // Build location map for jobs (handle jobs with multiple activities)
-        Map<Job, TourActivity> jobToActivity = new HashMap<>();
+        // Location of first activity of each job (handle jobs with multiple activities)
+        Map<Job, Location> jobToLocation = new IdentityHashMap<>(n);
         for (TourActivity act : route.getActivities()) {
             if (act instanceof TourActivity.JobActivity) {
-                Job job = ((TourActivity.JobActivity) act).getJob();
-                if (!jobToActivity.containsKey(job)) {
-                    jobToActivity.put(job, act);
-                }
+                jobToLocation.putIfAbsent(((TourActivity.JobActivity) act).getJob(), act.getLocation());
             }
         }
-
-        // Build complete graph with all edges
-        List<Edge> edges = new ArrayList<>();
         for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                TourActivity act1 = jobToActivity.get(jobs.get(i));
-                TourActivity act2 = jobToActivity.get(jobs.get(j));
-                if (act1 != null && act2 != null) {
-                    double dist = costs.getDistance(
-                            act1.getLocation(), act2.getLocation(), 0, route.getVehicle());
-                    edges.add(new Edge(i, j, dist));
+            locations[i] = jobToLocation.get(jobs.get(i));
+            minDistances[i] = Double.MAX_VALUE;
+            parents[i] = -1;
+            inTree[i] = false;
+        }
+
+        // Prim's algorithm starting at job 0; order holds the jobs in the sequence they are added to the tree
+        int cutChild = -1;
+        double cutDistance = -1;
+        int current = 0;
+        inTree[0] = true;
+        order[0] = 0;
+        for (int added = 1; added < n; added++) {
+            int next = -1;
+            double nextDistance = Double.MAX_VALUE;
+            for (int j = 0; j < n; j++) {
+                if (inTree[j]) continue;
+                double distance = costs.getDistance(locations[current], locations[j], 0, route.getVehicle());
+                if (distance < minDistances[j]) {
+                    minDistances[j] = distance;
+                    parents[j] = current;
                 }
-            }
-        }
-
-        if (edges.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // Sort edges by distance (ascending)
-        Collections.sort(edges);
-
-        // Kruskal's algorithm to build MST
-        UnionFind uf = new UnionFind(n);
-        List<Edge> mstEdges = new ArrayList<>();
-
-        for (Edge e : edges) {
-            if (uf.find(e.from) != uf.find(e.to)) {
-                uf.union(e.from, e.to);
-                mstEdges.add(e);
-                if (mstEdges.size() == n - 1) {
-                    break; // MST complete
+                if (next == -1 || minDistances[j] < nextDistance) {
+                    next = j;
+                    nextDistance = minDistances[j];
                 }
             }
+            inTree[next] = true;
+            order[added] = next;
+            if (nextDistance > cutDistance) {
+                cutChild = next;
+                cutDistance = nextDistance;
+            }
+            current = next;
         }
 
-        if (mstEdges.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // Find and remove longest edge
-        Edge longestEdge = Collections.max(mstEdges, Comparator.comparingDouble(e -> e.distance));
-        mstEdges.remove(longestEdge);
-
-        // Build adjacency list from remaining MST edges
-        List<List<Integer>> adj = new ArrayList<>();
-        for (int i = 0; i < n; i++) {
-            adj.add(new ArrayList<>());
-        }
-        for (Edge e : mstEdges) {
-            adj.get(e.from).add(e.to);
-            adj.get(e.to).add(e.from);
-        }
-
-        // BFS to find first cluster (starting from one side of removed edge)
-        Set<Integer> cluster1Indices = new HashSet<>();
-        Queue<Integer> queue = new LinkedList<>();
-        queue.add(longestEdge.from);
-        cluster1Indices.add(longestEdge.from);
-
-        while (!queue.isEmpty()) {
-            int node = queue.poll();
-            for (int neighbor : adj.get(node)) {
-                if (!cluster1Indices.contains(neighbor)) {
-                    cluster1Indices.add(neighbor);
-                    queue.add(neighbor);
-                }
-            }
+        // Cutting the longest edge separates the subtree of its child; parents are added before their children
+        for (int i = 0; i < n; i++) inTree[i] = false;
+        inTree[cutChild] = true;
+        for (int added = 1; added < n; added++) {
+            int j = order[added];
+            if (j != cutChild && inTree[parents[j]]) inTree[j] = true;
         }
+        for (int i = 0; i < n; i++) locations[i] = null;
 
-        // Build cluster lists
+        // Cluster 1 contains the endpoint of the cut edge with the lower index
+        boolean cluster1IsSubtree = cutChild < parents[cutChild];
         List<Job> cluster1 = new ArrayList<>();
         List<Job> cluster2 = new ArrayList<>();
-
         for (int i = 0; i < n; i++) {
-            if (cluster1Indices.contains(i)) {
+            if (inTree[i] == cluster1IsSubtree) {
                 cluster1.add(jobs.get(i));
             } else {
                 cluster2.add(jobs.get(i));
             }
         }
 
-        List<List<Job>> result = new ArrayList<>();
-        result.add(cluster1);
-        result.add(cluster2);
-        return result;
+        List<List<Job>> result = new ArrayList<>(2);
+        result.add(Collections.unmodifiableList(cluster1));
+        result.add(Collections.unmodifiableList(cluster2));
+        return Collections.unmodifiableList(result);
+    }
+
+    private void ensureCapacity(int n) {
+        if (locations.length >= n) return;
+        locations = new Location[n];
+        minDistances = new double[n];
+        parents = new int[n];
+        order = new int[n];
+        inTree = new boolean[n];
     }
 
     /**
@@ -49,6 +49,8 @@ public final class RuinKruskalClusters extends AbstractRuinStrategy {
 
     private static final Logger logger = LoggerFactory.getLogger(RuinKruskalClusters.class);
 
+    private static final int MIN_CACHE_SIZE = 64;
+
     private final VehicleRoutingProblem vrp;
     private final JobNeighborhoods jobNeighborhoods;
     private final KruskalClusterer clusterer;
@@ -60,6 +62,8 @@ public final class RuinKruskalClusters extends AbstractRuinStrategy {
         this.vrp = vrp;
         this.jobNeighborhoods = jobNeighborhoods;
         this.clusterer = new KruskalClusterer(vrp.getTransportCosts());
+        // routes the search did not change since they were last clustered are not clustered again
+        this.clusterer.setCacheSize(Math.max(MIN_CACHE_SIZE, 2 * vrp.getVehicles().size()));
         setRuinShareFactory(() -> initialNumberJobsToRemove);
         logger.debug("initialise {}", this);
     }
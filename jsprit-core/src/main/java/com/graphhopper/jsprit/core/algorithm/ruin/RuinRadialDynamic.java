@@ -23,6 +23,9 @@ import com.graphhopper.jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import com.graphhopper.jsprit.core.problem.job.Job;
 import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
 import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
+import com.graphhopper.jsprit.core.util.Coordinate;
+import com.graphhopper.jsprit.core.util.CrowFlyCosts;
+import com.graphhopper.jsprit.core.util.EuclideanCosts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,7 +43,9 @@ import java.util.*;
  * <p>
  * The trade-off is slightly higher runtime cost O(m·log(k)) vs O(k) per call,
  * where m is the number of activities in routes and k is the number of jobs to remove.
- * For typical VRP sizes, this overhead is negligible.
+ * For typical VRP sizes, this overhead is negligible. If transport costs are euclidean ({@link EuclideanCosts} or
+ * {@link CrowFlyCosts}), neighbors of jobs with static locations are looked up in a 2-d tree over the activity
+ * coordinates instead, and only activities of locationless jobs are scanned.
  *
  * @author schroeder
  */
@@ -52,6 +57,12 @@ public final class RuinRadialDynamic extends AbstractRuinStrategy {
 
     private final int noJobsToMemorize;
 
+    private final boolean euclidean;
+
+    private JobLocationIndex locationIndex;
+
+    private boolean hasUnindexedJobs;
+
     /**
      * Constructs RuinRadialRevised.
      *
@@ -61,6 +72,7 @@ public final class RuinRadialDynamic extends AbstractRuinStrategy {
     public RuinRadialDynamic(VehicleRoutingProblem vrp, double fraction2beRemoved) {
         super(vrp);
         this.transportCosts = vrp.getTransportCosts();
+        this.euclidean = isEuclidean(transportCosts);
         this.noJobsToMemorize = (int) Math.ceil(vrp.getJobs().size() * fraction2beRemoved);
         this.ruinShareFactory = () -> noJobsToMemorize;
         logger.debug("initialise {}", this);
@@ -75,11 +87,17 @@ public final class RuinRadialDynamic extends AbstractRuinStrategy {
     public RuinRadialDynamic(VehicleRoutingProblem vrp, int noJobs2beRemoved) {
         super(vrp);
         this.transportCosts = vrp.getTransportCosts();
+        this.euclidean = isEuclidean(transportCosts);
         this.noJobsToMemorize = noJobs2beRemoved;
         this.ruinShareFactory = () -> noJobsToMemorize;
         logger.debug("initialise {}", this);
     }
 
+    private static boolean isEuclidean(VehicleRoutingTransportCosts transportCosts) {
+        //subclasses might calculate distances differently
+        return transportCosts.getClass() == EuclideanCosts.class || transportCosts.getClass() == CrowFlyCosts.class;
+    }
+
     @Override
     public String toString() {
         return "[name=radialRuinRevised][noJobsToBeRemoved=" + noJobsToMemorize + "]";
@@ -183,14 +201,17 @@ public final class RuinRadialDynamic extends AbstractRuinStrategy {
         Location seedLocation = seedActivity.getLocation();
         int nNeighbors = nOfActivities2BeRemoved - removedActivities;
 
-        List<JobActivityDistance> nearestNeighbors = findNearestNeighbors(
-                seedLocation, allJobActivities, removedJobIds, nNeighbors);
+        List<Job> nearestNeighbors;
+        if (euclidean && seedLocation.getCoordinate() != null) {
+            nearestNeighbors = findNearestNeighborsInIndex(seedLocation, vehicleRoutes, allJobActivities, removedJobIds, nNeighbors);
+        } else {
+            nearestNeighbors = toJobs(findNearestNeighbors(seedLocation, allJobActivities, removedJobIds, nNeighbors));
+        }
 
-        for (JobActivityDistance neighbor : nearestNeighbors) {
+        for (Job job : nearestNeighbors) {
             if (removedActivities >= nOfActivities2BeRemoved) {
                 return unassignedJobs;
             }
-            Job job = neighbor.activity.getJob();
             if (!removedJobIds.contains(job.getId())) {
                 if (removeJob(job, vehicleRoutes)) {
                     unassignedJobs.add(job);
@@ -203,6 +224,69 @@ public final class RuinRadialDynamic extends AbstractRuinStrategy {
         return unassignedJobs;
     }
 
+    private static List<Job> toJobs(List<JobActivityDistance> neighbors) {
+        List<Job> jobs = new ArrayList<>(neighbors.size());
+        for (JobActivityDistance neighbor : neighbors) {
+            jobs.add(neighbor.activity.getJob());
+        }
+        return jobs;
+    }
+
+    /*
+     * finds the k nearest activities of indexed jobs in the index and merges them with the activities of the
+     * remaining (locationless) jobs which are scanned. Route membership of indexed jobs is only checked for the
+     * candidates the index visits, i.e. in O(noRoutes) each.
+     */
+    private List<Job> findNearestNeighborsInIndex(Location seedLocation,
+                                                  Collection<VehicleRoute> vehicleRoutes,
+                                                  List<TourActivity.JobActivity> allActivities,
+                                                  Set<String> excludeJobIds,
+                                                  int k) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        if (locationIndex == null) {
+            locationIndex = JobLocationIndex.of(vrp.getJobsInclusiveInitialJobsInRoutes().values());
+            hasUnindexedJobs = locationIndex.size() < vrp.getJobsInclusiveInitialJobsInRoutes().size()
+                || vrp.getVehicles().stream().anyMatch(v -> v.getBreak() != null);
+        }
+        List<TourActivity.JobActivity> notIndexed = new ArrayList<>();
+        if (hasUnindexedJobs) {
+            for (TourActivity.JobActivity activity : allActivities) {
+                if (!locationIndex.contains(activity.getJob())) {
+                    notIndexed.add(activity);
+                }
+            }
+        }
+        Coordinate seed = seedLocation.getCoordinate();
+        Job[] indexedJobs = new Job[k];
+        double[] indexedDistances = new double[k];
+        int noIndexed = locationIndex.findNearest(seed.getX(), seed.getY(), k,
+            job -> !excludeJobIds.contains(job.getId()) && isInRoutes(job, vehicleRoutes), indexedJobs, indexedDistances);
+        List<JobActivityDistance> others = findNearestNeighbors(seedLocation, notIndexed, excludeJobIds, k);
+        double detourFactor = ((EuclideanCosts) transportCosts).detourFactor;
+        List<Job> result = new ArrayList<>(Math.min(k, noIndexed + others.size()));
+        int i = 0;
+        int j = 0;
+        while (result.size() < k && (i < noIndexed || j < others.size())) {
+            if (j >= others.size() || (i < noIndexed && indexedDistances[i] * detourFactor <= others.get(j).distance)) {
+                result.add(indexedJobs[i++]);
+            } else {
+                result.add(others.get(j++).activity.getJob());
+            }
+        }
+        return result;
+    }
+
+    private static boolean isInRoutes(Job job, Collection<VehicleRoute> vehicleRoutes) {
+        for (VehicleRoute route : vehicleRoutes) {
+            if (route.getTourActivities().servesJob(job)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private List<JobActivityDistance> findNearestNeighbors(Location seedLocation,
                                                            List<TourActivity.JobActivity> allActivities,
                                                            Set<String> excludeJobIds,
@@ -106,7 +106,13 @@ public final class RuinTimeRelated extends AbstractRuinStrategy {
         if (targetActivity == null) {
             return unassignedJobs;
         }
-        List<RelatednessToTourActivity> neighborActivities = new ArrayList<>();
+        final double timeInfluence = 10;
+        final double distanceI;
+        double distanceInfluence = 1;
+        if (random.nextDouble() < 0.5) {
+            distanceI = 0;
+        } else distanceI = distanceInfluence;
+        List<RelatednessToTourActivity> neighborActivities = new ArrayList<>(totalActivities);
         long maxTime = 0;
         double maxDistance = 0;
         for (VehicleRoute route : vehicleRoutes) {
@@ -114,27 +120,32 @@ public final class RuinTimeRelated extends AbstractRuinStrategy {
                 if (activity == targetActivity) continue;
                 long absTime = Math.abs((long) targetActivity.getArrTime() - (long) activity.getArrTime());
                 maxTime = Math.max(maxTime, absTime);
-                double distance = Math.abs(vrp.getTransportCosts().getDistance(targetActivity.getLocation(), activity.getLocation(), 0, route.getVehicle()));
-                maxDistance = Math.max(maxDistance, distance);
+                //distances do not matter if they have no influence
+                double distance = 0;
+                if (distanceI != 0) {
+                    distance = Math.abs(vrp.getTransportCosts().getDistance(targetActivity.getLocation(), activity.getLocation(), 0, route.getVehicle()));
+                    maxDistance = Math.max(maxDistance, distance);
+                }
                 neighborActivities.add(new RelatednessToTourActivity(absTime, distance, activity, route));
             }
         }
-        final double maxT = maxTime;
-        final double maxD = maxDistance;
-        final double timeInfluence = 10;
-        final double distanceI;
-        double distanceInfluence = 1;
-        if (random.nextDouble() < 0.5) {
-            distanceI = 0;
-        } else distanceI = distanceInfluence;
-        neighborActivities.sort((o1, o2) -> {
-            double rO1 = relatedness(o1, maxD, maxT, timeInfluence, distanceI);
-            double rO2 = relatedness(o2, maxD, maxT, timeInfluence, distanceI);
-            return Double.compare(rO1, rO2);
-        });
+        int noNeighbors = neighborActivities.size();
+        double[] relatedness = new double[noNeighbors];
+        int[] heap = new int[noNeighbors];
+        for (int i = 0; i < noNeighbors; i++) {
+            relatedness[i] = relatedness(neighborActivities.get(i), maxDistance, maxTime, timeInfluence, distanceI);
+            heap[i] = i;
+        }
+        //most related activities are taken from a heap since usually only a few of them are removed
+        for (int i = noNeighbors / 2 - 1; i >= 0; i--) {
+            siftDown(heap, noNeighbors, i, relatedness);
+        }
+        int heapSize = noNeighbors;
         int toRemove = getRuinShareFactory().createNumberToBeRemoved();
-        for (RelatednessToTourActivity neighborActivity : neighborActivities) {
-            if (toRemove == 0) break;
+        while (toRemove > 0 && heapSize > 0) {
+            RelatednessToTourActivity neighborActivity = neighborActivities.get(heap[0]);
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, 0, relatedness);
             Job j = ((TourActivity.JobActivity) neighborActivity.tourActivity).getJob();
             if (removeJob(j, neighborActivity.route)) {
                 unassignedJobs.add(j);
@@ -144,6 +155,27 @@ public final class RuinTimeRelated extends AbstractRuinStrategy {
         return unassignedJobs;
     }
 
+    /*
+     * min-heap of neighbor positions; ties are broken by position to remove equally related activities in route order
+     */
+    private static void siftDown(int[] heap, int heapSize, int i, double[] relatedness) {
+        int position = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && isLess(heap[child + 1], heap[child], relatedness)) child++;
+            if (!isLess(heap[child], position, relatedness)) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = position;
+    }
+
+    private static boolean isLess(int a, int b, double[] relatedness) {
+        int c = Double.compare(relatedness[a], relatedness[b]);
+        return c < 0 || (c == 0 && a < b);
+    }
+
     private double relatedness(RelatednessToTourActivity o1, double maxDistance, double maxTime, double timeInfluence, double distanceInfluence) {
         double time;
         if (maxTime == 0) {
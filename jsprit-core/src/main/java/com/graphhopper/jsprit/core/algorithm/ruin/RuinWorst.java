@@ -39,12 +39,116 @@ import java.util.*;
 
 public final class RuinWorst extends AbstractRuinStrategy {
 
+    /**
+     * Max-heap of job indices ordered by savings that supports updating the savings of a job in O(log n).
+     */
+    private static final class SavingsHeap {
+
+        private final double[] savings;
+
+        private final int[] heap;
+
+        private final int[] positions;
+
+        private int size;
+
+        SavingsHeap(int noIndices) {
+            savings = new double[noIndices];
+            heap = new int[noIndices];
+            positions = new int[noIndices];
+            Arrays.fill(positions, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean contains(int index) {
+            return positions[index] >= 0;
+        }
+
+        double getSavings(int index) {
+            return savings[index];
+        }
+
+        void add(int index, double value) {
+            savings[index] = value;
+            heap[size] = index;
+            positions[index] = size;
+            siftUp(size++);
+        }
+
+        void update(int index, double value) {
+            double old = savings[index];
+            savings[index] = value;
+            if (value > old) siftUp(positions[index]);
+            else siftDown(positions[index]);
+        }
+
+        int poll() {
+            int top = heap[0];
+            positions[top] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                positions[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) positions[heap[i]] = -1;
+            size = 0;
+        }
+
+        private void siftUp(int pos) {
+            int index = heap[pos];
+            while (pos > 0) {
+                int parent = (pos - 1) >>> 1;
+                if (savings[heap[parent]] >= savings[index]) break;
+                move(heap[parent], pos);
+                pos = parent;
+            }
+            move(index, pos);
+        }
+
+        private void siftDown(int pos) {
+            int index = heap[pos];
+            while (true) {
+                int child = 2 * pos + 1;
+                if (child >= size) break;
+                if (child + 1 < size && savings[heap[child + 1]] > savings[heap[child]]) child++;
+                if (savings[heap[child]] <= savings[index]) break;
+                move(heap[child], pos);
+                pos = child;
+            }
+            move(index, pos);
+        }
+
+        private void move(int index, int pos) {
+            heap[pos] = index;
+            positions[index] = pos;
+        }
+    }
+
     private static Logger logger = LoggerFactory.getLogger(RuinWorst.class);
 
     private VehicleRoutingProblem vrp;
 
     private NoiseMaker noiseMaker = () -> 0;
 
+    // buffers indexed by job index, reused across calls
+    private VehicleRoute[] jobRoutes = new VehicleRoute[0];
+
+    private boolean[] ineligible = new boolean[0];
+
+    private SavingsHeap heap = new SavingsHeap(0);
+
+    private Job[] neighbors = new Job[8];
+
+    private double[] neighborSavings = new double[8];
+
     public void setNoiseMaker(NoiseMaker noiseMaker) {
         this.noiseMaker = noiseMaker;
     }
@@ -71,182 +175,118 @@ public final class RuinWorst extends AbstractRuinStrategy {
 
     private void ruin(Collection<VehicleRoute> vehicleRoutes, int nOfJobs2BeRemoved, List<Job> unassignedJobs) {
         int toRemove = nOfJobs2BeRemoved;
-        Set<Job> tabu = new HashSet<>();
+        ensureCapacity(vrp.getNuJobs() + 1);
 
         // Calculate savings once for all jobs - O(n) instead of O(k*n)
-        Map<Job, Double> jobToSavings = new HashMap<>();
-        NavigableMap<Double, Set<Job>> savingsToJobs = new TreeMap<>();
-        Map<Job, VehicleRoute> jobToRoute = new HashMap<>();
-
-        initializeSavings(vehicleRoutes, jobToSavings, savingsToJobs, jobToRoute);
+        initializeSavings(vehicleRoutes);
 
         while (toRemove > 0) {
-            Job worst = getWorstFromSortedMap(savingsToJobs, jobToSavings, tabu);
-            if (worst == null) break;
-
-            VehicleRoute affectedRoute = jobToRoute.get(worst);
+            int worstIndex = pollWorst();
+            if (worstIndex == 0) break;
+            Job worst = vrp.getJobByIndex(worstIndex);
+            VehicleRoute affectedRoute = jobRoutes[worstIndex];
 
             // Collect neighbors before removal for incremental update
-            List<Job> neighborsToUpdate = getNeighborJobs(worst, affectedRoute);
+            int noNeighbors = collectNeighbors(worst, affectedRoute);
 
             if (removeJob(worst, vehicleRoutes)) {
                 unassignedJobs.add(worst);
-                // Remove the job from our tracking structures
-                removeJobFromSavingsMap(worst, jobToSavings, savingsToJobs);
-                jobToRoute.remove(worst);
-
                 // Incrementally update only the affected neighbors
-                if (affectedRoute != null && !affectedRoute.isEmpty()) {
-                    updateNeighborSavings(neighborsToUpdate, affectedRoute, jobToSavings, savingsToJobs);
+                if (!affectedRoute.isEmpty() && noNeighbors > 0) {
+                    updateNeighborSavings(affectedRoute, noNeighbors);
                 }
             } else {
-                tabu.add(worst);
+                ineligible[worstIndex] = true;
             }
             toRemove--;
         }
+        heap.clear();
+    }
+
+    private void ensureCapacity(int noIndices) {
+        if (jobRoutes.length >= noIndices) return;
+        jobRoutes = new VehicleRoute[noIndices];
+        ineligible = new boolean[noIndices];
+        heap = new SavingsHeap(noIndices);
     }
 
-    private void initializeSavings(Collection<VehicleRoute> vehicleRoutes,
-                                   Map<Job, Double> jobToSavings,
-                                   NavigableMap<Double, Set<Job>> savingsToJobs,
-                                   Map<Job, VehicleRoute> jobToRoute) {
+    private void initializeSavings(Collection<VehicleRoute> vehicleRoutes) {
+        Arrays.fill(ineligible, false);
         for (VehicleRoute route : vehicleRoutes) {
             if (route.isEmpty()) continue;
-            calculateSavingsForRoute(route, jobToSavings, savingsToJobs, jobToRoute);
+            calculateSavingsForRoute(route);
         }
     }
 
-    private Job getWorstFromSortedMap(NavigableMap<Double, Set<Job>> savingsToJobs,
-                                      Map<Job, Double> jobToSavings,
-                                      Set<Job> tabu) {
-        // Iterate from highest savings to lowest - O(log n) to get highest entry
-        while (!savingsToJobs.isEmpty()) {
-            Map.Entry<Double, Set<Job>> highestEntry = savingsToJobs.lastEntry();
-            if (highestEntry == null) return null;
-
-            Set<Job> jobs = highestEntry.getValue();
-            Iterator<Job> iterator = jobs.iterator();
-
-            while (iterator.hasNext()) {
-                Job job = iterator.next();
-
-                if (tabu.contains(job) || !vrp.getJobs().containsKey(job.getId())) {
-                    continue;
-                }
-
-                if (!jobFilter.accept(job)) {
-                    continue;
-                }
-
-                return job;
+    /*
+     * removes jobs that cannot be ruined from the top of the heap and returns the index of the one with the highest
+     * savings, or 0 if there is none
+     */
+    private int pollWorst() {
+        while (!heap.isEmpty()) {
+            int index = heap.poll();
+            if (ineligible[index]) continue;
+            Job job = vrp.getJobByIndex(index);
+            if (job == null || !vrp.getJobs().containsKey(job.getId()) || !jobFilter.accept(job)) {
+                ineligible[index] = true;
+                continue;
             }
-
-            // All jobs at this savings level are filtered out, try next level
-            savingsToJobs.pollLastEntry();
+            return index;
         }
-        return null;
+        return 0;
     }
 
-    private List<Job> getNeighborJobs(Job job, VehicleRoute route) {
-        List<Job> neighbors = new ArrayList<>();
-        if (route == null || route.isEmpty()) return neighbors;
-
+    /*
+     * writes the jobs of activities adjacent to any activity of job to neighbors and returns their number
+     */
+    private int collectNeighbors(Job job, VehicleRoute route) {
         List<TourActivity> activities = route.getActivities();
-        Set<Integer> jobActivityIndices = new HashSet<>();
-
-        // Find all activity indices for this job
+        int noNeighbors = 0;
         for (int i = 0; i < activities.size(); i++) {
-            TourActivity act = activities.get(i);
-            if (act instanceof TourActivity.JobActivity) {
-                if (((TourActivity.JobActivity) act).getJob().equals(job)) {
-                    jobActivityIndices.add(i);
-                }
-            }
-        }
-
-        // Find neighbor jobs (activities adjacent to any of the job's activities)
-        Set<Job> neighborSet = new HashSet<>();
-        for (int idx : jobActivityIndices) {
-            // Check activity before
-            if (idx > 0) {
-                TourActivity prevAct = activities.get(idx - 1);
-                if (prevAct instanceof TourActivity.JobActivity) {
-                    Job neighborJob = ((TourActivity.JobActivity) prevAct).getJob();
-                    if (!neighborJob.equals(job)) {
-                        neighborSet.add(neighborJob);
-                    }
-                }
-            }
-            // Check activity after
-            if (idx < activities.size() - 1) {
-                TourActivity nextAct = activities.get(idx + 1);
-                if (nextAct instanceof TourActivity.JobActivity) {
-                    Job neighborJob = ((TourActivity.JobActivity) nextAct).getJob();
-                    if (!neighborJob.equals(job)) {
-                        neighborSet.add(neighborJob);
-                    }
-                }
-            }
+            if (jobOf(activities.get(i)) != job) continue;
+            if (i > 0) noNeighbors = addNeighbor(jobOf(activities.get(i - 1)), job, noNeighbors);
+            if (i < activities.size() - 1) noNeighbors = addNeighbor(jobOf(activities.get(i + 1)), job, noNeighbors);
         }
-
-        neighbors.addAll(neighborSet);
-        return neighbors;
+        return noNeighbors;
     }
 
-    private void removeJobFromSavingsMap(Job job, Map<Job, Double> jobToSavings,
-                                         NavigableMap<Double, Set<Job>> savingsToJobs) {
-        Double oldSavings = jobToSavings.remove(job);
-        if (oldSavings != null) {
-            Set<Job> jobsAtSavings = savingsToJobs.get(oldSavings);
-            if (jobsAtSavings != null) {
-                jobsAtSavings.remove(job);
-                if (jobsAtSavings.isEmpty()) {
-                    savingsToJobs.remove(oldSavings);
-                }
-            }
-        }
+    private int addNeighbor(Job neighbor, Job job, int noNeighbors) {
+        if (neighbor == null || neighbor == job || indexOf(neighbor, noNeighbors) >= 0) return noNeighbors;
+        if (noNeighbors == neighbors.length) neighbors = Arrays.copyOf(neighbors, 2 * noNeighbors);
+        neighbors[noNeighbors] = neighbor;
+        return noNeighbors + 1;
     }
 
-    private void updateNeighborSavings(List<Job> neighbors, VehicleRoute route,
-                                       Map<Job, Double> jobToSavings,
-                                       NavigableMap<Double, Set<Job>> savingsToJobs) {
-        for (Job neighbor : neighbors) {
-            // Remove old savings entry
-            removeJobFromSavingsMap(neighbor, jobToSavings, savingsToJobs);
-
-            // Recalculate savings for this job
-            double newSavings = calculateSavingsForJob(neighbor, route);
-
-            // Add new savings entry
-            jobToSavings.put(neighbor, newSavings);
-            savingsToJobs.computeIfAbsent(newSavings, k -> new HashSet<>()).add(neighbor);
+    private int indexOf(Job job, int noNeighbors) {
+        for (int n = 0; n < noNeighbors; n++) {
+            if (neighbors[n] == job) return n;
         }
+        return -1;
     }
 
-    private double calculateSavingsForJob(Job job, VehicleRoute route) {
-        double totalSavings = 0.0;
+    /*
+     * recalculates the savings of all neighbors in one pass over route
+     */
+    private void updateNeighborSavings(VehicleRoute route, int noNeighbors) {
+        if (neighborSavings.length < noNeighbors) neighborSavings = new double[neighbors.length];
+        Arrays.fill(neighborSavings, 0, noNeighbors, 0.);
         List<TourActivity> activities = route.getActivities();
-
         for (int i = 0; i < activities.size(); i++) {
             TourActivity act = activities.get(i);
-            if (!(act instanceof TourActivity.JobActivity)) continue;
-            if (!((TourActivity.JobActivity) act).getJob().equals(job)) continue;
-
+            int n = indexOf(jobOf(act), noNeighbors);
+            if (n < 0) continue;
             TourActivity actBefore = (i == 0) ? route.getStart() : activities.get(i - 1);
             TourActivity actAfter = (i == activities.size() - 1) ? route.getEnd() : activities.get(i + 1);
-
-            totalSavings += savings(route, actBefore, act, actAfter);
+            neighborSavings[n] += savings(route, actBefore, act, actAfter);
+        }
+        for (int n = 0; n < noNeighbors; n++) {
+            int index = vrp.getJobIndex(neighbors[n]);
+            if (heap.contains(index)) heap.update(index, neighborSavings[n]);
+            neighbors[n] = null;
         }
-
-        return totalSavings;
     }
 
-    private void calculateSavingsForRoute(VehicleRoute route,
-                                          Map<Job, Double> jobToSavings,
-                                          NavigableMap<Double, Set<Job>> savingsToJobs,
-                                          Map<Job, VehicleRoute> jobToRoute) {
-        if (route.isEmpty()) return;
-
+    private void calculateSavingsForRoute(VehicleRoute route) {
         TourActivity actBefore = route.getStart();
         TourActivity actToEval = null;
 
@@ -260,11 +300,7 @@ public final class RuinWorst extends AbstractRuinStrategy {
                 continue;
             }
 
-            double savings = savings(route, actBefore, actToEval, act);
-            Job job = ((TourActivity.JobActivity) actToEval).getJob();
-
-            // Update savings tracking structures
-            updateSavingsStructures(job, savings, route, jobToSavings, savingsToJobs, jobToRoute);
+            addSavings(jobOf(actToEval), savings(route, actBefore, actToEval, act), route);
 
             actBefore = actToEval;
             actToEval = act;
@@ -272,40 +308,24 @@ public final class RuinWorst extends AbstractRuinStrategy {
 
         // Process the last activity
         if (actToEval != null) {
-            double savings = savings(route, actBefore, actToEval, route.getEnd());
-            Job job = ((TourActivity.JobActivity) actToEval).getJob();
-
-            updateSavingsStructures(job, savings, route, jobToSavings, savingsToJobs, jobToRoute);
+            addSavings(jobOf(actToEval), savings(route, actBefore, actToEval, route.getEnd()), route);
         }
     }
 
-    private void updateSavingsStructures(Job job, double additionalSavings, VehicleRoute route,
-                                         Map<Job, Double> jobToSavings,
-                                         NavigableMap<Double, Set<Job>> savingsToJobs,
-                                         Map<Job, VehicleRoute> jobToRoute) {
-        // Remove old entry from savingsToJobs if exists
-        Double oldSavings = jobToSavings.get(job);
-        if (oldSavings != null) {
-            Set<Job> oldSet = savingsToJobs.get(oldSavings);
-            if (oldSet != null) {
-                oldSet.remove(job);
-                if (oldSet.isEmpty()) {
-                    savingsToJobs.remove(oldSavings);
-                }
-            }
+    private void addSavings(Job job, double additionalSavings, VehicleRoute route) {
+        int index = vrp.getJobIndex(job);
+        // jobs unknown to vrp cannot be ruined
+        if (index <= 0 || index >= jobRoutes.length) return;
+        if (heap.contains(index)) {
+            heap.update(index, heap.getSavings(index) + additionalSavings);
+        } else {
+            heap.add(index, additionalSavings);
         }
+        jobRoutes[index] = route;
+    }
 
-        // Calculate new total savings
-        double newSavings = (oldSavings != null ? oldSavings : 0.0) + additionalSavings;
-
-        // Update jobToSavings
-        jobToSavings.put(job, newSavings);
-
-        // Update savingsToJobs
-        savingsToJobs.computeIfAbsent(newSavings, k -> new HashSet<>()).add(job);
-
-        // Update jobToRoute
-        jobToRoute.put(job, route);
+    private static Job jobOf(TourActivity act) {
+        return act instanceof TourActivity.JobActivity ? ((TourActivity.JobActivity) act).getJob() : null;
     }
 
     private double savings(VehicleRoute route, TourActivity actBefore, TourActivity actToEval, TourActivity act) {
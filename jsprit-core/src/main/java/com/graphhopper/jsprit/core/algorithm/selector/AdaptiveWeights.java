@@ -0,0 +1,114 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.selector;
+
+import java.util.Arrays;
+
+/**
+ * Adapts operator weights to the reward an operator earned per millisecond of runtime in the last segment,
+ * i.e. adaptive large neighbourhood search with time-normalised scores.
+ * <p>
+ * Rewards and runtimes are accumulated with {@link #record(int, double, long)}. At the end of a segment,
+ * {@link #adapt(double[])} moves the weight of every operator used in the segment towards its share of the total
+ * reward rate:
+ * <pre>
+ *     w_i = (1 - reactionFactor) * w_i + reactionFactor * W * rate_i / sum(rate)
+ * </pre>
+ * where W is the sum of the weights of the used operators, so weights do not drift in scale. Weights do not fall below
+ * minWeightShare times the average weight, thus no operator starves. Operators not used in a segment, including
+ * operators with weight zero, keep their weight.
+ * <p>
+ * Thread-safety: This class is NOT thread-safe.
+ */
+public class AdaptiveWeights {
+
+    private final double reactionFactor;
+
+    private final double minWeightShare;
+
+    private double[] rewards = new double[0];
+
+    private long[] nanos = new long[0];
+
+    /**
+     * @param reactionFactor how fast weights follow the observed reward rates, in (0,1]
+     * @param minWeightShare lower bound of a weight relative to the average weight, in [0,1]
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public AdaptiveWeights(double reactionFactor, double minWeightShare) {
+        if (reactionFactor <= 0 || reactionFactor > 1)
+            throw new IllegalArgumentException("reaction factor must be in (0,1], got: " + reactionFactor);
+        if (minWeightShare < 0 || minWeightShare > 1)
+            throw new IllegalArgumentException("min weight share must be in [0,1], got: " + minWeightShare);
+        this.reactionFactor = reactionFactor;
+        this.minWeightShare = minWeightShare;
+    }
+
+    /**
+     * Records one application of an operator.
+     *
+     * @param operatorIndex index of the operator
+     * @param reward        reward earned by the application
+     * @param elapsedNanos  runtime of the application
+     */
+    public void record(int operatorIndex, double reward, long elapsedNanos) {
+        if (operatorIndex >= rewards.length) {
+            rewards = Arrays.copyOf(rewards, operatorIndex + 1);
+            nanos = Arrays.copyOf(nanos, operatorIndex + 1);
+        }
+        rewards[operatorIndex] += reward;
+        nanos[operatorIndex] += Math.max(1, elapsedNanos);
+    }
+
+    /**
+     * Adapts weights to the reward rates recorded since the last call and starts a new segment.
+     *
+     * @param weights weights to be adapted in place
+     * @return true if a weight changed
+     */
+    public boolean adapt(double[] weights) {
+        int n = Math.min(weights.length, rewards.length);
+        double[] rates = new double[n];
+        boolean[] used = new boolean[n];
+        double sumRates = 0;
+        double sumUsedWeights = 0;
+        for (int i = 0; i < n; i++) {
+            if (nanos[i] == 0) continue;
+            used[i] = true;
+            rates[i] = rewards[i] / (nanos[i] / 1e6);
+            sumRates += rates[i];
+            sumUsedWeights += weights[i];
+        }
+        Arrays.fill(rewards, 0);
+        Arrays.fill(nanos, 0);
+        if (sumRates == 0) return false;
+        double minWeight = minWeightShare * Arrays.stream(weights).sum() / weights.length;
+        boolean changed = false;
+        for (int i = 0; i < n; i++) {
+            if (!used[i]) continue;
+            double target = sumUsedWeights * rates[i] / sumRates;
+            double weight = Math.max(minWeight, (1 - reactionFactor) * weights[i] + reactionFactor * target);
+            if (weight != weights[i]) {
+                weights[i] = weight;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+}
@@ -49,6 +49,8 @@ public class WeightedOperatorSelector<T> {
     private double totalWeight = 0;
     private Random random;
     private Entry<T> lastSelected = null;
+    private int lastSelectedIndex = -1;
+    private AdaptiveWeights adaptiveWeights = null;
 
     /**
      * Creates a new selector with default random.
@@ -115,26 +117,69 @@ public class WeightedOperatorSelector<T> {
         }
 
         if (operators.size() == 1) {
-            lastSelected = operators.get(0);
-            return lastSelected.operator();
+            return select(0);
         }
 
         double r = random.nextDouble() * totalWeight;
         double cumulative = 0;
 
-        for (Entry<T> entry : operators) {
-            cumulative += entry.weight();
+        for (int i = 0; i < operators.size(); i++) {
+            cumulative += operators.get(i).weight();
             if (r < cumulative) {
-                lastSelected = entry;
-                return entry.operator();
+                return select(i);
             }
         }
 
         // Fallback (shouldn't happen due to floating point, but be safe)
-        lastSelected = operators.get(operators.size() - 1);
+        return select(operators.size() - 1);
+    }
+
+    private T select(int index) {
+        lastSelectedIndex = index;
+        lastSelected = operators.get(index);
         return lastSelected.operator();
     }
 
+    /**
+     * Enables adaptive weights, i.e. weights follow the rewards reported with {@link #reward(double, long)}
+     * whenever {@link #adaptWeights()} is called.
+     *
+     * @param adaptiveWeights the weight adaption, or null to keep weights fixed
+     */
+    public void setAdaptiveWeights(AdaptiveWeights adaptiveWeights) {
+        this.adaptiveWeights = adaptiveWeights;
+    }
+
+    /**
+     * Reports the reward and runtime of the operator selected in the last call to {@link #select()}.
+     * Does nothing unless adaptive weights are enabled.
+     *
+     * @param reward       reward earned by the operator
+     * @param elapsedNanos runtime of the operator
+     */
+    public void reward(double reward, long elapsedNanos) {
+        if (adaptiveWeights == null || lastSelectedIndex < 0) return;
+        adaptiveWeights.record(lastSelectedIndex, reward, elapsedNanos);
+    }
+
+    /**
+     * Adapts weights to the rewards reported since the last call. Does nothing unless adaptive weights are enabled.
+     */
+    public void adaptWeights() {
+        if (adaptiveWeights == null) return;
+        double[] weights = new double[operators.size()];
+        for (int i = 0; i < weights.length; i++) weights[i] = operators.get(i).weight();
+        if (!adaptiveWeights.adapt(weights)) return;
+        totalWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            Entry<T> entry = operators.get(i);
+            Entry<T> adapted = new Entry<>(entry.operator(), weights[i], entry.name());
+            if (entry == lastSelected) lastSelected = adapted;
+            operators.set(i, adapted);
+            totalWeight += weights[i];
+        }
+    }
+
     /**
      * Returns the entry that was selected in the last call to {@link #select()}.
      *
@@ -153,7 +198,7 @@ public class WeightedOperatorSelector<T> {
         if (lastSelected == null) {
             return "unknown";
         }
-        return lastSelected.name() != null ? lastSelected.name() : "op" + operators.indexOf(lastSelected);
+        return lastSelected.name() != null ? lastSelected.name() : "op" + lastSelectedIndex;
     }
 
     /**
@@ -201,6 +246,8 @@ public class WeightedOperatorSelector<T> {
     public void clear() {
         operators.clear();
         totalWeight = 0;
+        lastSelected = null;
+        lastSelectedIndex = -1;
     }
 
     @Override
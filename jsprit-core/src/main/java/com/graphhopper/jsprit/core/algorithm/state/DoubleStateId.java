@@ -0,0 +1,31 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.graphhopper.jsprit.core.algorithm.state;
+
+/**
+ * Identifies a state whose value is a primitive double.
+ * <p>
+ * <p>Such states are stored in flat double arrays by the {@link StateManager}, thus neither putting nor getting
+ * them allocates a boxed value. A slot whose value equals the default value is regarded as unset.
+ */
+public interface DoubleStateId extends StateId {
+
+    double getDefaultValue();
+
+}
@@ -33,7 +33,7 @@ public class InternalStates {
 
     public final static StateId DURATION = new StateFactory.StateIdImpl("duration", 5);
 
-    public final static StateId LATEST_OPERATION_START_TIME = new StateFactory.StateIdImpl("latest_operation_start_time", 6);
+    public final static DoubleStateId LATEST_OPERATION_START_TIME = new StateFactory.DoubleStateIdImpl("latest_operation_start_time", 0, Double.NaN);
 
     public final static StateId EARLIEST_OPERATION_START_TIME = new StateFactory.StateIdImpl("earliest_operation_start_time", 7);
 
@@ -47,9 +47,13 @@ public class InternalStates {
 
     public static final StateId TIME_SLACK = new StateFactory.StateIdImpl("time_slack", 12);
 
-    public static final StateId FUTURE_WAITING = new StateFactory.StateIdImpl("future_waiting", 13);
+    public static final DoubleStateId FUTURE_WAITING = new StateFactory.DoubleStateIdImpl("future_waiting", 1, 0.);
 
     public static final StateId EARLIEST_WITHOUT_WAITING = new StateFactory.StateIdImpl("earliest_without_waiting", 14);
 
     public static final StateId SWITCH_NOT_FEASIBLE = new StateFactory.StateIdImpl("switch_not_feasible", 15);
+
+    public static final StateId SKILL_BITS = new StateFactory.StateIdImpl("skill_bits", 16);
+
+    public static final DoubleStateId ACTIVITY_COSTS = new StateFactory.DoubleStateIdImpl("activity_costs", 2, 0.);
 }
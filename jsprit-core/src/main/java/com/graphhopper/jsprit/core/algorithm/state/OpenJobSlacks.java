@@ -0,0 +1,81 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.state;
+
+/**
+ * Route state of {@link UpdateMaxTimeInVehicle} that describes the jobs open at each activity position in primitive
+ * arrays. Position <code>k &lt; n</code> denotes the k-th activity of the route, position <code>n</code> its end.
+ * <p>
+ * A job is open at position k if it is picked up before k and delivered at k or later. Its slack is the time its
+ * delivery can be delayed without violating its max time in vehicle. Jobs without pickup are considered picked up at
+ * the start, jobs without delivery are delivered at the end.
+ */
+public final class OpenJobSlacks {
+
+    private final double[] minSlacks;
+
+    // open shipments per position, position k in [offsets[k], offsets[k+1]), ordered by delivery position descending
+    private final int[] offsets;
+
+    private final int[] deliveryPositions;
+
+    // minimum slack of the entries from offsets[k] up to and including this entry
+    private final double[] cumulativeMinSlacks;
+
+    OpenJobSlacks(double[] minSlacks, int[] offsets, int[] deliveryPositions, double[] cumulativeMinSlacks) {
+        this.minSlacks = minSlacks;
+        this.offsets = offsets;
+        this.deliveryPositions = deliveryPositions;
+        this.cumulativeMinSlacks = cumulativeMinSlacks;
+    }
+
+    /**
+     * @return number of activities of the route, which is also the position of its end
+     */
+    public int getNoActivities() {
+        return minSlacks.length - 1;
+    }
+
+    /**
+     * Returns the minimum slack of all jobs open at position.
+     *
+     * @param position activity position, or number of activities for the end of the route
+     * @return minimum slack, or Double.MAX_VALUE if no job with max time in vehicle is open
+     */
+    public double getMinSlack(int position) {
+        return minSlacks[position];
+    }
+
+    /**
+     * Returns the minimum slack of shipments that are open at <code>position</code> and delivered at
+     * <code>deliveredNotBefore</code> or later. These are the shipments whose delivery is delayed twice if a new
+     * shipment is picked up at <code>position</code> and delivered at <code>deliveredNotBefore</code>.
+     *
+     * @param position           activity position
+     * @param deliveredNotBefore minimum delivery position
+     * @return minimum slack, or Double.MAX_VALUE if there is no such shipment
+     */
+    public double getMinSlackOfShipmentsOpenAt(int position, int deliveredNotBefore) {
+        double minSlack = Double.MAX_VALUE;
+        for (int i = offsets[position]; i < offsets[position + 1]; i++) {
+            if (deliveryPositions[i] < deliveredNotBefore) break;
+            minSlack = cumulativeMinSlacks[i];
+        }
+        return minSlack;
+    }
+}
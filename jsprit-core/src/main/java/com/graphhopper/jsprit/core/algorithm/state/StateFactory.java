@@ -108,4 +108,34 @@ class StateFactory {
             return name;
         }
     }
+
+    static class DoubleStateIdImpl extends StateIdImpl implements DoubleStateId {
+
+        private final double defaultValue;
+
+        public DoubleStateIdImpl(String name, int index, double defaultValue) {
+            super(name, index);
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public double getDefaultValue() {
+            return defaultValue;
+        }
+    }
+
+    static class IntStateIdImpl extends StateIdImpl implements IntStateId {
+
+        private final int defaultValue;
+
+        public IntStateIdImpl(String name, int index, int defaultValue) {
+            super(name, index);
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public int getDefaultValue() {
+            return defaultValue;
+        }
+    }
 }
@@ -18,6 +18,7 @@
 package com.graphhopper.jsprit.core.algorithm.state;
 
 import com.graphhopper.jsprit.core.algorithm.listener.IterationStartsListener;
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
 import com.graphhopper.jsprit.core.algorithm.recreate.InsertionData;
 import com.graphhopper.jsprit.core.algorithm.recreate.listener.*;
 import com.graphhopper.jsprit.core.algorithm.ruin.listener.RuinListener;
@@ -65,8 +66,16 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 
     private final int initialNoStates = 21;
 
+    private final int initialNoDoubleStates = 3;
+
+    private final int initialNoIntStates = 0;
+
     private int stateIndexCounter;
 
+    private int doubleStateIndexCounter;
+
+    private int intStateIndexCounter;
+
     private Map<String, StateId> createdStateIds = new HashMap<>();
 
     private int nuActivities;
@@ -79,6 +88,27 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 
     private Object[][][] vehicleDependentActivityStates;
 
+    private double[] doubleStateDefaults;
+
+    private double[] doubleActivityStates;
+
+    private double[] vehicleDependentDoubleActivityStates;
+
+    private int[] intStateDefaults;
+
+    private int[] intActivityStates;
+
+    private int[] vehicleDependentIntActivityStates;
+
+    // slots of the primitive state arrays above that hold a value, i.e. that have been put and not cleared since
+    private BitSet doubleActivityStatesSet;
+
+    private BitSet vehicleDependentDoubleActivityStatesSet;
+
+    private BitSet intActivityStatesSet;
+
+    private BitSet vehicleDependentIntActivityStatesSet;
+
     private final Map<VehicleRoute, Object[]> routeStateMap;
 
     private final Map<VehicleRoute, Object[][]> vehicleDependentRouteStateMap;
@@ -91,6 +121,8 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 
     private final boolean isIndexedBased;
 
+    private AlgorithmMetrics metrics;
+
     int getMaxIndexOfVehicleTypeIdentifiers() {
         return nuVehicleTypeKeys;
     }
@@ -157,6 +189,108 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
         stateIndexCounter++;
     }
 
+    /**
+     * Creates and returns a stateId for a primitive double state with the specified state-name.
+     * <p>
+     * <p>Double states are stored in flat arrays indexed by activity index and vehicle type index, thus putting and
+     * getting them with {@link #putActivityState(TourActivity, DoubleStateId, double)} and
+     * {@link #getActivityState(TourActivity, DoubleStateId)} never boxes. Unset states return the specified default value.
+     * Whether a state has been set is tracked separately, thus the Class-based getters return null and
+     * {@link #hasActivityState(TourActivity, Vehicle, StateId)} returns false only for unset states, even if a state
+     * equal to the default value has been put. States put before the stateId was created are kept.
+     * Note that primitive states are only available on activity level.</p>
+     *
+     * @param name         the specified name of the state
+     * @param defaultValue the value of unset states
+     * @return the stateId with which the state can be identified
+     * @throws java.lang.IllegalStateException if name of state is already used internally or for a state of another type
+     */
+    public DoubleStateId createDoubleStateId(String name, double defaultValue) {
+        if (createdStateIds.containsKey(name)) {
+            StateId id = createdStateIds.get(name);
+            if (id instanceof DoubleStateId) return (DoubleStateId) id;
+            throw new IllegalStateException("state-id with name '" + name + "' has already been created with another type.");
+        }
+        if (StateFactory.isReservedId(name)) StateFactory.throwReservedIdException(name);
+        DoubleStateId id = new StateFactory.DoubleStateIdImpl(name, doubleStateIndexCounter, defaultValue);
+        int noSlots = doubleStateDefaults.length;
+        doubleStateDefaults = Arrays.copyOf(doubleStateDefaults, doubleStateIndexCounter + 1);
+        doubleStateDefaults[doubleStateIndexCounter] = defaultValue;
+        doubleStateIndexCounter++;
+        doubleActivityStates = grow(doubleActivityStates, nuActivities, noSlots, doubleStateDefaults);
+        vehicleDependentDoubleActivityStates = grow(vehicleDependentDoubleActivityStates, nuActivities * nuVehicleTypeKeys, noSlots, doubleStateDefaults);
+        doubleActivityStatesSet = grow(doubleActivityStatesSet, noSlots, doubleStateDefaults.length);
+        vehicleDependentDoubleActivityStatesSet = grow(vehicleDependentDoubleActivityStatesSet, noSlots, doubleStateDefaults.length);
+        createdStateIds.put(name, id);
+        return id;
+    }
+
+    /**
+     * Creates and returns a stateId for a primitive int state with the specified state-name.
+     * <p>
+     * <p>Int states are stored in flat arrays indexed by activity index and vehicle type index, thus putting and
+     * getting them with {@link #putActivityState(TourActivity, IntStateId, int)} and
+     * {@link #getActivityState(TourActivity, IntStateId)} never boxes. Unset states return the specified default value.
+     * Whether a state has been set is tracked separately, thus the Class-based getters return null and
+     * {@link #hasActivityState(TourActivity, Vehicle, StateId)} returns false only for unset states, even if a state
+     * equal to the default value has been put. States put before the stateId was created are kept.
+     * Note that primitive states are only available on activity level.</p>
+     *
+     * @param name         the specified name of the state
+     * @param defaultValue the value of unset states
+     * @return the stateId with which the state can be identified
+     * @throws java.lang.IllegalStateException if name of state is already used internally or for a state of another type
+     */
+    public IntStateId createIntStateId(String name, int defaultValue) {
+        if (createdStateIds.containsKey(name)) {
+            StateId id = createdStateIds.get(name);
+            if (id instanceof IntStateId) return (IntStateId) id;
+            throw new IllegalStateException("state-id with name '" + name + "' has already been created with another type.");
+        }
+        if (StateFactory.isReservedId(name)) StateFactory.throwReservedIdException(name);
+        IntStateId id = new StateFactory.IntStateIdImpl(name, intStateIndexCounter, defaultValue);
+        int noSlots = intStateDefaults.length;
+        intStateDefaults = Arrays.copyOf(intStateDefaults, intStateIndexCounter + 1);
+        intStateDefaults[intStateIndexCounter] = defaultValue;
+        intStateIndexCounter++;
+        intActivityStates = grow(intActivityStates, nuActivities, noSlots, intStateDefaults);
+        vehicleDependentIntActivityStates = grow(vehicleDependentIntActivityStates, nuActivities * nuVehicleTypeKeys, noSlots, intStateDefaults);
+        intActivityStatesSet = grow(intActivityStatesSet, noSlots, intStateDefaults.length);
+        vehicleDependentIntActivityStatesSet = grow(vehicleDependentIntActivityStatesSet, noSlots, intStateDefaults.length);
+        createdStateIds.put(name, id);
+        return id;
+    }
+
+    /**
+     * Copies states of rows with noSlots slots each into an array with one slot per default value. Slots that are
+     * new in each row get their default value.
+     */
+    private static double[] grow(double[] states, int noRows, int noSlots, double[] defaults) {
+        double[] grown = new double[noRows * defaults.length];
+        for (int row = 0; row < noRows; row++) {
+            System.arraycopy(states, row * noSlots, grown, row * defaults.length, noSlots);
+            System.arraycopy(defaults, noSlots, grown, row * defaults.length + noSlots, defaults.length - noSlots);
+        }
+        return grown;
+    }
+
+    private static int[] grow(int[] states, int noRows, int noSlots, int[] defaults) {
+        int[] grown = new int[noRows * defaults.length];
+        for (int row = 0; row < noRows; row++) {
+            System.arraycopy(states, row * noSlots, grown, row * defaults.length, noSlots);
+            System.arraycopy(defaults, noSlots, grown, row * defaults.length + noSlots, defaults.length - noSlots);
+        }
+        return grown;
+    }
+
+    private static BitSet grow(BitSet set, int noSlots, int newNoSlots) {
+        BitSet grown = new BitSet();
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            grown.set(i / noSlots * newNoSlots + i % noSlots);
+        }
+        return grown;
+    }
+
 
     /**
      * Constructs the stateManager with the specified VehicleRoutingProblem.
@@ -175,6 +309,20 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
         routeStateMap = new HashMap<>();
         vehicleDependentRouteStateMap = new HashMap<>();
         problemStates = new Object[initialStateArrayLength];
+        doubleStateIndexCounter = initialNoDoubleStates;
+        doubleStateDefaults = new double[]{InternalStates.LATEST_OPERATION_START_TIME.getDefaultValue(), InternalStates.FUTURE_WAITING.getDefaultValue(),
+            InternalStates.ACTIVITY_COSTS.getDefaultValue()};
+        doubleActivityStates = new double[nuActivities * doubleStateDefaults.length];
+        vehicleDependentDoubleActivityStates = new double[nuActivities * nuVehicleTypeKeys * doubleStateDefaults.length];
+        doubleActivityStatesSet = new BitSet();
+        vehicleDependentDoubleActivityStatesSet = new BitSet();
+        clearDoubleStates();
+        intStateIndexCounter = initialNoIntStates;
+        intStateDefaults = new int[0];
+        intActivityStates = new int[0];
+        vehicleDependentIntActivityStates = new int[0];
+        intActivityStatesSet = new BitSet();
+        vehicleDependentIntActivityStatesSet = new BitSet();
     }
 
     private int getNuVehicleTypes(VehicleRoutingProblem vrp) {
@@ -195,6 +343,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      * @param <T>     the type of the state value
      */
     public <T> void putProblemState(StateId stateId, Class<T> type, T state) {
+        assertObjectStateId(stateId);
         problemStates[stateId.getIndex()] = state;
     }
 
@@ -208,6 +357,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      * @return the state value that is associated to the specified stateId or null if no value is associated
      */
     public <T> T getProblemState(StateId stateId, Class<T> type) {
+        assertObjectStateId(stateId);
         return type.cast(problemStates[stateId.getIndex()]);
     }
 
@@ -225,6 +375,81 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
             vehicleDependentRouteStateMap.clear();
         }
         Arrays.fill(problemStates, null);
+        clearDoubleStates();
+        clearIntStates();
+    }
+
+    private void clearDoubleStates() {
+        doubleActivityStatesSet.clear();
+        vehicleDependentDoubleActivityStatesSet.clear();
+        int noSlots = doubleStateDefaults.length;
+        if (noSlots == 0) return;
+        for (int offset = 0; offset < doubleActivityStates.length; offset += noSlots) {
+            System.arraycopy(doubleStateDefaults, 0, doubleActivityStates, offset, noSlots);
+        }
+        for (int offset = 0; offset < vehicleDependentDoubleActivityStates.length; offset += noSlots) {
+            System.arraycopy(doubleStateDefaults, 0, vehicleDependentDoubleActivityStates, offset, noSlots);
+        }
+    }
+
+    private void clearIntStates() {
+        intActivityStatesSet.clear();
+        vehicleDependentIntActivityStatesSet.clear();
+        int noSlots = intStateDefaults.length;
+        if (noSlots == 0) return;
+        for (int offset = 0; offset < intActivityStates.length; offset += noSlots) {
+            System.arraycopy(intStateDefaults, 0, intActivityStates, offset, noSlots);
+        }
+        for (int offset = 0; offset < vehicleDependentIntActivityStates.length; offset += noSlots) {
+            System.arraycopy(intStateDefaults, 0, vehicleDependentIntActivityStates, offset, noSlots);
+        }
+    }
+
+    private static void assertObjectStateId(StateId stateId) {
+        if (stateId instanceof DoubleStateId || stateId instanceof IntStateId)
+            throw new IllegalStateException("state with stateId '" + stateId + "' is a primitive state. primitive states are only available on activity level.");
+    }
+
+    private boolean isInternal(StateId stateId) {
+        if (stateId instanceof DoubleStateId) return stateId.getIndex() < initialNoDoubleStates;
+        if (stateId instanceof IntStateId) return stateId.getIndex() < initialNoIntStates;
+        return stateId.getIndex() < initialNoStates;
+    }
+
+    private int slot(TourActivity act, DoubleStateId stateId) {
+        return act.getIndex() * doubleStateDefaults.length + stateId.getIndex();
+    }
+
+    private int slot(TourActivity act, Vehicle vehicle, DoubleStateId stateId) {
+        return (act.getIndex() * nuVehicleTypeKeys + getTypeKeyIndex(vehicle)) * doubleStateDefaults.length + stateId.getIndex();
+    }
+
+    private int slot(TourActivity act, IntStateId stateId) {
+        return act.getIndex() * intStateDefaults.length + stateId.getIndex();
+    }
+
+    private int slot(TourActivity act, Vehicle vehicle, IntStateId stateId) {
+        return (act.getIndex() * nuVehicleTypeKeys + getTypeKeyIndex(vehicle)) * intStateDefaults.length + stateId.getIndex();
+    }
+
+    private Double getBoxedActivityState(TourActivity act, DoubleStateId stateId) {
+        int slot = slot(act, stateId);
+        return doubleActivityStatesSet.get(slot) ? doubleActivityStates[slot] : null;
+    }
+
+    private Double getBoxedActivityState(TourActivity act, Vehicle vehicle, DoubleStateId stateId) {
+        int slot = slot(act, vehicle, stateId);
+        return vehicleDependentDoubleActivityStatesSet.get(slot) ? vehicleDependentDoubleActivityStates[slot] : null;
+    }
+
+    private Integer getBoxedActivityState(TourActivity act, IntStateId stateId) {
+        int slot = slot(act, stateId);
+        return intActivityStatesSet.get(slot) ? intActivityStates[slot] : null;
+    }
+
+    private Integer getBoxedActivityState(TourActivity act, Vehicle vehicle, IntStateId stateId) {
+        int slot = slot(act, vehicle, stateId);
+        return vehicleDependentIntActivityStatesSet.get(slot) ? vehicleDependentIntActivityStates[slot] : null;
     }
 
     private void fill_threeDimArr(Object[][][] states, Object o) {
@@ -260,6 +485,12 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
             if (actIndex == 0) throw new IllegalStateException("activity index is 0. this should not be.");
             return null;
         }
+        if (stateId instanceof DoubleStateId) {
+            return type.cast(getBoxedActivityState(act, (DoubleStateId) stateId));
+        }
+        if (stateId instanceof IntStateId) {
+            return type.cast(getBoxedActivityState(act, (IntStateId) stateId));
+        }
         final int stateIndex = stateId.getIndex();
         final Object state = activityStates[actIndex][stateIndex];
         try {
@@ -280,9 +511,93 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      */
     public boolean hasActivityState(TourActivity act, Vehicle vehicle, StateId stateId) {
         if (act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+        if (stateId instanceof DoubleStateId) {
+            return act.getIndex() > 0 && vehicleDependentDoubleActivityStatesSet.get(slot(act, vehicle, (DoubleStateId) stateId));
+        }
+        if (stateId instanceof IntStateId) {
+            return act.getIndex() > 0 && vehicleDependentIntActivityStatesSet.get(slot(act, vehicle, (IntStateId) stateId));
+        }
         return vehicleDependentActivityStates[act.getIndex()][getTypeKeyIndex(vehicle)][stateId.getIndex()] != null;
     }
 
+    /**
+     * Returns the double state associated to the specified activity and stateId without boxing, or the default value
+     * of the stateId if no value is associated.
+     *
+     * @param act     the activity for which a state value is associated to
+     * @param stateId the stateId for which a state value is associated to
+     * @return the state value or the default value of stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex()==0</code> since this suggests that act has no index at all
+     */
+    @Override
+    public double getActivityState(TourActivity act, DoubleStateId stateId) {
+        final int actIndex = act.getIndex();
+        if (actIndex <= 0) {
+            if (actIndex == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+            return stateId.getDefaultValue();
+        }
+        return doubleActivityStates[slot(act, stateId)];
+    }
+
+    /**
+     * Returns the double state associated to the specified activity, vehicle and stateId without boxing, or the default
+     * value of the stateId if no value is associated.
+     *
+     * @param act     the activity for which a state value is associated to
+     * @param vehicle the vehicle for which a state value is associated to
+     * @param stateId the stateId for which a state value is associated to
+     * @return the state value or the default value of stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex()==0</code> since this suggests that act has no index at all
+     */
+    @Override
+    public double getActivityState(TourActivity act, Vehicle vehicle, DoubleStateId stateId) {
+        final int actIndex = act.getIndex();
+        if (actIndex <= 0) {
+            if (actIndex == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+            return stateId.getDefaultValue();
+        }
+        return vehicleDependentDoubleActivityStates[slot(act, vehicle, stateId)];
+    }
+
+    /**
+     * Returns the int state associated to the specified activity and stateId without boxing, or the default value
+     * of the stateId if no value is associated.
+     *
+     * @param act     the activity for which a state value is associated to
+     * @param stateId the stateId for which a state value is associated to
+     * @return the state value or the default value of stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex()==0</code> since this suggests that act has no index at all
+     */
+    @Override
+    public int getActivityState(TourActivity act, IntStateId stateId) {
+        final int actIndex = act.getIndex();
+        if (actIndex <= 0) {
+            if (actIndex == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+            return stateId.getDefaultValue();
+        }
+        return intActivityStates[slot(act, stateId)];
+    }
+
+    /**
+     * Returns the int state associated to the specified activity, vehicle and stateId without boxing, or the default
+     * value of the stateId if no value is associated.
+     *
+     * @param act     the activity for which a state value is associated to
+     * @param vehicle the vehicle for which a state value is associated to
+     * @param stateId the stateId for which a state value is associated to
+     * @return the state value or the default value of stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex()==0</code> since this suggests that act has no index at all
+     */
+    @Override
+    public int getActivityState(TourActivity act, Vehicle vehicle, IntStateId stateId) {
+        final int actIndex = act.getIndex();
+        if (actIndex <= 0) {
+            if (actIndex == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+            return stateId.getDefaultValue();
+        }
+        return vehicleDependentIntActivityStates[slot(act, vehicle, stateId)];
+    }
+
     /**
      * Returns the associated state value to the specified activity, vehicle and stateId, or null if no state value is
      * associated.
@@ -301,6 +616,12 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
     public <T> T getActivityState(TourActivity act, Vehicle vehicle, StateId stateId, Class<T> type) {
         if (act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
         if (act.getIndex() < 0) return null; //act.getIndex() < 0 indicates that act is either Start (-1) or End (-2)
+        if (stateId instanceof DoubleStateId) {
+            return type.cast(getBoxedActivityState(act, vehicle, (DoubleStateId) stateId));
+        }
+        if (stateId instanceof IntStateId) {
+            return type.cast(getBoxedActivityState(act, vehicle, (IntStateId) stateId));
+        }
         T state;
         int typeKeyIndex = getTypeKeyIndex(vehicle);
         try {
@@ -331,6 +652,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
     @Override
     public <T> T getRouteState(VehicleRoute route, StateId stateId, Class<T> type) {
         if (route == null) return null;
+        assertObjectStateId(stateId);
         T state = null;
         if (isIndexedBased) {
             try {
@@ -361,6 +683,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      */
     @SuppressWarnings("UnusedDeclaration")
     public boolean hasRouteState(VehicleRoute route, Vehicle vehicle, StateId stateId) {
+        assertObjectStateId(stateId);
         Object[][] states = vehicleDependentRouteStateMap.get(route);
         if (states == null) return false;
         return states[getTypeKeyIndex(vehicle)][stateId.getIndex()] != null;
@@ -381,6 +704,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      */
     public <T> T getRouteState(VehicleRoute route, Vehicle vehicle, StateId stateId, Class<T> type) {
 //        if (route.isEmpty()) return null;
+        assertObjectStateId(stateId);
         T state = null;
         int typeKeyIndex = getTypeKeyIndex(vehicle);
         if (isIndexedBased) {
@@ -415,7 +739,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      */
     public <T> void putActivityState(TourActivity act, StateId stateId, T state) {
         if (act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
-        if (stateId.getIndex() < initialNoStates)
+        if (isInternal(stateId))
             throw new IllegalStateException("either you use a reserved stateId that is applied\n" +
                 "internally or your stateId has been created without index, e.g. StateFactory.createId(stateName)\n" +
                 " does not assign indeces thus do not use it anymore, but use\n " +
@@ -438,7 +762,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      */
     public <T> void putActivityState(TourActivity act, Vehicle vehicle, StateId stateId, T state) {
         if (act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
-        if (stateId.getIndex() < initialNoStates)
+        if (isInternal(stateId))
             throw new IllegalStateException("either you use a reserved stateId that is applied\n" +
                 "internally or your stateId has been created without index, e.g. StateFactory.createId(stateName)\n" +
                 " does not assign indeces thus do not use it anymore, but use\n " +
@@ -447,12 +771,130 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
         putInternalTypedActivityState(act, vehicle, stateId, state);
     }
 
+    /**
+     * Associates the specified activity and stateId to the double state value without boxing it.
+     *
+     * @param act     the activity for which a state value is associated to
+     * @param stateId the stateId which is the associated key to the activity state
+     * @param state   the state that is associated to the activity and stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex() == 0</code> || stateId is used internally
+     */
+    public void putActivityState(TourActivity act, DoubleStateId stateId, double state) {
+        if (act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+        if (isInternal(stateId)) StateFactory.throwReservedIdException(stateId.toString());
+        putInternalTypedActivityState(act, stateId, state);
+    }
+
+    /**
+     * Associates the specified activity, vehicle and stateId to the double state value without boxing it.
+     *
+     * @param act     the activity for which a state value is associated to
+     * @param vehicle the vehicle for which a state value is associated to
+     * @param stateId the stateId which is the associated key to the activity state
+     * @param state   the state that is associated to the activity and stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex() == 0</code> || stateId is used internally
+     */
+    public void putActivityState(TourActivity act, Vehicle vehicle, DoubleStateId stateId, double state) {
+        if (act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+        if (isInternal(stateId)) StateFactory.throwReservedIdException(stateId.toString());
+        putInternalTypedActivityState(act, vehicle, stateId, state);
+    }
+
+    /**
+     * Associates the specified activity and stateId to the int state value without boxing it.
+     *
+     * @param act     the activity for which a state value is associated to
+     * @param stateId the stateId which is the associated key to the activity state
+     * @param state   the state that is associated to the activity and stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex() == 0</code> || stateId is used internally
+     */
+    public void putActivityState(TourActivity act, IntStateId stateId, int state) {
+        if (act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+        if (isInternal(stateId)) StateFactory.throwReservedIdException(stateId.toString());
+        putInternalTypedActivityState(act, stateId, state);
+    }
+
+    /**
+     * Associates the specified activity, vehicle and stateId to the int state value without boxing it.
+     *
+     * @param act     the activity for which a state value is associated to
+     * @param vehicle the vehicle for which a state value is associated to
+     * @param stateId the stateId which is the associated key to the activity state
+     * @param state   the state that is associated to the activity and stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex() == 0</code> || stateId is used internally
+     */
+    public void putActivityState(TourActivity act, Vehicle vehicle, IntStateId stateId, int state) {
+        if (act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+        if (isInternal(stateId)) StateFactory.throwReservedIdException(stateId.toString());
+        putInternalTypedActivityState(act, vehicle, stateId, state);
+    }
+
     <T> void putInternalTypedActivityState(TourActivity act, StateId stateId, T state) {
-        activityStates[act.getIndex()][stateId.getIndex()] = state;
+        if (stateId instanceof DoubleStateId) {
+            DoubleStateId doubleStateId = (DoubleStateId) stateId;
+            if (state != null) putInternalTypedActivityState(act, doubleStateId, ((Number) state).doubleValue());
+            else {
+                int slot = slot(act, doubleStateId);
+                doubleActivityStates[slot] = doubleStateId.getDefaultValue();
+                doubleActivityStatesSet.clear(slot);
+            }
+        } else if (stateId instanceof IntStateId) {
+            IntStateId intStateId = (IntStateId) stateId;
+            if (state != null) putInternalTypedActivityState(act, intStateId, ((Number) state).intValue());
+            else {
+                int slot = slot(act, intStateId);
+                intActivityStates[slot] = intStateId.getDefaultValue();
+                intActivityStatesSet.clear(slot);
+            }
+        } else {
+            activityStates[act.getIndex()][stateId.getIndex()] = state;
+        }
     }
 
     <T> void putInternalTypedActivityState(TourActivity act, Vehicle vehicle, StateId stateId, T state) {
-        vehicleDependentActivityStates[act.getIndex()][getTypeKeyIndex(vehicle)][stateId.getIndex()] = state;
+        if (stateId instanceof DoubleStateId) {
+            DoubleStateId doubleStateId = (DoubleStateId) stateId;
+            if (state != null) putInternalTypedActivityState(act, vehicle, doubleStateId, ((Number) state).doubleValue());
+            else {
+                int slot = slot(act, vehicle, doubleStateId);
+                vehicleDependentDoubleActivityStates[slot] = doubleStateId.getDefaultValue();
+                vehicleDependentDoubleActivityStatesSet.clear(slot);
+            }
+        } else if (stateId instanceof IntStateId) {
+            IntStateId intStateId = (IntStateId) stateId;
+            if (state != null) putInternalTypedActivityState(act, vehicle, intStateId, ((Number) state).intValue());
+            else {
+                int slot = slot(act, vehicle, intStateId);
+                vehicleDependentIntActivityStates[slot] = intStateId.getDefaultValue();
+                vehicleDependentIntActivityStatesSet.clear(slot);
+            }
+        } else {
+            vehicleDependentActivityStates[act.getIndex()][getTypeKeyIndex(vehicle)][stateId.getIndex()] = state;
+        }
+    }
+
+    void putInternalTypedActivityState(TourActivity act, DoubleStateId stateId, double state) {
+        int slot = slot(act, stateId);
+        doubleActivityStates[slot] = state;
+        doubleActivityStatesSet.set(slot);
+    }
+
+    void putInternalTypedActivityState(TourActivity act, Vehicle vehicle, DoubleStateId stateId, double state) {
+        int slot = slot(act, vehicle, stateId);
+        vehicleDependentDoubleActivityStates[slot] = state;
+        vehicleDependentDoubleActivityStatesSet.set(slot);
+    }
+
+    void putInternalTypedActivityState(TourActivity act, IntStateId stateId, int state) {
+        int slot = slot(act, stateId);
+        intActivityStates[slot] = state;
+        intActivityStatesSet.set(slot);
+    }
+
+    void putInternalTypedActivityState(TourActivity act, Vehicle vehicle, IntStateId stateId, int state) {
+        int slot = slot(act, vehicle, stateId);
+        vehicleDependentIntActivityStates[slot] = state;
+        vehicleDependentIntActivityStatesSet.set(slot);
     }
 
     /**
@@ -489,6 +931,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
     }
 
     <T> void putTypedInternalRouteState(VehicleRoute route, StateId stateId, T state) {
+        assertObjectStateId(stateId);
 //        if (route.isEmpty()) return;
         if (isIndexedBased) {
             routeStatesArr[getVehicleIndex(route.getVehicle())][stateId.getIndex()] = state;
@@ -498,6 +941,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
     }
 
     <T> void putTypedInternalRouteState(VehicleRoute route, Vehicle vehicle, StateId stateId, T state) {
+        assertObjectStateId(stateId);
 //        if (route.isEmpty()) return;
         int typeKeyIndex = getTypeKeyIndex(vehicle);
         if (isIndexedBased) {
@@ -507,6 +951,16 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
         }
     }
 
+    /**
+     * Sets the collector that records the time spent in state updates, i.e. in updating routes at insertion start
+     * and after each inserted job. If null (default), nothing is recorded.
+     *
+     * @param metrics the metrics collector
+     */
+    public void setMetrics(AlgorithmMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Adds state updater.
      * <p>
@@ -578,16 +1032,19 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 
     @Override
     public void informJobInserted(Job job2insert, VehicleRoute inRoute, InsertionData insertionData) {
+        long start = metrics != null ? System.nanoTime() : 0;
         insertionListeners.informJobInserted(job2insert, inRoute, insertionData);
         for (RouteVisitor v : routeVisitors) {
             v.visit(inRoute);
         }
         routeActivityVisitor.visit(inRoute);
         revRouteActivityVisitor.visit(inRoute);
+        if (metrics != null) metrics.recordStateUpdate(System.nanoTime() - start);
     }
 
     @Override
     public void informInsertionStarts(Collection<VehicleRoute> vehicleRoutes, Collection<Job> unassignedJobs) {
+        long start = metrics != null ? System.nanoTime() : 0;
         insertionListeners.informInsertionStarts(vehicleRoutes, unassignedJobs);
         for (VehicleRoute route : vehicleRoutes) {
             for (RouteVisitor v : routeVisitors) {
@@ -596,6 +1053,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
             routeActivityVisitor.visit(route);
             revRouteActivityVisitor.visit(route);
         }
+        if (metrics != null) metrics.recordStateUpdate(System.nanoTime() - start);
     }
 
     public void reCalculateStates(VehicleRoute route){
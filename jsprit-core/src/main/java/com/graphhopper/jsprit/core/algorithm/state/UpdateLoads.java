@@ -74,18 +74,18 @@ class UpdateLoads implements ActivityVisitor, StateUpdater, InsertionStartsListe
     }
 
     void insertionStarts(VehicleRoute route) {
-        Capacity loadAtDepot = Capacity.Builder.newInstance().build();
-        Capacity loadAtEnd = Capacity.Builder.newInstance().build();
+        Capacity.Builder loadAtDepot = Capacity.Builder.newInstance();
+        Capacity.Builder loadAtEnd = Capacity.Builder.newInstance();
         for (Job j : route.getTourActivities().getJobs()) {
             if (j.isPickedUpAtVehicleStart()) {
-                loadAtDepot = Capacity.addup(loadAtDepot, j.getSize());
+                loadAtDepot.addCapacity(j.getSize());
             }
             if (j.isDeliveredToVehicleEnd()) {
-                loadAtEnd = Capacity.addup(loadAtEnd, j.getSize());
+                loadAtEnd.addCapacity(j.getSize());
             }
         }
-        stateManager.putTypedInternalRouteState(route, InternalStates.LOAD_AT_BEGINNING, loadAtDepot);
-        stateManager.putTypedInternalRouteState(route, InternalStates.LOAD_AT_END, loadAtEnd);
+        stateManager.putTypedInternalRouteState(route, InternalStates.LOAD_AT_BEGINNING, loadAtDepot.build());
+        stateManager.putTypedInternalRouteState(route, InternalStates.LOAD_AT_END, loadAtEnd.build());
     }
 
     @Override
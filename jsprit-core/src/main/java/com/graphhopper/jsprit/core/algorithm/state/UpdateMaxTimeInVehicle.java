@@ -15,7 +15,6 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package com.graphhopper.jsprit.core.algorithm.state;
 
 import com.graphhopper.jsprit.core.problem.Location;
@@ -29,15 +28,24 @@ import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
 import java.util.*;
 
 /**
+ * Updates the slack of jobs with max time in vehicle. For each vehicle to update, it memorizes the minimum slack of
+ * the jobs open at an activity as activity state and at the end of the route as route state (both with
+ * <code>slackTimeId</code>), and the open jobs of the route as {@link OpenJobSlacks} route state
+ * (with <code>openJobsId</code>).
+ * <p>
+ * Times and slacks are kept in primitive arrays indexed by activity position that are reused from route to route.
+ * <p>
  * Created by schroeder on 15/09/16.
  */
 public class UpdateMaxTimeInVehicle implements StateUpdater, ActivityVisitor{
 
-    private Map<Integer, Map<Job, Double>> openPickupEndTimesPerVehicle = new HashMap<>();
+    private static final byte OTHER = 0;
+
+    private static final byte PICKUP = 1;
 
-    private Map<Integer, Map<TourActivity, Double>> slackTimesPerVehicle = new HashMap<>();
+    private static final byte DELIVERY = 2;
 
-    private Map<Integer, Map<TourActivity, Double>> actStartTimesPerVehicle = new HashMap<>();
+    private static final int OPEN = Integer.MAX_VALUE;
 
     private VehicleRoute route;
 
@@ -47,202 +55,252 @@ public class UpdateMaxTimeInVehicle implements StateUpdater, ActivityVisitor{
 
     private final StateId openJobsId;
 
-    private double[] prevActEndTimes;
+    private final TransportTime transportTime;
 
-    private Location[] prevActLocations;
+    private final VehicleRoutingActivityCosts activityCosts;
 
-    private TourActivity[] prevActs;
+    private UpdateVehicleDependentPracticalTimeWindows.VehiclesToUpdate vehiclesToUpdate = route -> Arrays.asList(route.getVehicle());
 
-    private Collection<Vehicle> vehicles;
+    private List<Vehicle> vehicles = new ArrayList<>();
 
-    private final TransportTime transportTime;
+    private final Map<Job, Integer> openPickupPositions = new HashMap<>();
 
-    private final VehicleRoutingActivityCosts activityCosts;
+    private int noActivities;
 
-    private UpdateVehicleDependentPracticalTimeWindows.VehiclesToUpdate vehiclesToUpdate = route -> Arrays.asList(route.getVehicle());
+    private TourActivity[] activities = new TourActivity[16];
+
+    private byte[] types = new byte[16];
+
+    // position of the related pickup of a delivery (-1 if none), or of the related delivery of a pickup (OPEN if none)
+    private int[] relatedPositions = new int[16];
+
+    private Job[] jobs = new Job[16];
+
+    // per vehicle
+    private double[][] starts = new double[0][];
+
+    private double[][] ends = new double[0][];
+
+    private double[] prevActEndTimes = new double[0];
+
+    private Location[] prevActLocations = new Location[0];
+
+    private TourActivity[] prevActs = new TourActivity[0];
+
+    private double[] slacks = new double[16];
+
+    private int[] counts = new int[16];
 
     public UpdateMaxTimeInVehicle(StateManager stateManager, StateId slackTimeId, TransportTime transportTime, VehicleRoutingActivityCosts activityCosts, StateId openJobsId) {
         this.stateManager = stateManager;
         this.minSlackId = slackTimeId;
         this.openJobsId = openJobsId;
         this.transportTime = transportTime;
-        prevActEndTimes = new double[stateManager.getMaxIndexOfVehicleTypeIdentifiers() + 1];
-        prevActLocations = new Location[stateManager.getMaxIndexOfVehicleTypeIdentifiers() + 1];
-        prevActs = new TourActivity[stateManager.getMaxIndexOfVehicleTypeIdentifiers() + 1];
         this.activityCosts = activityCosts;
     }
 
-    /**
-     * Get vehicle type key index from VRP's index map.
-     */
-    @SuppressWarnings("deprecation")
-    private int getTypeKeyIndex(Vehicle v) {
-        return stateManager.getVrp().getVehicleTypeKeyIndex(v.getVehicleTypeIdentifier());
-    }
-
-
     public void setVehiclesToUpdate(UpdateVehicleDependentPracticalTimeWindows.VehiclesToUpdate vehiclesToUpdate) {
         this.vehiclesToUpdate = vehiclesToUpdate;
     }
 
-
     @Override
     public void begin(VehicleRoute route) {
-        openPickupEndTimesPerVehicle.clear();
-        slackTimesPerVehicle.clear();
-        actStartTimesPerVehicle.clear();
-        vehicles = vehiclesToUpdate.get(route);
         this.route = route;
-        for(Vehicle v : vehicles) {
-            int vehicleIndex = getTypeKeyIndex(v);
-            openPickupEndTimesPerVehicle.put(vehicleIndex, new HashMap<>());
-            slackTimesPerVehicle.put(vehicleIndex, new HashMap<>());
-            actStartTimesPerVehicle.put(vehicleIndex, new HashMap<>());
-            prevActEndTimes[vehicleIndex] = v.getEarliestDeparture();
-            prevActLocations[vehicleIndex] = v.getStartLocation();
-            prevActs[vehicleIndex] = route.getStart();
+        vehicles = new ArrayList<>(vehiclesToUpdate.get(route));
+        noActivities = 0;
+        openPickupPositions.clear();
+        int noVehicles = vehicles.size();
+        if (prevActEndTimes.length < noVehicles) {
+            starts = Arrays.copyOf(starts, noVehicles);
+            ends = Arrays.copyOf(ends, noVehicles);
+            prevActEndTimes = new double[noVehicles];
+            prevActLocations = new Location[noVehicles];
+            prevActs = new TourActivity[noVehicles];
+        }
+        for (int i = 0; i < noVehicles; i++) {
+            Vehicle v = vehicles.get(i);
+            if (starts[i] == null || starts[i].length < activities.length) {
+                starts[i] = new double[activities.length];
+                ends[i] = new double[activities.length];
+            }
+            prevActEndTimes[i] = v.getEarliestDeparture();
+            prevActLocations[i] = v.getStartLocation();
+            prevActs[i] = route.getStart();
         }
     }
 
     @Override
     public void visit(TourActivity activity) {
-        double maxTime = getMaxTimeInVehicle(activity);
-
-        for(Vehicle v : vehicles) {
-            int vehicleIndex = getTypeKeyIndex(v);
-            Location prevActLocation = prevActLocations[vehicleIndex];
-            double prevActEndTime = prevActEndTimes[vehicleIndex];
-            double activityArrival = prevActEndTimes[vehicleIndex] + transportTime.getTransportTime(prevActLocation, activity.getLocation(), prevActEndTime, route.getDriver(), v);
-            double activityStart = Math.max(activityArrival,activity.getTheoreticalEarliestOperationStartTime());
-            memorizeActStart(activity,v,activityStart);
-            double activityEnd = activityStart + activityCosts.getActivityDuration(prevActs[vehicleIndex], activity, activityArrival, route.getDriver(), v);
-            Map<Job, Double> openPickups = openPickupEndTimesPerVehicle.get(vehicleIndex);
-            if (activity instanceof ServiceActivity || activity instanceof PickupActivity) {
-                openPickups.put(((TourActivity.JobActivity) activity).getJob(), activityEnd);
-            } else if (activity instanceof DeliveryActivity) {
-                Job job = ((TourActivity.JobActivity) activity).getJob();
-                double pickupEnd;
-                if (openPickups.containsKey(job)) {
-                    pickupEnd = openPickups.get(job);
-                    openPickups.remove(job);
-                } else pickupEnd = v.getEarliestDeparture();
-                double slackTime = maxTime - (activityStart - pickupEnd);
-                slackTimesPerVehicle.get(vehicleIndex).put(activity, slackTime);
-            }
-            prevActLocations[vehicleIndex] = activity.getLocation();
-            prevActEndTimes[vehicleIndex] = activityEnd;
-            prevActs[vehicleIndex] = activity;
+        int position = noActivities++;
+        ensureCapacity(noActivities);
+        activities[position] = activity;
+        Job job = activity instanceof TourActivity.JobActivity ? ((TourActivity.JobActivity) activity).getJob() : null;
+        jobs[position] = job;
+        if (activity instanceof ServiceActivity || activity instanceof PickupActivity) {
+            types[position] = PICKUP;
+            relatedPositions[position] = OPEN;
+            openPickupPositions.put(job, position);
+        } else if (activity instanceof DeliveryActivity) {
+            types[position] = DELIVERY;
+            Integer pickupPosition = openPickupPositions.remove(job);
+            if (pickupPosition != null) {
+                relatedPositions[position] = pickupPosition;
+                relatedPositions[pickupPosition] = position;
+            } else relatedPositions[position] = -1;
+        } else types[position] = OTHER;
+
+        for (int i = 0; i < vehicles.size(); i++) {
+            Vehicle v = vehicles.get(i);
+            double prevActEndTime = prevActEndTimes[i];
+            double activityArrival = prevActEndTime + transportTime.getTransportTime(prevActLocations[i], activity.getLocation(), prevActEndTime, route.getDriver(), v);
+            double activityStart = Math.max(activityArrival, activity.getTheoreticalEarliestOperationStartTime());
+            double activityEnd = activityStart + activityCosts.getActivityDuration(prevActs[i], activity, activityArrival, route.getDriver(), v);
+            starts[i][position] = activityStart;
+            ends[i][position] = activityEnd;
+            prevActLocations[i] = activity.getLocation();
+            prevActEndTimes[i] = activityEnd;
+            prevActs[i] = activity;
         }
+    }
 
+    private void ensureCapacity(int size) {
+        if (size <= activities.length) return;
+        int capacity = Math.max(size, activities.length * 2);
+        activities = Arrays.copyOf(activities, capacity);
+        types = Arrays.copyOf(types, capacity);
+        relatedPositions = Arrays.copyOf(relatedPositions, capacity);
+        jobs = Arrays.copyOf(jobs, capacity);
+        for (int i = 0; i < vehicles.size(); i++) {
+            starts[i] = Arrays.copyOf(starts[i], capacity);
+            ends[i] = Arrays.copyOf(ends[i], capacity);
+        }
+    }
+
+    private double routeEnd(int vehicle) {
+        Vehicle v = vehicles.get(vehicle);
+        //!!! open routes !!!
+        if (!v.isReturnToDepot()) return prevActEndTimes[vehicle];
+        return prevActEndTimes[vehicle] + transportTime.getTransportTime(prevActLocations[vehicle], v.getEndLocation(), prevActEndTimes[vehicle], route.getDriver(), v);
     }
 
-    private double getMaxTimeInVehicle(TourActivity activity) {
-        double maxTime = Double.MAX_VALUE;
-        if(activity instanceof TourActivity.JobActivity){
-            maxTime = ((TourActivity.JobActivity) activity).getJob().getMaxTimeInVehicle();
+    /*
+     * Slack of the job whose delivery is at position (or whose pickup is at position if it is not delivered), or
+     * Double.MAX_VALUE if position neither is a delivery nor an open pickup.
+     */
+    private double slack(int vehicle, int position, double routeEnd) {
+        if (types[position] == DELIVERY) {
+            int pickupPosition = relatedPositions[position];
+            double pickupEnd = pickupPosition < 0 ? vehicles.get(vehicle).getEarliestDeparture() : ends[vehicle][pickupPosition];
+            return jobs[position].getMaxTimeInVehicle() - (starts[vehicle][position] - pickupEnd);
         }
-        return maxTime;
+        if (types[position] == PICKUP && relatedPositions[position] == OPEN) {
+            return jobs[position].getMaxTimeInVehicle() - (routeEnd - ends[vehicle][position]);
+        }
+        return Double.MAX_VALUE;
     }
 
-    private void memorizeActStart(TourActivity activity, Vehicle v, double activityStart) {
-        actStartTimesPerVehicle.get(getTypeKeyIndex(v)).put(activity, activityStart);
+    /*
+     * First position the job whose slack is memorized at position is open, i.e. the position after its pickup.
+     */
+    private int firstOpenPosition(int position) {
+        if (types[position] == DELIVERY) return relatedPositions[position] + 1;
+        return position + 1;
+    }
+
+    /*
+     * Last position the job whose slack is memorized at position is open, i.e. the position of its delivery.
+     */
+    private int lastOpenPosition(int position) {
+        if (types[position] == DELIVERY) return position;
+        return noActivities;
+    }
+
+    private boolean isOpenShipment(int position) {
+        if (types[position] == DELIVERY && relatedPositions[position] < 0) return false;
+        return jobs[position].getJobType().isShipment();
     }
 
     @Override
     public void finish() {
-        for(Vehicle v : vehicles) {
-            int vehicleIndex = getTypeKeyIndex(v);
-
-            //!!! open routes !!!
-            double routeEnd;
-            if(!v.isReturnToDepot()) routeEnd = prevActEndTimes[vehicleIndex];
-            else routeEnd = prevActEndTimes[vehicleIndex] + transportTime.getTransportTime(prevActLocations[vehicleIndex],v.getEndLocation(),prevActEndTimes[vehicleIndex],route.getDriver(),v);
-
-            Map<Job, Double> openDeliveries = new HashMap<>();
-            for (Job job : openPickupEndTimesPerVehicle.get(vehicleIndex).keySet()) {
-                double actEndTime = openPickupEndTimesPerVehicle.get(vehicleIndex).get(job);
-                double slackTime = job.getMaxTimeInVehicle() - (routeEnd - actEndTime);
-                openDeliveries.put(job, slackTime);
-            }
-
-            double minSlackTimeAtEnd = minSlackTime(openDeliveries);
-            stateManager.putRouteState(route, v, minSlackId, minSlackTimeAtEnd);
-            stateManager.putRouteState(route, v, openJobsId, new HashMap<>(openDeliveries));
-            List<TourActivity> acts = new ArrayList<>(this.route.getActivities());
-            Collections.reverse(acts);
-            for (TourActivity act : acts) {
-                Job job = ((TourActivity.JobActivity) act).getJob();
-                if (act instanceof ServiceActivity || act instanceof PickupActivity) {
-                    openDeliveries.remove(job);
-                    double minSlackTime = minSlackTime(openDeliveries);
-//                    double latestStart = actStart(act, v) + minSlackTime;
-                    stateManager.putActivityState(act, v, openJobsId, new HashMap<>(openDeliveries));
-                    stateManager.putActivityState(act, v, minSlackId, minSlackTime);
-                } else {
-                    if (slackTimesPerVehicle.get(vehicleIndex).containsKey(act)) {
-                        double slackTime = slackTimesPerVehicle.get(vehicleIndex).get(act);
-                        openDeliveries.put(job, slackTime);
+        int n = noActivities;
+        if (slacks.length < n) slacks = new double[Math.max(n, slacks.length * 2)];
+        if (counts.length < n + 2) counts = new int[Math.max(n + 2, counts.length * 2)];
+        for (int i = 0; i < vehicles.size(); i++) {
+            Vehicle v = vehicles.get(i);
+            double routeEnd = routeEnd(i);
+            double[] minSlacks = new double[n + 1];
+            Arrays.fill(minSlacks, Double.MAX_VALUE);
+            Arrays.fill(counts, 0, n + 2, 0);
+            int noEntries = 0;
+            for (int k = 0; k < n; k++) {
+                double slack = slack(i, k, routeEnd);
+                slacks[k] = slack;
+                if (slack == Double.MAX_VALUE) continue;
+                int last = lastOpenPosition(k);
+                boolean openShipment = isOpenShipment(k);
+                for (int pos = firstOpenPosition(k); pos <= last; pos++) {
+                    if (slack < minSlacks[pos]) minSlacks[pos] = slack;
+                    if (openShipment) {
+                        counts[pos + 1]++;
+                        noEntries++;
                     }
-                    double minSlackTime = minSlackTime(openDeliveries);
-//                    double latestStart = actStart(act, v) + minSlackTime;
-                    stateManager.putActivityState(act, v, openJobsId, new HashMap<>(openDeliveries));
-                    stateManager.putActivityState(act, v, minSlackId, minSlackTime);
                 }
             }
-        }
-    }
-
-    public void finish(List<TourActivity> activities, Job ignore) {
-        for (Vehicle v : vehicles) {
-            int vehicleIndex = getTypeKeyIndex(v);
-
-            //!!! open routes !!!
-            double routeEnd;
-            if (!v.isReturnToDepot()) routeEnd = prevActEndTimes[vehicleIndex];
-            else
-                routeEnd = prevActEndTimes[vehicleIndex] + transportTime.getTransportTime(prevActLocations[vehicleIndex], v.getEndLocation(), prevActEndTimes[vehicleIndex], route.getDriver(), v);
-
-            Map<Job, Double> openDeliveries = new HashMap<>();
-            for (Job job : openPickupEndTimesPerVehicle.get(vehicleIndex).keySet()) {
-                if (job == ignore) continue;
-                double actEndTime = openPickupEndTimesPerVehicle.get(vehicleIndex).get(job);
-                double slackTime = job.getMaxTimeInVehicle() - (routeEnd - actEndTime);
-                openDeliveries.put(job, slackTime);
+            int[] offsets = new int[n + 2];
+            for (int pos = 0; pos <= n; pos++) offsets[pos + 1] = offsets[pos] + counts[pos + 1];
+            int[] deliveryPositions = new int[noEntries];
+            double[] cumulativeMinSlacks = new double[noEntries];
+            int[] cursors = counts;
+            System.arraycopy(offsets, 0, cursors, 0, n + 1);
+            // open pickups first, then deliveries from last to first, thus entries are ordered by delivery position descending
+            for (int k = 0; k < n; k++) {
+                if (types[k] == PICKUP && slacks[k] != Double.MAX_VALUE && isOpenShipment(k)) {
+                    addEntries(k, n, slacks[k], cursors, offsets, deliveryPositions, cumulativeMinSlacks);
+                }
             }
-
-            double minSlackTimeAtEnd = minSlackTime(openDeliveries);
-            stateManager.putRouteState(route, v, minSlackId, routeEnd + minSlackTimeAtEnd);
-            List<TourActivity> acts = new ArrayList<>(activities);
-            Collections.reverse(acts);
-            for (TourActivity act : acts) {
-                Job job = ((TourActivity.JobActivity) act).getJob();
-                if (act instanceof ServiceActivity || act instanceof PickupActivity) {
-                    openDeliveries.remove(job);
-                    double minSlackTime = minSlackTime(openDeliveries);
-                    double latestStart = actStart(act, v) + minSlackTime;
-                    stateManager.putActivityState(act, v, minSlackId, latestStart);
-                } else {
-                    if (slackTimesPerVehicle.get(vehicleIndex).containsKey(act)) {
-                        double slackTime = slackTimesPerVehicle.get(vehicleIndex).get(act);
-                        openDeliveries.put(job, slackTime);
-                    }
-                    double minSlackTime = minSlackTime(openDeliveries);
-                    double latestStart = actStart(act, v) + minSlackTime;
-                    stateManager.putActivityState(act, v, minSlackId, latestStart);
+            for (int k = n - 1; k >= 0; k--) {
+                if (types[k] == DELIVERY && slacks[k] != Double.MAX_VALUE && isOpenShipment(k)) {
+                    addEntries(k, k, slacks[k], cursors, offsets, deliveryPositions, cumulativeMinSlacks);
                 }
             }
+            stateManager.putRouteState(route, v, minSlackId, minSlacks[n]);
+            stateManager.putRouteState(route, v, openJobsId, new OpenJobSlacks(minSlacks, offsets, deliveryPositions, cumulativeMinSlacks));
+            for (int k = 0; k < n; k++) {
+                stateManager.putActivityState(activities[k], v, minSlackId, minSlacks[k]);
+            }
         }
     }
 
-    private double actStart(TourActivity act, Vehicle v) {
-        return actStartTimesPerVehicle.get(getTypeKeyIndex(v)).get(act);
+    private void addEntries(int position, int deliveryPosition, double slack, int[] cursors, int[] offsets, int[] deliveryPositions, double[] cumulativeMinSlacks) {
+        for (int pos = firstOpenPosition(position); pos <= deliveryPosition; pos++) {
+            int entry = cursors[pos]++;
+            deliveryPositions[entry] = deliveryPosition;
+            cumulativeMinSlacks[entry] = entry == offsets[pos] ? slack : Math.min(slack, cumulativeMinSlacks[entry - 1]);
+        }
     }
 
-    private double minSlackTime(Map<Job, Double> openDeliveries) {
-        double min = Double.MAX_VALUE;
-        for(Double value : openDeliveries.values()){
-           if(value < min) min = value;
+    public void finish(List<TourActivity> activities, Job ignore) {
+        int n = noActivities;
+        Map<TourActivity, Integer> positions = new IdentityHashMap<>();
+        for (int k = 0; k < n; k++) positions.put(this.activities[k], k);
+        for (int i = 0; i < vehicles.size(); i++) {
+            Vehicle v = vehicles.get(i);
+            double routeEnd = routeEnd(i);
+            double[] minSlacks = new double[n + 1];
+            Arrays.fill(minSlacks, Double.MAX_VALUE);
+            for (int k = 0; k < n; k++) {
+                if (types[k] == PICKUP && relatedPositions[k] == OPEN && jobs[k] == ignore) continue;
+                double slack = slack(i, k, routeEnd);
+                if (slack == Double.MAX_VALUE) continue;
+                for (int pos = firstOpenPosition(k); pos <= lastOpenPosition(k); pos++) {
+                    if (slack < minSlacks[pos]) minSlacks[pos] = slack;
+                }
+            }
+            stateManager.putRouteState(route, v, minSlackId, routeEnd + minSlacks[n]);
+            for (TourActivity act : activities) {
+                int k = positions.get(act);
+                stateManager.putActivityState(act, v, minSlackId, starts[i][k] + minSlacks[k]);
+            }
         }
-        return min;
     }
 }
@@ -23,10 +23,7 @@ import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
 import com.graphhopper.jsprit.core.problem.solution.route.activity.ReverseActivityVisitor;
 import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Updates and memorizes latest operation start times at activities.
@@ -49,7 +46,7 @@ class UpdatePracticalTimeWindows implements ReverseActivityVisitor, StateUpdater
 
     private List<TourActivity> activities;
 
-    private Map<TourActivity, Integer> activityIndex;
+    private int activityPosition;
 
     public UpdatePracticalTimeWindows(StateManager states, VehicleRoutingTransportCosts tpCosts, VehicleRoutingActivityCosts activityCosts) {
         super();
@@ -64,19 +61,17 @@ class UpdatePracticalTimeWindows implements ReverseActivityVisitor, StateUpdater
         latestArrTimeAtPrevAct = route.getEnd().getTheoreticalLatestOperationStartTime();
         prevAct = route.getEnd();
 
-        // Store activities in a list to find previous activity in forward order during backward pass
-        activities = new ArrayList<>(route.getTourActivities().getActivities());
-        activityIndex = new HashMap<>();
-        for (int i = 0; i < activities.size(); i++) {
-            activityIndex.put(activities.get(i), i);
-        }
+        // Activities are visited backward, thus the position of the visited activity is decremented with each visit
+        activities = route.getTourActivities().getActivities();
+        activityPosition = activities.size();
     }
 
     @Override
     public void visit(TourActivity activity) {
         // Find the previous activity in forward time order for setup_time calculation
-        Integer idx = activityIndex.get(activity);
-        TourActivity prevActInForwardOrder = (idx != null && idx > 0) ? activities.get(idx - 1) : route.getStart();
+        int idx = --activityPosition;
+        if (idx < 0 || activities.get(idx) != activity) idx = activities.indexOf(activity);
+        TourActivity prevActInForwardOrder = idx > 0 ? activities.get(idx - 1) : route.getStart();
 
         double potentialLatestArrivalTimeAtCurrAct = latestArrTimeAtPrevAct - transportCosts.getBackwardTransportTime(activity.getLocation(), prevAct.getLocation(), latestArrTimeAtPrevAct, route.getDriver(), route.getVehicle()) - activityCosts.getActivityDuration(prevActInForwardOrder, activity, latestArrTimeAtPrevAct, route.getDriver(), route.getVehicle());
         double latestArrivalTime = Math.min(activity.getTheoreticalLatestOperationStartTime(), potentialLatestArrivalTimeAtCurrAct);
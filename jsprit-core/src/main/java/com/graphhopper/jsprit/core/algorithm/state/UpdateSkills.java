@@ -18,13 +18,15 @@
 
 package com.graphhopper.jsprit.core.algorithm.state;
 
+import com.graphhopper.jsprit.core.problem.SkillIndex;
 import com.graphhopper.jsprit.core.problem.Skills;
 import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
 import com.graphhopper.jsprit.core.problem.solution.route.activity.ActivityVisitor;
 import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
 
 /**
- * Update to update required skills on route
+ * Update to update required skills on route. Besides the skill container, it memorizes the required skills as bitset
+ * of the problem's {@link SkillIndex} if all jobs on route belong to the problem.
  */
 public class UpdateSkills implements StateUpdater, ActivityVisitor {
 
@@ -32,23 +34,34 @@ public class UpdateSkills implements StateUpdater, ActivityVisitor {
 
     private StateManager statesManager;
 
+    private final SkillIndex skillIndex;
+
     private VehicleRoute route;
 
+    private long[] skillBits;
+
     public UpdateSkills(StateManager statesManager) {
         this.statesManager = statesManager;
+        this.skillIndex = statesManager.getVrp().getSkillIndex();
     }
 
     @Override
     public void begin(VehicleRoute route) {
         this.route = route;
         skillBuilder = Skills.Builder.newInstance();
+        skillBits = skillIndex == null ? null : skillIndex.newBits();
     }
 
     @Override
     public void visit(TourActivity activity) {
         if (activity instanceof TourActivity.JobActivity) {
             Skills skills = ((TourActivity.JobActivity) activity).getJob().getRequiredSkills();
-            skillBuilder.addAllSkills(skills.values());
+            skillBuilder.addAllSkills(skills);
+            if (skillBits != null) {
+                long[] jobBits = skillIndex.getBits(skills);
+                if (jobBits == null) skillBits = null;
+                else SkillIndex.addAll(skillBits, jobBits);
+            }
         }
     }
 
@@ -56,5 +69,6 @@ public class UpdateSkills implements StateUpdater, ActivityVisitor {
     public void finish() {
         Skills skills = skillBuilder.build();
         statesManager.putTypedInternalRouteState(route, InternalStates.SKILLS, skills);
+        statesManager.putTypedInternalRouteState(route, InternalStates.SKILL_BITS, skillBits);
     }
 }
@@ -29,8 +29,8 @@ import com.graphhopper.jsprit.core.util.ActivityTimeTracker;
 /**
  * Updates total costs (i.e. transport and activity costs) at route and activity level.
  * <p>
- * <p>Thus it modifies <code>stateManager.getRouteState(route, StateTypes.COSTS)</code> and <br>
- * <code>stateManager.getActivityState(activity, StateTypes.COSTS)</code>
+ * <p>Thus it modifies <code>stateManager.getRouteState(route, InternalStates.COSTS)</code> and <br>
+ * <code>stateManager.getActivityState(activity, InternalStates.ACTIVITY_COSTS)</code>
  */
 public class UpdateVariableCosts implements ActivityVisitor, StateUpdater {
 
@@ -53,8 +53,8 @@ public class UpdateVariableCosts implements ActivityVisitor, StateUpdater {
     /**
      * Updates total costs (i.e. transport and activity costs) at route and activity level.
      * <p>
-     * <p>Thus it modifies <code>stateManager.getRouteState(route, StateTypes.COSTS)</code> and <br>
-     * <code>stateManager.getActivityState(activity, StateTypes.COSTS)</code>
+     * <p>Thus it modifies <code>stateManager.getRouteState(route, InternalStates.COSTS)</code> and <br>
+     * <code>stateManager.getActivityState(activity, InternalStates.ACTIVITY_COSTS)</code>
      *
      * @param activityCost
      * @param transportCost
@@ -93,7 +93,7 @@ public class UpdateVariableCosts implements ActivityVisitor, StateUpdater {
         totalOperationCost += transportCost;
         totalOperationCost += actCost;
 
-        states.putInternalTypedActivityState(act, InternalStates.COSTS, totalOperationCost);
+        states.putInternalTypedActivityState(act, InternalStates.ACTIVITY_COSTS, totalOperationCost);
 
         prevAct = act;
         startTimeAtPrevAct = timeTracker.getActEndTime();
@@ -76,7 +76,7 @@ public class UpdateVehicleDependentPracticalTimeWindows implements RouteVisitor,
 
     private List<TourActivity> activities;
 
-    private Map<TourActivity, Integer> activityIndex;
+    private int activityPosition;
 
     public UpdateVehicleDependentPracticalTimeWindows(StateManager stateManager, VehicleRoutingTransportCosts tpCosts, VehicleRoutingActivityCosts activityCosts) {
         super();
@@ -106,12 +106,9 @@ public class UpdateVehicleDependentPracticalTimeWindows implements RouteVisitor,
         this.route = route;
         vehicles = vehiclesToUpdate.get(route);
 
-        // Store activities in a list for backward pass to look up previous activity
-        activities = new ArrayList<>(route.getTourActivities().getActivities());
-        activityIndex = new HashMap<>();
-        for (int i = 0; i < activities.size(); i++) {
-            activityIndex.put(activities.get(i), i);
-        }
+        // Activities are visited backward, thus the position of the visited activity is decremented with each visit
+        activities = route.getTourActivities().getActivities();
+        activityPosition = activities.size();
 
         for (Vehicle vehicle : vehicles) {
             int vehicleIdx = getTypeKeyIndex(vehicle);
@@ -134,8 +131,9 @@ public class UpdateVehicleDependentPracticalTimeWindows implements RouteVisitor,
 
     void visit(TourActivity activity) {
         // Find the previous activity in forward time order for setup_time calculation
-        Integer idx = activityIndex.get(activity);
-        TourActivity prevActInForwardOrder = (idx != null && idx > 0) ? activities.get(idx - 1) : route.getStart();
+        int idx = --activityPosition;
+        if (idx < 0 || activities.get(idx) != activity) idx = activities.indexOf(activity);
+        TourActivity prevActInForwardOrder = idx > 0 ? activities.get(idx - 1) : route.getStart();
 
         for (Vehicle vehicle : vehicles) {
             int vehicleIdx = getTypeKeyIndex(vehicle);
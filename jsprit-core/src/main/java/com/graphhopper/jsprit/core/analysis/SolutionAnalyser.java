@@ -19,6 +19,7 @@
 package com.graphhopper.jsprit.core.analysis;
 
 import com.graphhopper.jsprit.core.problem.Capacity;
+import com.graphhopper.jsprit.core.problem.Skills;
 import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
 import com.graphhopper.jsprit.core.problem.cost.TransportDistance;
 import com.graphhopper.jsprit.core.problem.job.Job;
@@ -29,7 +30,6 @@ import com.graphhopper.jsprit.core.problem.solution.route.activity.*;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Calculates a set of statistics for a solution.
@@ -109,12 +109,10 @@ public class SolutionAnalyser {
             for (TourActivity activity : route.getActivities()) {
                 boolean violatedAtActivity = false;
                 if (activity instanceof TourActivity.JobActivity) {
-                    Set<String> requiredForActivity = ((TourActivity.JobActivity) activity).getJob().getRequiredSkills().values();
-                    for (String skill : requiredForActivity) {
-                        if (!route.getVehicle().getSkills().containsSkill(skill)) {
-                            violatedAtActivity = true;
-                            skillConstraintViolatedOnRoute = true;
-                        }
+                    Skills requiredForActivity = ((TourActivity.JobActivity) activity).getJob().getRequiredSkills();
+                    if (!vrp.getSkillIndex().containsAllSkills(route.getVehicle().getSkills(), requiredForActivity)) {
+                        violatedAtActivity = true;
+                        skillConstraintViolatedOnRoute = true;
                     }
                 }
                 this.skillViolationStates.put(activity, violatedAtActivity);
@@ -275,21 +273,22 @@ public class SolutionAnalyser {
         }
 
         private void calculateLoadAndActivityStates() {
-            Capacity loadAtDepot = Capacity.Builder.newInstance().build();
-            Capacity loadAtEnd = Capacity.Builder.newInstance().build();
+            Capacity.Builder loadAtDepotBuilder = Capacity.Builder.newInstance();
+            Capacity.Builder loadAtEndBuilder = Capacity.Builder.newInstance();
             for (Job j : route.getTourActivities().getJobs()) {
                 if (j.isPickedUpAtVehicleStart()) {
-                    loadAtDepot = Capacity.addup(loadAtDepot, j.getSize());
+                    loadAtDepotBuilder.addCapacity(j.getSize());
                 }
                 if (j.isDeliveredToVehicleEnd()) {
-                    loadAtEnd = Capacity.addup(loadAtEnd, j.getSize());
+                    loadAtEndBuilder.addCapacity(j.getSize());
                 }
             }
+            Capacity loadAtDepot = loadAtDepotBuilder.build();
             this.loadAtBeginning = loadAtDepot;
-            this.loadAtEnd = loadAtEnd;
+            this.loadAtEnd = loadAtEndBuilder.build();
 
-            Capacity maxLoad = Capacity.copyOf(loadAtDepot);
-            Capacity currentLoad = Capacity.copyOf(loadAtDepot);
+            Capacity maxLoad = loadAtDepot;
+            Capacity currentLoad = loadAtDepot;
 
             ActivityCounters counters = new ActivityCounters();
             LoadTracking loads = new LoadTracking();
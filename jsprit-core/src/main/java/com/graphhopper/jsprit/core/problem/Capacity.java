@@ -44,9 +44,12 @@ public class Capacity {
     public static Capacity addup(Capacity cap1, Capacity cap2) {
         if (cap1 == null || cap2 == null) throw new NullPointerException("arguments must not be null");
 
-        // Special case handling for better performance
-        if (cap1.isZero()) return copyOf(cap2);
-        if (cap2.isZero()) return copyOf(cap1);
+        // Special case handling for better performance. Capacities are immutable, thus there is no need to copy.
+        if (cap1.isZero()) return cap2.isZero() ? ZERO : cap2;
+        if (cap2.isZero()) return cap1;
+        if (cap1.dimensions.length == 1 && cap2.dimensions.length == 1) {
+            return new Capacity(new int[]{cap1.dimensions[0] + cap2.dimensions[0]});
+        }
 
         int maxDimension = Math.max(cap1.getNuOfDimensions(), cap2.getNuOfDimensions());
         int[] newDimensions = new int[maxDimension];
@@ -71,7 +74,10 @@ public class Capacity {
         if (cap == null || cap2subtract == null) throw new NullPointerException("arguments must not be null");
 
         // Special case handling for better performance
-        if (cap2subtract.isZero()) return copyOf(cap);
+        if (cap2subtract.isZero()) return cap.isZero() ? ZERO : cap;
+        if (cap.dimensions.length == 1 && cap2subtract.dimensions.length == 1) {
+            return new Capacity(new int[]{cap.dimensions[0] - cap2subtract.dimensions[0]});
+        }
 
         int maxDimension = Math.max(cap.getNuOfDimensions(), cap2subtract.getNuOfDimensions());
         int[] newDimensions = new int[maxDimension];
@@ -84,6 +90,50 @@ public class Capacity {
         return new Capacity(newDimensions);
     }
 
+    /**
+     * Returns true if the sum of cap1 and cap2 is less or equal than limit. This is equivalent to
+     * <code>addup(cap1, cap2).isLessOrEqual(limit)</code> but does not create an intermediate capacity.
+     *
+     * @param cap1  capacity to be added up
+     * @param cap2  capacity to be added up
+     * @param limit the capacity to compare the sum with
+     * @return true if none of the summed up dimensions is greater than the corresponding dimension of limit
+     * @throws NullPointerException if one of the args is null
+     */
+    public static boolean isSumLessOrEqual(Capacity cap1, Capacity cap2, Capacity limit) {
+        if (cap1 == null || cap2 == null || limit == null) throw new NullPointerException("arguments must not be null");
+        if (cap1.dimensions.length == 1 && cap2.dimensions.length == 1 && limit.dimensions.length == 1) {
+            return cap1.dimensions[0] + cap2.dimensions[0] <= limit.dimensions[0];
+        }
+        int maxDimension = Math.max(Math.max(cap1.getNuOfDimensions(), cap2.getNuOfDimensions()), limit.getNuOfDimensions());
+        for (int i = 0; i < maxDimension; i++) {
+            if (cap1.get(i) + cap2.get(i) > limit.get(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if cap2subtract subtracted from cap is less or equal than limit. This is equivalent to
+     * <code>subtract(cap, cap2subtract).isLessOrEqual(limit)</code> but does not create an intermediate capacity.
+     *
+     * @param cap          capacity to be subtracted from
+     * @param cap2subtract capacity to subtract
+     * @param limit        the capacity to compare the difference with
+     * @return true if none of the dimensions of the difference is greater than the corresponding dimension of limit
+     * @throws NullPointerException if one of the args is null
+     */
+    public static boolean isDifferenceLessOrEqual(Capacity cap, Capacity cap2subtract, Capacity limit) {
+        if (cap == null || cap2subtract == null || limit == null) throw new NullPointerException("arguments must not be null");
+        if (cap.dimensions.length == 1 && cap2subtract.dimensions.length == 1 && limit.dimensions.length == 1) {
+            return cap.dimensions[0] - cap2subtract.dimensions[0] <= limit.dimensions[0];
+        }
+        int maxDimension = Math.max(Math.max(cap.getNuOfDimensions(), cap2subtract.getNuOfDimensions()), limit.getNuOfDimensions());
+        for (int i = 0; i < maxDimension; i++) {
+            if (cap.get(i) - cap2subtract.get(i) > limit.get(i)) return false;
+        }
+        return true;
+    }
+
     /**
      * Returns the inverted capacity, i.e. it multiplies all capacity dimensions with -1.
      *
@@ -209,6 +259,26 @@ public class Capacity {
             return this;
         }
 
+        /**
+         * Adds up the dimensions of the specified capacity to the dimensions of this builder.
+         * <p>
+         * <p>This allows to sum up many capacities with a single capacity being created at the end.
+         *
+         * @param capacity capacity to be added up
+         * @return this builder
+         */
+        public Builder addCapacity(Capacity capacity) {
+            int nuOfDimensions = capacity.getNuOfDimensions();
+            ensureCapacity(nuOfDimensions);
+            for (int i = 0; i < nuOfDimensions; i++) {
+                dimensions[i] += capacity.dimensions[i];
+            }
+            if (nuOfDimensions - 1 > maxIndex) {
+                maxIndex = nuOfDimensions - 1;
+            }
+            return this;
+        }
+
         /**
          * Ensures the dimensions array has sufficient capacity
          * Grows by factor 1.5x for better amortized performance
@@ -299,6 +369,7 @@ public class Capacity {
      */
     public boolean isLessOrEqual(Capacity toCompare) {
         if (toCompare == null) throw new NullPointerException();
+        if (dimensions.length == 1 && toCompare.dimensions.length == 1) return dimensions[0] <= toCompare.dimensions[0];
 
         // We can't use isZero as a fast path since dimensions can be negative
         int maxDim = Math.max(this.getNuOfDimensions(), toCompare.getNuOfDimensions());
@@ -354,6 +425,10 @@ public class Capacity {
     public static Capacity max(Capacity cap1, Capacity cap2) {
         if (cap1 == null || cap2 == null) throw new IllegalArgumentException("arg must not be null");
 
+        // if one capacity dominates the other, it already is the maximum
+        if (cap1.getNuOfDimensions() >= cap2.getNuOfDimensions() && cap2.isLessOrEqual(cap1)) return cap1;
+        if (cap2.getNuOfDimensions() >= cap1.getNuOfDimensions() && cap1.isLessOrEqual(cap2)) return cap2;
+
         int maxDim = Math.max(cap1.getNuOfDimensions(), cap2.getNuOfDimensions());
         int[] newDimensions = new int[maxDim];
 
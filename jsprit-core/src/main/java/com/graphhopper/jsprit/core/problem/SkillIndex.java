@@ -0,0 +1,112 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.problem;
+
+import java.util.*;
+
+/**
+ * Problem-wide side table that maps skills to bit positions, and the skill containers of jobs, vehicles and breaks
+ * of a problem to bitsets, such that skills can be compared with a few bitwise operations.
+ * <p>
+ * The index is built with the problem and is read-only afterwards. Skill containers are not modified, i.e. jobs and
+ * vehicles can be shared among problems and threads.
+ */
+public final class SkillIndex {
+
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    private final IdentityHashMap<Skills, long[]> bitsBySkills = new IdentityHashMap<>();
+
+    private final int nuWords;
+
+    SkillIndex(Collection<Skills> allSkills) {
+        for (Skills skills : allSkills) {
+            for (String skill : skills.values()) indices.putIfAbsent(skill, indices.size());
+        }
+        nuWords = (indices.size() + 63) >>> 6;
+        for (Skills skills : allSkills) bitsBySkills.computeIfAbsent(skills, this::toBits);
+    }
+
+    private long[] toBits(Skills skills) {
+        long[] bits = newBits();
+        for (String skill : skills.values()) {
+            int index = indices.get(skill);
+            bits[index >>> 6] |= 1L << index;
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the bitset of a skill container of a job, vehicle or break of this problem. The returned array must not
+     * be modified.
+     *
+     * @param skills skill container
+     * @return bitset, or null if the container does not belong to this problem
+     */
+    public long[] getBits(Skills skills) {
+        return bitsBySkills.get(skills);
+    }
+
+    /**
+     * Returns a new empty bitset that can hold all skills of this problem.
+     *
+     * @return empty bitset
+     */
+    public long[] newBits() {
+        return new long[nuWords];
+    }
+
+    /**
+     * Adds all skills of <code>other</code> to <code>bits</code>.
+     *
+     * @param bits  bitset to be modified
+     * @param other bitset whose skills are added
+     */
+    public static void addAll(long[] bits, long[] other) {
+        for (int i = 0; i < other.length; i++) bits[i] |= other[i];
+    }
+
+    /**
+     * Returns true if <code>bits</code> contains all skills of <code>required</code>.
+     *
+     * @param bits     bitset to be checked
+     * @param required bitset of required skills
+     * @return true if all required skills are included, false otherwise
+     */
+    public static boolean containsAll(long[] bits, long[] required) {
+        for (int i = 0; i < required.length; i++) {
+            if ((required[i] & ~bits[i]) != 0L) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if <code>skills</code> contains all skills of <code>required</code>. Compares bitsets if both
+     * containers belong to this problem, and skill names otherwise.
+     *
+     * @param skills   skill container to be checked
+     * @param required skill container of required skills
+     * @return true if all required skills are included, false otherwise
+     */
+    public boolean containsAllSkills(Skills skills, Skills required) {
+        long[] bits = getBits(skills);
+        long[] requiredBits = getBits(required);
+        if (bits == null || requiredBits == null) return skills.containsAllSkills(required);
+        return containsAll(bits, requiredBits);
+    }
+}
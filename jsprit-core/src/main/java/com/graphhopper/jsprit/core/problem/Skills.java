@@ -24,7 +24,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 /**
- * Skill container managing skills
+ * Skill container managing skills.
+ * <p>
+ * Containers are immutable. To compare the skills of jobs and vehicles of a problem as bitsets, use
+ * {@link VehicleRoutingProblem#getSkillIndex()}.
  */
 public class Skills {
 
@@ -63,6 +66,17 @@ public class Skills {
             return this;
         }
 
+        /**
+         * Adds all skills of another skill container.
+         *
+         * @param skills skill container whose skills are to be added
+         * @return builder
+         */
+        public Builder addAllSkills(Skills skills) {
+            this.skills.addAll(skills.skills);
+            return this;
+        }
+
         /**
          * Builds the skill container and returns it.
          *
@@ -74,7 +88,7 @@ public class Skills {
 
     }
 
-    private Set<String> skills = new HashSet<>();
+    private final Set<String> skills = new HashSet<>();
 
     private Skills(Builder builder) {
         skills.addAll(builder.skills);
@@ -89,6 +103,16 @@ public class Skills {
         return Collections.unmodifiableSet(skills);
     }
 
+    /**
+     * Returns true if this container contains all skills of the other.
+     *
+     * @param other skill container whose skills are checked
+     * @return true if all skills of other are included, false otherwise
+     */
+    public boolean containsAllSkills(Skills other) {
+        return skills.containsAll(other.skills);
+    }
+
     public String toString() {
         StringBuilder s = new StringBuilder("[");
         boolean first = true;
@@ -119,11 +143,11 @@ public class Skills {
 
         Skills skills1 = (Skills) o;
 
-        return skills != null ? skills.equals(skills1.skills) : skills1.skills == null;
+        return skills.equals(skills1.skills);
     }
 
     @Override
     public int hashCode() {
-        return skills != null ? skills.hashCode() : 0;
+        return skills.hashCode();
     }
 }
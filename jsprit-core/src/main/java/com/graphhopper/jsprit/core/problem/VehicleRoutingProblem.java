@@ -135,6 +135,8 @@ public class VehicleRoutingProblem {
 
         private final DefaultTourActivityFactory serviceActivityFactory = new DefaultTourActivityFactory();
 
+        private SkillIndex skillIndex;
+
         private void incActivityIndexCounter() {
             activityIndexCounter++;
         }
@@ -223,15 +225,50 @@ public class VehicleRoutingProblem {
          * @throws IllegalStateException if job is neither a shipment nor a service, or jobId has already been added.
          */
         public Builder addJob(AbstractJob job) {
-            if (tentativeJobs.containsKey(job.getId()))
-                throw new IllegalArgumentException("The vehicle routing problem already contains a service or shipment with id " + job.getId() + ". Please make sure you use unique ids for all services and shipments.");
-            if (!(job instanceof Service || job.getJobType().isShipment()))
-                throw new IllegalArgumentException("Job must be either a service or a shipment.");
+            validateJob(job);
             tentativeJobs.put(job.getId(), job);
             addLocationToTentativeLocations(job);
             return this;
         }
 
+        /**
+         * Streams jobs into the problem.
+         * <p>
+         * <p>In contrast to {@link #addJob(Job)}, jobs are not collected tentatively until {@link #build()} is called. Each job
+         * is registered as unassigned job right away, i.e. it gets its index and its activities are created by the
+         * {@link JobActivityFactory} set so far. Thus, the iterator can lazily read job records (e.g. from a file) without
+         * the builder keeping a second copy of them. Jobs that already belong to an initial route are collected
+         * tentatively as with {@link #addJob(Job)}.
+         * <p>
+         * <p>Streamed jobs must not be part of initial routes added afterwards, and the job activity factory must be set
+         * before streaming.
+         *
+         * @param jobs iterator over jobs that are either services or shipments
+         * @return this builder
+         * @throws IllegalArgumentException if a job is neither a shipment nor a service, or its id has already been added
+         */
+        public Builder addJobs(Iterator<? extends Job> jobs) {
+            while (jobs.hasNext()) {
+                Job job = jobs.next();
+                if (!(job instanceof AbstractJob)) throw new IllegalArgumentException("job must be of type AbstractJob");
+                if (jobsInInitialRoutes.containsKey(job.getId())) {
+                    addJob(job);
+                    continue;
+                }
+                validateJob(job);
+                addJobToFinalJobMapAndCreateActivities(job);
+                jobToIndexBuilder.put(job, ++jobIndexCounterFinal);
+            }
+            return this;
+        }
+
+        private void validateJob(Job job) {
+            if (tentativeJobs.containsKey(job.getId()) || jobs.containsKey(job.getId()))
+                throw new IllegalArgumentException("The vehicle routing problem already contains a service or shipment with id " + job.getId() + ". Please make sure you use unique ids for all services and shipments.");
+            if (!(job instanceof Service || job.getJobType().isShipment()))
+                throw new IllegalArgumentException("Job must be either a service or a shipment.");
+        }
+
         private void addLocationToTentativeLocations(Job job) {
             for (Activity act : job.getActivities()) {
                 addLocationToTentativeLocations(act.getLocation());
@@ -282,6 +319,14 @@ public class VehicleRoutingProblem {
          * @return the builder
          */
         public Builder addInitialVehicleRoute(VehicleRoute route) {
+            for (Job job : route.getTourActivities().getJobs()) {
+                if (jobs.get(job.getId()) == job && !tentativeJobs.containsKey(job.getId()))
+                    throw new IllegalArgumentException("The job " + job.getId() + " has already been streamed as unassigned job. It cannot be part of an initial route.");
+            }
+            return addInitialRoute(route);
+        }
+
+        private Builder addInitialRoute(VehicleRoute route) {
             if(!addedVehicleIds.contains(route.getVehicle().getId())){
                 addVehicle((AbstractVehicle) route.getVehicle());
                 addedVehicleIds.add(route.getVehicle().getId());
@@ -471,7 +516,7 @@ public class VehicleRoutingProblem {
                 }
             }
 
-            // Store indices in map instead of mutating the job objects
+            // Store indices in map instead of mutating the job objects. Streamed jobs come first and keep their index.
             int jobIndexCounter = 1;
             for (Job job : jobs.values()) {
                 jobToIndexBuilder.put(job, jobIndexCounter++);
@@ -488,9 +533,23 @@ public class VehicleRoutingProblem {
             // Materialize solution/route specs into actual routes
             materializeSpecs();
 
+            skillIndex = buildSkillIndex();
+
             return new VehicleRoutingProblem(this);
         }
 
+        private SkillIndex buildSkillIndex() {
+            List<Skills> allSkills = new ArrayList<>();
+            for (Job job : jobs.values()) allSkills.add(job.getRequiredSkills());
+            for (Job job : jobsInInitialRoutes.values()) allSkills.add(job.getRequiredSkills());
+            for (Vehicle v : uniqueVehicles) {
+                allSkills.add(v.getSkills());
+                if (v.getBreak() != null) allSkills.add(v.getBreak().getRequiredSkills());
+            }
+            allSkills.removeIf(Objects::isNull);
+            return new SkillIndex(allSkills);
+        }
+
         private void materializeSpecs() {
             if (initialRouteSpecs.isEmpty()) {
                 return;
@@ -502,22 +561,17 @@ public class VehicleRoutingProblem {
                 vehicleMap.put(v.getId(), v);
             }
 
-            // Combine all jobs (tentative + already in initial routes)
-            Map<String, Job> allJobs = new HashMap<>(jobs);
-            allJobs.putAll(tentativeJobs);
-            allJobs.putAll(jobsInInitialRoutes);
-
             // Materialize each route spec
             for (RouteSpec routeSpec : initialRouteSpecs) {
-                VehicleRoute route = materializeRouteSpec(routeSpec, vehicleMap, allJobs);
+                VehicleRoute route = materializeRouteSpec(routeSpec, vehicleMap);
                 if (route != null) {
                     // Add to initial routes using existing method to handle indexing
-                    addInitialVehicleRoute(route);
+                    addInitialRoute(route);
                 }
             }
         }
 
-        private VehicleRoute materializeRouteSpec(RouteSpec routeSpec, Map<String, Vehicle> vehicleMap, Map<String, Job> allJobs) {
+        private VehicleRoute materializeRouteSpec(RouteSpec routeSpec, Map<String, Vehicle> vehicleMap) {
             Vehicle vehicle = vehicleMap.get(routeSpec.vehicleId());
             if (vehicle == null) {
                 throw new IllegalArgumentException("Vehicle '%s' in spec not found".formatted(routeSpec.vehicleId()));
@@ -531,7 +585,7 @@ public class VehicleRoutingProblem {
                     .setJobActivityFactory(jobActivityFactory);
 
             for (ActivitySpec actSpec : routeSpec.activities()) {
-                Job job = allJobs.get(actSpec.jobId());
+                Job job = getAddedJob(actSpec.jobId());
                 if (job == null) {
                     throw new IllegalArgumentException("Job '%s' in spec not found".formatted(actSpec.jobId()));
                 }
@@ -541,6 +595,14 @@ public class VehicleRoutingProblem {
             return builder.build();
         }
 
+        // looks the job up in jobs in initial routes, then in tentative and streamed jobs, without combining them
+        private Job getAddedJob(String jobId) {
+            Job job = jobsInInitialRoutes.get(jobId);
+            if (job == null) job = tentativeJobs.get(jobId);
+            if (job == null) job = jobs.get(jobId);
+            return job;
+        }
+
         private void addActivityToRouteBuilder(VehicleRoute.Builder builder, Job job, ActivitySpec actSpec) {
             TimeWindow timeWindow = getTimeWindowForSpec(job, actSpec);
 
@@ -642,7 +704,13 @@ public class VehicleRoutingProblem {
          * @return collection of jobs
          */
         public Collection<Job> getAddedJobs() {
-            return Collections.unmodifiableCollection(tentativeJobs.values());
+            if (jobs.isEmpty()) return Collections.unmodifiableCollection(tentativeJobs.values());
+            List<Job> addedJobs = new ArrayList<>(jobs.size() + tentativeJobs.size());
+            for (Job job : jobs.values()) {
+                if (!tentativeJobs.containsKey(job.getId())) addedJobs.add(job);
+            }
+            addedJobs.addAll(tentativeJobs.values());
+            return Collections.unmodifiableList(addedJobs);
         }
 
 
@@ -715,6 +783,8 @@ public class VehicleRoutingProblem {
 
     private final JobActivityFactory jobActivityFactory = this::copyAndGetActivities;
 
+    private final SkillIndex skillIndex;
+
     private VehicleRoutingProblem(Builder builder) {
         this.jobs = builder.jobs;
         this.jobsWithLocation = builder.jobsWithLocation;
@@ -727,8 +797,13 @@ public class VehicleRoutingProblem {
         this.activityMap = builder.activityMap;
         this.nuActivities = builder.activityIndexCounter;
         this.allLocations = builder.allLocations;
-        this.allJobs = new LinkedHashMap<>(jobs);
-        this.allJobs.putAll(builder.jobsInInitialRoutes);
+        this.skillIndex = builder.skillIndex;
+        if (builder.jobsInInitialRoutes.isEmpty()) {
+            this.allJobs = jobs;
+        } else {
+            this.allJobs = new LinkedHashMap<>(jobs);
+            this.allJobs.putAll(builder.jobsInInitialRoutes);
+        }
 
         // Use index maps from builder (vehicles and jobs are NOT mutated)
         this.vehicleToIndex = new IdentityHashMap<>(builder.vehicleToIndexBuilder);
@@ -868,6 +943,13 @@ public class VehicleRoutingProblem {
         return jobActivityFactory;
     }
 
+    /**
+     * @return index that maps the skills of jobs, vehicles and breaks of this problem to bitsets
+     */
+    public SkillIndex getSkillIndex() {
+        return skillIndex;
+    }
+
     /**
      * @param job for which the corresponding activities needs to be returned
      * @return a copy of the activities that are associated to the specified job
@@ -165,7 +165,7 @@ public class ConstraintManager implements HardActivityConstraint, HardRouteConst
 
     public void addSkillsConstraint() {
         if (!skillconstraintSet) {
-            addConstraint(new HardSkillConstraint(stateManager));
+            addConstraint(new HardSkillConstraint(stateManager, vrp.getSkillIndex()));
             skillconstraintSet = true;
         }
     }
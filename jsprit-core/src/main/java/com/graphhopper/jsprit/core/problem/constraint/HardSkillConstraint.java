@@ -19,6 +19,7 @@
 package com.graphhopper.jsprit.core.problem.constraint;
 
 import com.graphhopper.jsprit.core.algorithm.state.InternalStates;
+import com.graphhopper.jsprit.core.problem.SkillIndex;
 import com.graphhopper.jsprit.core.problem.Skills;
 import com.graphhopper.jsprit.core.problem.misc.JobInsertionContext;
 import com.graphhopper.jsprit.core.problem.solution.route.state.RouteAndActivityStateGetter;
@@ -32,25 +33,40 @@ public class HardSkillConstraint implements HardRouteConstraint {
 
     private RouteAndActivityStateGetter states;
 
+    private final SkillIndex skillIndex;
+
     public HardSkillConstraint(RouteAndActivityStateGetter states) {
+        this(states, null);
+    }
+
+    /**
+     * Compares skills as bitsets of the problem's skill index where possible.
+     *
+     * @param states     state getter
+     * @param skillIndex skill index of the problem
+     */
+    public HardSkillConstraint(RouteAndActivityStateGetter states, SkillIndex skillIndex) {
         this.states = states;
+        this.skillIndex = skillIndex;
     }
 
     @Override
     public boolean fulfilled(JobInsertionContext insertionContext) {
-        for (String skill : insertionContext.getJob().getRequiredSkills().values()) {
-            if (!insertionContext.getNewVehicle().getSkills().containsSkill(skill)) {
-                return false;
+        Skills vehicleSkills = insertionContext.getNewVehicle().getSkills();
+        if (skillIndex != null) {
+            long[] vehicleBits = skillIndex.getBits(vehicleSkills);
+            long[] jobBits = skillIndex.getBits(insertionContext.getJob().getRequiredSkills());
+            long[] routeBits = states.getRouteState(insertionContext.getRoute(), InternalStates.SKILL_BITS, long[].class);
+            if (vehicleBits != null && jobBits != null && routeBits != null) {
+                return SkillIndex.containsAll(vehicleBits, jobBits) && SkillIndex.containsAll(vehicleBits, routeBits);
             }
         }
+        if (!vehicleSkills.containsAllSkills(insertionContext.getJob().getRequiredSkills())) {
+            return false;
+        }
         Skills requiredSkillsForRoute = states.getRouteState(insertionContext.getRoute(), InternalStates.SKILLS, Skills.class);
         if (requiredSkillsForRoute == null) requiredSkillsForRoute = defaultSkills;
-        for (String skill : requiredSkillsForRoute.values()) {
-            if (!insertionContext.getNewVehicle().getSkills().containsSkill(skill)) {
-                return false;
-            }
-        }
-        return true;
+        return vehicleSkills.containsAllSkills(requiredSkillsForRoute);
     }
 
 }
@@ -18,17 +18,17 @@
 
 package com.graphhopper.jsprit.core.problem.constraint;
 
+import com.graphhopper.jsprit.core.algorithm.state.OpenJobSlacks;
 import com.graphhopper.jsprit.core.algorithm.state.StateId;
 import com.graphhopper.jsprit.core.algorithm.state.StateManager;
 import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
 import com.graphhopper.jsprit.core.problem.cost.TransportTime;
 import com.graphhopper.jsprit.core.problem.cost.VehicleRoutingActivityCosts;
-import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.problem.misc.ActivityContext;
 import com.graphhopper.jsprit.core.problem.misc.JobInsertionContext;
 import com.graphhopper.jsprit.core.problem.solution.route.activity.*;
 
-import java.util.Collections;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Created by schroeder on 15/09/16.
@@ -109,46 +109,59 @@ public class MaxTimeInVehicleConstraint implements HardActivityConstraint {
             else return ConstraintsStatus.NOT_FULFILLED;
         }
         if (newActIsDelivery) {
-            Map<Job, Double> openJobsAtNext;
-            if (nextAct instanceof End)
-                openJobsAtNext = stateManager.getRouteState(iFacts.getRoute(), iFacts.getNewVehicle(), openJobsId, Map.class);
-            else openJobsAtNext = stateManager.getActivityState(nextAct, iFacts.getNewVehicle(), openJobsId, Map.class);
-            if (openJobsAtNext == null) openJobsAtNext = Collections.emptyMap();
-            for (Job openJob : openJobsAtNext.keySet()) {
-                double slack = openJobsAtNext.get(openJob);
-                double additionalTimeOfNewJob = additionalTimeOfNewAct;
-                if (openJob.getJobType().isShipment()) {
-                    Map<Job, Double> openJobsAtNextOfPickup = Collections.emptyMap();
-                    TourActivity nextAfterPickup;
-                    if (iFacts.getAssociatedActivities().size() == 1 && !iFacts.getRoute().isEmpty())
-                        nextAfterPickup = iFacts.getRoute().getActivities().get(0);
-                    else
-                        nextAfterPickup = iFacts.getRoute().getActivities().get(iFacts.getRelatedActivityContext().getInsertionIndex());
-                    if (nextAfterPickup != null)
-                        openJobsAtNextOfPickup = stateManager.getActivityState(nextAfterPickup, iFacts.getNewVehicle(), openJobsId, Map.class);
-                    if (openJobsAtNextOfPickup.containsKey(openJob)) {
-                        TourActivity pickupAct = iFacts.getAssociatedActivities().get(0);
-                        int pickupInsertionIndex = iFacts.getRelatedActivityContext().getInsertionIndex();
-                        TourActivity prevActBeforePickup;
-                        if (pickupInsertionIndex == 0 || iFacts.getRoute().isEmpty()) {
-                            prevActBeforePickup = new Start(iFacts.getNewVehicle().getStartLocation(), iFacts.getNewVehicle().getEarliestDeparture(), iFacts.getNewVehicle().getLatestArrival());
-                        } else {
-                            prevActBeforePickup = iFacts.getRoute().getActivities().get(pickupInsertionIndex - 1);
+            OpenJobSlacks openJobs = stateManager.getRouteState(iFacts.getRoute(), iFacts.getNewVehicle(), openJobsId, OpenJobSlacks.class);
+            int nextActPosition = openJobs == null ? -1 : positionOf(iFacts, nextAct, openJobs);
+            if (nextActPosition >= 0) {
+                if (additionalTimeOfNewAct > openJobs.getMinSlack(nextActPosition)) {
+                    return ConstraintsStatus.NOT_FULFILLED;
+                }
+                //shipments picked up before and delivered after the new shipment are delayed by its pickup as well
+                if (iFacts.getAssociatedActivities().size() > 1) {
+                    int pickupInsertionIndex = iFacts.getRelatedActivityContext().getInsertionIndex();
+                    if (pickupInsertionIndex < iFacts.getRoute().getActivities().size()) {
+                        double minSlackOfShipments = openJobs.getMinSlackOfShipmentsOpenAt(pickupInsertionIndex, nextActPosition);
+                        if (minSlackOfShipments != Double.MAX_VALUE) {
+                            TourActivity nextAfterPickup = iFacts.getRoute().getActivities().get(pickupInsertionIndex);
+                            TourActivity pickupAct = iFacts.getAssociatedActivities().get(0);
+                            TourActivity prevActBeforePickup;
+                            if (pickupInsertionIndex == 0) {
+                                prevActBeforePickup = new Start(iFacts.getNewVehicle().getStartLocation(), iFacts.getNewVehicle().getEarliestDeparture(), iFacts.getNewVehicle().getLatestArrival());
+                            } else {
+                                prevActBeforePickup = iFacts.getRoute().getActivities().get(pickupInsertionIndex - 1);
+                            }
+                            double pickupActArrTime = iFacts.getRelatedActivityContext().getArrivalTime();
+                            double pickupActEndTime = startOf(pickupAct, pickupActArrTime) + activityCosts.getActivityDuration(prevActBeforePickup, pickupAct, pickupActArrTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
+                            double nextAfterPickupArr = pickupActEndTime + transportTime.getTransportTime(pickupAct.getLocation(), nextAfterPickup.getLocation(), pickupActArrTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
+                            double additionalTimeOfPickup = startOf(nextAfterPickup, nextAfterPickupArr) - startOf(nextAfterPickup, nextAfterPickup.getArrTime());
+                            if (additionalTimeOfNewAct + additionalTimeOfPickup > minSlackOfShipments) {
+                                return ConstraintsStatus.NOT_FULFILLED;
+                            }
                         }
-                        double pickupActArrTime = iFacts.getRelatedActivityContext().getArrivalTime();
-                        double pickupActEndTime = startOf(pickupAct, pickupActArrTime) + activityCosts.getActivityDuration(prevActBeforePickup, pickupAct, pickupActArrTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
-                        double nextAfterPickupArr = pickupActEndTime + transportTime.getTransportTime(pickupAct.getLocation(), nextAfterPickup.getLocation(), pickupActArrTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
-                        additionalTimeOfNewJob += startOf(nextAfterPickup, nextAfterPickupArr) - startOf(nextAfterPickup, nextAfterPickup.getArrTime());
                     }
                 }
-                if (additionalTimeOfNewJob > slack) {
-                    return ConstraintsStatus.NOT_FULFILLED;
-                }
             }
         }
         return ConstraintsStatus.FULFILLED;
     }
 
+    /*
+     * Position of nextAct in the route the open jobs were memorized for. Insertion calculators provide it with the
+     * activity context, otherwise it is looked up.
+     */
+    private static int positionOf(JobInsertionContext iFacts, TourActivity nextAct, OpenJobSlacks openJobs) {
+        if (nextAct instanceof End) return openJobs.getNoActivities();
+        List<TourActivity> activities = iFacts.getRoute().getActivities();
+        ActivityContext activityContext = iFacts.getActivityContext();
+        if (activityContext != null) {
+            int index = activityContext.getInsertionIndex();
+            if (index < activities.size() && activities.get(index) == nextAct) return index;
+        }
+        for (int i = 0; i < activities.size(); i++) {
+            if (activities.get(i) == nextAct) return i;
+        }
+        return -1;
+    }
+
     private double startOf(TourActivity act, double arrTime) {
         return Math.max(arrTime, act.getTheoreticalEarliestOperationStartTime());
     }
@@ -72,15 +72,12 @@ public class PickupAndDeliverShipmentLoadActivityLevelConstraint implements Hard
             if (loadAtPrevAct == null) loadAtPrevAct = defaultValue;
         }
         if (isShipmentPickup(newAct)) {
-            Capacity addUp = Capacity.addup(loadAtPrevAct, newAct.getSize());
-            if (!addUp.isLessOrEqual(iFacts.getNewVehicle().getType().getCapacityDimensions())) {
+            if (!Capacity.isSumLessOrEqual(loadAtPrevAct, newAct.getSize(), iFacts.getNewVehicle().getType().getCapacityDimensions())) {
                 return ConstraintsStatus.NOT_FULFILLED;
             }
         }
         if (isShipmentDelivery(newAct)) {
-            Capacity invert = Capacity.invert(newAct.getSize());
-            Capacity addUp = Capacity.addup(loadAtPrevAct, invert);
-            if (!addUp.isLessOrEqual(iFacts.getNewVehicle().getType().getCapacityDimensions()))
+            if (!Capacity.isDifferenceLessOrEqual(loadAtPrevAct, newAct.getSize(), iFacts.getNewVehicle().getType().getCapacityDimensions()))
                 return ConstraintsStatus.NOT_FULFILLED_BREAK;
         }
         return ConstraintsStatus.FULFILLED;
@@ -63,12 +63,12 @@ public class ServiceLoadActivityLevelConstraint implements HardActivityConstrain
         if (newAct instanceof TourActivity.JobActivity) {
             Job j = ((TourActivity.JobActivity) newAct).getJob();
             if (j.isDeliveredToVehicleEnd()) {
-                if (!Capacity.addup(newAct.getSize(), futureMaxLoad).isLessOrEqual(iFacts.getNewVehicle().getType().getCapacityDimensions())) {
+                if (!Capacity.isSumLessOrEqual(newAct.getSize(), futureMaxLoad, iFacts.getNewVehicle().getType().getCapacityDimensions())) {
                     return ConstraintsStatus.NOT_FULFILLED;
                 }
             }
             if (j.isPickedUpAtVehicleStart()) {
-                if (!Capacity.addup(Capacity.invert(newAct.getSize()), prevMaxLoad).isLessOrEqual(iFacts.getNewVehicle().getType().getCapacityDimensions())) {
+                if (!Capacity.isDifferenceLessOrEqual(prevMaxLoad, newAct.getSize(), iFacts.getNewVehicle().getType().getCapacityDimensions())) {
                     return ConstraintsStatus.NOT_FULFILLED_BREAK;
                 }
             }
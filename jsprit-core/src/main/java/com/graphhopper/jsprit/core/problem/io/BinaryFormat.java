@@ -0,0 +1,102 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.problem.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constants and primitive encodings shared by {@link BinaryProblemWriter} and {@link BinaryProblemReader}.
+ * <p>
+ * A file starts with {@link #MAGIC}, {@link #VERSION} and its kind (problem or solution). A problem is a sequence
+ * of tagged records terminated by {@link #END}. Locations, vehicle types and skills are written on first use and
+ * referenced by number afterwards, i.e. each of them is stored only once.
+ */
+final class BinaryFormat {
+
+    static final int MAGIC = 0x4A535052; // "JSPR"
+
+    static final int VERSION = 1;
+
+    static final byte KIND_PROBLEM = 1;
+
+    static final byte KIND_SOLUTION = 2;
+
+    static final byte END = 0;
+
+    static final byte VEHICLE = 1;
+
+    static final byte SERVICE = 2;
+
+    static final byte PICKUP = 3;
+
+    static final byte DELIVERY = 4;
+
+    static final byte SHIPMENT = 5;
+
+    static final byte EN_ROUTE_PICKUP = 6;
+
+    static final byte EN_ROUTE_DELIVERY = 7;
+
+    static final byte COST_MATRIX = 8;
+
+    /**
+     * Reference to an absent entry, e.g. a service without location.
+     */
+    static final int NO_ENTRY = 0;
+
+    /**
+     * Reference that announces a new entry, i.e. the entry itself follows. Entries seen before are referenced by
+     * their position plus {@link #FIRST_ENTRY}.
+     */
+    static final int NEW_ENTRY = 1;
+
+    static final int FIRST_ENTRY = 2;
+
+    private BinaryFormat() {
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("malformed variable-length integer");
+    }
+
+    static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.problem.io;
+
+import com.graphhopper.jsprit.core.problem.Capacity;
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.job.Break;
+import com.graphhopper.jsprit.core.problem.job.Delivery;
+import com.graphhopper.jsprit.core.problem.job.EnRouteDelivery;
+import com.graphhopper.jsprit.core.problem.job.EnRoutePickup;
+import com.graphhopper.jsprit.core.problem.job.Pickup;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.job.Shipment;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TimeWindow;
+import com.graphhopper.jsprit.core.problem.solution.spec.ActivityOptions;
+import com.graphhopper.jsprit.core.problem.solution.spec.ActivitySpec;
+import com.graphhopper.jsprit.core.problem.solution.spec.ActivityType;
+import com.graphhopper.jsprit.core.problem.solution.spec.RouteSpec;
+import com.graphhopper.jsprit.core.problem.solution.spec.SolutionSpec;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleType;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+import com.graphhopper.jsprit.core.util.Coordinate;
+import com.graphhopper.jsprit.core.util.FastVehicleRoutingTransportCostsMatrix;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.graphhopper.jsprit.core.problem.io.BinaryFormat.*;
+
+/**
+ * Reads {@link VehicleRoutingProblem}s and {@link SolutionSpec}s written by {@link BinaryProblemWriter}.
+ * <p>
+ * Records are added to the problem builder as soon as they are read, i.e. no intermediate representation of the
+ * problem is built. Streams passed in are not closed and are not buffered by the reader, i.e. it never reads beyond
+ * the end of the record. Pass a {@link BufferedInputStream} if the stream is not buffered yet.
+ */
+public class BinaryProblemReader {
+
+    /**
+     * Reads a problem from in and builds it.
+     *
+     * @param in the stream to read from
+     * @return the problem
+     * @throws IOException if reading fails or the stream does not contain a problem of a supported version
+     */
+    public VehicleRoutingProblem read(InputStream in) throws IOException {
+        return read(in, VehicleRoutingProblem.Builder.newInstance()).build();
+    }
+
+    /**
+     * Reads a problem from in and adds it to the given builder, e.g. to set custom costs before building.
+     *
+     * @param in         the stream to read from
+     * @param vrpBuilder the builder the vehicles, jobs and transport costs are added to
+     * @return vrpBuilder
+     * @throws IOException if reading fails or the stream does not contain a problem of a supported version
+     */
+    public VehicleRoutingProblem.Builder read(InputStream in, VehicleRoutingProblem.Builder vrpBuilder) throws IOException {
+        Decoder decoder = new Decoder(in);
+        decoder.readHeader(KIND_PROBLEM);
+        vrpBuilder.setFleetSize(VehicleRoutingProblem.FleetSize.values()[decoder.in.readUnsignedByte()]);
+        while (true) {
+            byte tag = decoder.in.readByte();
+            switch (tag) {
+                case END -> {
+                    return vrpBuilder;
+                }
+                case VEHICLE -> vrpBuilder.addVehicle(decoder.readVehicle());
+                case SERVICE -> vrpBuilder.addJob(decoder.readService(Service.Builder.newInstance(decoder.in.readUTF())));
+                case PICKUP -> vrpBuilder.addJob(decoder.readService(Pickup.Builder.newInstance(decoder.in.readUTF())));
+                case DELIVERY -> vrpBuilder.addJob(decoder.readService(Delivery.Builder.newInstance(decoder.in.readUTF())));
+                case EN_ROUTE_PICKUP -> vrpBuilder.addJob(decoder.readService(EnRoutePickup.Builder.newInstance(decoder.in.readUTF())));
+                case EN_ROUTE_DELIVERY -> vrpBuilder.addJob(decoder.readService(EnRouteDelivery.Builder.newInstance(decoder.in.readUTF())));
+                case SHIPMENT -> vrpBuilder.addJob(decoder.readShipment());
+                case COST_MATRIX -> vrpBuilder.setRoutingCost(decoder.readMatrix());
+                default -> throw new IOException("unknown record " + tag);
+            }
+        }
+    }
+
+    /**
+     * Reads a problem from file.
+     *
+     * @param file the file to read from
+     * @return the problem
+     * @throws IOException if reading fails or the file does not contain a problem of a supported version
+     */
+    public VehicleRoutingProblem read(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a solution spec from in.
+     *
+     * @param in the stream to read from
+     * @return the solution spec
+     * @throws IOException if reading fails or the stream does not contain a solution of a supported version
+     */
+    public SolutionSpec readSolutionSpec(InputStream in) throws IOException {
+        Decoder decoder = new Decoder(in);
+        decoder.readHeader(KIND_SOLUTION);
+        int noRoutes = readVarInt(decoder.in);
+        List<RouteSpec> routes = new ArrayList<>(noRoutes);
+        ActivityType[] activityTypes = ActivityType.values();
+        for (int r = 0; r < noRoutes; r++) {
+            String vehicleId = decoder.in.readUTF();
+            int noActivities = readVarInt(decoder.in);
+            List<ActivitySpec> activities = new ArrayList<>(noActivities);
+            for (int a = 0; a < noActivities; a++) {
+                String jobId = decoder.in.readUTF();
+                ActivityType type = activityTypes[decoder.in.readUnsignedByte()];
+                int timeWindowIndex = readVarInt(decoder.in);
+                ActivityOptions options = timeWindowIndex == 0 ? null : ActivityOptions.withTimeWindow(timeWindowIndex - 1);
+                activities.add(new ActivitySpec(jobId, type, options));
+            }
+            routes.add(RouteSpec.of(vehicleId, activities));
+        }
+        return SolutionSpec.of(routes);
+    }
+
+    /**
+     * Reads a solution spec from file.
+     *
+     * @param file the file to read from
+     * @return the solution spec
+     * @throws IOException if reading fails or the file does not contain a solution of a supported version
+     */
+    public SolutionSpec readSolutionSpec(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            return readSolutionSpec(in);
+        }
+    }
+
+    private static class Decoder {
+
+        private final DataInputStream in;
+
+        private final List<Location> locations = new ArrayList<>();
+
+        private final List<VehicleType> types = new ArrayList<>();
+
+        private final List<String> skills = new ArrayList<>();
+
+        Decoder(InputStream in) {
+            this.in = new DataInputStream(in);
+        }
+
+        void readHeader(byte kind) throws IOException {
+            if (in.readInt() != MAGIC) throw new IOException("not a jsprit binary file");
+            int version = in.readUnsignedShort();
+            if (version != VERSION) throw new IOException("unsupported format version " + version);
+            byte actualKind = in.readByte();
+            if (actualKind != kind)
+                throw new IOException("expected " + (kind == KIND_PROBLEM ? "problem" : "solution") + " but file contains " + (actualKind == KIND_PROBLEM ? "problem" : "solution"));
+        }
+
+        VehicleImpl readVehicle() throws IOException {
+            VehicleImpl.Builder builder = VehicleImpl.Builder.newInstance(in.readUTF());
+            builder.setType(readType());
+            builder.setStartLocation(readLocation());
+            boolean returnToDepot = in.readBoolean();
+            builder.setReturnToDepot(returnToDepot);
+            if (returnToDepot) builder.setEndLocation(readLocation());
+            builder.setEarliestStart(in.readDouble());
+            builder.setLatestArrival(in.readDouble());
+            int noSkills = readVarInt(in);
+            for (int i = 0; i < noSkills; i++) builder.addSkill(readSkill());
+            if (in.readBoolean()) {
+                Break.Builder breakBuilder = Break.Builder.newInstance(in.readUTF());
+                breakBuilder.setName(readNullableString(in));
+                Location location = readLocation();
+                if (location != null) breakBuilder.setLocation(location);
+                breakBuilder.setServiceTime(in.readDouble());
+                readTimeWindows(breakBuilder);
+                breakBuilder.setPriority(readVarInt(in));
+                builder.setBreak(breakBuilder.build());
+            }
+            return builder.build();
+        }
+
+        <T extends Service> T readService(Service.Builder<T> builder) throws IOException {
+            builder.setName(readNullableString(in));
+            Location location = readLocation();
+            if (location != null) builder.setLocation(location);
+            builder.setServiceTime(in.readDouble());
+            readTimeWindows(builder);
+            builder.addAllSizeDimensions(readCapacity());
+            int noSkills = readVarInt(in);
+            for (int i = 0; i < noSkills; i++) builder.addRequiredSkill(readSkill());
+            builder.setPriority(readVarInt(in));
+            double maxTimeInVehicle = in.readDouble();
+            if (maxTimeInVehicle != Double.MAX_VALUE) builder.setMaxTimeInVehicle(maxTimeInVehicle);
+            return builder.build();
+        }
+
+        Shipment readShipment() throws IOException {
+            Shipment.Builder builder = Shipment.Builder.newInstance(in.readUTF());
+            builder.setName(readNullableString(in));
+            builder.setPickupLocation(readLocation());
+            builder.setPickupServiceTime(in.readDouble());
+            int noPickupTimeWindows = readVarInt(in);
+            for (int i = 0; i < noPickupTimeWindows; i++) builder.addPickupTimeWindow(in.readDouble(), in.readDouble());
+            builder.setDeliveryLocation(readLocation());
+            builder.setDeliveryServiceTime(in.readDouble());
+            int noDeliveryTimeWindows = readVarInt(in);
+            for (int i = 0; i < noDeliveryTimeWindows; i++) builder.addDeliveryTimeWindow(in.readDouble(), in.readDouble());
+            builder.addAllSizeDimensions(readCapacity());
+            int noSkills = readVarInt(in);
+            for (int i = 0; i < noSkills; i++) builder.addRequiredSkill(readSkill());
+            builder.setPriority(readVarInt(in));
+            double maxTimeInVehicle = in.readDouble();
+            if (maxTimeInVehicle != Double.MAX_VALUE) builder.setMaxTimeInVehicle(maxTimeInVehicle);
+            return builder.build();
+        }
+
+        FastVehicleRoutingTransportCostsMatrix readMatrix() throws IOException {
+            int noLocations = readVarInt(in);
+            boolean isSymmetric = in.readBoolean();
+            FastVehicleRoutingTransportCostsMatrix.Builder builder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(noLocations, isSymmetric);
+            for (int from = 0; from < noLocations; from++) {
+                for (int to = isSymmetric ? from : 0; to < noLocations; to++) {
+                    double distance = in.readDouble();
+                    double time = in.readDouble();
+                    builder.addTransportTimeAndDistance(from, to, time, distance);
+                }
+            }
+            return builder.build();
+        }
+
+        private VehicleType readType() throws IOException {
+            int ref = readVarInt(in);
+            if (ref != NEW_ENTRY) return types.get(ref - FIRST_ENTRY);
+            VehicleTypeImpl.Builder builder = VehicleTypeImpl.Builder.newInstance(in.readUTF());
+            builder.setCapacityDimensions(readCapacity());
+            builder.setFixedCost(in.readDouble());
+            builder.setCostPerTransportTime(in.readDouble());
+            builder.setCostPerDistance(in.readDouble());
+            builder.setCostPerWaitingTime(in.readDouble());
+            builder.setCostPerServiceTime(in.readDouble());
+            builder.setMaxVelocity(in.readDouble());
+            builder.setProfile(readNullableString(in));
+            VehicleType type = builder.build();
+            types.add(type);
+            return type;
+        }
+
+        private Location readLocation() throws IOException {
+            int ref = readVarInt(in);
+            if (ref == NO_ENTRY) return null;
+            if (ref != NEW_ENTRY) return locations.get(ref - FIRST_ENTRY);
+            Location.Builder builder = Location.Builder.newInstance().setId(in.readUTF());
+            int index = readVarInt(in) - 1;
+            if (index >= 0) builder.setIndex(index);
+            if (in.readBoolean()) builder.setCoordinate(Coordinate.newInstance(in.readDouble(), in.readDouble()));
+            builder.setName(readNullableString(in));
+            Location location = builder.build();
+            locations.add(location);
+            return location;
+        }
+
+        private void readTimeWindows(Service.Builder<?> builder) throws IOException {
+            int noTimeWindows = readVarInt(in);
+            for (int i = 0; i < noTimeWindows; i++) builder.addTimeWindow(TimeWindow.newInstance(in.readDouble(), in.readDouble()));
+        }
+
+        private Capacity readCapacity() throws IOException {
+            int noDimensions = readVarInt(in);
+            Capacity.Builder builder = Capacity.Builder.newInstance();
+            for (int i = 0; i < noDimensions; i++) builder.addDimension(i, in.readInt());
+            return builder.build();
+        }
+
+        private String readSkill() throws IOException {
+            int ref = readVarInt(in);
+            if (ref != NEW_ENTRY) return skills.get(ref - FIRST_ENTRY);
+            String skill = in.readUTF();
+            skills.add(skill);
+            return skill;
+        }
+
+    }
+
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.problem.io;
+
+import com.graphhopper.jsprit.core.problem.Capacity;
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.Skills;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.job.Break;
+import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.job.Shipment;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TimeWindow;
+import com.graphhopper.jsprit.core.problem.solution.spec.ActivitySpec;
+import com.graphhopper.jsprit.core.problem.solution.spec.RouteSpec;
+import com.graphhopper.jsprit.core.problem.solution.spec.SolutionSpec;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleType;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+import com.graphhopper.jsprit.core.util.FastVehicleRoutingTransportCostsMatrix;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static com.graphhopper.jsprit.core.problem.io.BinaryFormat.*;
+
+/**
+ * Writes {@link VehicleRoutingProblem}s and {@link SolutionSpec}s in a compact, versioned binary format that can be
+ * read back with {@link BinaryProblemReader}.
+ * <p>
+ * Jobs and vehicles are written one after another, i.e. nothing but the location, type and skill dictionaries is
+ * kept in memory while writing. The transport costs are written if they are a
+ * {@link FastVehicleRoutingTransportCostsMatrix}; any other cost model must be set again after reading.
+ * User data, activity costs and initial routes are not written.
+ * <p>
+ * Streams passed in are flushed but not closed.
+ */
+public class BinaryProblemWriter {
+
+    /**
+     * Writes the problem to out.
+     *
+     * @param vrp the problem to write
+     * @param out the stream to write to
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if the problem contains a job type that cannot be written
+     */
+    public void write(VehicleRoutingProblem vrp, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out);
+        encoder.writeHeader(KIND_PROBLEM);
+        encoder.out.writeByte(vrp.getFleetSize().ordinal());
+        for (Vehicle vehicle : vrp.getVehicles()) {
+            encoder.writeVehicle(vehicle);
+        }
+        for (Job job : vrp.getJobs().values()) {
+            encoder.writeJob(job);
+        }
+        if (vrp.getTransportCosts() instanceof FastVehicleRoutingTransportCostsMatrix matrix) {
+            encoder.writeMatrix(matrix);
+        }
+        encoder.out.writeByte(END);
+        encoder.out.flush();
+    }
+
+    /**
+     * Writes the problem to file.
+     *
+     * @param vrp  the problem to write
+     * @param file the file to write to
+     * @throws IOException if writing fails
+     */
+    public void write(VehicleRoutingProblem vrp, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(vrp, out);
+        }
+    }
+
+    /**
+     * Writes the solution spec to out.
+     *
+     * @param solution the solution spec to write
+     * @param out      the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void write(SolutionSpec solution, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out);
+        encoder.writeHeader(KIND_SOLUTION);
+        writeVarInt(encoder.out, solution.routes().size());
+        for (RouteSpec route : solution.routes()) {
+            encoder.out.writeUTF(route.vehicleId());
+            writeVarInt(encoder.out, route.activities().size());
+            for (ActivitySpec activity : route.activities()) {
+                encoder.out.writeUTF(activity.jobId());
+                encoder.out.writeByte(activity.type().ordinal());
+                Integer timeWindowIndex = activity.options() == null ? null : activity.options().timeWindowIndex();
+                writeVarInt(encoder.out, timeWindowIndex == null ? 0 : timeWindowIndex + 1);
+            }
+        }
+        encoder.out.flush();
+    }
+
+    /**
+     * Writes the solution spec to file.
+     *
+     * @param solution the solution spec to write
+     * @param file     the file to write to
+     * @throws IOException if writing fails
+     */
+    public void write(SolutionSpec solution, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(solution, out);
+        }
+    }
+
+    private static class Encoder {
+
+        private final DataOutputStream out;
+
+        private final Map<Location, Integer> locations = new IdentityHashMap<>();
+
+        private final Map<VehicleType, Integer> types = new IdentityHashMap<>();
+
+        private final Map<String, Integer> skills = new HashMap<>();
+
+        Encoder(OutputStream out) {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        }
+
+        void writeHeader(byte kind) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeByte(kind);
+        }
+
+        void writeVehicle(Vehicle vehicle) throws IOException {
+            out.writeByte(VEHICLE);
+            out.writeUTF(vehicle.getId());
+            writeType(vehicle.getType());
+            writeLocation(vehicle.getStartLocation());
+            out.writeBoolean(vehicle.isReturnToDepot());
+            if (vehicle.isReturnToDepot()) writeLocation(vehicle.getEndLocation());
+            out.writeDouble(vehicle.getEarliestDeparture());
+            out.writeDouble(vehicle.getLatestArrival());
+            writeSkills(vehicle.getSkills());
+            Break aBreak = vehicle.getBreak();
+            out.writeBoolean(aBreak != null);
+            if (aBreak != null) {
+                out.writeUTF(aBreak.getId());
+                writeNullableString(out, aBreak.getName());
+                writeLocation(aBreak.hasVariableLocation() ? null : aBreak.getLocation());
+                out.writeDouble(aBreak.getServiceDuration());
+                writeTimeWindows(aBreak.getTimeWindows());
+                writeVarInt(out, aBreak.getPriority());
+            }
+        }
+
+        void writeJob(Job job) throws IOException {
+            switch (job.getJobType()) {
+                case SERVICE -> writeService(SERVICE, (Service) job);
+                case PICKUP_SERVICE -> writeService(PICKUP, (Service) job);
+                case DELIVERY_SERVICE -> writeService(DELIVERY, (Service) job);
+                case EN_ROUTE_PICKUP -> writeService(EN_ROUTE_PICKUP, (Service) job);
+                case EN_ROUTE_DELIVERY -> writeService(EN_ROUTE_DELIVERY, (Service) job);
+                case SHIPMENT -> writeShipment((Shipment) job);
+                default -> throw new IllegalArgumentException("cannot write job " + job.getId() + " of type " + job.getJobType());
+            }
+        }
+
+        private void writeService(byte tag, Service service) throws IOException {
+            out.writeByte(tag);
+            out.writeUTF(service.getId());
+            writeNullableString(out, service.getName());
+            writeLocation(service.getLocation());
+            out.writeDouble(service.getServiceDuration());
+            writeTimeWindows(service.getTimeWindows());
+            writeCapacity(service.getSize());
+            writeSkills(service.getRequiredSkills());
+            writeVarInt(out, service.getPriority());
+            out.writeDouble(service.getMaxTimeInVehicle());
+        }
+
+        private void writeShipment(Shipment shipment) throws IOException {
+            out.writeByte(SHIPMENT);
+            out.writeUTF(shipment.getId());
+            writeNullableString(out, shipment.getName());
+            writeLocation(shipment.getPickupLocation());
+            out.writeDouble(shipment.getPickupServiceTime());
+            writeTimeWindows(shipment.getPickupTimeWindows());
+            writeLocation(shipment.getDeliveryLocation());
+            out.writeDouble(shipment.getDeliveryServiceTime());
+            writeTimeWindows(shipment.getDeliveryTimeWindows());
+            writeCapacity(shipment.getSize());
+            writeSkills(shipment.getRequiredSkills());
+            writeVarInt(out, shipment.getPriority());
+            out.writeDouble(shipment.getMaxTimeInVehicle());
+        }
+
+        void writeMatrix(FastVehicleRoutingTransportCostsMatrix matrix) throws IOException {
+            out.writeByte(COST_MATRIX);
+            int noLocations = matrix.getNoLocations();
+            writeVarInt(out, noLocations);
+            out.writeBoolean(matrix.isSymmetric());
+            double[][][] values = matrix.getMatrix();
+            for (int from = 0; from < noLocations; from++) {
+                for (int to = matrix.isSymmetric() ? from : 0; to < noLocations; to++) {
+                    out.writeDouble(values[from][to][0]);
+                    out.writeDouble(values[from][to][1]);
+                }
+            }
+        }
+
+        private void writeType(VehicleType type) throws IOException {
+            Integer ref = types.get(type);
+            if (ref != null) {
+                writeVarInt(out, ref);
+                return;
+            }
+            types.put(type, FIRST_ENTRY + types.size());
+            writeVarInt(out, NEW_ENTRY);
+            out.writeUTF(type.getTypeId());
+            writeCapacity(type.getCapacityDimensions());
+            VehicleTypeImpl.VehicleCostParams costs = type.getVehicleCostParams();
+            out.writeDouble(costs.fix);
+            out.writeDouble(costs.perTransportTimeUnit);
+            out.writeDouble(costs.perDistanceUnit);
+            out.writeDouble(costs.perWaitingTimeUnit);
+            out.writeDouble(costs.perServiceTimeUnit);
+            out.writeDouble(type.getMaxVelocity());
+            writeNullableString(out, type.getProfile());
+        }
+
+        private void writeLocation(Location location) throws IOException {
+            if (location == null) {
+                writeVarInt(out, NO_ENTRY);
+                return;
+            }
+            Integer ref = locations.get(location);
+            if (ref != null) {
+                writeVarInt(out, ref);
+                return;
+            }
+            locations.put(location, FIRST_ENTRY + locations.size());
+            writeVarInt(out, NEW_ENTRY);
+            out.writeUTF(location.getId());
+            writeVarInt(out, location.getIndex() + 1);
+            out.writeBoolean(location.getCoordinate() != null);
+            if (location.getCoordinate() != null) {
+                out.writeDouble(location.getCoordinate().getX());
+                out.writeDouble(location.getCoordinate().getY());
+            }
+            writeNullableString(out, location.getName());
+        }
+
+        private void writeTimeWindows(Collection<TimeWindow> timeWindows) throws IOException {
+            writeVarInt(out, timeWindows.size());
+            for (TimeWindow timeWindow : timeWindows) {
+                out.writeDouble(timeWindow.getStart());
+                out.writeDouble(timeWindow.getEnd());
+            }
+        }
+
+        private void writeCapacity(Capacity capacity) throws IOException {
+            writeVarInt(out, capacity.getNuOfDimensions());
+            for (int i = 0; i < capacity.getNuOfDimensions(); i++) {
+                out.writeInt(capacity.get(i));
+            }
+        }
+
+        private void writeSkills(Skills skillSet) throws IOException {
+            writeVarInt(out, skillSet.values().size());
+            for (String skill : skillSet.values()) {
+                Integer ref = skills.get(skill);
+                if (ref != null) {
+                    writeVarInt(out, ref);
+                } else {
+                    skills.put(skill, FIRST_ENTRY + skills.size());
+                    writeVarInt(out, NEW_ENTRY);
+                    out.writeUTF(skill);
+                }
+            }
+        }
+
+    }
+
+}
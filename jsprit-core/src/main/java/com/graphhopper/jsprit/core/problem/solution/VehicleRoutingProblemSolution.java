@@ -38,7 +38,20 @@ public class VehicleRoutingProblemSolution {
      * @return solution
      */
     public static VehicleRoutingProblemSolution copyOf(VehicleRoutingProblemSolution solution2copy) {
-        return new VehicleRoutingProblemSolution(solution2copy);
+        return new VehicleRoutingProblemSolution(solution2copy, false);
+    }
+
+    /**
+     * Makes a copy of the solution whose routes share their activities and sets of served jobs with the routes of the
+     * solution to be copied until they are modified (see {@link VehicleRoute#lazyCopyOf(VehicleRoute)}). Both
+     * solutions can be modified independently, but activities are only duplicated for routes that are actually
+     * changed afterwards.
+     *
+     * @param solution2copy solution to be copied
+     * @return solution
+     */
+    public static VehicleRoutingProblemSolution lazyCopyOf(VehicleRoutingProblemSolution solution2copy) {
+        return new VehicleRoutingProblemSolution(solution2copy, true);
     }
 
     private final Collection<VehicleRoute> routes;
@@ -47,10 +60,10 @@ public class VehicleRoutingProblemSolution {
 
     private double cost;
 
-    private VehicleRoutingProblemSolution(VehicleRoutingProblemSolution solution) {
-        routes = new ArrayList<VehicleRoute>();
+    private VehicleRoutingProblemSolution(VehicleRoutingProblemSolution solution, boolean lazy) {
+        routes = new ArrayList<VehicleRoute>(solution.getRoutes().size());
         for (VehicleRoute r : solution.getRoutes()) {
-            VehicleRoute route = VehicleRoute.copyOf(r);
+            VehicleRoute route = lazy ? VehicleRoute.lazyCopyOf(r) : VehicleRoute.copyOf(r);
             routes.add(route);
         }
         this.cost = solution.getCost();
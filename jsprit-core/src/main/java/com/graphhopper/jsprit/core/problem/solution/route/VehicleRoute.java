@@ -45,7 +45,21 @@ public class VehicleRoute {
      */
     public static VehicleRoute copyOf(VehicleRoute route) {
         if (route == null) throw new IllegalArgumentException("route must not be null");
-        return new VehicleRoute(route);
+        return new VehicleRoute(route, false);
+    }
+
+    /**
+     * Returns a copy of this vehicleRoute that shares its tour activities with the original until either of them is
+     * modified or gets another vehicle (see {@link TourActivities#lazyCopyOf(TourActivities)}). Only start and end
+     * are duplicated immediately.
+     *
+     * @param route route to copy
+     * @return copied route
+     * @throws IllegalArgumentException if route is null
+     */
+    public static VehicleRoute lazyCopyOf(VehicleRoute route) {
+        if (route == null) throw new IllegalArgumentException("route must not be null");
+        return new VehicleRoute(route, true);
     }
 
     /**
@@ -341,11 +355,12 @@ public class VehicleRoute {
      * Copy constructor copying a route.
      *
      * @param route to copy
+     * @param lazy  true if tour activities are copied on write
      */
-    private VehicleRoute(VehicleRoute route) {
+    private VehicleRoute(VehicleRoute route, boolean lazy) {
         this.start = Start.copyOf(route.getStart());
         this.end = End.copyOf(route.getEnd());
-        this.tourActivities = TourActivities.copyOf(route.getTourActivities());
+        this.tourActivities = lazy ? TourActivities.lazyCopyOf(route.getTourActivities()) : TourActivities.copyOf(route.getTourActivities());
         this.vehicle = route.getVehicle();
         this.driver = route.getDriver();
     }
@@ -423,6 +438,8 @@ public class VehicleRoute {
      * @param vehicleDepTime of employed vehicle
      */
     public void setVehicleAndDepartureTime(Vehicle vehicle, double vehicleDepTime) {
+        // activity times change with vehicle and departure, thus they must not be shared with a lazy copy anymore
+        tourActivities.detach();
         this.vehicle = vehicle;
         setStartAndEnd(vehicle, vehicleDepTime);
     }
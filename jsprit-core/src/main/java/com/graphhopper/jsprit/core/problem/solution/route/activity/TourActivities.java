@@ -8,53 +8,136 @@ package com.graphhopper.jsprit.core.problem.solution.route.activity;
 import com.graphhopper.jsprit.core.problem.job.Job;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TourActivities {
-    private final ArrayList<TourActivity> tourActivities = new ArrayList<>();
-    private final Set<Job> jobs = new HashSet<>();
+    private ArrayList<TourActivity> tourActivities;
+    private Set<Job> jobs;
     private ReverseActivityIterator backward;
+    // Live view on tourActivities, stays valid when the list is replaced on write (see exclusive)
+    private final List<TourActivity> activitiesView = new ActivitiesView();
     // Cache size to avoid frequent ArrayList.size() calls
     private int cachedSize = 0;
+    // True if activities and job set may be referenced by another instance (see lazyCopyOf)
+    private volatile boolean shared = false;
+    // Identifies the activity sequence; equal versions imply equal sequences (see getVersion)
+    private long version = EMPTY_VERSION;
+
+    private static final long EMPTY_VERSION = 0L;
+
+    private static final AtomicLong versionCounter = new AtomicLong();
 
     public static TourActivities copyOf(TourActivities tourActivities) {
-        return new TourActivities(tourActivities);
+        return new TourActivities(tourActivities, false);
+    }
+
+    /**
+     * Returns a copy of tourActivities that shares the activities and the set of served jobs with the original until
+     * either of them adds or removes an activity (or {@link #detach()} is called). Only then the activities of the
+     * modified instance are duplicated, thus copying a tour that is never modified costs O(1).
+     * <p>Activity attributes such as arrival and end times are shared as well as long as the activities are. These
+     * are derived from the activity sequence, the vehicle and its departure time, i.e. recomputing them for an
+     * unmodified copy yields the same values.
+     *
+     * @param tourActivities to copy
+     * @return the copy
+     */
+    public static TourActivities lazyCopyOf(TourActivities tourActivities) {
+        return new TourActivities(tourActivities, true);
     }
 
-    private TourActivities(TourActivities tour2copy) {
-        for (TourActivity tourAct : tour2copy.getActivities()) {
-            TourActivity newAct = tourAct.duplicate();
-            this.tourActivities.add(newAct);
-            this.addJob(newAct);
+    private TourActivities(TourActivities tour2copy, boolean share) {
+        if (share) {
+            tour2copy.shared = true;
+            this.tourActivities = tour2copy.tourActivities;
+            this.jobs = tour2copy.jobs;
+            this.shared = true;
+        } else {
+            this.tourActivities = duplicate(tour2copy.tourActivities);
+            this.jobs = new HashSet<>(tour2copy.jobs);
         }
         this.cachedSize = this.tourActivities.size();
+        this.version = tour2copy.version;
+    }
+
+    private static ArrayList<TourActivity> duplicate(List<TourActivity> activities) {
+        ArrayList<TourActivity> copy = new ArrayList<>(activities.size() + 2);
+        for (TourActivity tourAct : activities) {
+            copy.add(tourAct.duplicate());
+        }
+        return copy;
     }
 
     public TourActivities() {
+        this.tourActivities = new ArrayList<>();
+        this.jobs = new HashSet<>();
+    }
+
+    private void exclusive() {
+        if (this.shared) {
+            this.tourActivities = duplicate(this.tourActivities);
+            this.jobs = new HashSet<>(this.jobs);
+            this.backward = null;
+            this.shared = false;
+        }
+    }
+
+    /**
+     * Duplicates the activities if they are shared with a lazy copy (see {@link #lazyCopyOf(TourActivities)}), such
+     * that attributes of the activities can be modified without affecting the other instance. Adding or removing
+     * activities detaches implicitly.
+     */
+    public void detach() {
+        exclusive();
+    }
+
+    private void modified() {
+        this.version = this.cachedSize == 0 ? EMPTY_VERSION : versionCounter.incrementAndGet();
+    }
+
+    /**
+     * Returns the version of the activity sequence. The version changes whenever activities are added or removed.
+     * Copies, be it by {@link #copyOf(TourActivities)} or {@link #lazyCopyOf(TourActivities)}, keep the version of
+     * the original until either of them is modified. Empty sequences all share the same version.
+     * <p>Thus, two instances with the same version contain the same sequence of jobs, and results computed for one of
+     * them (e.g. insertion positions) hold for the other as well.
+     *
+     * @return version of the activity sequence
+     */
+    public long getVersion() {
+        return this.version;
     }
 
     public List<TourActivity> getActivities() {
-        return Collections.unmodifiableList(this.tourActivities);
+        return this.activitiesView;
     }
 
     public Iterator<TourActivity> iterator() {
-        final Iterator<TourActivity> iterator = this.tourActivities.iterator();
         return new Iterator<TourActivity>() {
+            private int nextIndex = 0;
+
             private TourActivity lastReturned = null;
 
             public boolean hasNext() {
-                return iterator.hasNext();
+                return nextIndex < TourActivities.this.cachedSize;
             }
 
             public TourActivity next() {
-                return this.lastReturned = (TourActivity) iterator.next();
+                if (!hasNext()) throw new NoSuchElementException();
+                return this.lastReturned = TourActivities.this.tourActivities.get(nextIndex++);
             }
 
             public void remove() {
-                if (this.lastReturned instanceof TourActivity.JobActivity) {
+                if (this.lastReturned == null) {
+                    throw new IllegalStateException();
+                } else if (this.lastReturned instanceof TourActivity.JobActivity) {
                     throw new IllegalStateException("Cannot remove JobActivities via iterator. Use TourActivities.removeActivity(), or alternatively, consider TourActivities.removeJob()");
                 } else {
-                    iterator.remove();
+                    TourActivities.this.exclusive();
+                    TourActivities.this.tourActivities.remove(--nextIndex);
+                    this.lastReturned = null;
                     TourActivities.this.cachedSize--; // Update cached size on removal
+                    TourActivities.this.modified();
                 }
             }
         };
@@ -80,6 +163,7 @@ public class TourActivities {
         if (!this.jobs.contains(job)) {
             return false;
         } else {
+            exclusive();
             boolean jobRemoved = this.jobs.remove(job);
             boolean activityRemoved = false;
             Iterator<TourActivity> iterator = this.tourActivities.iterator();
@@ -97,6 +181,7 @@ public class TourActivities {
             }
 
             assert jobRemoved == activityRemoved : "job removed, but belonging activity not.";
+            modified();
 
             return activityRemoved;
         }
@@ -104,44 +189,46 @@ public class TourActivities {
 
     public boolean removeActivity(TourActivity activity) {
         if (!(activity instanceof TourActivity.JobActivity)) {
-            boolean removed = this.tourActivities.remove(activity);
-            if (removed) {
-                this.cachedSize--; // Update cached size on removal
-            }
-            return removed;
+            // look up before duplicating shared activities, equal activities are not necessarily identical
+            int index = this.tourActivities.indexOf(activity);
+            if (index < 0) return false;
+            exclusive();
+            this.tourActivities.remove(index);
+            this.cachedSize--; // Update cached size on removal
+            modified();
+            return true;
         } else {
             Job job = ((TourActivity.JobActivity) activity).getJob();
+            int index = -1;
             boolean jobIsAlsoAssociateToOtherActs = false;
-            boolean actRemoved = false;
 
-            for (TourActivity act : new ArrayList<>(this.tourActivities)) {
+            for (int i = 0; i < this.cachedSize; i++) {
+                TourActivity act = this.tourActivities.get(i);
                 if (act == activity) {
-                    this.tourActivities.remove(act);
-                    this.cachedSize--; // Update cached size on removal
-                    if (jobIsAlsoAssociateToOtherActs) {
-                        return true;
-                    }
-
-                    actRemoved = true;
+                    if (index < 0) index = i;
                 } else if (act instanceof TourActivity.JobActivity && ((TourActivity.JobActivity) act).getJob().equals(job)) {
-                    if (actRemoved) {
-                        return true;
-                    }
-
                     jobIsAlsoAssociateToOtherActs = true;
                 }
             }
 
-            if (actRemoved) {
+            if (index < 0) {
+                return false;
+            }
+            exclusive();
+            this.tourActivities.remove(index);
+            this.cachedSize--; // Update cached size on removal
+            modified();
+            if (!jobIsAlsoAssociateToOtherActs) {
                 this.jobs.remove(job);
             }
 
-            return actRemoved;
+            return true;
         }
     }
 
     public void addActivity(int insertionIndex, TourActivity act) {
         assert insertionIndex >= 0 : "insertionIndex < 0, this cannot be";
+        exclusive();
 
         // Update cached size on addition
         if (insertionIndex < this.cachedSize) {
@@ -150,6 +237,7 @@ public class TourActivities {
             this.tourActivities.add(act);
         }
         this.cachedSize++; // Update cached size on addition
+        modified();
 
         this.addJob(act);
     }
@@ -158,8 +246,10 @@ public class TourActivities {
         if (this.tourActivities.contains(act)) {
             throw new IllegalArgumentException("act " + String.valueOf(act) + " already in tour. cannot add act twice.");
         } else {
+            exclusive();
             this.tourActivities.add(act);
             this.cachedSize++; // Update cached size on addition
+            modified();
             this.addJob(act);
         }
     }
@@ -190,6 +280,20 @@ public class TourActivities {
         return this.backward;
     }
 
+    private class ActivitiesView extends AbstractList<TourActivity> implements RandomAccess {
+
+        @Override
+        public TourActivity get(int index) {
+            return TourActivities.this.tourActivities.get(index);
+        }
+
+        @Override
+        public int size() {
+            return TourActivities.this.cachedSize;
+        }
+
+    }
+
     public static class ReverseActivityIterator implements Iterator<TourActivity> {
         private final List<TourActivity> acts;
         private int currentIndex;
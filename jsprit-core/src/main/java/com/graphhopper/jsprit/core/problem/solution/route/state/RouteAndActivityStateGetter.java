@@ -17,6 +17,8 @@
  */
 package com.graphhopper.jsprit.core.problem.solution.route.state;
 
+import com.graphhopper.jsprit.core.algorithm.state.DoubleStateId;
+import com.graphhopper.jsprit.core.algorithm.state.IntStateId;
 import com.graphhopper.jsprit.core.algorithm.state.StateId;
 import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
 import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
@@ -33,4 +35,28 @@ public interface RouteAndActivityStateGetter {
 
     public <T> T getRouteState(VehicleRoute route, Vehicle vehicle, StateId stateId, Class<T> type);
 
+    /**
+     * Returns the primitive double state of the specified activity. Implementations backed by primitive storage
+     * override this to avoid boxing.
+     */
+    default double getActivityState(TourActivity act, DoubleStateId stateId) {
+        Double state = getActivityState(act, stateId, Double.class);
+        return state == null ? stateId.getDefaultValue() : state;
+    }
+
+    default double getActivityState(TourActivity act, Vehicle vehicle, DoubleStateId stateId) {
+        Double state = getActivityState(act, vehicle, stateId, Double.class);
+        return state == null ? stateId.getDefaultValue() : state;
+    }
+
+    default int getActivityState(TourActivity act, IntStateId stateId) {
+        Integer state = getActivityState(act, stateId, Integer.class);
+        return state == null ? stateId.getDefaultValue() : state;
+    }
+
+    default int getActivityState(TourActivity act, Vehicle vehicle, IntStateId stateId) {
+        Integer state = getActivityState(act, vehicle, stateId, Integer.class);
+        return state == null ? stateId.getDefaultValue() : state;
+    }
+
 }
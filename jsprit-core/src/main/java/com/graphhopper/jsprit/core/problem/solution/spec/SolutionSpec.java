@@ -21,9 +21,7 @@ package com.graphhopper.jsprit.core.problem.solution.spec;
 import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
 import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 /**
  * Specifies a complete solution.
@@ -60,6 +58,42 @@ public record SolutionSpec(
         return new SolutionSpec(List.of());
     }
 
+    /**
+     * Returns a copy of this spec without the activities of the specified jobs, e.g. of jobs that have been cancelled.
+     * Routes that become empty are dropped.
+     *
+     * @param jobIds ids of jobs to be removed
+     * @return spec without these jobs
+     */
+    public SolutionSpec withoutJobs(Collection<String> jobIds) {
+        Set<String> ids = new HashSet<>(jobIds);
+        List<RouteSpec> routeSpecs = new ArrayList<>(routes.size());
+        for (RouteSpec route : routes) {
+            List<ActivitySpec> activities = new ArrayList<>(route.activities().size());
+            for (ActivitySpec activity : route.activities()) {
+                if (!ids.contains(activity.jobId())) activities.add(activity);
+            }
+            if (!activities.isEmpty()) routeSpecs.add(new RouteSpec(route.vehicleId(), activities));
+        }
+        return new SolutionSpec(routeSpecs);
+    }
+
+    /**
+     * Returns a copy of this spec without the routes of the specified vehicles, e.g. of vehicles that are no longer
+     * available. Their jobs become unassigned.
+     *
+     * @param vehicleIds ids of vehicles to be removed
+     * @return spec without routes of these vehicles
+     */
+    public SolutionSpec withoutVehicles(Collection<String> vehicleIds) {
+        Set<String> ids = new HashSet<>(vehicleIds);
+        List<RouteSpec> routeSpecs = new ArrayList<>(routes.size());
+        for (RouteSpec route : routes) {
+            if (!ids.contains(route.vehicleId())) routeSpecs.add(route);
+        }
+        return new SolutionSpec(routeSpecs);
+    }
+
     /**
      * Extracts a solution spec from an existing solution.
      * <p>
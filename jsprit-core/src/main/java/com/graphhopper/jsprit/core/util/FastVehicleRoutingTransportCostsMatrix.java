@@ -134,6 +134,13 @@ public class FastVehicleRoutingTransportCostsMatrix extends AbstractForwardVehic
         return matrix;
     }
 
+    /**
+     * @return true if the matrix is symmetric, i.e. only relations with fromIndex &lt;= toIndex are stored
+     */
+    public boolean isSymmetric() {
+        return isSymmetric;
+    }
+
     @Override
     public double getTransportTime(Location from, Location to, double departureTime, Driver driver, Vehicle vehicle) {
         if (from.getIndex() < 0 || to.getIndex() < 0)
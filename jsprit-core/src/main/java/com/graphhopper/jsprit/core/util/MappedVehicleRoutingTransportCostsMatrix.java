@@ -0,0 +1,334 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.util;
+
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.cost.AbstractForwardVehicleRoutingTransportCosts;
+import com.graphhopper.jsprit.core.problem.driver.Driver;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * CostMatrix whose time and distance values live in a memory-mapped file rather than on the heap.
+ * <p>The file is produced once with {@link Builder} and can then be opened instantly with {@link #open(Path)},
+ * also by many solver processes at the same time since they all share the operating system's page cache.
+ * Values are stored row-major, first the distance matrix and then the time matrix, either as 64-bit doubles
+ * or, to halve the file size, as 32-bit floats.
+ * <p>Like {@link FastVehicleRoutingTransportCostsMatrix} it is indexed by {@link Location#getIndex()}.
+ */
+public class MappedVehicleRoutingTransportCostsMatrix extends AbstractForwardVehicleRoutingTransportCosts {
+
+    /**
+     * Storage precision of matrix values.
+     */
+    public enum Precision {
+
+        FLOAT(4), DOUBLE(8);
+
+        private final int bytes;
+
+        Precision(int bytes) {
+            this.bytes = bytes;
+        }
+
+    }
+
+    /**
+     * Builder that writes the matrix file.
+     */
+    public static class Builder {
+
+        private final Path file;
+
+        private final int noLocations;
+
+        private final boolean isSymmetric;
+
+        private final Precision precision;
+
+        private final FileChannel channel;
+
+        private final Storage storage;
+
+        /**
+         * Creates (or overwrites) the matrix file and returns the matrix-builder. Unset relations are 0.
+         * <p>If you want to consider symmetric matrices, set isSymmetric to true. Each relation is then
+         * stored in both directions.
+         *
+         * @param file        the matrix file
+         * @param noLocations number of locations
+         * @param isSymmetric true if matrix is symmetric, false otherwise
+         * @param precision   the storage precision of values
+         * @return builder
+         */
+        public static Builder newInstance(Path file, int noLocations, boolean isSymmetric, Precision precision) {
+            return new Builder(file, noLocations, isSymmetric, precision);
+        }
+
+        private Builder(Path file, int noLocations, boolean isSymmetric, Precision precision) {
+            if (noLocations < 1) throw new IllegalArgumentException("number of locations must be positive");
+            this.file = file;
+            this.noLocations = noLocations;
+            this.isSymmetric = isSymmetric;
+            this.precision = precision;
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(noLocations).putInt(precision.bytes).flip();
+                channel.write(header, 0);
+                storage = new Storage(channel, FileChannel.MapMode.READ_WRITE, noLocations, precision);
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot create matrix file " + file, e);
+            }
+        }
+
+        /**
+         * Adds a transport-distance for a particular relation.
+         *
+         * @param fromIndex from location index
+         * @param toIndex   to location index
+         * @param distance  the distance to be added
+         * @return builder
+         */
+        public Builder addTransportDistance(int fromIndex, int toIndex, double distance) {
+            add(fromIndex, toIndex, DISTANCE, distance);
+            return this;
+        }
+
+        /**
+         * Adds transport-time for a particular relation.
+         *
+         * @param fromIndex from location index
+         * @param toIndex   to location index
+         * @param time      the time to be added
+         * @return builder
+         */
+        public Builder addTransportTime(int fromIndex, int toIndex, double time) {
+            add(fromIndex, toIndex, TIME, time);
+            return this;
+        }
+
+        public Builder addTransportTimeAndDistance(int fromIndex, int toIndex, double time, double distance) {
+            addTransportTime(fromIndex, toIndex, time);
+            addTransportDistance(fromIndex, toIndex, distance);
+            return this;
+        }
+
+        private void add(int fromIndex, int toIndex, int indicator, double value) {
+            storage.put(fromIndex, toIndex, indicator, value);
+            if (isSymmetric) storage.put(toIndex, fromIndex, indicator, value);
+        }
+
+        /**
+         * Flushes the file and opens it read-only.
+         *
+         * @return matrix
+         */
+        public MappedVehicleRoutingTransportCostsMatrix build() {
+            try {
+                storage.force();
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot write matrix file " + file, e);
+            }
+            return open(file);
+        }
+
+    }
+
+    /**
+     * Maps the matrix rows into as few buffers as possible, each holding whole rows and staying below the
+     * 2 GB limit of a single {@link MappedByteBuffer}.
+     */
+    private static class Storage {
+
+        private final MappedByteBuffer[] chunks;
+
+        private final int noLocations;
+
+        private final int rowsPerChunk;
+
+        private final boolean isFloat;
+
+        private final int valueShift;
+
+        Storage(FileChannel channel, FileChannel.MapMode mode, int noLocations, Precision precision) throws IOException {
+            this.noLocations = noLocations;
+            this.isFloat = precision == Precision.FLOAT;
+            this.valueShift = isFloat ? 2 : 3;
+            long rowBytes = (long) noLocations * precision.bytes;
+            if (rowBytes > Integer.MAX_VALUE) throw new IllegalArgumentException("too many locations: " + noLocations);
+            int noRows = 2 * noLocations;
+            rowsPerChunk = (int) Math.min(noRows, Integer.MAX_VALUE / rowBytes);
+            int noChunks = (noRows + rowsPerChunk - 1) / rowsPerChunk;
+            chunks = new MappedByteBuffer[noChunks];
+            for (int c = 0; c < noChunks; c++) {
+                int rows = Math.min(rowsPerChunk, noRows - c * rowsPerChunk);
+                long position = HEADER_BYTES + (long) c * rowsPerChunk * rowBytes;
+                chunks[c] = channel.map(mode, position, rows * rowBytes);
+                chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        private int offset(int row, int to) {
+            return ((row % rowsPerChunk) * noLocations + to) << valueShift;
+        }
+
+        private void checkBounds(int from, int to) {
+            if (from < 0 || to < 0 || from >= noLocations || to >= noLocations)
+                throw new IllegalArgumentException("relation " + from + " -> " + to + " is out of matrix bounds");
+        }
+
+        double get(int from, int to, int indicator) {
+            checkBounds(from, to);
+            int row = indicator * noLocations + from;
+            MappedByteBuffer chunk = chunks[row / rowsPerChunk];
+            if (isFloat) return chunk.getFloat(offset(row, to));
+            return chunk.getDouble(offset(row, to));
+        }
+
+        void put(int from, int to, int indicator, double value) {
+            checkBounds(from, to);
+            int row = indicator * noLocations + from;
+            MappedByteBuffer chunk = chunks[row / rowsPerChunk];
+            if (isFloat) chunk.putFloat(offset(row, to), (float) value);
+            else chunk.putDouble(offset(row, to), value);
+        }
+
+        void force() {
+            for (MappedByteBuffer chunk : chunks) chunk.force();
+        }
+
+    }
+
+    private static final int MAGIC = 0x4A53504D;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 16;
+
+    private static final int DISTANCE = 0;
+
+    private static final int TIME = 1;
+
+    /**
+     * Opens an existing matrix file read-only.
+     *
+     * @param file the matrix file written by {@link Builder}
+     * @return matrix
+     */
+    public static MappedVehicleRoutingTransportCostsMatrix open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION)
+                throw new IllegalArgumentException(file + " is not a matrix file");
+            int noLocations = header.getInt();
+            int bytes = header.getInt();
+            Precision precision;
+            if (bytes == Precision.FLOAT.bytes) precision = Precision.FLOAT;
+            else if (bytes == Precision.DOUBLE.bytes) precision = Precision.DOUBLE;
+            else throw new IllegalArgumentException(file + " has unknown value size " + bytes);
+            long expectedSize = HEADER_BYTES + 2L * noLocations * noLocations * precision.bytes;
+            if (channel.size() < expectedSize)
+                throw new IllegalArgumentException(file + " is truncated. expected " + expectedSize + " bytes, but got " + channel.size());
+            return new MappedVehicleRoutingTransportCostsMatrix(noLocations, precision,
+                new Storage(channel, FileChannel.MapMode.READ_ONLY, noLocations, precision));
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open matrix file " + file, e);
+        }
+    }
+
+    private final int noLocations;
+
+    private final Precision precision;
+
+    private final Storage storage;
+
+    private MappedVehicleRoutingTransportCostsMatrix(int noLocations, Precision precision, Storage storage) {
+        this.noLocations = noLocations;
+        this.precision = precision;
+        this.storage = storage;
+    }
+
+    @Override
+    public double getTransportTime(Location from, Location to, double departureTime, Driver driver, Vehicle vehicle) {
+        if (from.getIndex() < 0 || to.getIndex() < 0)
+            throw new IllegalArgumentException("index of from " + from + " to " + to + " < 0 ");
+        return getTransportTime(from.getIndex(), to.getIndex());
+    }
+
+    /**
+     * Returns the transport time from to to.
+     *
+     * @param fromIndex from location index
+     * @param toIndex   to location index
+     * @return the transport time
+     */
+    public double getTransportTime(int fromIndex, int toIndex) {
+        return storage.get(fromIndex, toIndex, TIME);
+    }
+
+    /**
+     * Returns the distance from to to.
+     *
+     * @param fromIndex from location index
+     * @param toIndex   to location index
+     * @return the distance
+     */
+    public double getDistance(int fromIndex, int toIndex) {
+        return storage.get(fromIndex, toIndex, DISTANCE);
+    }
+
+    @Override
+    public double getDistance(Location from, Location to, double departureTime, Vehicle vehicle) {
+        if (from.getIndex() < 0 || to.getIndex() < 0)
+            throw new IllegalArgumentException("index of from " + from + " to " + to + " < 0 ");
+        return getDistance(from.getIndex(), to.getIndex());
+    }
+
+    @Override
+    public double getTransportCost(Location from, Location to, double departureTime, Driver driver, Vehicle vehicle) {
+        if (from.getIndex() < 0 || to.getIndex() < 0)
+            throw new IllegalArgumentException("index of from " + from + " to " + to + " < 0 ");
+        if (vehicle == null) return getDistance(from.getIndex(), to.getIndex());
+        VehicleTypeImpl.VehicleCostParams costParams = vehicle.getType().getVehicleCostParams();
+        return costParams.perDistanceUnit * getDistance(from.getIndex(), to.getIndex()) + costParams.perTransportTimeUnit * getTransportTime(from.getIndex(), to.getIndex());
+    }
+
+    public int getNoLocations() {
+        return noLocations;
+    }
+
+    public Precision getPrecision() {
+        return precision;
+    }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.util;
+
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.cost.VehicleRoutingTransportCosts;
+import com.graphhopper.jsprit.core.problem.driver.Driver;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+
+/**
+ * Time-dependent cost matrix, i.e. transport times depend on the departure time.
+ * <p>The planning horizon is split into time buckets of equal width (e.g. 15 minutes) starting at time 0.
+ * For each bucket a travel-time layer is stored that holds the travel time when departing at the start of the bucket.
+ * In between, travel times are interpolated linearly; before the first bucket the first layer, after the last bucket
+ * the last layer applies. Distances do not depend on time.
+ * <p>Travel times satisfy the FIFO property, i.e. departing later never means arriving earlier. If the given travel
+ * times violate it, a travel time is reduced to what can be achieved by waiting and departing in the next bucket.
+ * <p>Forward lookups are O(1), backward lookups step back at most travel time / bucket width buckets. Layers are
+ * stored as floats, i.e. memory is noLocations^2 * (noTimeBuckets + 1) * 4 bytes.
+ */
+public class TimeDependentVehicleRoutingTransportCostsMatrix implements VehicleRoutingTransportCosts {
+
+    /**
+     * Builder that builds the matrix.
+     */
+    public static class Builder {
+
+        private final int noLocations;
+
+        private final int noTimeBuckets;
+
+        private final double bucketWidth;
+
+        private final boolean isSymmetric;
+
+        private final float[] distances;
+
+        private final float[][] times;
+
+        /**
+         * Creates a new builder returning the matrix-builder.
+         * <p>If you want to consider symmetric matrices, set isSymmetric to true.
+         *
+         * @param noLocations   number of locations
+         * @param noTimeBuckets number of time buckets
+         * @param bucketWidth   width of a time bucket, in the same unit as transport times
+         * @param isSymmetric   true if matrix is symmetric, false otherwise
+         * @return builder
+         */
+        public static Builder newInstance(int noLocations, int noTimeBuckets, double bucketWidth, boolean isSymmetric) {
+            return new Builder(noLocations, noTimeBuckets, bucketWidth, isSymmetric);
+        }
+
+        private Builder(int noLocations, int noTimeBuckets, double bucketWidth, boolean isSymmetric) {
+            if (noLocations <= 0) throw new IllegalArgumentException("number of locations must be positive");
+            if (noTimeBuckets <= 0) throw new IllegalArgumentException("number of time buckets must be positive");
+            if (bucketWidth <= 0) throw new IllegalArgumentException("bucket width must be positive");
+            if ((long) noLocations * noLocations > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("too many locations: " + noLocations);
+            this.noLocations = noLocations;
+            this.noTimeBuckets = noTimeBuckets;
+            this.bucketWidth = bucketWidth;
+            this.isSymmetric = isSymmetric;
+            distances = new float[noLocations * noLocations];
+            times = new float[noTimeBuckets][noLocations * noLocations];
+        }
+
+        /**
+         * Adds a transport-distance for a particular relation.
+         *
+         * @param fromIndex from location index
+         * @param toIndex   to location index
+         * @param distance  the distance to be added
+         * @return builder
+         */
+        public Builder addTransportDistance(int fromIndex, int toIndex, double distance) {
+            distances[fromIndex * noLocations + toIndex] = (float) distance;
+            if (isSymmetric) distances[toIndex * noLocations + fromIndex] = (float) distance;
+            return this;
+        }
+
+        /**
+         * Adds the transport-time for a particular relation when departing at the start of a time bucket.
+         *
+         * @param fromIndex  from location index
+         * @param toIndex    to location index
+         * @param timeBucket index of time bucket
+         * @param time       the time to be added
+         * @return builder
+         */
+        public Builder addTransportTime(int fromIndex, int toIndex, int timeBucket, double time) {
+            if (time < 0) throw new IllegalArgumentException("transport time must not be negative");
+            times[timeBucket][fromIndex * noLocations + toIndex] = (float) time;
+            if (isSymmetric) times[timeBucket][toIndex * noLocations + fromIndex] = (float) time;
+            return this;
+        }
+
+        /**
+         * Adds the transport-times of all time buckets for a particular relation.
+         *
+         * @param fromIndex from location index
+         * @param toIndex   to location index
+         * @param times     transport time per time bucket
+         * @return builder
+         */
+        public Builder addTransportTimes(int fromIndex, int toIndex, double[] times) {
+            if (times.length != noTimeBuckets)
+                throw new IllegalArgumentException("expected " + noTimeBuckets + " transport times, but got " + times.length);
+            for (int bucket = 0; bucket < noTimeBuckets; bucket++) {
+                addTransportTime(fromIndex, toIndex, bucket, times[bucket]);
+            }
+            return this;
+        }
+
+        /**
+         * Builds the matrix.
+         *
+         * @return matrix
+         */
+        public TimeDependentVehicleRoutingTransportCostsMatrix build() {
+            // restore FIFO: travel time may drop by at most one bucket width, otherwise waiting is faster
+            for (int bucket = noTimeBuckets - 2; bucket >= 0; bucket--) {
+                float[] layer = times[bucket];
+                float[] nextLayer = times[bucket + 1];
+                for (int i = 0; i < layer.length; i++) {
+                    layer[i] = (float) Math.min(layer[i], nextLayer[i] + bucketWidth);
+                }
+            }
+            return new TimeDependentVehicleRoutingTransportCostsMatrix(this);
+        }
+
+    }
+
+    private final int noLocations;
+
+    private final int noTimeBuckets;
+
+    private final double bucketWidth;
+
+    private final float[] distances;
+
+    private final float[][] times;
+
+    private TimeDependentVehicleRoutingTransportCostsMatrix(Builder builder) {
+        noLocations = builder.noLocations;
+        noTimeBuckets = builder.noTimeBuckets;
+        bucketWidth = builder.bucketWidth;
+        distances = builder.distances;
+        times = builder.times;
+    }
+
+    public int getNoLocations() {
+        return noLocations;
+    }
+
+    public int getNoTimeBuckets() {
+        return noTimeBuckets;
+    }
+
+    public double getBucketWidth() {
+        return bucketWidth;
+    }
+
+    private int index(Location from, Location to) {
+        if (from.getIndex() < 0 || to.getIndex() < 0)
+            throw new IllegalArgumentException("index of from " + from + " to " + to + " < 0 ");
+        return from.getIndex() * noLocations + to.getIndex();
+    }
+
+    /**
+     * Returns the transport time from fromIndex to toIndex when departing at departureTime.
+     *
+     * @param fromIndex     from location index
+     * @param toIndex       to location index
+     * @param departureTime departure time
+     * @return the transport time
+     */
+    public double getTransportTime(int fromIndex, int toIndex, double departureTime) {
+        return transportTime(fromIndex * noLocations + toIndex, departureTime);
+    }
+
+    private double transportTime(int index, double departureTime) {
+        if (departureTime <= 0) return times[0][index];
+        double bucketPosition = departureTime / bucketWidth;
+        if (bucketPosition >= noTimeBuckets - 1) return times[noTimeBuckets - 1][index];
+        int bucket = (int) bucketPosition;
+        double fraction = bucketPosition - bucket;
+        double time = times[bucket][index];
+        return time + fraction * (times[bucket + 1][index] - time);
+    }
+
+    /**
+     * Returns the transport time from fromIndex to toIndex when arriving at arrivalTime, i.e. the latest departure
+     * time that still arrives in time is arrivalTime minus the returned transport time.
+     *
+     * @param fromIndex   from location index
+     * @param toIndex     to location index
+     * @param arrivalTime arrival time at toIndex
+     * @return the transport time
+     */
+    public double getBackwardTransportTime(int fromIndex, int toIndex, double arrivalTime) {
+        return backwardTransportTime(fromIndex * noLocations + toIndex, arrivalTime);
+    }
+
+    private double backwardTransportTime(int index, double arrivalTime) {
+        // arrival time at the start of bucket k is k * bucketWidth + times[k]; it is non-decreasing in k (FIFO)
+        if (arrivalTime < times[0][index]) return times[0][index];
+        int last = noTimeBuckets - 1;
+        if (arrivalTime >= last * bucketWidth + times[last][index]) return times[last][index];
+        // departure is not later than arrival, i.e. walk back from the arrival's bucket (at most travel time / bucket width steps)
+        int bucket = Math.min(last - 1, (int) (arrivalTime / bucketWidth));
+        while (bucket > 0 && bucket * bucketWidth + times[bucket][index] > arrivalTime) bucket--;
+        while (bucket < last - 1 && (bucket + 1) * bucketWidth + times[bucket + 1][index] <= arrivalTime) bucket++;
+        double bucketStart = bucket * bucketWidth;
+        double time = times[bucket][index];
+        double slope = (times[bucket + 1][index] - time) / bucketWidth;
+        double departureTime;
+        if (slope <= -1) {
+            // arrival time is constant within this bucket, latest departure is at its end
+            departureTime = bucketStart + bucketWidth;
+        } else {
+            departureTime = Math.min(bucketStart + bucketWidth, (arrivalTime - time + bucketStart * slope) / (1 + slope));
+        }
+        return arrivalTime - departureTime;
+    }
+
+    /**
+     * Returns the distance from fromIndex to toIndex.
+     *
+     * @param fromIndex from location index
+     * @param toIndex   to location index
+     * @return the distance
+     */
+    public double getDistance(int fromIndex, int toIndex) {
+        return distances[fromIndex * noLocations + toIndex];
+    }
+
+    @Override
+    public double getDistance(Location from, Location to, double departureTime, Vehicle vehicle) {
+        return distances[index(from, to)];
+    }
+
+    @Override
+    public double getTransportTime(Location from, Location to, double departureTime, Driver driver, Vehicle vehicle) {
+        return transportTime(index(from, to), departureTime);
+    }
+
+    @Override
+    public double getBackwardTransportTime(Location from, Location to, double arrivalTime, Driver driver, Vehicle vehicle) {
+        return backwardTransportTime(index(from, to), arrivalTime);
+    }
+
+    @Override
+    public double getTransportCost(Location from, Location to, double departureTime, Driver driver, Vehicle vehicle) {
+        int index = index(from, to);
+        return costs(distances[index], transportTime(index, departureTime), vehicle);
+    }
+
+    @Override
+    public double getBackwardTransportCost(Location from, Location to, double arrivalTime, Driver driver, Vehicle vehicle) {
+        int index = index(from, to);
+        return costs(distances[index], backwardTransportTime(index, arrivalTime), vehicle);
+    }
+
+    private static double costs(double distance, double time, Vehicle vehicle) {
+        if (vehicle == null) return distance;
+        VehicleTypeImpl.VehicleCostParams costParams = vehicle.getType().getVehicleCostParams();
+        return costParams.perDistanceUnit * distance + costParams.perTransportTimeUnit * time;
+    }
+
+}
@@ -25,7 +25,10 @@ import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl.VehicleCostPa
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -36,65 +39,15 @@ import java.util.Map;
  * you set a particular distance, this expects distance-entries for all relations. This counts also
  * for a particular time. If the method getTransportCosts(...) is then invoked for a relation, where no distance can be found, an
  * IllegalStateException will be thrown. Thus if you want to only use distances only, do not use addTransportTime(...).
+ * <p>Location ids are mapped to dense indices in the order they are first added, and values are stored in primitive
+ * arrays. A lookup thus costs one id-to-index lookup per location. It costs no lookup at all if the location
+ * index equals {@link #getIndex(String)}, e.g. if locations are built with
+ * <code>Location.Builder.newInstance().setId(id).setIndex(matrix.getIndex(id))</code>.
  *
  * @author schroeder
  */
 public class VehicleRoutingTransportCostsMatrix extends AbstractForwardVehicleRoutingTransportCosts {
 
-    static class RelationKey {
-
-        static RelationKey newKey(String from, String to) {
-            return new RelationKey(from, to);
-        }
-
-        final String from;
-        final String to;
-
-        public RelationKey(String from, String to) {
-            super();
-            this.from = from;
-            this.to = to;
-        }
-
-        /* (non-Javadoc)
-         * @see java.lang.Object#hashCode()
-         */
-        @Override
-        public int hashCode() {
-            final int prime = 31;
-            int result = 1;
-            result = prime * result + ((from == null) ? 0 : from.hashCode());
-            result = prime * result + ((to == null) ? 0 : to.hashCode());
-            return result;
-        }
-
-        /* (non-Javadoc)
-         * @see java.lang.Object#equals(java.lang.Object)
-         */
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj)
-                return true;
-            if (obj == null)
-                return false;
-            if (getClass() != obj.getClass())
-                return false;
-            RelationKey other = (RelationKey) obj;
-            if (from == null) {
-                if (other.from != null)
-                    return false;
-            } else if (!from.equals(other.from))
-                return false;
-            if (to == null) {
-                if (other.to != null)
-                    return false;
-            } else if (!to.equals(other.to))
-                return false;
-            return true;
-        }
-    }
-
-
     /**
      * Builder that builds the matrix.
      *
@@ -103,11 +56,23 @@ public class VehicleRoutingTransportCostsMatrix extends AbstractForwardVehicleRo
     public static class Builder {
         private static Logger log = LoggerFactory.getLogger(Builder.class);
 
+        /**
+         * Largest number of locations whose noLocations^2 values still fit into a single array.
+         */
+        static final int MAX_LOCATIONS = (int) Math.sqrt(Integer.MAX_VALUE - 8);
+
         private boolean isSymmetric;
 
-        private Map<RelationKey, Double> distances = new HashMap<RelationKey, Double>();
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        private final List<String> ids = new ArrayList<>();
+
+        private int capacity = 0;
+
+        // allocated on first use, i.e. a matrix of distances only never holds an array of times and vice versa
+        private double[] distances = new double[0];
 
-        private Map<RelationKey, Double> times = new HashMap<RelationKey, Double>();
+        private double[] times = new double[0];
 
         private boolean distancesSet = false;
 
@@ -137,16 +102,10 @@ public class VehicleRoutingTransportCostsMatrix extends AbstractForwardVehicleRo
          * @return builder
          */
         public Builder addTransportDistance(String from, String to, double distance) {
-            RelationKey key = RelationKey.newKey(from, to);
             if (!distancesSet) distancesSet = true;
-            if (distances.containsKey(key)) {
+            if (add(true, from, to, distance)) {
                 log.warn("distance from " + from + " to " + to + " already exists. This overrides distance.");
             }
-            distances.put(key, distance);
-            if (isSymmetric) {
-                RelationKey revKey = RelationKey.newKey(to, from);
-                if (distances.containsKey(revKey)) distances.put(revKey, distance);
-            }
             return this;
         }
 
@@ -159,17 +118,69 @@ public class VehicleRoutingTransportCostsMatrix extends AbstractForwardVehicleRo
          * @return builder
          */
         public Builder addTransportTime(String from, String to, double time) {
-            RelationKey key = RelationKey.newKey(from, to);
             if (!timesSet) timesSet = true;
-            if (times.containsKey(key)) {
+            if (add(false, from, to, time)) {
                 log.warn("transport-time from " + from + " to " + to + " already exists. This overrides times.");
             }
-            times.put(key, time);
+            return this;
+        }
+
+        private boolean add(boolean distance, String from, String to, double value) {
+            int fromIndex = index(from);
+            int toIndex = index(to);
+            // resolve the array only now since index() may have grown it
+            double[] values;
+            if (distance) {
+                if (distances.length == 0) distances = grow(distances, capacity);
+                values = distances;
+            } else {
+                if (times.length == 0) times = grow(times, capacity);
+                values = times;
+            }
+            int key = fromIndex * capacity + toIndex;
+            boolean exists = !Double.isNaN(values[key]);
+            values[key] = value;
             if (isSymmetric) {
-                RelationKey revKey = RelationKey.newKey(to, from);
-                if (times.containsKey(revKey)) times.put(revKey, time);
+                int revKey = toIndex * capacity + fromIndex;
+                if (!Double.isNaN(values[revKey])) values[revKey] = value;
             }
-            return this;
+            return exists;
+        }
+
+        private int index(String id) {
+            Integer index = indices.get(id);
+            if (index != null) return index;
+            index = ids.size();
+            indices.put(id, index);
+            ids.add(id);
+            if (ids.size() > capacity) grow();
+            return index;
+        }
+
+        private void grow() {
+            int newCapacity = capacityFor(ids.size(), capacity);
+            if (distances.length > 0) distances = grow(distances, newCapacity);
+            if (times.length > 0) times = grow(times, newCapacity);
+            capacity = newCapacity;
+        }
+
+        static int capacityFor(int noLocations, int capacity) {
+            if (noLocations > MAX_LOCATIONS) {
+                throw new IllegalStateException("matrix cannot hold more than " + MAX_LOCATIONS + " locations. "
+                    + "use FastVehicleRoutingTransportCostsMatrix or MappedVehicleRoutingTransportCostsMatrix instead.");
+            }
+            long newCapacity = Math.max(16L, 2L * capacity);
+            return (int) Math.max(noLocations, Math.min(newCapacity, MAX_LOCATIONS));
+        }
+
+        private double[] grow(double[] values, int newCapacity) {
+            double[] grown = new double[Math.toIntExact((long) newCapacity * newCapacity)];
+            Arrays.fill(grown, Double.NaN);
+            if (values.length == 0) return grown;
+            for (int row = 0; row < capacity; row++) {
+                System.arraycopy(values, row * capacity, grown, row * newCapacity, capacity);
+            }
+            return grown;
         }
 
         /**
@@ -181,51 +192,86 @@ public class VehicleRoutingTransportCostsMatrix extends AbstractForwardVehicleRo
             return new VehicleRoutingTransportCostsMatrix(this);
         }
 
+        private double[] compact(double[] values) {
+            if (values.length == 0) return values;
+            int noLocations = ids.size();
+            double[] compacted = new double[noLocations * noLocations];
+            for (int from = 0; from < noLocations; from++) {
+                for (int to = 0; to < noLocations; to++) {
+                    double value = values[from * capacity + to];
+                    if (Double.isNaN(value) && isSymmetric) value = values[to * capacity + from];
+                    compacted[from * noLocations + to] = value;
+                }
+            }
+            return compacted;
+        }
 
     }
 
-    private Map<RelationKey, Double> distances = new HashMap<RelationKey, Double>();
+    private final Map<String, Integer> indices;
 
-    private Map<RelationKey, Double> times = new HashMap<RelationKey, Double>();
+    private final String[] ids;
 
-    private boolean isSymmetric;
+    private final int noLocations;
 
-    private boolean timesSet;
+    /**
+     * Values by from * noLocations + to, NaN if the relation does not exist.
+     */
+    private final double[] distances;
+
+    private final double[] times;
+
+    private final boolean timesSet;
 
-    private boolean distancesSet;
+    private final boolean distancesSet;
 
     private VehicleRoutingTransportCostsMatrix(Builder builder) {
-        this.isSymmetric = builder.isSymmetric;
-        distances.putAll(builder.distances);
-        times.putAll(builder.times);
+        indices = new HashMap<>(builder.indices);
+        ids = builder.ids.toArray(new String[0]);
+        noLocations = ids.length;
+        distances = builder.compact(builder.distances);
+        times = builder.compact(builder.times);
         timesSet = builder.timesSet;
         distancesSet = builder.distancesSet;
     }
 
+    /**
+     * Returns the dense index the matrix assigned to a location id.
+     *
+     * @param locationId the location id
+     * @return the index, or -1 if the matrix does not know the location
+     */
+    public int getIndex(String locationId) {
+        Integer index = indices.get(locationId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return number of locations in this matrix
+     */
+    public int getNoLocations() {
+        return noLocations;
+    }
+
+    private int index(Location location) {
+        int index = location.getIndex();
+        if (index >= 0 && index < noLocations && ids[index].equals(location.getId())) return index;
+        return getIndex(location.getId());
+    }
 
     @Override
     public double getTransportTime(Location from, Location to, double departureTime, Driver driver, Vehicle vehicle) {
-        return getTime(from.getId(), to.getId());
+        if (!timesSet) return 0.0;
+        return get(times, index(from), index(to), from.getId(), to.getId(), "time");
     }
 
-
-    private double getTime(String fromId, String toId) {
-        if (fromId.equals(toId)) return 0.0;
-        if (!timesSet) return 0.0;
-        RelationKey key = RelationKey.newKey(fromId, toId);
-        if (!isSymmetric) {
-            if (times.containsKey(key)) return times.get(key);
-            else
-                throw new IllegalStateException("time value for relation from " + fromId + " to " + toId + " does not exist");
-        } else {
-            Double time = times.get(key);
-            if (time == null) {
-                time = times.get(RelationKey.newKey(toId, fromId));
-            }
-            if (time != null) return time;
-            else
-                throw new IllegalStateException("time value for relation from " + fromId + " to " + toId + " does not exist");
-        }
+    private double get(double[] values, int fromIndex, int toIndex, String fromId, String toId, String name) {
+        if (fromIndex >= 0 && toIndex >= 0) {
+            if (fromIndex == toIndex) return 0.0;
+            double value = values[fromIndex * noLocations + toIndex];
+            if (!Double.isNaN(value)) return value;
+        } else if (fromId.equals(toId)) return 0.0;
+        throw new IllegalStateException(name + " value for relation from " + fromId + " to " + toId + " does not exist");
     }
 
     /**
@@ -237,34 +283,25 @@ public class VehicleRoutingTransportCostsMatrix extends AbstractForwardVehicleRo
      * @throws IllegalStateException if distance of fromId -> toId is not found
      */
     public double getDistance(String fromId, String toId) {
-        if (fromId.equals(toId)) return 0.0;
         if (!distancesSet) return 0.0;
-        RelationKey key = RelationKey.newKey(fromId, toId);
-        if (!isSymmetric) {
-            if (distances.containsKey(key)) return distances.get(key);
-            else
-                throw new IllegalStateException("distance value for relation from " + fromId + " to " + toId + " does not exist");
-        } else {
-            Double time = distances.get(key);
-            if (time == null) {
-                time = distances.get(RelationKey.newKey(toId, fromId));
-            }
-            if (time != null) return time;
-            else
-                throw new IllegalStateException("distance value for relation from " + fromId + " to " + toId + " does not exist");
-        }
+        return get(distances, getIndex(fromId), getIndex(toId), fromId, toId, "distance");
     }
 
     @Override
     public double getTransportCost(Location from, Location to, double departureTime, Driver driver, Vehicle vehicle) {
-        if (vehicle == null) return getDistance(from.getId(), to.getId());
+        int fromIndex = index(from);
+        int toIndex = index(to);
+        double distance = distancesSet ? get(distances, fromIndex, toIndex, from.getId(), to.getId(), "distance") : 0.0;
+        if (vehicle == null) return distance;
         VehicleCostParams costParams = vehicle.getType().getVehicleCostParams();
-        return costParams.perDistanceUnit * getDistance(from.getId(), to.getId()) + costParams.perTransportTimeUnit * getTime(from.getId(), to.getId());
+        double time = timesSet ? get(times, fromIndex, toIndex, from.getId(), to.getId(), "time") : 0.0;
+        return costParams.perDistanceUnit * distance + costParams.perTransportTimeUnit * time;
     }
 
     @Override
     public double getDistance(Location from, Location to, double departureTime, Vehicle vehicle) {
-        return getDistance(from.getId(), to.getId());
+        if (!distancesSet) return 0.0;
+        return get(distances, index(from), index(to), from.getId(), to.getId(), "distance");
     }
 
 }
@@ -0,0 +1,267 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm;
+
+import com.graphhopper.jsprit.core.algorithm.box.Jsprit;
+import com.graphhopper.jsprit.core.algorithm.listener.AlgorithmEndsListener;
+import com.graphhopper.jsprit.core.algorithm.listener.IterationStartsListener;
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
+import com.graphhopper.jsprit.core.algorithm.state.StateManager;
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.constraint.ConstraintManager;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+import com.graphhopper.jsprit.core.util.Solutions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Multi Chain Vehicle Routing Algorithm Test")
+class MultiChainVehicleRoutingAlgorithmTest {
+
+    private static VehicleRoutingProblem createProblem() {
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+        for (int i = 0; i < 20; i++) {
+            vrpBuilder.addJob(Service.Builder.newInstance("s" + i).addSizeDimension(0, 1)
+                .setLocation(Location.newInstance(i % 5 * 10, i / 5 * 10)).build());
+        }
+        for (int i = 0; i < 3; i++) {
+            vrpBuilder.addVehicle(VehicleImpl.Builder.newInstance("v" + i).setStartLocation(Location.newInstance(0, 0))
+                .setType(VehicleTypeImpl.Builder.newInstance("t").addCapacityDimension(0, 8).build())
+                .build());
+        }
+        return vrpBuilder.setFleetSize(VehicleRoutingProblem.FleetSize.FINITE).build();
+    }
+
+    @Test
+    @DisplayName("When Building With Search Chains _ it Should Create Multi Chain Algorithm")
+    void whenBuildingWithSearchChains_itShouldCreateMultiChainAlgorithm() {
+        VehicleRoutingAlgorithm vra = Jsprit.Builder.newInstance(createProblem()).setSearchChains(3, 5).buildAlgorithm();
+        assertTrue(vra instanceof MultiChainVehicleRoutingAlgorithm);
+        assertEquals(3, ((MultiChainVehicleRoutingAlgorithm) vra).getChains().size());
+        assertEquals(5, ((MultiChainVehicleRoutingAlgorithm) vra).getMigrationInterval());
+    }
+
+    @Test
+    @DisplayName("When Running Search Chains _ all Chains Should Iterate And Jobs Should Be Assigned")
+    void whenRunningSearchChains_allChainsShouldIterateAndJobsShouldBeAssigned() {
+        MultiChainVehicleRoutingAlgorithm vra = (MultiChainVehicleRoutingAlgorithm) Jsprit.Builder.newInstance(createProblem())
+            .setSearchChains(2, 5).buildAlgorithm();
+        vra.setMaxIterations(30);
+        AtomicInteger iterations = new AtomicInteger();
+        for (VehicleRoutingAlgorithm chain : vra.getChains()) {
+            chain.addListener((IterationStartsListener) (i, problem, solutions) -> iterations.incrementAndGet());
+        }
+        Collection<VehicleRoutingProblemSolution> solutions = vra.searchSolutions();
+        assertEquals(60, iterations.get());
+        assertTrue(Solutions.bestOf(solutions).getUnassignedJobs().isEmpty());
+    }
+
+    @Test
+    @DisplayName("When Running Search Chains Without Migration _ chains Should Search Independently")
+    void whenRunningSearchChainsWithoutMigration_chainsShouldSearchIndependently() {
+        MultiChainVehicleRoutingAlgorithm vra = (MultiChainVehicleRoutingAlgorithm) Jsprit.Builder.newInstance(createProblem())
+            .setSearchChains(2, 1000).buildAlgorithm();
+        vra.setMaxIterations(30);
+        List<List<Double>> discoveredCosts = new ArrayList<>();
+        List<Collection<VehicleRoutingProblemSolution>> chainSolutions = new ArrayList<>();
+        for (VehicleRoutingAlgorithm chain : vra.getChains()) {
+            List<Double> costs = new ArrayList<>();
+            discoveredCosts.add(costs);
+            chain.addTerminationCriterion(discoveredSolution -> !costs.add(discoveredSolution.getSolution().getCost()));
+            chain.addListener((AlgorithmEndsListener) (problem, solutions) -> chainSolutions.add(new ArrayList<>(solutions)));
+        }
+        vra.searchSolutions();
+        assertEquals(30, discoveredCosts.get(0).size());
+        assertEquals(30, discoveredCosts.get(1).size());
+        assertNotEquals(discoveredCosts.get(0), discoveredCosts.get(1));
+        Set<VehicleRoute> routes = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (VehicleRoutingProblemSolution solution : chainSolutions.get(0)) routes.addAll(solution.getRoutes());
+        for (VehicleRoutingProblemSolution solution : chainSolutions.get(1)) {
+            for (VehicleRoute route : solution.getRoutes()) assertFalse(routes.contains(route));
+        }
+    }
+
+    @Test
+    @DisplayName("When Running Search Chains _ best Solution Of All Chains Should Be Returned")
+    void whenRunningSearchChains_bestSolutionOfAllChainsShouldBeReturned() {
+        MultiChainVehicleRoutingAlgorithm vra = (MultiChainVehicleRoutingAlgorithm) Jsprit.Builder.newInstance(createProblem())
+            .setSearchChains(3, 1000).buildAlgorithm();
+        vra.setMaxIterations(20);
+        List<VehicleRoutingProblemSolution> chainBests = Collections.synchronizedList(new ArrayList<>());
+        for (VehicleRoutingAlgorithm chain : vra.getChains()) {
+            chain.addListener((AlgorithmEndsListener) (problem, solutions) -> chainBests.add(Solutions.bestOf(solutions)));
+        }
+        Collection<VehicleRoutingProblemSolution> solutions = vra.searchSolutions();
+        assertEquals(3, chainBests.size());
+        VehicleRoutingProblemSolution best = Solutions.bestOf(solutions);
+        for (VehicleRoutingProblemSolution chainBest : chainBests) {
+            assertTrue(best.getCost() <= chainBest.getCost());
+        }
+        assertTrue(chainBests.contains(best));
+    }
+
+    @Test
+    @DisplayName("When Adding Initial Solution _ each Chain Should Get Its Own Copy")
+    void whenAddingInitialSolution_eachChainShouldGetItsOwnCopy() {
+        VehicleRoutingProblem vrp = createProblem();
+        VehicleRoutingAlgorithm single = Jsprit.Builder.newInstance(vrp).buildAlgorithm();
+        single.setMaxIterations(5);
+        VehicleRoutingProblemSolution initial = Solutions.bestOf(single.searchSolutions());
+        double initialCosts = initial.getCost();
+        List<Integer> initialActivities = new ArrayList<>();
+        for (VehicleRoute route : initial.getRoutes()) initialActivities.add(route.getActivities().size());
+
+        MultiChainVehicleRoutingAlgorithm vra = (MultiChainVehicleRoutingAlgorithm) Jsprit.Builder.newInstance(vrp)
+            .setSearchChains(2, 1000).buildAlgorithm();
+        vra.setMaxIterations(20);
+        vra.addInitialSolution(initial);
+        Collection<VehicleRoutingProblemSolution> solutions = vra.searchSolutions();
+
+        assertFalse(solutions.contains(initial));
+        for (VehicleRoutingProblemSolution solution : solutions) {
+            for (VehicleRoute route : solution.getRoutes()) assertFalse(initial.getRoutes().contains(route));
+        }
+        assertEquals(initialCosts, initial.getCost(), 0.01);
+        List<Integer> activities = new ArrayList<>();
+        for (VehicleRoute route : initial.getRoutes()) activities.add(route.getActivities().size());
+        assertEquals(initialActivities, activities);
+    }
+
+    @Test
+    @DisplayName("When Setting Metrics _ each Chain Should Record Into Its Own Collector")
+    void whenSettingMetrics_eachChainShouldRecordIntoItsOwnCollector() {
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        MultiChainVehicleRoutingAlgorithm vra = (MultiChainVehicleRoutingAlgorithm) Jsprit.Builder.newInstance(createProblem())
+            .setSearchChains(2, 5).setMetrics(metrics).buildAlgorithm();
+        vra.setMaxIterations(10);
+        vra.searchSolutions();
+        AlgorithmMetrics first = vra.getChains().get(0).getMetrics();
+        AlgorithmMetrics second = vra.getChains().get(1).getMetrics();
+        assertNotSame(first, second);
+        assertNotSame(metrics, first);
+        assertEquals(10, executions(first));
+        assertEquals(10, executions(second));
+        assertEquals(20, executions(metrics));
+    }
+
+    @Test
+    @DisplayName("When A Chain Fails _ remaining Chains Should Be Cancelled")
+    void whenAChainFails_remainingChainsShouldBeCancelled() throws InterruptedException {
+        MultiChainVehicleRoutingAlgorithm vra = (MultiChainVehicleRoutingAlgorithm) Jsprit.Builder.newInstance(createProblem())
+            .setSearchChains(2, 1000).buildAlgorithm();
+        vra.setMaxIterations(Integer.MAX_VALUE);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch ended = new CountDownLatch(1);
+        vra.getChains().get(0).addListener((IterationStartsListener) (i, problem, solutions) -> {
+            try {
+                running.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("chain failed");
+        });
+        VehicleRoutingAlgorithm other = vra.getChains().get(1);
+        other.addListener((IterationStartsListener) (i, problem, solutions) -> running.countDown());
+        other.addListener((AlgorithmEndsListener) (problem, solutions) -> ended.countDown());
+
+        RuntimeException e = assertThrows(RuntimeException.class, vra::searchSolutions);
+        assertInstanceOf(IllegalStateException.class, e.getCause().getCause());
+        assertTrue(ended.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("When Interrupted _ chains Should Be Cancelled And No Solutions Returned")
+    void whenInterrupted_chainsShouldBeCancelledAndNoSolutionsReturned() throws InterruptedException {
+        MultiChainVehicleRoutingAlgorithm vra = (MultiChainVehicleRoutingAlgorithm) Jsprit.Builder.newInstance(createProblem())
+            .setSearchChains(2, 1000).buildAlgorithm();
+        vra.setMaxIterations(Integer.MAX_VALUE);
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch ended = new CountDownLatch(2);
+        AtomicInteger algorithmEnds = new AtomicInteger();
+        vra.addListener((AlgorithmEndsListener) (problem, solutions) -> algorithmEnds.incrementAndGet());
+        for (VehicleRoutingAlgorithm chain : vra.getChains()) {
+            chain.addListener((IterationStartsListener) (i, problem, solutions) -> {
+                if (i == 1) running.countDown();
+            });
+            chain.addListener((AlgorithmEndsListener) (problem, solutions) -> ended.countDown());
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicReference<Boolean> interrupted = new AtomicReference<>();
+        Thread search = new Thread(() -> {
+            try {
+                vra.searchSolutions();
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        search.start();
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        search.interrupt();
+        search.join(10000);
+
+        assertFalse(search.isAlive());
+        assertInstanceOf(InterruptedException.class, failure.get().getCause());
+        assertTrue(interrupted.get());
+        assertEquals(0, algorithmEnds.get());
+        assertTrue(ended.await(10, TimeUnit.SECONDS));
+    }
+
+    private static long executions(AlgorithmMetrics metrics) {
+        return metrics.getStrategyExecutions().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Test
+    @DisplayName("When Setting Executor Service For Search Chains _ it Should Throw Exception")
+    void whenSettingExecutorServiceForSearchChains_itShouldThrowException() {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Jsprit.Builder builder = Jsprit.Builder.newInstance(createProblem()).setSearchChains(2, 5)
+                .setExecutorService(executorService, 2);
+            assertThrows(IllegalStateException.class, builder::buildAlgorithm);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("When Sharing State Manager Between Chains _ it Should Throw Exception")
+    void whenSharingStateManagerBetweenChains_itShouldThrowException() {
+        VehicleRoutingProblem vrp = createProblem();
+        StateManager stateManager = new StateManager(vrp);
+        ConstraintManager constraintManager = new ConstraintManager(vrp, stateManager);
+        Jsprit.Builder builder = Jsprit.Builder.newInstance(vrp).setSearchChains(2, 5)
+            .setStateAndConstraintManager(stateManager, constraintManager);
+        assertThrows(IllegalStateException.class, builder::buildAlgorithm);
+    }
+
+}
@@ -18,6 +18,7 @@
 package com.graphhopper.jsprit.core.algorithm;
 
 import com.graphhopper.jsprit.core.algorithm.acceptor.SolutionAcceptor;
+import com.graphhopper.jsprit.core.algorithm.selector.AdaptiveWeights;
 import com.graphhopper.jsprit.core.algorithm.selector.SolutionSelector;
 import com.graphhopper.jsprit.core.problem.solution.SolutionCostCalculator;
 import com.graphhopper.jsprit.core.util.RandomNumberGeneration;
@@ -214,4 +215,27 @@ class SearchStrategyManagerTest {
         }
         Assertions.assertTrue(true);
     }
+
+    @Test
+    @DisplayName("Adaptive weights favour strategy with higher reward per time")
+    void adaptiveWeightsFavourStrategyWithHigherRewardPerTime() {
+        SearchStrategyManager manager = new SearchStrategyManager();
+        SearchStrategy strat1 = mock(SearchStrategy.class);
+        SearchStrategy strat2 = mock(SearchStrategy.class);
+        when(strat1.getId()).thenReturn("strat1");
+        when(strat2.getId()).thenReturn("strat2");
+        manager.addStrategy(strat1, 0.5);
+        manager.addStrategy(strat2, 0.5);
+        manager.setAdaptiveWeights(new AdaptiveWeights(1.0, 0.1));
+        manager.setRandom(new Random(1));
+        for (int i = 0; i < 50; i++) {
+            SearchStrategy selected = manager.getRandomStrategy();
+            Assertions.assertSame(selected, manager.getLastSelectedStrategy());
+            // both improve equally, but strat2 takes ten times as long
+            manager.reward(1., selected == strat1 ? 1_000_000 : 10_000_000);
+        }
+        manager.adaptWeights();
+        assertTrue(manager.getWeight("strat1") > 0.8);
+        assertTrue(manager.getWeight("strat2") < 0.2);
+    }
 }
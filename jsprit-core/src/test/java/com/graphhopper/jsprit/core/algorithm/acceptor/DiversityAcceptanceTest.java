@@ -0,0 +1,121 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.acceptor;
+
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Diversity Acceptance Test")
+class DiversityAcceptanceTest {
+
+    private VehicleImpl v1;
+
+    private VehicleImpl v2;
+
+    private Service s1;
+
+    private Service s2;
+
+    private Service s3;
+
+    @BeforeEach
+    void doBefore() {
+        v1 = VehicleImpl.Builder.newInstance("v1").setStartLocation(Location.newInstance(0, 0)).build();
+        v2 = VehicleImpl.Builder.newInstance("v2").setStartLocation(Location.newInstance(0, 0)).build();
+        s1 = Service.Builder.newInstance("s1").setLocation(Location.newInstance(1, 0)).build();
+        s2 = Service.Builder.newInstance("s2").setLocation(Location.newInstance(2, 0)).build();
+        s3 = Service.Builder.newInstance("s3").setLocation(Location.newInstance(3, 0)).build();
+    }
+
+    private VehicleRoutingProblemSolution solution(double cost, VehicleRoute... routes) {
+        return new VehicleRoutingProblemSolution(Arrays.asList(routes), cost);
+    }
+
+    @Test
+    @DisplayName("Fingerprints Of Same Tours Should Be Equal Regardless Of Vehicle And Route Order")
+    void fingerprintsOfSameToursShouldBeEqual() {
+        VehicleRoutingProblemSolution a = solution(10, VehicleRoute.Builder.newInstance(v1).addService(s1).addService(s2).build(),
+            VehicleRoute.Builder.newInstance(v2).addService(s3).build());
+        VehicleRoutingProblemSolution b = solution(10, VehicleRoute.Builder.newInstance(v1).addService(s3).build(),
+            VehicleRoute.Builder.newInstance(v2).addService(s1).addService(s2).build());
+        SolutionFingerprint fa = SolutionFingerprint.of(a);
+        assertEquals(5, fa.getNoEdges());
+        assertEquals(1.0, fa.similarity(SolutionFingerprint.of(b)), 0.001);
+    }
+
+    @Test
+    @DisplayName("Similarity Should Be Jaccard Index Of Edges")
+    void similarityShouldBeJaccardIndexOfEdges() {
+        VehicleRoutingProblemSolution a = solution(10, VehicleRoute.Builder.newInstance(v1).addService(s1).addService(s2).addService(s3).build());
+        VehicleRoutingProblemSolution b = solution(10, VehicleRoute.Builder.newInstance(v1).addService(s1).addService(s3).addService(s2).build());
+        //a: start-s1, s1-s2, s2-s3, s3-end; b: start-s1, s1-s3, s3-s2, s2-end
+        assertEquals(1.0 / 7.0, SolutionFingerprint.of(a).similarity(SolutionFingerprint.of(b)), 0.001);
+        VehicleRoutingProblemSolution empty = solution(0);
+        assertEquals(0.0, SolutionFingerprint.of(a).similarity(SolutionFingerprint.of(empty)), 0.001);
+        assertEquals(1.0, SolutionFingerprint.of(empty).similarity(SolutionFingerprint.of(empty)), 0.001);
+    }
+
+    @Test
+    @DisplayName("Worse Near Duplicate Should Be Rejected")
+    void worseNearDuplicateShouldBeRejected() {
+        VehicleRoutingProblemSolution elite = solution(10, VehicleRoute.Builder.newInstance(v1).addService(s1).addService(s2).build());
+        VehicleRoutingProblemSolution clone = solution(11, VehicleRoute.Builder.newInstance(v2).addService(s1).addService(s2).build());
+        List<VehicleRoutingProblemSolution> memory = new ArrayList<>(Collections.singletonList(elite));
+        DiversityAcceptance acceptance = new DiversityAcceptance(new GreedyAcceptance(3), 0.9);
+        assertFalse(acceptance.acceptSolution(memory, clone));
+        assertEquals(Collections.singletonList(elite), memory);
+    }
+
+    @Test
+    @DisplayName("Better Near Duplicate Should Replace Its Twin")
+    void betterNearDuplicateShouldReplaceItsTwin() {
+        VehicleRoutingProblemSolution elite = solution(10, VehicleRoute.Builder.newInstance(v1).addService(s1).addService(s2).build());
+        VehicleRoutingProblemSolution other = solution(20, VehicleRoute.Builder.newInstance(v1).addService(s2).addService(s1).build());
+        VehicleRoutingProblemSolution better = solution(9, VehicleRoute.Builder.newInstance(v2).addService(s1).addService(s2).build());
+        List<VehicleRoutingProblemSolution> memory = new ArrayList<>(Arrays.asList(elite, other));
+        DiversityAcceptance acceptance = new DiversityAcceptance(new GreedyAcceptance(2), 0.9);
+        assertTrue(acceptance.acceptSolution(memory, better));
+        assertEquals(2, memory.size());
+        assertTrue(memory.contains(better));
+        assertTrue(memory.contains(other));
+    }
+
+    @Test
+    @DisplayName("Diverse Solution Should Be Passed To Decorated Acceptor")
+    void diverseSolutionShouldBePassedToDecoratedAcceptor() {
+        VehicleRoutingProblemSolution elite = solution(10, VehicleRoute.Builder.newInstance(v1).addService(s1).addService(s2).build());
+        VehicleRoutingProblemSolution diverse = solution(12, VehicleRoute.Builder.newInstance(v1).addService(s2).addService(s1).build());
+        List<VehicleRoutingProblemSolution> memory = new ArrayList<>(Collections.singletonList(elite));
+        DiversityAcceptance acceptance = new DiversityAcceptance(new GreedyAcceptance(2), 0.9);
+        assertTrue(acceptance.acceptSolution(memory, diverse));
+        assertEquals(2, memory.size());
+    }
+}
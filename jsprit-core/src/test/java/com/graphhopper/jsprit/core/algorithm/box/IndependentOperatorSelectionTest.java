@@ -18,6 +18,7 @@
 package com.graphhopper.jsprit.core.algorithm.box;
 
 import com.graphhopper.jsprit.core.algorithm.VehicleRoutingAlgorithm;
+import com.graphhopper.jsprit.core.algorithm.module.IndependentRuinAndRecreateModule;
 import com.graphhopper.jsprit.core.algorithm.recreate.Insertion;
 import com.graphhopper.jsprit.core.algorithm.ruin.Ruin;
 import com.graphhopper.jsprit.core.algorithm.selector.WeightedOperatorSelector;
@@ -465,4 +466,26 @@ class IndependentOperatorSelectionTest {
         assertTrue(Math.abs(defaultCost - independentCost) / defaultCost < 0.20,
             "Solutions should be similar in quality. Default: " + defaultCost + ", Independent: " + independentCost);
     }
+
+    @Test
+    void testAdaptiveWeightingAdaptsIndependentOperatorWeights() {
+        VehicleRoutingAlgorithm vra = Jsprit.Builder.newInstance(vrp)
+            .addInsertionOperator(1.0, Insertion.regretFast(2, 5, true), "regret")
+            .addInsertionOperator(1.0, Insertion.best(), "best")
+            .addRuinOperator(0.5, Ruin.radial(0.3), "radial")
+            .addRuinOperator(0.5, Ruin.random(0.3, 0.5), "random")
+            .setAdaptiveOperatorWeighting(10, 0.5)
+            .setProperty(Jsprit.Parameter.ITERATIONS, "100")
+            .setRandom(new Random(42))
+            .buildAlgorithm();
+
+        VehicleRoutingProblemSolution solution = Solutions.bestOf(vra.searchSolutions());
+
+        assertNotNull(solution);
+        assertTrue(solution.getUnassignedJobs().isEmpty());
+        IndependentRuinAndRecreateModule module = (IndependentRuinAndRecreateModule) vra.getSearchStrategyManager()
+            .getStrategies().get(0).getSearchStrategyModules().iterator().next();
+        List<Double> ruinWeights = module.getRuinSelector().getEntries().stream().map(WeightedOperatorSelector.Entry::weight).toList();
+        assertNotEquals(List.of(0.5, 0.5), ruinWeights, "ruin weights should have been adapted");
+    }
 }
@@ -0,0 +1,182 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.box;
+
+import com.graphhopper.jsprit.core.algorithm.VehicleRoutingAlgorithm;
+import com.graphhopper.jsprit.core.algorithm.ruin.JobNeighborhoods;
+import com.graphhopper.jsprit.core.algorithm.ruin.JobNeighborhoodsFactory;
+import com.graphhopper.jsprit.core.algorithm.ruin.distance.AvgServiceAndShipmentDistance;
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.driver.Driver;
+import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.solution.spec.SolutionSpec;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+import com.graphhopper.jsprit.core.util.EuclideanCosts;
+import com.graphhopper.jsprit.core.util.Solutions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Warm Start Test")
+class WarmStartTest {
+
+    private List<Job> jobs;
+
+    private VehicleImpl v1;
+
+    private VehicleImpl v2;
+
+    @BeforeEach
+    void doBefore() {
+        Random random = new Random(42);
+        jobs = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            jobs.add(Service.Builder.newInstance("s" + i).addSizeDimension(0, 1)
+                .setLocation(Location.newInstance(random.nextInt(50), random.nextInt(50))).build());
+        }
+        VehicleTypeImpl type = VehicleTypeImpl.Builder.newInstance("type").addCapacityDimension(0, 20).build();
+        v1 = VehicleImpl.Builder.newInstance("v1").setType(type).setStartLocation(Location.newInstance(0, 0)).build();
+        v2 = VehicleImpl.Builder.newInstance("v2").setType(type).setStartLocation(Location.newInstance(50, 50)).build();
+    }
+
+    private static VehicleRoutingProblemSolution solve(VehicleRoutingProblem vrp, WarmStart warmStart, int iterations) {
+        Jsprit.Builder builder = Jsprit.Builder.newInstance(vrp).setRandom(new Random(1));
+        if (warmStart != null) builder.setWarmStart(warmStart);
+        VehicleRoutingAlgorithm vra = builder.buildAlgorithm();
+        vra.setMaxIterations(iterations);
+        return Solutions.bestOf(vra.searchSolutions());
+    }
+
+    private static Set<String> assignedJobIds(VehicleRoutingProblemSolution solution) {
+        Set<String> ids = new HashSet<>();
+        for (VehicleRoute route : solution.getRoutes()) {
+            for (Job job : route.getTourActivities().getJobs()) ids.add(job.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("When Jobs Are Added And Removed _ warm Started Solution Should Serve Exactly The New Jobs")
+    void whenJobsAreAddedAndRemoved_warmStartedSolutionShouldServeExactlyTheNewJobs() {
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance()
+            .addAllJobs(jobs.subList(0, 25)).addVehicle(v1).addVehicle(v2).build();
+        WarmStart warmStart = WarmStart.of(SolutionSpec.from(solve(vrp, null, 50)));
+
+        VehicleRoutingProblem changedVrp = VehicleRoutingProblem.Builder.newInstance()
+            .addAllJobs(jobs.subList(2, 30)).addVehicle(v1).addVehicle(v2).build();
+        VehicleRoutingProblemSolution solution = solve(changedVrp, warmStart, 0);
+
+        assertTrue(solution.getUnassignedJobs().isEmpty());
+        assertEquals(changedVrp.getJobs().keySet(), assignedJobIds(solution));
+    }
+
+    @Test
+    @DisplayName("When Vehicle Is Removed _ its Jobs Should Be Reinserted")
+    void whenVehicleIsRemoved_itsJobsShouldBeReinserted() {
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance()
+            .addAllJobs(jobs.subList(0, 20)).addVehicle(v1).addVehicle(v2).build();
+        WarmStart warmStart = WarmStart.of(SolutionSpec.from(solve(vrp, null, 50)));
+
+        VehicleRoutingProblem changedVrp = VehicleRoutingProblem.Builder.newInstance()
+            .addAllJobs(jobs.subList(0, 20)).addVehicle(v2).build();
+        VehicleRoutingProblemSolution solution = solve(changedVrp, warmStart, 0);
+
+        assertTrue(solution.getUnassignedJobs().isEmpty());
+        assertEquals(1, solution.getRoutes().size());
+        assertEquals("v2", solution.getRoutes().iterator().next().getVehicle().getId());
+    }
+
+    @Test
+    @DisplayName("When Warm Start Is Used _ neighborhoods Should Be Kept For Next Re-plan")
+    void whenWarmStartIsUsed_neighborhoodsShouldBeKeptForNextReplan() {
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance()
+            .addAllJobs(jobs.subList(0, 25)).addVehicle(v1).addVehicle(v2).build();
+        VehicleRoutingProblemSolution first = solve(vrp, null, 20);
+        WarmStart warmStart = WarmStart.of(SolutionSpec.from(first));
+        assertNull(warmStart.getJobNeighborhoods());
+
+        VehicleRoutingProblemSolution second = solve(vrp, warmStart, 20);
+        assertNotNull(warmStart.getJobNeighborhoods());
+        assertTrue(second.getCost() <= first.getCost() + 1e-6);
+
+        WarmStart next = warmStart.next(second).withoutJobs(List.of("s0"));
+        assertSame(warmStart.getJobNeighborhoods(), next.getJobNeighborhoods());
+        VehicleRoutingProblemSolution third = solve(vrp, next, 20);
+        assertTrue(third.getUnassignedJobs().isEmpty());
+        assertNotSame(warmStart.getJobNeighborhoods(), next.getJobNeighborhoods());
+    }
+
+    @Test
+    @DisplayName("When Problem Is Rebuilt With New Job Objects _ neighborhoods Should Be Reused")
+    void whenProblemIsRebuiltWithNewJobObjects_neighborhoodsShouldBeReused() {
+        Random random = new Random(7);
+        List<double[]> coordinates = new ArrayList<>();
+        for (int i = 0; i < 202; i++) coordinates.add(new double[]{random.nextInt(1000), random.nextInt(1000)});
+        AtomicInteger costCalls = new AtomicInteger();
+        EuclideanCosts costs = new EuclideanCosts() {
+            @Override
+            public double getTransportCost(Location from, Location to, double time, Driver driver, Vehicle vehicle) {
+                costCalls.incrementAndGet();
+                return super.getTransportCost(from, to, time, driver, vehicle);
+            }
+        };
+        WarmStart warmStart = WarmStart.of(SolutionSpec.empty());
+
+        Jsprit.Builder.newInstance(createProblem(coordinates, 0, 200, costs)).setWarmStart(warmStart).buildAlgorithm();
+        int callsFromScratch = costCalls.getAndSet(0);
+        int capacity = warmStart.getNeighborhoodCapacity();
+
+        //a re-plan with two jobs cancelled and two added, built from new job objects and thus one more job
+        VehicleRoutingProblem vrp = createProblem(coordinates, 2, 202, costs);
+        Jsprit.Builder.newInstance(vrp).setWarmStart(warmStart).buildAlgorithm();
+        assertTrue(costCalls.get() < callsFromScratch / 10, costCalls.get() + " calls vs. " + callsFromScratch + " from scratch");
+        assertEquals(capacity, warmStart.getNeighborhoodCapacity());
+
+        JobNeighborhoods reused = warmStart.getJobNeighborhoods();
+        JobNeighborhoods recalculated = new JobNeighborhoodsFactory().createNeighborhoods(vrp, new AvgServiceAndShipmentDistance(costs), capacity);
+        recalculated.initialise();
+        for (Job job : vrp.getJobs().values()) {
+            List<Job> expected = new ArrayList<>();
+            recalculated.getNearestNeighborsIterator(capacity, job).forEachRemaining(expected::add);
+            List<Job> actual = new ArrayList<>();
+            reused.getNearestNeighborsIterator(capacity, job).forEachRemaining(actual::add);
+            assertEquals(expected, actual);
+        }
+    }
+
+    private VehicleRoutingProblem createProblem(List<double[]> coordinates, int from, int to, EuclideanCosts costs) {
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance().addVehicle(v1).setRoutingCost(costs);
+        for (int i = from; i < to; i++) {
+            vrpBuilder.addJob(Service.Builder.newInstance("s" + i).addSizeDimension(0, 1)
+                .setLocation(Location.newInstance(coordinates.get(i)[0], coordinates.get(i)[1])).build());
+        }
+        return vrpBuilder.build();
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.metrics;
+
+import com.graphhopper.jsprit.core.algorithm.VehicleRoutingAlgorithm;
+import com.graphhopper.jsprit.core.algorithm.box.Jsprit;
+import com.graphhopper.jsprit.core.algorithm.recreate.InsertionData;
+import com.graphhopper.jsprit.core.algorithm.recreate.JobInsertionCostsCalculator;
+import com.graphhopper.jsprit.core.algorithm.recreate.JobInsertionCostsCalculatorBuilder;
+import com.graphhopper.jsprit.core.algorithm.state.StateManager;
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.constraint.ConstraintManager;
+import com.graphhopper.jsprit.core.problem.constraint.HardActivityConstraint;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.vehicle.FiniteFleetManagerFactory;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Algorithm Metrics Test")
+class AlgorithmMetricsTest {
+
+    private static VehicleRoutingProblem createProblem() {
+        VehicleTypeImpl type = VehicleTypeImpl.Builder.newInstance("type").addCapacityDimension(0, 2).build();
+        VehicleImpl v = VehicleImpl.Builder.newInstance("v").setType(type).setStartLocation(Location.newInstance(0, 0)).build();
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance()
+            .setFleetSize(VehicleRoutingProblem.FleetSize.FINITE).addVehicle(v);
+        for (int i = 0; i < 6; i++) {
+            vrpBuilder.addJob(Service.Builder.newInstance("s" + i).addSizeDimension(0, 1)
+                .setLocation(Location.newInstance(i, 10 - i)).build());
+        }
+        return vrpBuilder.build();
+    }
+
+    @Nested
+    @DisplayName("Latency Histogram")
+    class Histogram {
+
+        @Test
+        @DisplayName("Small values are recorded exactly")
+        void smallValuesAreRecordedExactly() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (int i = 1; i <= 10; i++) histogram.record(i);
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            assertEquals(10, snapshot.count());
+            assertEquals(55, snapshot.total());
+            assertEquals(10, snapshot.max());
+            assertEquals(5, snapshot.p50());
+            assertEquals(9, snapshot.p90());
+            assertEquals(10, snapshot.p99());
+            assertEquals(5.5, snapshot.mean(), 0.001);
+        }
+
+        @Test
+        @DisplayName("Percentiles of large values are within bucket precision")
+        void percentilesOfLargeValuesAreWithinBucketPrecision() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (int i = 1; i <= 1000; i++) histogram.record(i * 1000L);
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            assertEquals(500_000, snapshot.p50(), 500_000 * 0.125);
+            assertEquals(900_000, snapshot.p90(), 900_000 * 0.125);
+            assertEquals(990_000, snapshot.p99(), 990_000 * 0.125);
+            assertEquals(1_000_000, snapshot.max());
+            assertTrue(snapshot.p50() >= 500_000);
+        }
+
+        @Test
+        @DisplayName("Every value falls into a bucket whose upper bound is not smaller than the value")
+        void bucketBoundsContainValues() {
+            long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789L, Long.MAX_VALUE};
+            for (long value : values) {
+                int index = LatencyHistogram.bucketIndex(value);
+                assertTrue(LatencyHistogram.bucketUpperBound(index) >= value);
+                if (index > 0) assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < value);
+            }
+        }
+
+        @Test
+        @DisplayName("Reset clears all values")
+        void resetClearsAllValues() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(100);
+            histogram.reset();
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            assertEquals(0, snapshot.count());
+            assertEquals(0, snapshot.max());
+            assertEquals(0, snapshot.p99());
+        }
+
+    }
+
+    @Test
+    @DisplayName("Running an algorithm with metrics records strategies, operators and insertion calculations")
+    void runningAlgorithmRecordsMetrics() {
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        VehicleRoutingAlgorithm vra = Jsprit.Builder.newInstance(createProblem()).setMetrics(metrics).buildAlgorithm();
+        vra.setMaxIterations(20);
+        vra.searchSolutions();
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        long strategyExecutions = snapshot.strategies().values().stream().mapToLong(LatencyHistogram.Snapshot::count).sum();
+        assertEquals(20, strategyExecutions);
+        assertFalse(snapshot.ruins().isEmpty());
+        assertFalse(snapshot.recreates().isEmpty());
+        assertTrue(snapshot.strategies().keySet().containsAll(snapshot.ruins().keySet()));
+        assertTrue(snapshot.strategies().keySet().containsAll(snapshot.recreates().keySet()));
+        assertTrue(snapshot.stateUpdates().count() > 0);
+        assertTrue(snapshot.insertionCalculations() > 0);
+        assertFalse(snapshot.constraintRejections().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Constraint rejections are counted per evaluated insertion position")
+    void constraintRejectionsAreCountedPerPosition() {
+        VehicleRoutingProblem vrp = createProblem();
+        StateManager stateManager = new StateManager(vrp);
+        ConstraintManager constraintManager = new ConstraintManager(vrp, stateManager);
+        constraintManager.addConstraint((HardActivityConstraint) (iFacts, prevAct, newAct, nextAct, prevActDepTime)
+            -> HardActivityConstraint.ConstraintsStatus.NOT_FULFILLED, ConstraintManager.Priority.CRITICAL);
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        JobInsertionCostsCalculator calculator = new JobInsertionCostsCalculatorBuilder(new ArrayList<>(), new ArrayList<>())
+            .setLocalLevel(true)
+            .setConstraintManager(constraintManager)
+            .setStateManager(stateManager)
+            .setVehicleRoutingProblem(vrp)
+            .setVehicleFleetManager(new FiniteFleetManagerFactory(vrp.getVehicles()).createFleetManager())
+            .setMetrics(metrics)
+            .build();
+        VehicleImpl vehicle = (VehicleImpl) vrp.getVehicles().iterator().next();
+        VehicleRoute route = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory())
+            .addService((Service) vrp.getJobs().get("s0")).addService((Service) vrp.getJobs().get("s1")).build();
+        stateManager.informInsertionStarts(List.of(route), null);
+
+        InsertionData iData = calculator.getInsertionData(route, vrp.getJobs().get("s2"), vehicle, 0., route.getDriver(), Double.MAX_VALUE);
+
+        assertFalse(iData.isFound());
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.insertionCalculations());
+        assertEquals(1, snapshot.constraintRejections().size());
+        assertEquals(3L, snapshot.constraintRejections().values().iterator().next());
+    }
+
+    @Test
+    @DisplayName("Reset clears recorded metrics")
+    void resetClearsRecordedMetrics() {
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        metrics.recordStrategy("s", 10);
+        metrics.countInsertionCalculation();
+        metrics.countConstraintRejection("c");
+        metrics.reset();
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.strategies().get("s").count());
+        assertEquals(0, snapshot.insertionCalculations());
+        assertEquals(0L, snapshot.constraintRejections().get("c"));
+    }
+
+    @Test
+    @DisplayName("Metrics are exported via JMX")
+    void metricsAreExportedViaJmx() throws Exception {
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        metrics.recordStrategy("radial_best", 2_000_000);
+        metrics.countInsertionCalculation();
+        ObjectName name = metrics.registerMBean("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertTrue(server.isRegistered(name));
+            assertEquals(1L, server.getAttribute(name, "InsertionCalculations"));
+            Map<?, ?> strategyTimes = (Map<?, ?>) server.getAttribute(name, "StrategyTimeMillis");
+            assertEquals(1, strategyTimes.size());
+            assertThrows(IllegalStateException.class, () -> metrics.registerMBean("test"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.recreate;
+
+import com.graphhopper.jsprit.core.algorithm.recreate.listener.JobInsertedListener;
+import com.graphhopper.jsprit.core.algorithm.recreate.listener.JobUnassignedListener;
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Best Insertion Concurrent Test")
+class BestInsertionConcurrentTest {
+
+    private ExecutorService executorService;
+
+    private VehicleRoutingProblem vrp;
+
+    private Service job;
+
+    private List<VehicleRoute> routes;
+
+    @BeforeEach
+    void doBefore() {
+        executorService = Executors.newWorkStealingPool(3);
+        job = Service.Builder.newInstance("s").setLocation(Location.newInstance(1, 1)).build();
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance().addJob(job)
+            .setFleetSize(VehicleRoutingProblem.FleetSize.FINITE);
+        routes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v" + i).setStartLocation(Location.newInstance(0, 0)).build();
+            vrpBuilder.addVehicle(vehicle);
+            routes.add(VehicleRoute.Builder.newInstance(vehicle).build());
+        }
+        vrp = vrpBuilder.build();
+    }
+
+    @AfterEach
+    void doAfter() {
+        executorService.shutdown();
+    }
+
+    private JobInsertionCostsCalculator calculator(double... costs) {
+        return (route, jobToInsert, newVehicle, newVehicleDepartureTime, newDriver, bestKnownCosts) -> {
+            int routeIndex = routes.indexOf(route);
+            if (routeIndex < 0 || costs[routeIndex] >= bestKnownCosts) {
+                InsertionData noInsertion = new InsertionData.NoInsertionFound();
+                noInsertion.addFailedConstrainName("constraint" + routeIndex);
+                return noInsertion;
+            }
+            return new InsertionData(costs[routeIndex], 0, 0, route.getVehicle(), null);
+        };
+    }
+
+    @Test
+    @DisplayName("First Cheapest Route Over All Batches Should Be Chosen")
+    void firstCheapestRouteOverAllBatchesShouldBeChosen() {
+        BestInsertionConcurrent insertion = new BestInsertionConcurrent(calculator(5, 3, 7, 3, 9), executorService, 3, vrp);
+        Map<Job, VehicleRoute> inserted = new HashMap<>();
+        insertion.addListener((JobInsertedListener) (job2insert, inRoute, insertionData) -> inserted.put(job2insert, inRoute));
+        Collection<Job> unassigned = insertion.insertJobs(routes, Collections.singletonList(job));
+        assertTrue(unassigned.isEmpty());
+        assertSame(routes.get(1), inserted.get(job));
+    }
+
+    @Test
+    @DisplayName("When No Route Fits _ job Should Be Unassigned With Failed Constraints Of All Batches")
+    void whenNoRouteFits_jobShouldBeUnassignedWithFailedConstraintsOfAllBatches() {
+        double max = Double.MAX_VALUE;
+        BestInsertionConcurrent insertion = new BestInsertionConcurrent(calculator(max, max, max, max, max), executorService, 2, vrp);
+        List<String> reasons = new ArrayList<>();
+        insertion.addListener((JobUnassignedListener) (unassigned, failedConstraintNames) -> reasons.addAll(failedConstraintNames));
+        Collection<Job> unassigned = insertion.insertJobs(new ArrayList<>(routes), Collections.singletonList(job));
+        assertEquals(1, unassigned.size());
+        assertTrue(reasons.containsAll(Arrays.asList("constraint0", "constraint1", "constraint2", "constraint3", "constraint4")));
+    }
+}
@@ -27,6 +27,7 @@ import com.graphhopper.jsprit.core.problem.vehicle.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,6 +36,7 @@ import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -108,4 +110,46 @@ class CalcVehicleTypeDependentServiceInsertionTest {
         InsertionData iData = insertion.getInsertionData(vehicleRoute, service, null, 0.0, null, Double.MAX_VALUE);
         assertThat(iData.getSelectedVehicle(), is(veh2));
     }
+
+    private VehicleTypeDependentJobInsertionCalculator createInsertion(JobInsertionCostsCalculator calc) {
+        VehicleRoutingProblem vrp = mock(VehicleRoutingProblem.class);
+        when(vrp.getInitialVehicleRoutes()).thenReturn(Collections.<VehicleRoute>emptyList());
+        Map<Class<? extends com.graphhopper.jsprit.core.problem.job.Job>, JobInsertionCostsCalculator> calculators = new LinkedHashMap<>();
+        calculators.put(Service.class, calc);
+        return new VehicleTypeDependentJobInsertionCalculator(vrp, fleetManager, calculators);
+    }
+
+    @Test
+    @DisplayName("When Having Types With Different Costs _ cheapest Type Should Be Evaluated First")
+    void whenHavingTypesWithDifferentCosts_cheapestTypeShouldBeEvaluatedFirst() {
+        when(veh1.getType()).thenReturn(VehicleTypeImpl.Builder.newInstance("expensive").setFixedCost(100).build());
+        when(veh2.getType()).thenReturn(VehicleTypeImpl.Builder.newInstance("cheap").setFixedCost(10).build());
+        JobInsertionCostsCalculator calc = mock(JobInsertionCostsCalculator.class);
+        InsertionData iDataVeh2 = new InsertionData(10.0, InsertionData.NO_INDEX, 1, veh2, null);
+        when(calc.getInsertionData(vehicleRoute, service, veh2, veh2.getEarliestDeparture(), null, Double.MAX_VALUE)).thenReturn(iDataVeh2);
+        when(calc.getInsertionData(vehicleRoute, service, veh1, veh1.getEarliestDeparture(), null, Math.nextUp(10.0))).thenReturn(new InsertionData.NoInsertionFound());
+
+        InsertionData iData = createInsertion(calc).getInsertionData(vehicleRoute, service, null, 0.0, null, Double.MAX_VALUE);
+
+        assertThat(iData.getSelectedVehicle(), is(veh2));
+        InOrder inOrder = inOrder(calc);
+        inOrder.verify(calc).getInsertionData(vehicleRoute, service, veh2, veh2.getEarliestDeparture(), null, Double.MAX_VALUE);
+        inOrder.verify(calc).getInsertionData(vehicleRoute, service, veh1, veh1.getEarliestDeparture(), null, Math.nextUp(10.0));
+    }
+
+    @Test
+    @DisplayName("When Types Yield Equal Costs _ first Relevant Vehicle Should Be Selected")
+    void whenTypesYieldEqualCosts_firstRelevantVehicleShouldBeSelected() {
+        when(veh1.getType()).thenReturn(VehicleTypeImpl.Builder.newInstance("expensive").setFixedCost(100).build());
+        when(veh2.getType()).thenReturn(VehicleTypeImpl.Builder.newInstance("cheap").setFixedCost(10).build());
+        JobInsertionCostsCalculator calc = mock(JobInsertionCostsCalculator.class);
+        InsertionData iDataVeh1 = new InsertionData(10.0, InsertionData.NO_INDEX, 1, veh1, null);
+        InsertionData iDataVeh2 = new InsertionData(10.0, InsertionData.NO_INDEX, 1, veh2, null);
+        when(calc.getInsertionData(vehicleRoute, service, veh2, veh2.getEarliestDeparture(), null, Double.MAX_VALUE)).thenReturn(iDataVeh2);
+        when(calc.getInsertionData(vehicleRoute, service, veh1, veh1.getEarliestDeparture(), null, Math.nextUp(10.0))).thenReturn(iDataVeh1);
+
+        InsertionData iData = createInsertion(calc).getInsertionData(vehicleRoute, service, null, 0.0, null, Double.MAX_VALUE);
+
+        assertThat(iData.getSelectedVehicle(), is(veh1));
+    }
 }
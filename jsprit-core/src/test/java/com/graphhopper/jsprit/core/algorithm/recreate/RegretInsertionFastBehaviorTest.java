@@ -20,6 +20,7 @@ package com.graphhopper.jsprit.core.algorithm.recreate;
 import com.graphhopper.jsprit.core.algorithm.VehicleRoutingAlgorithm;
 import com.graphhopper.jsprit.core.algorithm.box.Jsprit;
 import com.graphhopper.jsprit.core.algorithm.recreate.listener.BeforeJobInsertionListener;
+import com.graphhopper.jsprit.core.algorithm.recreate.listener.InsertionListener;
 import com.graphhopper.jsprit.core.algorithm.state.StateManager;
 import com.graphhopper.jsprit.core.problem.Location;
 import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
@@ -29,6 +30,8 @@ import com.graphhopper.jsprit.core.problem.job.Service;
 import com.graphhopper.jsprit.core.problem.job.Shipment;
 import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
 import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.vehicle.FiniteFleetManagerFactory;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleFleetManager;
 import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
 import com.graphhopper.jsprit.core.problem.vehicle.VehicleType;
 import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
@@ -39,6 +42,9 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -469,6 +475,51 @@ class RegretInsertionFastBehaviorTest {
             assertNotNull(solution);
             assertTrue(solution.getUnassignedJobs().isEmpty());
         }
+
+        @Test
+        @DisplayName("Concurrent insertion should not depend on the number of batches")
+        void concurrentInsertionIndependentOfBatches() throws InterruptedException {
+            VehicleRoutingProblem vrp = createLargeProblem(50);
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<String> singleBatch = runConcurrentInsertion(vrp, executor, 1);
+                List<String> severalBatches = runConcurrentInsertion(vrp, executor, 4);
+
+                assertEquals(50, singleBatch.size());
+                assertEquals(singleBatch, severalBatches);
+            } finally {
+                executor.shutdown();
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        }
+
+        private List<String> runConcurrentInsertion(VehicleRoutingProblem vrp, ExecutorService executor, int nuOfBatches) {
+            StateManager stateManager = new StateManager(vrp);
+            ConstraintManager constraintManager = new ConstraintManager(vrp, stateManager);
+            VehicleFleetManager fm = new FiniteFleetManagerFactory(vrp.getVehicles()).createFleetManager();
+
+            List<InsertionListener> iListeners = new ArrayList<>();
+            JobInsertionCostsCalculator calculator = new JobInsertionCostsCalculatorBuilder(iListeners, new ArrayList<>())
+                    .setLocalLevel(true)
+                    .setConstraintManager(constraintManager)
+                    .setStateManager(stateManager)
+                    .setVehicleRoutingProblem(vrp)
+                    .setVehicleFleetManager(fm)
+                    .setAllowVehicleSwitch(true)
+                    .build();
+
+            RegretInsertionConcurrentFast insertion = new RegretInsertionConcurrentFast(calculator, vrp, executor, nuOfBatches, fm);
+            for (InsertionListener l : iListeners) insertion.addListener(l);
+            insertion.addListener(stateManager);
+            InsertionSequenceRecorder recorder = new InsertionSequenceRecorder();
+            insertion.addListener(recorder);
+
+            Collection<VehicleRoute> routes = new ArrayList<>();
+            stateManager.informInsertionStarts(routes, null);
+            insertion.insertJobs(routes, vrp.getJobs().values());
+            return recorder.getInsertionOrder();
+        }
     }
 
     @Nested
@@ -0,0 +1,236 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.recreate;
+
+import com.graphhopper.jsprit.core.algorithm.VehicleRoutingAlgorithm;
+import com.graphhopper.jsprit.core.algorithm.box.Jsprit;
+import com.graphhopper.jsprit.core.algorithm.metrics.AlgorithmMetrics;
+import com.graphhopper.jsprit.core.algorithm.metrics.MetricsSnapshot;
+import com.graphhopper.jsprit.core.algorithm.state.StateManager;
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.constraint.ConstraintManager;
+import com.graphhopper.jsprit.core.problem.driver.DriverImpl;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+import com.graphhopper.jsprit.core.util.RandomNumberGeneration;
+import com.graphhopper.jsprit.core.util.Solutions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Route Insertion Cache Test")
+class RouteInsertionCacheTest {
+
+    private VehicleRoutingProblem vrp;
+
+    private VehicleImpl vehicle;
+
+    private List<Service> services;
+
+    private JobInsertionCostsCalculator calculator;
+
+    private StateManager stateManager;
+
+    private RouteInsertionCache cache;
+
+    @BeforeEach
+    void doBefore() {
+        Random random = new Random(42);
+        VehicleTypeImpl type = VehicleTypeImpl.Builder.newInstance("t").addCapacityDimension(0, 100).build();
+        vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance(50, 50)).setType(type).build();
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle);
+        services = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Service service = Service.Builder.newInstance("s" + i).addSizeDimension(0, 1)
+                .setLocation(Location.newInstance(random.nextInt(100), random.nextInt(100))).build();
+            vrpBuilder.addJob(service);
+            services.add(service);
+        }
+        vrp = vrpBuilder.build();
+        stateManager = new StateManager(vrp);
+        ConstraintManager constraintManager = new ConstraintManager(vrp, stateManager);
+        constraintManager.addLoadConstraint();
+        calculator = new ServiceInsertionCalculatorFactory().create(vrp,
+            new LocalActivityInsertionCostsCalculator(vrp.getTransportCosts(), vrp.getActivityCosts(), stateManager),
+            vrp.getJobActivityFactory(), constraintManager);
+        cache = new RouteInsertionCache();
+    }
+
+    private VehicleRoute createRoute(int noServices) {
+        VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vehicle, DriverImpl.noDriver()).setJobActivityFactory(vrp.getJobActivityFactory());
+        for (Service service : services.subList(0, noServices)) routeBuilder.addService(service);
+        VehicleRoute route = routeBuilder.build();
+        stateManager.informInsertionStarts(Collections.singletonList(route), Collections.emptyList());
+        return route;
+    }
+
+    private InsertionData calculateAndCache(VehicleRoute route, Service service, double bestKnownCosts) {
+        InsertionData iData = calculator.getInsertionData(route, service, vehicle, route.getDepartureTime(), route.getDriver(), bestKnownCosts);
+        cache.put(route, service, vehicle, route.getDepartureTime(), route.getDriver(), bestKnownCosts, iData);
+        return iData;
+    }
+
+    private InsertionData getCached(VehicleRoute route, Service service, double bestKnownCosts) {
+        return cache.get(route, service, vehicle, route.getDepartureTime(), route.getDriver(), bestKnownCosts);
+    }
+
+    @Test
+    @DisplayName("Cached insertion is reused for lazy copies and bound to the copy")
+    void cachedInsertionIsReusedForLazyCopies() {
+        VehicleRoute route = createRoute(10);
+        Service service = services.get(20);
+        InsertionData expected = calculateAndCache(route, service, Double.MAX_VALUE);
+        VehicleRoute copy = VehicleRoute.lazyCopyOf(route);
+
+        InsertionData cached = getCached(copy, service, Double.MAX_VALUE);
+
+        assertNotNull(cached);
+        assertEquals(expected.getInsertionCost(), cached.getInsertionCost(), 1e-9);
+        assertEquals(expected.getDeliveryInsertionIndex(), cached.getDeliveryInsertionIndex());
+        assertEquals(expected.getSelectedVehicle(), cached.getSelectedVehicle());
+        assertEquals(expected.getEvents().size(), cached.getEvents().size());
+        for (Event event : cached.getEvents()) {
+            if (event instanceof InsertActivity insertActivity) {
+                assertSame(copy, insertActivity.getVehicleRoute());
+                assertNotSame(((InsertActivity) expected.getEvents().getFirst()).getActivity(), insertActivity.getActivity());
+            } else if (event instanceof SwitchVehicle switchVehicle) {
+                assertSame(copy, switchVehicle.getRoute());
+            }
+        }
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Cached insertion is not reused once the route changed")
+    void cachedInsertionIsNotReusedForModifiedRoute() {
+        VehicleRoute route = createRoute(10);
+        calculateAndCache(route, services.get(20), Double.MAX_VALUE);
+        VehicleRoute copy = VehicleRoute.lazyCopyOf(route);
+        copy.getTourActivities().removeJob(services.get(0));
+
+        assertNull(getCached(copy, services.get(20), Double.MAX_VALUE));
+        assertNotNull(getCached(route, services.get(20), Double.MAX_VALUE));
+        assertNull(getCached(route, services.get(21), Double.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("NoInsertionFound is only reused for best known costs not higher than the cached ones")
+    void noInsertionFoundIsOnlyReusedForLowerBestKnownCosts() {
+        VehicleRoute route = createRoute(10);
+        Service service = services.get(20);
+        InsertionData notFound = calculateAndCache(route, service, 0.);
+        assertFalse(notFound.isFound());
+
+        assertSame(notFound, getCached(route, service, 0.));
+        assertSame(notFound, getCached(route, service, -1.));
+        assertNull(getCached(route, service, Double.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Entries of routes that changed or left the solution are dropped")
+    void entriesOfChangedRoutesAreDropped() {
+        VehicleRoute route = createRoute(10);
+        VehicleRoute otherRoute = createRoute(5);
+        cache.informInsertionStarts(List.of(route, otherRoute), Collections.emptyList());
+        calculateAndCache(route, services.get(20), Double.MAX_VALUE);
+        calculateAndCache(otherRoute, services.get(20), Double.MAX_VALUE);
+        assertEquals(2, cache.size());
+
+        route.getTourActivities().addActivity(vrp.copyAndGetActivities(services.get(21)).getFirst());
+        cache.informJobInserted(services.get(21), route, null);
+        assertEquals(1, cache.size());
+
+        cache.informInsertionStarts(Collections.singletonList(route), Collections.emptyList());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Jsprit without noise finds the same solution with and without cache")
+    void jspritFindsSameSolutionWithCache() {
+        VehicleRoutingProblemSolution withoutCache = solve(false);
+        VehicleRoutingProblemSolution withCache = solve(true);
+        assertEquals(withoutCache.getCost(), withCache.getCost(), 1e-9);
+        assertEquals(withoutCache.getRoutes().size(), withCache.getRoutes().size());
+    }
+
+    private VehicleRoutingProblemSolution solve(boolean insertionCache) {
+        RandomNumberGeneration.reset();
+        VehicleRoutingAlgorithm vra = Jsprit.Builder.newInstance(vrp)
+            .setInsertionCache(insertionCache)
+            .setProperty(Jsprit.Parameter.INSERTION_NOISE_PROB, "0.")
+            .setProperty(Jsprit.Parameter.ITERATIONS, "100")
+            .buildAlgorithm();
+        return Solutions.bestOf(vra.searchSolutions());
+    }
+
+    @Test
+    @DisplayName("Jsprit with default configuration answers insertions from the cache")
+    void jspritWithDefaultConfigurationHitsCache() {
+        Random random = new Random(42);
+        VehicleTypeImpl type = VehicleTypeImpl.Builder.newInstance("small").addCapacityDimension(0, 5).build();
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance()
+            .addVehicle(VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance(50, 50)).setType(type).build());
+        for (int i = 0; i < 40; i++) {
+            vrpBuilder.addJob(Service.Builder.newInstance("s" + i).addSizeDimension(0, 1)
+                .setLocation(Location.newInstance(random.nextInt(100), random.nextInt(100))).build());
+        }
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        VehicleRoutingAlgorithm vra = Jsprit.Builder.newInstance(vrpBuilder.build())
+            .setInsertionCache(true)
+            .setMetrics(metrics)
+            .setProperty(Jsprit.Parameter.ITERATIONS, "20")
+            .buildAlgorithm();
+        vra.searchSolutions();
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertTrue(snapshot.insertionCacheHits() > 0);
+        assertTrue(snapshot.insertionCalculations() > 0);
+    }
+
+    @Test
+    @DisplayName("Cached insertion is only reused with the solution completeness ratio it was calculated with")
+    void cachedInsertionIsOnlyReusedForSameCompletenessRatio() {
+        LocalActivityInsertionCostsCalculator activityInsertion = new LocalActivityInsertionCostsCalculator(vrp.getTransportCosts(), vrp.getActivityCosts(), stateManager);
+        cache = new RouteInsertionCache(activityInsertion::getSolutionCompletenessRatio);
+        VehicleRoute route = createRoute(10);
+        cache.informInsertionStarts(Collections.singletonList(route), Collections.emptyList());
+        calculateAndCache(route, services.get(20), Double.MAX_VALUE);
+        assertNotNull(getCached(route, services.get(20), Double.MAX_VALUE));
+
+        activityInsertion.setSolutionCompletenessRatio(0.5);
+        assertNull(getCached(route, services.get(20), Double.MAX_VALUE));
+        calculateAndCache(route, services.get(21), Double.MAX_VALUE);
+        assertNotNull(getCached(route, services.get(21), Double.MAX_VALUE));
+
+        activityInsertion.setSolutionCompletenessRatio(1.);
+        cache.informInsertionStarts(Collections.singletonList(route), Collections.emptyList());
+        assertNotNull(getCached(route, services.get(20), Double.MAX_VALUE));
+        assertNull(getCached(route, services.get(21), Double.MAX_VALUE));
+    }
+}
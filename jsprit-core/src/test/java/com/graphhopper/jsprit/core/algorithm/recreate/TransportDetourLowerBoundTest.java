@@ -0,0 +1,283 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.recreate;
+
+import com.graphhopper.jsprit.core.algorithm.VehicleRoutingAlgorithm;
+import com.graphhopper.jsprit.core.algorithm.box.Jsprit;
+import com.graphhopper.jsprit.core.algorithm.state.StateManager;
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.constraint.ConstraintManager;
+import com.graphhopper.jsprit.core.problem.driver.DriverImpl;
+import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.job.Shipment;
+import com.graphhopper.jsprit.core.problem.misc.JobInsertionContext;
+import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.End;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.Start;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TimeWindow;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TourActivity;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+import com.graphhopper.jsprit.core.util.FastVehicleRoutingTransportCostsMatrix;
+import com.graphhopper.jsprit.core.util.Solutions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transport Detour Lower Bound Test")
+class TransportDetourLowerBoundTest {
+
+    private VehicleRoutingProblem vrp;
+
+    private VehicleImpl vehicle;
+
+    private List<Service> routeServices;
+
+    private List<Job> jobsToInsert;
+
+    private StateManager stateManager;
+
+    private ConstraintManager constraintManager;
+
+    private TransportDetourLowerBound lowerBound;
+
+    @BeforeEach
+    void doBefore() {
+        Random random = new Random(42);
+        VehicleTypeImpl type = VehicleTypeImpl.Builder.newInstance("t").addCapacityDimension(0, 100).setCostPerDistance(2.).build();
+        vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance(50, 50)).setType(type).build();
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle);
+        routeServices = new ArrayList<>();
+        jobsToInsert = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            double start = random.nextInt(500);
+            Service service = Service.Builder.newInstance("s" + i).addSizeDimension(0, 1).setServiceTime(1.)
+                .setLocation(Location.newInstance(random.nextInt(100), random.nextInt(100)))
+                .setTimeWindow(TimeWindow.newInstance(start, start + 200)).build();
+            vrpBuilder.addJob(service);
+            if (i < 20) routeServices.add(service);
+            else jobsToInsert.add(service);
+        }
+        for (int i = 0; i < 10; i++) {
+            Shipment shipment = Shipment.Builder.newInstance("sh" + i).addSizeDimension(0, 1)
+                .setPickupLocation(Location.newInstance(random.nextInt(100), random.nextInt(100)))
+                .setDeliveryLocation(Location.newInstance(random.nextInt(100), random.nextInt(100))).build();
+            vrpBuilder.addJob(shipment);
+            jobsToInsert.add(shipment);
+        }
+        vrp = vrpBuilder.build();
+        stateManager = new StateManager(vrp);
+        constraintManager = new ConstraintManager(vrp, stateManager);
+        constraintManager.addTimeWindowConstraint();
+        constraintManager.addLoadConstraint();
+        lowerBound = new TransportDetourLowerBound(vrp.getTransportCosts());
+    }
+
+    private VehicleRoute createRoute(int noServices) {
+        VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vehicle, DriverImpl.noDriver()).setJobActivityFactory(vrp.getJobActivityFactory());
+        List<Service> services = new ArrayList<>(routeServices.subList(0, noServices));
+        services.sort((s1, s2) -> Double.compare(s1.getTimeWindow().getStart(), s2.getTimeWindow().getStart()));
+        for (Service service : services) routeBuilder.addService(service);
+        VehicleRoute route = routeBuilder.build();
+        stateManager.informInsertionStarts(Collections.singletonList(route), Collections.emptyList());
+        return route;
+    }
+
+    private LocalActivityInsertionCostsCalculator activityInsertionCosts() {
+        return new LocalActivityInsertionCostsCalculator(vrp.getTransportCosts(), vrp.getActivityCosts(), stateManager);
+    }
+
+    @Test
+    @DisplayName("Activity lower bound never exceeds local activity insertion costs")
+    void activityLowerBoundDoesNotExceedInsertionCosts() {
+        VehicleRoute route = createRoute(20);
+        LocalActivityInsertionCostsCalculator calculator = activityInsertionCosts();
+        for (Job job : jobsToInsert) {
+            if (!(job instanceof Service)) continue;
+            JobInsertionContext context = new JobInsertionContext(route, job, vehicle, route.getDriver(), route.getDepartureTime());
+            TourActivity newAct = vrp.copyAndGetActivities(job).getFirst();
+            TourActivity prevAct = route.getStart();
+            double prevActDepTime = route.getDepartureTime();
+            List<TourActivity> nextActs = new ArrayList<>(route.getActivities());
+            nextActs.add(route.getEnd());
+            for (TourActivity nextAct : nextActs) {
+                double bound = lowerBound.getActivityLowerBound(context, prevAct, newAct, nextAct, prevActDepTime);
+                double costs = calculator.getCosts(context, prevAct, nextAct, newAct, prevActDepTime);
+                assertTrue(bound <= costs + 1e-9, "bound " + bound + " exceeds costs " + costs);
+                prevAct = nextAct;
+                prevActDepTime = nextAct.getEndTime();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Route lower bound never exceeds the lower bound of any position")
+    void routeLowerBoundDoesNotExceedActivityLowerBounds() {
+        for (int noServices : new int[]{0, 1, 5, 20}) {
+            VehicleRoute route = createRoute(noServices);
+            for (Job job : jobsToInsert) {
+                JobInsertionContext context = new JobInsertionContext(route, job, vehicle, route.getDriver(), route.getDepartureTime());
+                TourActivity newAct = vrp.copyAndGetActivities(job).getFirst();
+                double routeBound = lowerBound.getRouteLowerBound(context, newAct);
+                TourActivity prevAct = new Start(vehicle.getStartLocation(), 0., Double.MAX_VALUE);
+                List<TourActivity> nextActs = new ArrayList<>(route.getActivities());
+                nextActs.add(new End(vehicle.getEndLocation(), 0., vehicle.getLatestArrival()));
+                for (TourActivity nextAct : nextActs) {
+                    assertTrue(routeBound <= lowerBound.getActivityLowerBound(context, prevAct, newAct, nextAct, 0.) + 1e-9);
+                    prevAct = nextAct;
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Cached route legs follow changes of activities and vehicle")
+    void cachedRouteLegsFollowRouteChanges() {
+        VehicleRoute route = createRoute(20);
+        Job job = jobsToInsert.getFirst();
+        TourActivity newAct = vrp.copyAndGetActivities(job).getFirst();
+        double bound = lowerBound.getRouteLowerBound(new JobInsertionContext(route, job, vehicle, route.getDriver(), 0.), newAct);
+        assertEquals(bound, lowerBound.getRouteLowerBound(new JobInsertionContext(VehicleRoute.lazyCopyOf(route), job, vehicle, route.getDriver(), 0.), newAct), 1e-9);
+
+        for (Service service : routeServices.subList(0, 19)) {
+            route.getTourActivities().removeJob(service);
+            JobInsertionContext context = new JobInsertionContext(route, job, vehicle, route.getDriver(), 0.);
+            double expected = new TransportDetourLowerBound(vrp.getTransportCosts()).getRouteLowerBound(context, newAct);
+            assertEquals(expected, lowerBound.getRouteLowerBound(context, newAct), 1e-9);
+        }
+
+        VehicleTypeImpl expensive = VehicleTypeImpl.Builder.newInstance("expensive").addCapacityDimension(0, 100).setCostPerDistance(10.).build();
+        VehicleImpl other = VehicleImpl.Builder.newInstance("other").setStartLocation(Location.newInstance(0, 0)).setType(expensive).build();
+        route.setVehicleAndDepartureTime(other, 0.);
+        JobInsertionContext context = new JobInsertionContext(route, job, vehicle, route.getDriver(), 0.);
+        double expected = new TransportDetourLowerBound(vrp.getTransportCosts()).getRouteLowerBound(context, newAct);
+        assertEquals(expected, lowerBound.getRouteLowerBound(context, newAct), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Insertion calculators find the same insertion with and without lower bound")
+    void calculatorsFindSameInsertionWithLowerBound() {
+        VehicleRoute route = createRoute(20);
+        JobInsertionCostsCalculator serviceCalculator = new ServiceInsertionCalculatorFactory()
+            .create(vrp, activityInsertionCosts(), vrp.getJobActivityFactory(), constraintManager);
+        JobInsertionCostsCalculator boundedServiceCalculator = new ServiceInsertionCalculatorFactory().setCostsLowerBound(lowerBound)
+            .create(vrp, activityInsertionCosts(), vrp.getJobActivityFactory(), constraintManager);
+        JobInsertionCostsCalculator shipmentCalculator = new ShipmentInsertionCalculatorFactory()
+            .create(vrp, activityInsertionCosts(), vrp.getJobActivityFactory(), constraintManager);
+        // euclidean costs satisfy the triangle inequality
+        for (TransportDetourLowerBound bound : List.of(lowerBound, new TransportDetourLowerBound(vrp.getTransportCosts(), true))) {
+            JobInsertionCostsCalculator boundedShipmentCalculator = new ShipmentInsertionCalculatorFactory().setCostsLowerBound(bound)
+                .create(vrp, activityInsertionCosts(), vrp.getJobActivityFactory(), constraintManager);
+            for (Job job : jobsToInsert) {
+                JobInsertionCostsCalculator calculator = job instanceof Shipment ? shipmentCalculator : serviceCalculator;
+                JobInsertionCostsCalculator boundedCalculator = job instanceof Shipment ? boundedShipmentCalculator : boundedServiceCalculator;
+                for (double bestKnownCosts : new double[]{Double.MAX_VALUE, 50., 10.}) {
+                    InsertionData expected = calculator.getInsertionData(route, job, vehicle, route.getDepartureTime(), route.getDriver(), bestKnownCosts);
+                    InsertionData actual = boundedCalculator.getInsertionData(route, job, vehicle, route.getDepartureTime(), route.getDriver(), bestKnownCosts);
+                    assertEquals(expected.isFound(), actual.isFound());
+                    if (expected.isFound()) {
+                        assertEquals(expected.getInsertionCost(), actual.getInsertionCost(), 1e-9);
+                        assertEquals(expected.getPickupInsertionIndex(), actual.getPickupInsertionIndex());
+                        assertEquals(expected.getDeliveryInsertionIndex(), actual.getDeliveryInsertionIndex());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Shipment calculator finds the same insertion with lower bound if costs violate the triangle inequality")
+    void shipmentCalculatorFindsSameInsertionWithLowerBoundOnNonMetricCosts() {
+        Random random = new Random(7);
+        int noLocations = 30;
+        FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(noLocations, false);
+        for (int from = 0; from < noLocations; from++) {
+            for (int to = 0; to < noLocations; to++) {
+                if (from != to) matrixBuilder.addTransportDistance(from, to, 1 + random.nextInt(100));
+            }
+        }
+        VehicleImpl v = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance(0)).build();
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance().addVehicle(v)
+            .setRoutingCost(matrixBuilder.build());
+        List<Service> services = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            Service service = Service.Builder.newInstance("s" + i).setLocation(Location.newInstance(i)).build();
+            services.add(service);
+            vrpBuilder.addJob(service);
+        }
+        List<Shipment> shipments = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Shipment shipment = Shipment.Builder.newInstance("sh" + i)
+                .setPickupLocation(Location.newInstance(11 + random.nextInt(19)))
+                .setDeliveryLocation(Location.newInstance(11 + random.nextInt(19))).build();
+            shipments.add(shipment);
+            vrpBuilder.addJob(shipment);
+        }
+        VehicleRoutingProblem nonMetricVrp = vrpBuilder.build();
+        StateManager states = new StateManager(nonMetricVrp);
+        ConstraintManager constraints = new ConstraintManager(nonMetricVrp, states);
+        VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(v, DriverImpl.noDriver()).setJobActivityFactory(nonMetricVrp.getJobActivityFactory());
+        for (Service service : services) routeBuilder.addService(service);
+        VehicleRoute route = routeBuilder.build();
+        states.informInsertionStarts(Collections.singletonList(route), Collections.emptyList());
+        LocalActivityInsertionCostsCalculator activityCosts = new LocalActivityInsertionCostsCalculator(nonMetricVrp.getTransportCosts(), nonMetricVrp.getActivityCosts(), states);
+
+        JobInsertionCostsCalculator calculator = new ShipmentInsertionCalculatorFactory()
+            .create(nonMetricVrp, activityCosts, nonMetricVrp.getJobActivityFactory(), constraints);
+        for (boolean triangleInequality : new boolean[]{false, true}) {
+            JobInsertionCostsCalculator boundedCalculator = new ShipmentInsertionCalculatorFactory()
+                .setCostsLowerBound(new TransportDetourLowerBound(nonMetricVrp.getTransportCosts(), triangleInequality))
+                .create(nonMetricVrp, activityCosts, nonMetricVrp.getJobActivityFactory(), constraints);
+            for (Shipment shipment : shipments) {
+                InsertionData best = calculator.getInsertionData(route, shipment, v, route.getDepartureTime(), route.getDriver(), Double.MAX_VALUE);
+                for (double bestKnownCosts : new double[]{Double.MAX_VALUE, best.getInsertionCost() + 1e-6, best.getInsertionCost() + 20.}) {
+                    InsertionData expected = calculator.getInsertionData(route, shipment, v, route.getDepartureTime(), route.getDriver(), bestKnownCosts);
+                    InsertionData actual = boundedCalculator.getInsertionData(route, shipment, v, route.getDepartureTime(), route.getDriver(), bestKnownCosts);
+                    assertEquals(expected.isFound(), actual.isFound());
+                    if (expected.isFound()) {
+                        assertEquals(expected.getInsertionCost(), actual.getInsertionCost(), 1e-9);
+                        assertEquals(expected.getPickupInsertionIndex(), actual.getPickupInsertionIndex());
+                        assertEquals(expected.getDeliveryInsertionIndex(), actual.getDeliveryInsertionIndex());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Jsprit with lower bound solves the problem")
+    void jspritWithLowerBoundSolvesProblem() {
+        VehicleRoutingAlgorithm vra = Jsprit.Builder.newInstance(vrp)
+            .setCostsLowerBound(new TransportDetourLowerBound(vrp.getTransportCosts()))
+            .setProperty(Jsprit.Parameter.ITERATIONS, "50")
+            .buildAlgorithm();
+        VehicleRoutingProblemSolution solution = Solutions.bestOf(vra.searchSolutions());
+        assertTrue(solution.getUnassignedJobs().isEmpty());
+    }
+
+}
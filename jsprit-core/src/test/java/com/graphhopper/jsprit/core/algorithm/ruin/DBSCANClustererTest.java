@@ -23,10 +23,14 @@ import com.graphhopper.jsprit.core.problem.job.Service;
 import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
 import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
 import com.graphhopper.jsprit.core.util.EuclideanCosts;
+import org.apache.commons.math3.ml.clustering.Cluster;
+import org.apache.commons.math3.ml.clustering.Clusterable;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -133,4 +137,53 @@ class DBSCANClustererTest {
             assertEquals(2, clusters.get(0).size());
         }
     }
+
+    @Test
+    @DisplayName("Clusters Should Equal Commons Math Clusters")
+    void clustersShouldEqualCommonsMathClusters() {
+        Random random = new Random(3);
+        VehicleImpl v = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance(0, 0)).build();
+        VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(v);
+        List<IndexedPoint> points = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            double x = random.nextInt(4) * 30 + random.nextDouble() * 10;
+            double y = random.nextInt(4) * 30 + random.nextDouble() * 10;
+            Service s = Service.Builder.newInstance("s" + i).setLocation(Location.newInstance(x, y)).build();
+            routeBuilder.addService(s);
+            points.add(new IndexedPoint(s, x, y));
+        }
+        VehicleRoute r = routeBuilder.build();
+
+        for (int minPts : new int[]{1, 3, 6}) {
+            DBSCANClusterer c = new DBSCANClusterer(new EuclideanCosts());
+            c.setMinPts(minPts);
+            c.setEpsDistance(2.5);
+            List<List<Job>> clusters = c.getClusters(r);
+
+            List<List<Job>> expected = new ArrayList<>();
+            for (Cluster<IndexedPoint> cluster : new org.apache.commons.math3.ml.clustering.DBSCANClusterer<IndexedPoint>(2.5, minPts).cluster(points)) {
+                List<Job> jobs = new ArrayList<>();
+                for (IndexedPoint p : cluster.getPoints()) jobs.add(p.job);
+                expected.add(jobs);
+            }
+            assertEquals(expected, clusters);
+        }
+    }
+
+    private static class IndexedPoint implements Clusterable {
+
+        final Job job;
+
+        final double[] point;
+
+        IndexedPoint(Job job, double x, double y) {
+            this.job = job;
+            this.point = new double[]{x, y};
+        }
+
+        @Override
+        public double[] getPoint() {
+            return point;
+        }
+    }
 }
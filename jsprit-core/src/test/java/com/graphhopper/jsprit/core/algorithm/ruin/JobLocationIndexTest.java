@@ -0,0 +1,96 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.ruin;
+
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.job.Shipment;
+import com.graphhopper.jsprit.core.util.Coordinate;
+import com.graphhopper.jsprit.core.util.EuclideanDistanceCalculator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Job Location Index Test")
+class JobLocationIndexTest {
+
+    @Test
+    @DisplayName("When Searching Nearest Activities _ they Should Equal Brute Force Result")
+    void whenSearchingNearestActivities_theyShouldEqualBruteForceResult() {
+        Random random = new Random(7);
+        VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+        for (int i = 0; i < 300; i++) {
+            builder.addJob(Service.Builder.newInstance("s" + i)
+                .setLocation(Location.newInstance(random.nextDouble() * 100, random.nextDouble() * 100)).build());
+        }
+        for (int i = 0; i < 100; i++) {
+            builder.addJob(Shipment.Builder.newInstance("sh" + i)
+                .setPickupLocation(Location.newInstance(random.nextDouble() * 100, random.nextDouble() * 100))
+                .setDeliveryLocation(Location.newInstance(random.nextDouble() * 100, random.nextDouble() * 100)).build());
+        }
+        VehicleRoutingProblem vrp = builder.build();
+        JobLocationIndex index = JobLocationIndex.of(vrp.getJobs().values());
+
+        for (int q = 0; q < 50; q++) {
+            Coordinate query = Coordinate.newInstance(random.nextDouble() * 100, random.nextDouble() * 100);
+            int k = 1 + random.nextInt(40);
+            List<Double> expected = new ArrayList<>();
+            for (Job job : vrp.getJobs().values()) {
+                if (job.getId().hashCode() % 3 == 0) continue;
+                job.getActivities().forEach(a -> expected.add(EuclideanDistanceCalculator.calculateDistance(query, a.getLocation().getCoordinate())));
+            }
+            expected.sort(Double::compare);
+
+            Job[] jobs = new Job[k];
+            double[] distances = new double[k];
+            int noFound = index.findNearest(query.getX(), query.getY(), k, job -> job.getId().hashCode() % 3 != 0, jobs, distances);
+
+            assertEquals(k, noFound);
+            for (int i = 0; i < k; i++) {
+                assertEquals(expected.get(i), distances[i], 1e-9);
+                assertNotEquals(0, jobs[i].getId().hashCode() % 3);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("When Job Has No Coordinate _ it Should Not Be Indexed")
+    void whenJobHasNoCoordinate_itShouldNotBeIndexed() {
+        Service located = Service.Builder.newInstance("s1").setLocation(Location.newInstance(1, 1)).build();
+        Service idOnly = Service.Builder.newInstance("s2").setLocation(Location.newInstance("loc")).build();
+        Service locationless = Service.Builder.newInstance("s3").build();
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance()
+            .addJob(located).addJob(idOnly).addJob(locationless).build();
+
+        JobLocationIndex index = JobLocationIndex.of(vrp.getJobs().values());
+
+        assertTrue(index.contains(located));
+        assertFalse(index.contains(idOnly));
+        assertFalse(index.contains(locationless));
+        Job[] jobs = new Job[3];
+        assertEquals(1, index.findNearest(0, 0, 3, job -> true, jobs, new double[3]));
+        assertSame(located, jobs[0]);
+    }
+}
@@ -29,8 +29,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -166,4 +170,122 @@ class JobNeighborhoodsOptimizedTest {
         }
         assertEquals(0, services.size());
     }
+
+    @Test
+    @DisplayName("When Neighbors Are Selected With Heap _ they Should Equal Fully Sorted Neighbors")
+    void whenNeighborsAreSelectedWithHeap_theyShouldEqualFullySortedNeighbors() {
+        VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            builder.addJob(Service.Builder.newInstance("j" + i)
+                .setLocation(Location.newInstance(random.nextInt(20), random.nextInt(20))).build());
+        }
+        VehicleRoutingProblem vrp = builder.build();
+        JobNeighborhoodsOptimized jn = new JobNeighborhoodsOptimized(vrp, jobDistance, 15);
+        jn.initialise();
+        double maxDistance = 0.;
+        for (Job job : vrp.getJobs().values()) {
+            List<Job> expected = new ArrayList<>();
+            for (Job other : vrp.getJobs().values()) {
+                if (other == job) continue;
+                expected.add(other);
+                maxDistance = Math.max(maxDistance, jobDistance.getDistance(job, other));
+            }
+            expected.sort(Comparator.comparingDouble(other -> jobDistance.getDistance(job, other)));
+            List<Job> actual = new ArrayList<>();
+            jn.getNearestNeighborsIterator(15, job).forEachRemaining(actual::add);
+            assertEquals(expected.subList(0, 15), actual);
+        }
+        assertEquals(maxDistance, jn.getMaxDistance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("When Neighbors Are Derived From Previous Neighborhoods _ they Should Equal Recalculated Neighbors")
+    void whenNeighborsAreDerivedFromPreviousNeighborhoods_theyShouldEqualRecalculatedNeighbors() {
+        Random random = new Random(4711);
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            jobs.add(Service.Builder.newInstance("j" + i)
+                .setLocation(Location.newInstance(random.nextDouble() * 100, random.nextDouble() * 100)).build());
+        }
+        VehicleRoutingProblem previousVrp = VehicleRoutingProblem.Builder.newInstance().addAllJobs(jobs.subList(0, 100)).build();
+        JobNeighborhoodsOptimized previous = new JobNeighborhoodsOptimized(previousVrp, jobDistance, 10);
+        previous.initialise();
+
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addAllJobs(jobs.subList(10, 120)).build();
+        JobNeighborhoodsOptimized derived = new JobNeighborhoodsOptimized(vrp, jobDistance, 10, 0, previous);
+        derived.initialise();
+        JobNeighborhoodsOptimized recalculated = new JobNeighborhoodsOptimized(vrp, jobDistance, 10);
+        recalculated.initialise();
+
+        for (Job job : vrp.getJobs().values()) {
+            List<Job> expected = new ArrayList<>();
+            recalculated.getNearestNeighborsIterator(10, job).forEachRemaining(expected::add);
+            List<Job> actual = new ArrayList<>();
+            derived.getNearestNeighborsIterator(10, job).forEachRemaining(actual::add);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    @DisplayName("When Neighbors Are Derived Over Several Problems With Changing Capacity _ they Should Equal Recalculated Neighbors")
+    void whenNeighborsAreDerivedOverSeveralProblemsWithChangingCapacity_theyShouldEqualRecalculatedNeighbors() {
+        Random random = new Random(4711);
+        List<double[]> coordinates = new ArrayList<>();
+        for (int i = 0; i < 130; i++) coordinates.add(new double[]{random.nextDouble() * 100, random.nextDouble() * 100});
+        JobNeighborhoodsOptimized previous = null;
+        int[][] generations = {{0, 100, 10}, {5, 110, 12}, {12, 118, 8}, {20, 130, 8}};
+        for (int[] generation : generations) {
+            //new job objects in each generation, i.e. jobs are recognized by id and location
+            List<Job> jobs = new ArrayList<>();
+            for (int i = generation[0]; i < generation[1]; i++) {
+                jobs.add(Service.Builder.newInstance("j" + i).setLocation(Location.newInstance(coordinates.get(i)[0], coordinates.get(i)[1])).build());
+            }
+            VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addAllJobs(jobs).build();
+            int capacity = generation[2];
+            JobNeighborhoodsOptimized derived = new JobNeighborhoodsOptimized(vrp, jobDistance, capacity, 3, previous);
+            derived.initialise();
+            JobNeighborhoodsOptimized recalculated = new JobNeighborhoodsOptimized(vrp, jobDistance, capacity);
+            recalculated.initialise();
+            for (Job job : vrp.getJobs().values()) {
+                List<Job> expected = new ArrayList<>();
+                recalculated.getNearestNeighborsIterator(capacity + 5, job).forEachRemaining(expected::add);
+                List<Job> actual = new ArrayList<>();
+                derived.getNearestNeighborsIterator(capacity + 5, job).forEachRemaining(actual::add);
+                assertEquals(expected, actual);
+            }
+            previous = derived;
+        }
+    }
+
+    @Test
+    @DisplayName("When Not Set To Parallel _ distances Should Be Calculated In Calling Thread Only")
+    void whenNotSetToParallel_distancesShouldBeCalculatedInCallingThreadOnly() {
+        VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            builder.addJob(Service.Builder.newInstance("j" + i)
+                .setLocation(Location.newInstance(random.nextInt(100), random.nextInt(100))).build());
+        }
+        VehicleRoutingProblem vrp = builder.build();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        JobDistance recordingDistance = (i, j) -> {
+            threads.add(Thread.currentThread());
+            return jobDistance.getDistance(i, j);
+        };
+        JobNeighborhoods sequential = new JobNeighborhoodsFactory().createNeighborhoods(vrp, recordingDistance, 10);
+        sequential.initialise();
+        assertEquals(Set.of(Thread.currentThread()), threads);
+
+        JobNeighborhoods parallel = new JobNeighborhoodsFactory().setParallel(true).createNeighborhoods(vrp, jobDistance, 10);
+        parallel.initialise();
+        for (Job job : vrp.getJobs().values()) {
+            List<Job> expected = new ArrayList<>();
+            sequential.getNearestNeighborsIterator(10, job).forEachRemaining(expected::add);
+            List<Job> actual = new ArrayList<>();
+            parallel.getNearestNeighborsIterator(10, job).forEachRemaining(actual::add);
+            assertEquals(expected, actual);
+        }
+        assertEquals(sequential.getMaxDistance(), parallel.getMaxDistance(), 0.);
+    }
 }
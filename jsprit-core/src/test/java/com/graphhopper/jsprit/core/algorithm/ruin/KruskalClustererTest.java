@@ -26,9 +26,7 @@ import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -191,4 +189,82 @@ class KruskalClustererTest {
         assertEquals(1, clusters.get(0).size(), "First cluster should have 1 job");
         assertEquals(1, clusters.get(1).size(), "Second cluster should have 1 job");
     }
+
+    @Test
+    @DisplayName("Should cut the longest edge of the minimum spanning tree")
+    void shouldCutLongestEdgeOfMinimumSpanningTree() {
+        Random random = new Random(11);
+        VehicleImpl v = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance(0, 0)).build();
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance().addVehicle(v);
+        List<Service> services = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Service s = Service.Builder.newInstance(String.format("s%02d", i))
+                    .setLocation(Location.newInstance(random.nextDouble() * 100, random.nextDouble() * 100)).build();
+            services.add(s);
+            vrpBuilder.addJob(s);
+        }
+        VehicleRoutingProblem vrp = vrpBuilder.build();
+        VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(v).setJobActivityFactory(vrp.getJobActivityFactory());
+        for (Service s : services) routeBuilder.addService(s);
+        VehicleRoute route = routeBuilder.build();
+
+        // Kruskal on all edges; components after adding all but the longest MST edge
+        int n = services.size();
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < n; i++) for (int j = i + 1; j < n; j++) edges.add(new int[]{i, j});
+        edges.sort(Comparator.comparingDouble(e -> distance(vrp, services.get(e[0]), services.get(e[1]))));
+        int[] component = new int[n];
+        for (int i = 0; i < n; i++) component[i] = i;
+        int noMstEdges = 0;
+        for (int[] e : edges) {
+            if (noMstEdges == n - 2) break;
+            int c0 = component[e[0]];
+            int c1 = component[e[1]];
+            if (c0 == c1) continue;
+            for (int k = 0; k < n; k++) if (component[k] == c1) component[k] = c0;
+            noMstEdges++;
+        }
+        Set<Job> expected = new HashSet<>();
+        for (int k = 0; k < n; k++) if (component[k] == component[0]) expected.add(services.get(k));
+
+        List<List<Job>> clusters = new KruskalClusterer(vrp.getTransportCosts()).getClusters(route);
+
+        Set<Job> cluster0 = new HashSet<>(clusters.get(0));
+        Set<Job> cluster1 = new HashSet<>(clusters.get(1));
+        assertTrue(cluster0.equals(expected) || cluster1.equals(expected));
+        assertEquals(n, cluster0.size() + cluster1.size());
+    }
+
+    private static double distance(VehicleRoutingProblem vrp, Service s1, Service s2) {
+        return vrp.getTransportCosts().getDistance(s1.getLocation(), s2.getLocation(), 0, null);
+    }
+
+    @Test
+    @DisplayName("Should reuse cached clusters until route changes")
+    void shouldReuseCachedClustersUntilRouteChanges() {
+        Service s0 = Service.Builder.newInstance("s0").setLocation(Location.newInstance(0, 0)).build();
+        Service s1 = Service.Builder.newInstance("s1").setLocation(Location.newInstance(1, 0)).build();
+        Service s2 = Service.Builder.newInstance("s2").setLocation(Location.newInstance(50, 0)).build();
+        Service s3 = Service.Builder.newInstance("s3").setLocation(Location.newInstance(100, 0)).build();
+
+        VehicleImpl v = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance(0, 0)).build();
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance()
+                .addJob(s0).addJob(s1).addJob(s2).addJob(s3)
+                .addVehicle(v).build();
+
+        VehicleRoute route = VehicleRoute.Builder.newInstance(v)
+                .addService(s0).addService(s1).addService(s2).addService(s3)
+                .setJobActivityFactory(vrp.getJobActivityFactory()).build();
+
+        KruskalClusterer clusterer = new KruskalClusterer(vrp.getTransportCosts());
+        clusterer.setCacheSize(10);
+        List<List<Job>> clusters = clusterer.getClusters(route);
+        assertSame(clusters, clusterer.getClusters(VehicleRoute.copyOf(route)));
+
+        route.getTourActivities().removeJob(s3);
+        List<List<Job>> changed = clusterer.getClusters(route);
+        assertNotSame(clusters, changed);
+        assertEquals(Set.of(s0, s1), new HashSet<>(changed.get(0)));
+        assertEquals(List.of(s2), changed.get(1));
+    }
 }
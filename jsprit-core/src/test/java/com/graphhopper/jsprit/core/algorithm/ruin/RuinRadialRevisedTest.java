@@ -247,6 +247,45 @@ class RuinRadialRevisedTest {
         assertEquals(2, ruined.size());
     }
 
+    @Test
+    @DisplayName("Should not remove nearby jobs that are not in routes")
+    void shouldNotRemoveNearbyJobsThatAreNotInRoutes() {
+        Service s1 = Service.Builder.newInstance("s1")
+                .setLocation(Location.Builder.newInstance().setCoordinate(Coordinate.newInstance(0, 0)).build())
+                .build();
+        Service s2 = Service.Builder.newInstance("s2")
+                .setLocation(Location.Builder.newInstance().setCoordinate(Coordinate.newInstance(2, 0)).build())
+                .build();
+        Service unassigned = Service.Builder.newInstance("unassigned")
+                .setLocation(Location.Builder.newInstance().setCoordinate(Coordinate.newInstance(1, 0)).build())
+                .build();
+
+        VehicleImpl v = VehicleImpl.Builder.newInstance("v")
+                .setStartLocation(Location.Builder.newInstance()
+                        .setCoordinate(Coordinate.newInstance(0, 0)).build())
+                .build();
+
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance()
+                .addJob(s1).addJob(s2).addJob(unassigned)
+                .addVehicle(v)
+                .build();
+
+        for (int seed = 0; seed < 10; seed++) {
+            RuinRadialDynamic ruinRadialDynamic = new RuinRadialDynamic(vrp, 3);
+            ruinRadialDynamic.setRandom(new Random(seed));
+
+            VehicleRoute route = VehicleRoute.Builder.newInstance(v)
+                    .addService(s1).addService(s2)
+                    .setJobActivityFactory(vrp.getJobActivityFactory())
+                    .build();
+
+            Collection<Job> ruined = ruinRadialDynamic.ruinRoutes(Collections.singletonList(route));
+
+            assertEquals(2, ruined.size());
+            assertTrue(ruined.contains(s1) && ruined.contains(s2));
+        }
+    }
+
     @Test
     @DisplayName("Fraction constructor should calculate correct number of jobs")
     void fractionConstructor_shouldCalculateCorrectNumberOfJobs() {
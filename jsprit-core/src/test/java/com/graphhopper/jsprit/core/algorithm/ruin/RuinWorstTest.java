@@ -28,8 +28,11 @@ import com.graphhopper.jsprit.core.util.Coordinate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -278,4 +281,65 @@ class RuinWorstTest {
         Collection<Job> unassigned = worst.ruinRoutes(Arrays.asList());
         assertEquals(0, unassigned.size());
     }
+
+    @Test
+    @DisplayName("It Should Remove Same Jobs As Recalculating All Savings After Each Removal")
+    void itShouldRemoveSameJobsAsRecalculatingAllSavingsAfterEachRemoval() {
+        Random random = new Random(5);
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+        List<List<Service>> tours = new ArrayList<>();
+        List<VehicleImpl> vehicles = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            VehicleImpl v = VehicleImpl.Builder.newInstance("v" + r).setStartLocation(Location.newInstance(0, 0)).build();
+            vehicles.add(v);
+            vrpBuilder.addVehicle(v);
+            List<Service> tour = new ArrayList<>();
+            for (int i = 0; i < 15; i++) {
+                Service s = Service.Builder.newInstance("s" + r + "_" + i)
+                        .setLocation(Location.newInstance(random.nextDouble() * 100, random.nextDouble() * 100)).build();
+                tour.add(s);
+                vrpBuilder.addJob(s);
+            }
+            tours.add(tour);
+        }
+        VehicleRoutingProblem vrp = vrpBuilder.build();
+        RuinWorst worst = new RuinWorst(vrp, 12);
+
+        for (int run = 0; run < 2; run++) {
+            List<VehicleRoute> routes = new ArrayList<>();
+            List<List<Service>> expectedTours = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vehicles.get(r)).setJobActivityFactory(vrp.getJobActivityFactory());
+                for (Service s : tours.get(r)) routeBuilder.addService(s);
+                routes.add(routeBuilder.build());
+                expectedTours.add(new ArrayList<>(tours.get(r)));
+            }
+            List<Job> expected = new ArrayList<>();
+            for (int k = 0; k < 12; k++) {
+                Service max = null;
+                double maxSavings = -1;
+                for (List<Service> tour : expectedTours) {
+                    for (int i = 0; i < tour.size(); i++) {
+                        Location before = i == 0 ? Location.newInstance(0, 0) : tour.get(i - 1).getLocation();
+                        Location after = i == tour.size() - 1 ? Location.newInstance(0, 0) : tour.get(i + 1).getLocation();
+                        double savings = distance(vrp, before, tour.get(i).getLocation()) + distance(vrp, tour.get(i).getLocation(), after) - distance(vrp, before, after);
+                        if (savings > maxSavings) {
+                            maxSavings = savings;
+                            max = tour.get(i);
+                        }
+                    }
+                }
+                expected.add(max);
+                for (List<Service> tour : expectedTours) tour.remove(max);
+            }
+
+            Collection<Job> unassigned = worst.ruinRoutes(routes);
+
+            assertEquals(expected, new ArrayList<>(unassigned));
+        }
+    }
+
+    private static double distance(VehicleRoutingProblem vrp, Location from, Location to) {
+        return vrp.getTransportCosts().getTransportCost(from, to, 0, null, null);
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.algorithm.selector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Adaptive Weights Test")
+class AdaptiveWeightsTest {
+
+    @Test
+    @DisplayName("Weights follow reward per millisecond")
+    void weightsFollowRewardPerMillisecond() {
+        AdaptiveWeights adaptiveWeights = new AdaptiveWeights(1.0, 0.);
+        double[] weights = {1., 1.};
+        // same reward, but the second operator takes four times as long
+        adaptiveWeights.record(0, 10, 1_000_000);
+        adaptiveWeights.record(1, 10, 4_000_000);
+        assertTrue(adaptiveWeights.adapt(weights));
+        assertEquals(1.6, weights[0], 1e-9);
+        assertEquals(0.4, weights[1], 1e-9);
+    }
+
+    @Test
+    @DisplayName("Reaction factor blends old weight and target")
+    void reactionFactorBlendsOldWeightAndTarget() {
+        AdaptiveWeights adaptiveWeights = new AdaptiveWeights(0.5, 0.);
+        double[] weights = {1., 1.};
+        adaptiveWeights.record(0, 10, 1_000_000);
+        adaptiveWeights.record(1, 0, 1_000_000);
+        adaptiveWeights.adapt(weights);
+        assertEquals(1.5, weights[0], 1e-9);
+        assertEquals(0.5, weights[1], 1e-9);
+    }
+
+    @Test
+    @DisplayName("Weights do not fall below min share and unused operators keep their weight")
+    void weightsAreBoundedAndUnusedKeepTheirWeight() {
+        AdaptiveWeights adaptiveWeights = new AdaptiveWeights(1.0, 0.5);
+        double[] weights = {1., 1., 1., 0.};
+        adaptiveWeights.record(0, 10, 1_000_000);
+        adaptiveWeights.record(1, 0, 1_000_000);
+        adaptiveWeights.adapt(weights);
+        assertEquals(2., weights[0], 1e-9);
+        assertEquals(0.375, weights[1], 1e-9);
+        assertEquals(1., weights[2], 1e-9);
+        assertEquals(0., weights[3], 1e-9);
+    }
+
+    @Test
+    @DisplayName("Segment without rewards leaves weights unchanged and segments are reset")
+    void segmentWithoutRewardsLeavesWeightsUnchanged() {
+        AdaptiveWeights adaptiveWeights = new AdaptiveWeights(1.0, 0.);
+        double[] weights = {1., 2.};
+        adaptiveWeights.record(0, 0, 1_000_000);
+        assertFalse(adaptiveWeights.adapt(weights));
+        adaptiveWeights.record(0, 10, 1_000_000);
+        adaptiveWeights.adapt(weights);
+        assertFalse(adaptiveWeights.adapt(weights));
+        assertArrayEquals(new double[]{1., 2.}, weights, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Selector adapts weights of selected operators")
+    void selectorAdaptsWeights() {
+        WeightedOperatorSelector<String> selector = new WeightedOperatorSelector<>(new Random(1));
+        selector.add("A", 1.0, "opA").add("B", 1.0, "opB");
+        selector.setAdaptiveWeights(new AdaptiveWeights(1.0, 0.));
+        for (int i = 0; i < 20; i++) {
+            String selected = selector.select();
+            selector.reward(selected.equals("A") ? 10 : 0, 1_000_000);
+        }
+        selector.adaptWeights();
+        assertEquals(2.0, selector.getEntries().get(0).weight(), 1e-9);
+        assertEquals(0.0, selector.getEntries().get(1).weight(), 1e-9);
+        assertEquals(2.0, selector.getTotalWeight(), 1e-9);
+        assertEquals("A", selector.select());
+        assertEquals("opA", selector.getLastSelectedName());
+    }
+
+    @Test
+    @DisplayName("Invalid parameters are rejected")
+    void invalidParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveWeights(0., 0.1));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveWeights(0.5, 1.5));
+    }
+
+}
@@ -366,4 +366,141 @@ class StateManagerTest {
         }
         stateManager.putTypedInternalRouteState(route, myState, 1.);
     }
+
+    @Test
+    @DisplayName("When Memorizing Double Act State For Two Vehicles _ it Should Be Memorized Without Boxing")
+    void whenMemorizingDoubleActStateForTwoVehicles_itShouldBeMemorized() {
+        VehicleType type = VehicleTypeImpl.Builder.newInstance("t").setCostPerDistance(4.).build();
+        VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance("loc")).build();
+        VehicleImpl vehicle2 = VehicleImpl.Builder.newInstance("v2").setStartLocation(Location.newInstance("loc")).setType(type).build();
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addVehicle(vehicle2).build();
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        StateManager stateManager = new StateManager(vrp);
+        DoubleStateId id = stateManager.createDoubleStateId("distance", Double.NaN);
+        stateManager.putActivityState(act, id, 3.);
+        stateManager.putActivityState(act, vehicle, id, 1.);
+        stateManager.putActivityState(act, vehicle2, id, 4.);
+        assertEquals(3., stateManager.getActivityState(act, id), 0.01);
+        assertEquals(1., stateManager.getActivityState(act, vehicle, id), 0.01);
+        assertEquals(4., stateManager.getActivityState(act, vehicle2, id), 0.01);
+        assertEquals(4., stateManager.getActivityState(act, vehicle2, id, Double.class), 0.01);
+    }
+
+    @Test
+    @DisplayName("When Clearing Primitive States _ they Should Be Reset To Default")
+    void whenClearingPrimitiveStates_theyShouldBeResetToDefault() {
+        VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance("loc")).build();
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).build();
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        StateManager stateManager = new StateManager(vrp);
+        IntStateId intId = stateManager.createIntStateId("count", -1);
+        DoubleStateId doubleId = stateManager.createDoubleStateId("distance", Double.NaN);
+        stateManager.putActivityState(act, vehicle, intId, 5);
+        stateManager.putActivityState(act, vehicle, doubleId, 2.);
+        assertTrue(stateManager.hasActivityState(act, vehicle, intId));
+        stateManager.clear();
+        assertEquals(-1, stateManager.getActivityState(act, vehicle, intId));
+        assertTrue(Double.isNaN(stateManager.getActivityState(act, vehicle, doubleId)));
+        assertFalse(stateManager.hasActivityState(act, vehicle, intId));
+        assertNull(stateManager.getActivityState(act, vehicle, doubleId, Double.class));
+    }
+
+    @Test
+    @DisplayName("When Creating Primitive State Ids After Putting States _ object States Should Not Be Affected")
+    void whenCreatingPrimitiveStateIds_objectStatesShouldNotBeAffected() {
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        StateManager stateManager = new StateManager(vrpMock);
+        StateId objectId = stateManager.createStateId("objectState");
+        IntStateId intId = stateManager.createIntStateId("intState", 0);
+        stateManager.putActivityState(act, objectId, "foo");
+        stateManager.putActivityState(act, intId, 7);
+        assertEquals("foo", stateManager.getActivityState(act, objectId, String.class));
+        assertEquals(7, stateManager.getActivityState(act, intId));
+        assertEquals(7, stateManager.getActivityState(act, intId, Integer.class));
+    }
+
+    @Test
+    @DisplayName("When Putting Primitive State Equal To Default _ it Should Be Set")
+    void whenPuttingPrimitiveStateEqualToDefault_itShouldBeSet() {
+        VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance("loc")).build();
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).build();
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        StateManager stateManager = new StateManager(vrp);
+        assertFalse(stateManager.hasActivityState(act, vehicle, InternalStates.FUTURE_WAITING));
+        assertNull(stateManager.getActivityState(act, InternalStates.FUTURE_WAITING, Double.class));
+        stateManager.putInternalTypedActivityState(act, vehicle, InternalStates.FUTURE_WAITING, 0.);
+        stateManager.putInternalTypedActivityState(act, InternalStates.FUTURE_WAITING, 0.);
+        assertTrue(stateManager.hasActivityState(act, vehicle, InternalStates.FUTURE_WAITING));
+        assertEquals(0., stateManager.getActivityState(act, vehicle, InternalStates.FUTURE_WAITING, Double.class), 0.01);
+        assertEquals(0., stateManager.getActivityState(act, InternalStates.FUTURE_WAITING, Double.class), 0.01);
+        stateManager.putInternalTypedActivityState(act, vehicle, (StateId) InternalStates.FUTURE_WAITING, null);
+        assertFalse(stateManager.hasActivityState(act, vehicle, InternalStates.FUTURE_WAITING));
+    }
+
+    @Test
+    @DisplayName("When Putting Activity Costs _ they Should Not Interfere With Created Double States")
+    void whenPuttingActivityCosts_theyShouldNotInterfereWithCreatedDoubleStates() {
+        VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance("loc")).build();
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).build();
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        StateManager stateManager = new StateManager(vrp);
+        DoubleStateId id = stateManager.createDoubleStateId("my-costs", -1.);
+        assertEquals(0., stateManager.getActivityState(act, InternalStates.ACTIVITY_COSTS), 0.01);
+        stateManager.putInternalTypedActivityState(act, InternalStates.ACTIVITY_COSTS, 42.);
+        assertEquals(42., stateManager.getActivityState(act, InternalStates.ACTIVITY_COSTS), 0.01);
+        assertEquals(-1., stateManager.getActivityState(act, id), 0.01);
+        assertThrows(IllegalStateException.class, () -> stateManager.putActivityState(act, InternalStates.ACTIVITY_COSTS, 1.));
+    }
+
+    @Test
+    @DisplayName("When Creating Primitive State Ids After Putting Primitive States _ they Should Be Kept")
+    void whenCreatingPrimitiveStateIdsAfterPuttingPrimitiveStates_theyShouldBeKept() {
+        VehicleType type = VehicleTypeImpl.Builder.newInstance("t").setCostPerDistance(4.).build();
+        VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance("loc")).build();
+        VehicleImpl vehicle2 = VehicleImpl.Builder.newInstance("v2").setStartLocation(Location.newInstance("loc")).setType(type).build();
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addVehicle(vehicle2).build();
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(2);
+        StateManager stateManager = new StateManager(vrp);
+        DoubleStateId distance = stateManager.createDoubleStateId("distance", Double.NaN);
+        IntStateId count = stateManager.createIntStateId("count", -1);
+        stateManager.putActivityState(act, distance, 3.);
+        stateManager.putActivityState(act, vehicle2, distance, 4.);
+        stateManager.putActivityState(act, vehicle2, count, 5);
+        DoubleStateId duration = stateManager.createDoubleStateId("myDuration", 1.);
+        IntStateId other = stateManager.createIntStateId("other", 2);
+        assertEquals(3., stateManager.getActivityState(act, distance), 0.01);
+        assertEquals(4., stateManager.getActivityState(act, vehicle2, distance), 0.01);
+        assertTrue(Double.isNaN(stateManager.getActivityState(act, vehicle, distance)));
+        assertEquals(5, stateManager.getActivityState(act, vehicle2, count));
+        assertTrue(stateManager.hasActivityState(act, vehicle2, count));
+        assertFalse(stateManager.hasActivityState(act, vehicle, count));
+        assertEquals(1., stateManager.getActivityState(act, vehicle2, duration), 0.01);
+        assertFalse(stateManager.hasActivityState(act, vehicle2, duration));
+        assertEquals(2, stateManager.getActivityState(act, vehicle2, other));
+        assertFalse(stateManager.hasActivityState(act, vehicle2, other));
+    }
+
+    @Test
+    @DisplayName("When Putting Route State With Primitive State Id _ it Should Throw Exception")
+    void whenPuttingRouteStateWithPrimitiveStateId_itShouldThrowException() {
+        VehicleRoute route = getRoute(mock(Vehicle.class));
+        StateManager stateManager = new StateManager(vrpMock);
+        DoubleStateId id = stateManager.createDoubleStateId("distance", 0.);
+        assertThrows(IllegalStateException.class, () -> stateManager.putRouteState(route, id, 1.));
+    }
+
+    @Test
+    @DisplayName("When Creating Primitive State Id With Name Of Other Type _ it Should Throw Exception")
+    void whenCreatingPrimitiveStateIdWithNameOfOtherType_itShouldThrowException() {
+        StateManager stateManager = new StateManager(vrpMock);
+        stateManager.createStateId("myState");
+        assertThrows(IllegalStateException.class, () -> stateManager.createDoubleStateId("myState", 0.));
+        assertThrows(IllegalStateException.class, () -> stateManager.createIntStateId("latest_operation_start_time", 0));
+    }
 }
@@ -172,4 +172,18 @@ class UpdateMaxTimeInVehicleTest {
             }
         }
     }
+
+    @Test
+    @DisplayName("Open Job Slacks Should Be Memorized Per Route")
+    void openJobSlacksShouldBeMemorizedPerRoute() {
+        stateManager.informInsertionStarts(Arrays.asList(route2), null);
+        OpenJobSlacks openJobs = stateManager.getRouteState(route2, v, openJobsId, OpenJobSlacks.class);
+        Assertions.assertNotNull(openJobs);
+        Assertions.assertEquals(3, openJobs.getNoActivities());
+        Assertions.assertEquals(Double.MAX_VALUE, openJobs.getMinSlack(1), 0.001);
+        Assertions.assertEquals(0, openJobs.getMinSlack(2), 0.001);
+        Assertions.assertEquals(Double.MAX_VALUE, openJobs.getMinSlack(3), 0.001);
+        Assertions.assertEquals(0, openJobs.getMinSlackOfShipmentsOpenAt(2, 2), 0.001);
+        Assertions.assertEquals(Double.MAX_VALUE, openJobs.getMinSlackOfShipmentsOpenAt(2, 3), 0.001);
+    }
 }
@@ -429,4 +429,54 @@ class CapacityTest {
         Capacity cap2 = Capacity.Builder.newInstance().addDimension(0, 10).addDimension(2, 1000).addDimension(1, 100).build();
         assertTrue(cap1.equals(cap2));
     }
+
+    @Test
+    @DisplayName("Sum Check Should Equal Addup And Compare")
+    void sumCheckShouldEqualAddupAndCompare() {
+        Capacity cap1 = Capacity.Builder.newInstance().addDimension(0, 2).addDimension(1, 3).build();
+        Capacity cap2 = Capacity.Builder.newInstance().addDimension(0, 1).build();
+        Capacity limit = Capacity.Builder.newInstance().addDimension(0, 3).addDimension(1, 3).addDimension(2, 0).build();
+        assertTrue(Capacity.isSumLessOrEqual(cap1, cap2, limit));
+        assertFalse(Capacity.isSumLessOrEqual(cap1, cap1, limit));
+        assertEquals(Capacity.addup(cap1, cap1).isLessOrEqual(limit), Capacity.isSumLessOrEqual(cap1, cap1, limit));
+        assertTrue(Capacity.isSumLessOrEqual(Capacity.Builder.newInstance().addDimension(0, 1).build(), cap2, Capacity.Builder.newInstance().addDimension(0, 2).build()));
+        assertFalse(Capacity.isSumLessOrEqual(Capacity.Builder.newInstance().addDimension(0, 2).build(), cap2, Capacity.Builder.newInstance().addDimension(0, 2).build()));
+    }
+
+    @Test
+    @DisplayName("Difference Check Should Equal Subtract And Compare")
+    void differenceCheckShouldEqualSubtractAndCompare() {
+        Capacity cap = Capacity.Builder.newInstance().addDimension(0, 5).addDimension(1, 3).build();
+        Capacity cap2subtract = Capacity.Builder.newInstance().addDimension(0, 2).addDimension(1, -1).build();
+        Capacity limit = Capacity.Builder.newInstance().addDimension(0, 3).addDimension(1, 3).build();
+        assertEquals(Capacity.subtract(cap, cap2subtract).isLessOrEqual(limit), Capacity.isDifferenceLessOrEqual(cap, cap2subtract, limit));
+        assertFalse(Capacity.isDifferenceLessOrEqual(cap, cap2subtract, limit));
+        assertTrue(Capacity.isDifferenceLessOrEqual(cap, cap, limit));
+    }
+
+    @Test
+    @DisplayName("Builder Should Add Up Capacities")
+    void builderShouldAddUpCapacities() {
+        Capacity cap1 = Capacity.Builder.newInstance().addDimension(0, 2).build();
+        Capacity cap2 = Capacity.Builder.newInstance().addDimension(0, 1).addDimension(2, 4).build();
+        Capacity sum = Capacity.Builder.newInstance().addCapacity(cap1).addCapacity(cap2).addCapacity(cap2).build();
+        assertEquals(Capacity.addup(Capacity.addup(cap1, cap2), cap2), sum);
+        assertEquals(3, sum.getNuOfDimensions());
+        assertEquals(4, sum.get(0));
+        assertEquals(0, sum.get(1));
+        assertEquals(8, sum.get(2));
+    }
+
+    @Test
+    @DisplayName("Adding Up Zero Or Dominated Capacity Should Not Create New Capacity")
+    void addingUpZeroOrDominatedCapacityShouldNotCreateNewCapacity() {
+        Capacity cap = Capacity.Builder.newInstance().addDimension(0, 2).addDimension(1, 3).build();
+        Capacity zero = Capacity.Builder.newInstance().build();
+        Capacity smaller = Capacity.Builder.newInstance().addDimension(0, 1).build();
+        assertSame(cap, Capacity.addup(cap, zero));
+        assertSame(cap, Capacity.addup(zero, cap));
+        assertSame(cap, Capacity.subtract(cap, zero));
+        assertSame(cap, Capacity.max(cap, smaller));
+        assertSame(cap, Capacity.max(smaller, cap));
+    }
 }
@@ -17,13 +17,15 @@
  */
 package com.graphhopper.jsprit.core.problem;
 
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashSet;
 import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Created by schroeder on 01.07.14.
@@ -116,4 +118,64 @@ class SkillsTest {
         Skills skills = Skills.Builder.newInstance().addSkill("skill1 ").build();
         assertTrue(skills.containsSkill("skill1"));
     }
+
+    @Test
+    @DisplayName("Contains all skills compares skill sets")
+    void containsAllSkillsComparesSkillSets() {
+        Skills skills = Skills.Builder.newInstance().addSkill("skill1").addSkill("skill2").build();
+        assertTrue(skills.containsAllSkills(Skills.Builder.newInstance().addSkill("Skill2").build()));
+        assertTrue(skills.containsAllSkills(Skills.Builder.newInstance().build()));
+        assertFalse(skills.containsAllSkills(Skills.Builder.newInstance().addSkill("skill1").addSkill("skill3").build()));
+    }
+
+    @Test
+    @DisplayName("Skills indexed by problem are compared as bitsets")
+    void skillsIndexedByProblemAreComparedAsBitsets() {
+        Skills.Builder vehicleSkills = Skills.Builder.newInstance();
+        for (int i = 0; i < 100; i++) {
+            if (i % 3 != 0) vehicleSkills.addSkill("skill" + i);
+        }
+        VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance(0, 0))
+            .addSkills(vehicleSkills.build()).build();
+        Service s1 = Service.Builder.newInstance("s1").setLocation(Location.newInstance(1, 1)).addRequiredSkill("skill1").addRequiredSkill("skill98").build();
+        Service s2 = Service.Builder.newInstance("s2").setLocation(Location.newInstance(1, 1)).addRequiredSkill("skill70").build();
+        Service s3 = Service.Builder.newInstance("s3").setLocation(Location.newInstance(1, 1)).addRequiredSkill("skill99").build();
+        Service s4 = Service.Builder.newInstance("s4").setLocation(Location.newInstance(1, 1)).build();
+        SkillIndex index = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addJob(s1).addJob(s2).addJob(s3).addJob(s4).build().getSkillIndex();
+
+        assertTrue(index.containsAllSkills(vehicle.getSkills(), s1.getRequiredSkills()));
+        assertTrue(index.containsAllSkills(vehicle.getSkills(), s2.getRequiredSkills()));
+        assertFalse(index.containsAllSkills(vehicle.getSkills(), s3.getRequiredSkills()));
+        assertTrue(index.containsAllSkills(vehicle.getSkills(), s4.getRequiredSkills()));
+
+        long[] route = index.newBits();
+        SkillIndex.addAll(route, index.getBits(s1.getRequiredSkills()));
+        SkillIndex.addAll(route, index.getBits(s2.getRequiredSkills()));
+        assertTrue(SkillIndex.containsAll(index.getBits(vehicle.getSkills()), route));
+        SkillIndex.addAll(route, index.getBits(s3.getRequiredSkills()));
+        assertFalse(SkillIndex.containsAll(index.getBits(vehicle.getSkills()), route));
+
+        Skills notIndexed = Skills.Builder.newInstance().addAllSkills(s2.getRequiredSkills()).addSkill("skill2").build();
+        assertNull(index.getBits(notIndexed));
+        assertEquals(Set.of("skill2", "skill70"), notIndexed.values());
+        assertTrue(index.containsAllSkills(vehicle.getSkills(), notIndexed));
+        assertFalse(index.containsAllSkills(notIndexed, s1.getRequiredSkills()));
+    }
+
+    @Test
+    @DisplayName("Skills shared among problems are indexed per problem")
+    void skillsSharedAmongProblemsAreIndexedPerProblem() {
+        VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance(0, 0)).addSkill("skill2").build();
+        Service s1 = Service.Builder.newInstance("s1").setLocation(Location.newInstance(1, 1)).addRequiredSkill("skill1").build();
+        Service s2 = Service.Builder.newInstance("s2").setLocation(Location.newInstance(1, 1)).addRequiredSkill("skill2").build();
+        SkillIndex index1 = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addJob(s1).addJob(s2).build().getSkillIndex();
+        SkillIndex index2 = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addJob(s2).build().getSkillIndex();
+
+        assertNotEquals(index1.getBits(s2.getRequiredSkills())[0], index2.getBits(s2.getRequiredSkills())[0]);
+        assertNull(index2.getBits(s1.getRequiredSkills()));
+        assertTrue(index1.containsAllSkills(vehicle.getSkills(), s2.getRequiredSkills()));
+        assertTrue(index2.containsAllSkills(vehicle.getSkills(), s2.getRequiredSkills()));
+        assertFalse(index2.containsAllSkills(vehicle.getSkills(), s1.getRequiredSkills()));
+        assertEquals(Set.of("skill2"), s2.getRequiredSkills().values());
+    }
 }
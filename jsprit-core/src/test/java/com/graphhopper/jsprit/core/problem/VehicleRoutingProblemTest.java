@@ -544,4 +544,45 @@ class VehicleRoutingProblemTest {
         assertEquals(1, vrp.getVehicleTypeKeyIndex(veh1.getVehicleTypeIdentifier()));
         assertEquals(2, vrp.getVehicleTypeKeyIndex(veh2.getVehicleTypeIdentifier()));
     }
+
+    @Test
+    @DisplayName("When Streaming Jobs _ problem Should Equal Problem Built With Add Job")
+    void whenStreamingJobs_problemShouldEqualProblemBuiltWithAddJob() {
+        Service s1 = Service.Builder.newInstance("s1").setLocation(Location.newInstance("loc1")).build();
+        Shipment shipment = Shipment.Builder.newInstance("shipment").setPickupLocation(Location.newInstance("loc2")).setDeliveryLocation(Location.newInstance("loc3")).build();
+        Service s2 = Service.Builder.newInstance("s2").setLocation(Location.newInstance("loc4")).build();
+        VehicleRoutingProblem added = VehicleRoutingProblem.Builder.newInstance().addJob(s1).addJob(shipment).addJob(s2).build();
+        VehicleRoutingProblem.Builder streamingBuilder = VehicleRoutingProblem.Builder.newInstance();
+        streamingBuilder.addJobs(Arrays.asList(s1, shipment).iterator());
+        streamingBuilder.addJob(s2);
+        assertEquals(3, streamingBuilder.getAddedJobs().size());
+        VehicleRoutingProblem streamed = streamingBuilder.build();
+        assertEquals(added.getJobs().keySet(), streamed.getJobs().keySet());
+        assertEquals(added.getNuActivities(), streamed.getNuActivities());
+        for (Job job : added.getJobs().values()) {
+            assertEquals(added.getJobIndex(job), streamed.getJobIndex(job));
+            assertSame(job, streamed.getJobByIndex(streamed.getJobIndex(job)));
+            assertEquals(added.getActivities(job).size(), streamed.getActivities(job).size());
+        }
+        assertEquals(4, streamed.getAllLocations().size());
+    }
+
+    @Test
+    @DisplayName("When Streaming Job With Existing Id _ it Should Throw Exception")
+    void whenStreamingJobWithExistingId_itShouldThrowException() {
+        Service s1 = Service.Builder.newInstance("s1").setLocation(Location.newInstance("loc1")).build();
+        Service s2 = Service.Builder.newInstance("s1").setLocation(Location.newInstance("loc2")).build();
+        VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance().addJob(s1);
+        assertThrows(IllegalArgumentException.class, () -> builder.addJobs(Arrays.asList(s2).iterator()));
+    }
+
+    @Test
+    @DisplayName("When Streamed Job Is Part Of Initial Route _ it Should Throw Exception")
+    void whenStreamedJobIsPartOfInitialRoute_itShouldThrowException() {
+        Service s1 = Service.Builder.newInstance("s1").setLocation(Location.newInstance("loc1")).build();
+        VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance("start")).build();
+        VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance().addJobs(Arrays.asList(s1).iterator());
+        VehicleRoute route = VehicleRoute.Builder.newInstance(vehicle).addService(s1).build();
+        assertThrows(IllegalArgumentException.class, () -> builder.addInitialVehicleRoute(route));
+    }
 }
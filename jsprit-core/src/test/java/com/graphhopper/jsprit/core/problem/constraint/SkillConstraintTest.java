@@ -32,6 +32,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -48,6 +49,8 @@ class SkillConstraintTest {
 
     private VehicleRoutingProblem vrp;
 
+    private StateManager stateManager;
+
     @BeforeEach
     void doBefore() {
         VehicleType type = VehicleTypeImpl.Builder.newInstance("t").build();
@@ -59,10 +62,10 @@ class SkillConstraintTest {
         Service service4 = Service.Builder.newInstance("s4").setLocation(Location.newInstance("loc")).addRequiredSkill("skill1").build();
         vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addVehicle(vehicle2).addJob(service).addJob(service2).addJob(service3).addJob(service4).build();
         route = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory()).addService(service).addService(service2).build();
-        StateManager stateManager = new StateManager(vrp);
+        stateManager = new StateManager(vrp);
         stateManager.updateSkillStates();
         stateManager.informInsertionStarts(Arrays.asList(route), null);
-        skillConstraint = new HardSkillConstraint(stateManager);
+        skillConstraint = new HardSkillConstraint(stateManager, vrp.getSkillIndex());
     }
 
     @Test
@@ -99,4 +102,16 @@ class SkillConstraintTest {
         JobInsertionContext insertionContext = new JobInsertionContext(route, vrp.getJobs().get("s4"), vehicle, route.getDriver(), 0.);
         assertTrue(skillConstraint.fulfilled(insertionContext));
     }
+
+    @Test
+    @DisplayName("When Comparing Skill Names Instead Of Bitsets _ it Should Return Same Results")
+    void whenComparingSkillNamesInsteadOfBitsets_itShouldReturnSameResults() {
+        HardRouteConstraint namedSkillConstraint = new HardSkillConstraint(stateManager);
+        for (String jobId : Arrays.asList("s3", "s4")) {
+            for (VehicleImpl v : Arrays.asList(vehicle, vehicle2)) {
+                JobInsertionContext insertionContext = new JobInsertionContext(route, vrp.getJobs().get(jobId), v, route.getDriver(), 0.);
+                assertEquals(skillConstraint.fulfilled(insertionContext), namedSkillConstraint.fulfilled(insertionContext));
+            }
+        }
+    }
 }
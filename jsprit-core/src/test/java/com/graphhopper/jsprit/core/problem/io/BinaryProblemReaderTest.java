@@ -0,0 +1,208 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.problem.io;
+
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.job.Break;
+import com.graphhopper.jsprit.core.problem.job.Delivery;
+import com.graphhopper.jsprit.core.problem.job.Job;
+import com.graphhopper.jsprit.core.problem.job.Pickup;
+import com.graphhopper.jsprit.core.problem.job.Service;
+import com.graphhopper.jsprit.core.problem.job.Shipment;
+import com.graphhopper.jsprit.core.problem.solution.route.activity.TimeWindow;
+import com.graphhopper.jsprit.core.problem.solution.spec.ActivityOptions;
+import com.graphhopper.jsprit.core.problem.solution.spec.ActivitySpec;
+import com.graphhopper.jsprit.core.problem.solution.spec.ActivityType;
+import com.graphhopper.jsprit.core.problem.solution.spec.RouteSpec;
+import com.graphhopper.jsprit.core.problem.solution.spec.SolutionSpec;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+import com.graphhopper.jsprit.core.util.Coordinate;
+import com.graphhopper.jsprit.core.util.FastVehicleRoutingTransportCostsMatrix;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Binary Problem Reader Test")
+class BinaryProblemReaderTest {
+
+    private static Location loc(int index) {
+        return Location.Builder.newInstance().setIndex(index).setId("loc" + index).setCoordinate(Coordinate.newInstance(index, 2 * index)).build();
+    }
+
+    private static VehicleRoutingProblem createProblem() {
+        VehicleTypeImpl type = VehicleTypeImpl.Builder.newInstance("type").addCapacityDimension(0, 10).addCapacityDimension(1, 4)
+            .setFixedCost(100).setCostPerDistance(2).setCostPerTransportTime(3).setCostPerWaitingTime(0.5).setProfile("truck").build();
+        Location depot = loc(0);
+        Vehicle v1 = VehicleImpl.Builder.newInstance("v1").setType(type).setStartLocation(depot).setEarliestStart(10).setLatestArrival(500)
+            .addSkill("cooling").setBreak(Break.Builder.newInstance("break").addTimeWindow(100, 200).setServiceTime(30).build()).build();
+        Vehicle v2 = VehicleImpl.Builder.newInstance("v2").setType(type).setStartLocation(depot).setReturnToDepot(false).build();
+        Service service = Service.Builder.newInstance("s").setLocation(loc(1)).setServiceTime(5).addTimeWindow(0, 50).addTimeWindow(80, 120)
+            .addSizeDimension(0, 2).addRequiredSkill("cooling").setPriority(1).setName("service").build();
+        Pickup pickup = Pickup.Builder.newInstance("p").setLocation(loc(2)).addSizeDimension(1, 1).build();
+        Delivery delivery = Delivery.Builder.newInstance("d").setLocation(loc(2)).addSizeDimension(0, 3).setMaxTimeInVehicle(60).build();
+        Shipment shipment = Shipment.Builder.newInstance("sh").setPickupLocation(loc(3)).setDeliveryLocation(loc(1)).setPickupServiceTime(2)
+            .setDeliveryServiceTime(4).addPickupTimeWindow(0, 30).addDeliveryTimeWindow(40, 90).addSizeDimension(0, 1).setMaxTimeInVehicle(70).build();
+        FastVehicleRoutingTransportCostsMatrix.Builder matrix = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(4, true);
+        for (int from = 0; from < 4; from++) {
+            for (int to = from + 1; to < 4; to++) matrix.addTransportTimeAndDistance(from, to, from + to, 10 * (from + to));
+        }
+        return VehicleRoutingProblem.Builder.newInstance().setFleetSize(VehicleRoutingProblem.FleetSize.FINITE)
+            .addVehicle(v1).addVehicle(v2).addJob(service).addJob(pickup).addJob(delivery).addJob(shipment)
+            .setRoutingCost(matrix.build()).build();
+    }
+
+    private static VehicleRoutingProblem roundTrip(VehicleRoutingProblem vrp) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryProblemWriter().write(vrp, out);
+        return new BinaryProblemReader().read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("Vehicles and types survive round trip")
+    void vehiclesSurviveRoundTrip() throws IOException {
+        VehicleRoutingProblem read = roundTrip(createProblem());
+        assertEquals(VehicleRoutingProblem.FleetSize.FINITE, read.getFleetSize());
+        assertEquals(2, read.getVehicles().size());
+        assertEquals(1, read.getTypes().size());
+        Vehicle v1 = read.getVehicles().stream().filter(v -> v.getId().equals("v1")).findFirst().orElseThrow();
+        Vehicle v2 = read.getVehicles().stream().filter(v -> v.getId().equals("v2")).findFirst().orElseThrow();
+        assertSame(v1.getType(), v2.getType());
+        assertEquals(10, v1.getType().getCapacityDimensions().get(0));
+        assertEquals(4, v1.getType().getCapacityDimensions().get(1));
+        assertEquals(100, v1.getType().getVehicleCostParams().fix);
+        assertEquals(2, v1.getType().getVehicleCostParams().perDistanceUnit);
+        assertEquals(3, v1.getType().getVehicleCostParams().perTransportTimeUnit);
+        assertEquals(0.5, v1.getType().getVehicleCostParams().perWaitingTimeUnit);
+        assertEquals("truck", v1.getType().getProfile());
+        assertEquals(10, v1.getEarliestDeparture());
+        assertEquals(500, v1.getLatestArrival());
+        assertTrue(v1.getSkills().containsSkill("cooling"));
+        assertSame(v1.getStartLocation(), v2.getStartLocation());
+        assertEquals(new Coordinate(0, 0), v1.getStartLocation().getCoordinate());
+        assertTrue(v1.isReturnToDepot());
+        assertFalse(v2.isReturnToDepot());
+        Break aBreak = v1.getBreak();
+        assertNotNull(aBreak);
+        assertTrue(aBreak.hasVariableLocation());
+        assertEquals(30, aBreak.getServiceDuration());
+        assertEquals(TimeWindow.newInstance(100, 200), aBreak.getTimeWindow());
+        assertNull(v2.getBreak());
+    }
+
+    @Test
+    @DisplayName("Jobs survive round trip")
+    void jobsSurviveRoundTrip() throws IOException {
+        VehicleRoutingProblem read = roundTrip(createProblem());
+        assertEquals(4, read.getJobs().size());
+        Service service = (Service) read.getJobs().get("s");
+        assertEquals(Job.Type.SERVICE, service.getJobType());
+        assertEquals("service", service.getName());
+        assertEquals("loc1", service.getLocation().getId());
+        assertEquals(1, service.getLocation().getIndex());
+        assertEquals(5, service.getServiceDuration());
+        assertEquals(List.of(TimeWindow.newInstance(0, 50), TimeWindow.newInstance(80, 120)), List.copyOf(service.getTimeWindows()));
+        assertEquals(2, service.getSize().get(0));
+        assertTrue(service.getRequiredSkills().containsSkill("cooling"));
+        assertEquals(1, service.getPriority());
+        assertEquals(Job.Type.PICKUP_SERVICE, read.getJobs().get("p").getJobType());
+        assertEquals(1, read.getJobs().get("p").getSize().get(1));
+        assertEquals(((Service) read.getJobs().get("p")).getLocation(), ((Service) read.getJobs().get("d")).getLocation());
+        Delivery delivery = (Delivery) read.getJobs().get("d");
+        assertEquals(60, delivery.getMaxTimeInVehicle());
+        Shipment shipment = (Shipment) read.getJobs().get("sh");
+        assertEquals("loc3", shipment.getPickupLocation().getId());
+        assertEquals(service.getLocation(), shipment.getDeliveryLocation());
+        assertEquals(2, shipment.getPickupServiceTime());
+        assertEquals(4, shipment.getDeliveryServiceTime());
+        assertEquals(TimeWindow.newInstance(0, 30), shipment.getPickupTimeWindow());
+        assertEquals(TimeWindow.newInstance(40, 90), shipment.getDeliveryTimeWindow());
+        assertEquals(70, shipment.getMaxTimeInVehicle());
+    }
+
+    @Test
+    @DisplayName("Cost matrix survives round trip")
+    void costMatrixSurvivesRoundTrip() throws IOException {
+        VehicleRoutingProblem vrp = createProblem();
+        VehicleRoutingProblem read = roundTrip(vrp);
+        assertInstanceOf(FastVehicleRoutingTransportCostsMatrix.class, read.getTransportCosts());
+        for (int from = 0; from < 4; from++) {
+            for (int to = 0; to < 4; to++) {
+                assertEquals(vrp.getTransportCosts().getDistance(loc(from), loc(to), 0, null), read.getTransportCosts().getDistance(loc(from), loc(to), 0, null));
+                assertEquals(vrp.getTransportCosts().getTransportTime(loc(from), loc(to), 0, null, null), read.getTransportCosts().getTransportTime(loc(from), loc(to), 0, null, null));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Solution spec survives round trip")
+    void solutionSpecSurvivesRoundTrip() throws IOException {
+        SolutionSpec spec = SolutionSpec.of(
+            RouteSpec.of("v1", ActivitySpec.visit("s"), ActivitySpec.pickup("sh"), new ActivitySpec("d", ActivityType.VISIT, ActivityOptions.withTimeWindow(1)), ActivitySpec.delivery("sh")),
+            RouteSpec.of("v2", ActivitySpec.visit("p")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryProblemWriter().write(spec, out);
+        assertEquals(spec, new BinaryProblemReader().readSolutionSpec(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    @DisplayName("Unindexed locations survive round trip")
+    void unindexedLocationsSurviveRoundTrip() throws IOException {
+        Vehicle vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(Location.newInstance(0, 0)).build();
+        Service byCoordinate = Service.Builder.newInstance("s1").setLocation(Location.newInstance(3, 4)).build();
+        Service byId = Service.Builder.newInstance("s2").setLocation(Location.newInstance("customer")).build();
+        VehicleRoutingProblem read = roundTrip(VehicleRoutingProblem.Builder.newInstance()
+            .addVehicle(vehicle).addJob(byCoordinate).addJob(byId).build());
+        Location location = ((Service) read.getJobs().get("s1")).getLocation();
+        assertEquals(Location.NO_INDEX, location.getIndex());
+        assertEquals(new Coordinate(3, 4), location.getCoordinate());
+        assertEquals(Location.NO_INDEX, ((Service) read.getJobs().get("s2")).getLocation().getIndex());
+        assertEquals("customer", ((Service) read.getJobs().get("s2")).getLocation().getId());
+        assertEquals(Location.NO_INDEX, read.getVehicles().iterator().next().getStartLocation().getIndex());
+    }
+
+    @Test
+    @DisplayName("Reading does not consume bytes beyond the record")
+    void readingDoesNotConsumeBytesBeyondRecord() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryProblemWriter().write(createProblem(), out);
+        new BinaryProblemWriter().write(SolutionSpec.empty(), out);
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        assertEquals(4, new BinaryProblemReader().read(in).getJobs().size());
+        assertEquals(SolutionSpec.empty(), new BinaryProblemReader().readSolutionSpec(in));
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    @DisplayName("Reading the wrong kind of file fails")
+    void readingWrongKindFails() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryProblemWriter().write(SolutionSpec.empty(), out);
+        assertThrows(IOException.class, () -> new BinaryProblemReader().read(new ByteArrayInputStream(out.toByteArray())));
+        assertThrows(IOException.class, () -> new BinaryProblemReader().readSolutionSpec(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7})));
+    }
+
+}
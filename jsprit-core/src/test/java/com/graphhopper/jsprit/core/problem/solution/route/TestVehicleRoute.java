@@ -36,6 +36,8 @@ import org.junit.Test;
 import java.util.Iterator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 
@@ -351,4 +353,20 @@ public class TestVehicleRoute {
         assertTrue(((TourActivity.JobActivity) act).getJob().getJobType().isDelivery());
 
     }
+
+    @Test
+    public void whenSwitchingVehicleOfLazyCopy_activitiesOfOriginalShouldNotBeShared() {
+        Service service = Service.Builder.newInstance("s").setLocation(Location.newInstance("sLoc")).build();
+        VehicleRoute route = VehicleRoute.Builder.newInstance(vehicle, driver).addService(service).build();
+        route.getActivities().get(0).setArrTime(10.);
+        VehicleRoute copy = VehicleRoute.lazyCopyOf(route);
+        assertSame(route.getActivities().get(0), copy.getActivities().get(0));
+
+        VehicleImpl otherVehicle = VehicleImpl.Builder.newInstance("v2").setStartLocation(Location.newInstance("loc2")).setType(vehicle.getType()).build();
+        copy.setVehicleAndDepartureTime(otherVehicle, 0.);
+        assertNotSame(route.getActivities().get(0), copy.getActivities().get(0));
+        copy.getActivities().get(0).setArrTime(20.);
+        assertEquals(10., route.getActivities().get(0).getArrTime(), 0.01);
+        assertEquals(route.getTourActivities().getVersion(), copy.getTourActivities().getVersion());
+    }
 }
@@ -24,6 +24,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 
@@ -249,4 +251,87 @@ public class TestTourActivities {
         assertTrue(copiedTour.servesJob(s));
     }
 
+    @Test
+    public void whenModifyingLazyCopy_originalShouldNotChange() {
+        Service service2 = Service.Builder.newInstance("s2").setLocation(Location.newInstance("loc")).build();
+        tour.addActivity(act);
+        tour.addActivity(ServiceActivity.newInstance(service2));
+        TourActivities copy = TourActivities.lazyCopyOf(tour);
+        assertSame(act, copy.getActivities().get(0));
+        copy.removeJob(service);
+        assertEquals(1, copy.getActivities().size());
+        assertFalse(copy.servesJob(service));
+        assertEquals(2, tour.getActivities().size());
+        assertTrue(tour.servesJob(service));
+        assertSame(act, tour.getActivities().get(0));
+        assertNotSame(tour.getActivities().get(1), copy.getActivities().get(0));
+    }
+
+    @Test
+    public void whenModifyingOriginalOfLazyCopy_copyShouldNotChange() {
+        tour.addActivity(act);
+        TourActivities copy = TourActivities.lazyCopyOf(tour);
+        Service service2 = Service.Builder.newInstance("s2").setLocation(Location.newInstance("loc")).build();
+        tour.addActivity(0, ServiceActivity.newInstance(service2));
+        assertEquals(2, tour.getActivities().size());
+        assertEquals(1, copy.getActivities().size());
+        assertFalse(copy.servesJob(service2));
+        assertTrue(copy.servesJob(service));
+    }
+
+    @Test
+    public void whenSettingTimesOfDetachedLazyCopy_originalShouldNotChange() {
+        act.setArrTime(10.);
+        act.setEndTime(20.);
+        tour.addActivity(act);
+        TourActivities copy = TourActivities.lazyCopyOf(tour);
+        assertSame(act, copy.getActivities().get(0));
+        copy.detach();
+        assertNotSame(act, copy.getActivities().get(0));
+        assertEquals(tour.getVersion(), copy.getVersion());
+        copy.getActivities().get(0).setArrTime(30.);
+        copy.getActivities().get(0).setEndTime(40.);
+        assertEquals(10., act.getArrTime(), 0.01);
+        assertEquals(20., act.getEndTime(), 0.01);
+    }
+
+    @Test
+    public void whenRemovingActivityFromLazyCopy_originalShouldStillServeJob() {
+        tour.addActivity(act);
+        TourActivities copy = TourActivities.lazyCopyOf(tour);
+        List<TourActivity> activities = copy.getActivities();
+        assertTrue(copy.removeActivity(activities.get(0)));
+        assertTrue(activities.isEmpty());
+        assertFalse(copy.servesJob(service));
+        assertTrue(tour.servesJob(service));
+        assertEquals(1, tour.getJobs().size());
+    }
+
+    @Test
+    public void whenModifyingTour_versionShouldChange() {
+        long emptyVersion = tour.getVersion();
+        tour.addActivity(act);
+        long version = tour.getVersion();
+        assertNotEquals(emptyVersion, version);
+        Service service2 = Service.Builder.newInstance("s2").setLocation(Location.newInstance("loc")).build();
+        tour.addActivity(0, ServiceActivity.newInstance(service2));
+        assertNotEquals(version, tour.getVersion());
+        tour.removeJob(service2);
+        assertNotEquals(version, tour.getVersion());
+        tour.removeJob(service);
+        assertEquals(emptyVersion, tour.getVersion());
+    }
+
+    @Test
+    public void copiesShouldKeepVersionUntilModified() {
+        tour.addActivity(act);
+        TourActivities lazyCopy = TourActivities.lazyCopyOf(tour);
+        TourActivities copy = TourActivities.copyOf(tour);
+        assertEquals(tour.getVersion(), lazyCopy.getVersion());
+        assertEquals(tour.getVersion(), copy.getVersion());
+        Service service2 = Service.Builder.newInstance("s2").setLocation(Location.newInstance("loc")).build();
+        lazyCopy.addActivity(ServiceActivity.newInstance(service2));
+        assertNotEquals(tour.getVersion(), lazyCopy.getVersion());
+        assertEquals(tour.getVersion(), copy.getVersion());
+    }
 }
@@ -465,4 +465,32 @@ class SolutionSpecTest {
         assertEquals("ship1", routeSpec.activities().get(2).jobId());
         assertEquals(ActivityType.DELIVERY, routeSpec.activities().get(2).type());
     }
+
+    @Test
+    void testWithoutJobsDropsActivitiesAndEmptyRoutes() {
+        SolutionSpec spec = SolutionSpec.of(
+                RouteSpec.of("v1", ActivitySpec.visit("s1"), ActivitySpec.pickup("ship1"), ActivitySpec.delivery("ship1")),
+                RouteSpec.of("v2", ActivitySpec.visit("s2"))
+        );
+
+        SolutionSpec reduced = spec.withoutJobs(List.of("ship1", "s2"));
+
+        assertEquals(1, reduced.routes().size());
+        assertEquals("v1", reduced.routes().get(0).vehicleId());
+        assertEquals(List.of(ActivitySpec.visit("s1")), reduced.routes().get(0).activities());
+        assertEquals(2, spec.routes().size());
+    }
+
+    @Test
+    void testWithoutVehiclesDropsTheirRoutes() {
+        SolutionSpec spec = SolutionSpec.of(
+                RouteSpec.of("v1", ActivitySpec.visit("s1")),
+                RouteSpec.of("v2", ActivitySpec.visit("s2"))
+        );
+
+        SolutionSpec reduced = spec.withoutVehicles(List.of("v1"));
+
+        assertEquals(1, reduced.routes().size());
+        assertEquals("v2", reduced.routes().get(0).vehicleId());
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.util;
+
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleType;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Mapped Vehicle Routing Transport Costs Matrix Test")
+class MappedVehicleRoutingTransportCostsMatrixTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Location loc(int index) {
+        return Location.Builder.newInstance().setIndex(index).build();
+    }
+
+    @Test
+    @DisplayName("When Adding Time And Distance To Symmetric Matrix _ it Should Return Correct Values")
+    void whenAddingTimeAndDistanceToSymmetricMatrix_itShouldReturnCorrectValues() {
+        MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.Builder
+            .newInstance(tempDir.resolve("matrix.bin"), 3, true, MappedVehicleRoutingTransportCostsMatrix.Precision.DOUBLE)
+            .addTransportTimeAndDistance(1, 2, 2., 100.).build();
+        assertEquals(2., matrix.getTransportTime(loc(1), loc(2), 0.0, null, null), 0.1);
+        assertEquals(2., matrix.getTransportTime(loc(2), loc(1), 0.0, null, null), 0.1);
+        assertEquals(100., matrix.getDistance(loc(1), loc(2), 0.0, null), 0.1);
+        assertEquals(100., matrix.getDistance(2, 1), 0.1);
+        assertEquals(0., matrix.getDistance(0, 1), 0.1);
+    }
+
+    @Test
+    @DisplayName("When Adding Time And Distance To Asymmetric Float Matrix _ it Should Return Correct Values")
+    void whenAddingTimeAndDistanceToAsymmetricFloatMatrix_itShouldReturnCorrectValues() {
+        MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.Builder
+            .newInstance(tempDir.resolve("matrix.bin"), 3, false, MappedVehicleRoutingTransportCostsMatrix.Precision.FLOAT)
+            .addTransportTimeAndDistance(1, 2, 2., 100.)
+            .addTransportTimeAndDistance(2, 1, 4., 200.).build();
+        assertEquals(MappedVehicleRoutingTransportCostsMatrix.Precision.FLOAT, matrix.getPrecision());
+        assertEquals(2., matrix.getTransportTime(1, 2), 0.01);
+        assertEquals(4., matrix.getTransportTime(2, 1), 0.01);
+        assertEquals(100., matrix.getDistance(1, 2), 0.01);
+        assertEquals(200., matrix.getDistance(2, 1), 0.01);
+    }
+
+    @Test
+    @DisplayName("When Opening Existing File _ it Should Return Stored Values")
+    void whenOpeningExistingFile_itShouldReturnStoredValues() {
+        Path file = tempDir.resolve("matrix.bin");
+        MappedVehicleRoutingTransportCostsMatrix.Builder builder = MappedVehicleRoutingTransportCostsMatrix.Builder
+            .newInstance(file, 10, false, MappedVehicleRoutingTransportCostsMatrix.Precision.DOUBLE);
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                builder.addTransportTimeAndDistance(i, j, i * 10 + j, i * 100 + j);
+            }
+        }
+        builder.build();
+        MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.open(file);
+        assertEquals(10, matrix.getNoLocations());
+        assertEquals(37., matrix.getTransportTime(3, 7), 0.01);
+        assertEquals(907., matrix.getDistance(9, 7), 0.01);
+    }
+
+    @Test
+    @DisplayName("When Vehicle Is Given _ transport Cost Should Consider Cost Params")
+    void whenVehicleIsGiven_transportCostShouldConsiderCostParams() {
+        MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.Builder
+            .newInstance(tempDir.resolve("matrix.bin"), 3, true, MappedVehicleRoutingTransportCostsMatrix.Precision.DOUBLE)
+            .addTransportTimeAndDistance(1, 2, 2., 100.).build();
+        VehicleType type = VehicleTypeImpl.Builder.newInstance("t").setCostPerDistance(1.).setCostPerTransportTime(2.).build();
+        Vehicle vehicle = mock(Vehicle.class);
+        when(vehicle.getType()).thenReturn(type);
+        assertEquals(104., matrix.getTransportCost(loc(1), loc(2), 0.0, null, vehicle), 0.01);
+    }
+
+    @Test
+    @DisplayName("When Opening Foreign File _ it Should Throw Exception")
+    void whenOpeningForeignFile_itShouldThrowException() throws IOException {
+        Path file = Files.write(tempDir.resolve("foreign.bin"), new byte[32]);
+        assertThrows(IllegalArgumentException.class, () -> MappedVehicleRoutingTransportCostsMatrix.open(file));
+    }
+
+    @Test
+    @DisplayName("When Adding Relation Out Of Bounds _ it Should Throw Exception")
+    void whenAddingRelationOutOfBounds_itShouldThrowException() {
+        MappedVehicleRoutingTransportCostsMatrix.Builder builder = MappedVehicleRoutingTransportCostsMatrix.Builder
+            .newInstance(tempDir.resolve("matrix.bin"), 3, false, MappedVehicleRoutingTransportCostsMatrix.Precision.DOUBLE);
+        assertThrows(IllegalArgumentException.class, () -> builder.addTransportDistance(1, 3, 1.));
+    }
+
+    @Test
+    @DisplayName("When Reading Relation Out Of Bounds _ it Should Throw Exception")
+    void whenReadingRelationOutOfBounds_itShouldThrowException() {
+        MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.Builder
+            .newInstance(tempDir.resolve("matrix.bin"), 3, false, MappedVehicleRoutingTransportCostsMatrix.Precision.DOUBLE)
+            .addTransportTimeAndDistance(1, 0, 2., 100.).build();
+        assertThrows(IllegalArgumentException.class, () -> matrix.getDistance(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> matrix.getTransportTime(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> matrix.getDistance(Location.newInstance(0, 0), loc(1), 0.0, null));
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to GraphHopper GmbH under one or more contributor
+ * license agreements. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * GraphHopper GmbH licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.graphhopper.jsprit.core.util;
+
+import com.graphhopper.jsprit.core.problem.Location;
+import com.graphhopper.jsprit.core.problem.vehicle.Vehicle;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleImpl;
+import com.graphhopper.jsprit.core.problem.vehicle.VehicleTypeImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Time Dependent Vehicle Routing Transport Costs Matrix Test")
+class TimeDependentVehicleRoutingTransportCostsMatrixTest {
+
+    private Location loc(int index) {
+        return Location.Builder.newInstance().setIndex(index).build();
+    }
+
+    private TimeDependentVehicleRoutingTransportCostsMatrix rushHourMatrix() {
+        // 4 buckets of 15 time units: 10 -> 30 (rush hour) -> 10 -> 10
+        return TimeDependentVehicleRoutingTransportCostsMatrix.Builder.newInstance(2, 4, 15., false)
+            .addTransportTimes(0, 1, new double[]{10., 30., 10., 10.})
+            .addTransportDistance(0, 1, 5.)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Transport times are interpolated between buckets")
+    void transportTimesAreInterpolated() {
+        TimeDependentVehicleRoutingTransportCostsMatrix matrix = rushHourMatrix();
+        assertEquals(10., matrix.getTransportTime(loc(0), loc(1), -5., null, null), 0.001);
+        assertEquals(10., matrix.getTransportTime(loc(0), loc(1), 0., null, null), 0.001);
+        assertEquals(17.5, matrix.getTransportTime(loc(0), loc(1), 7.5, null, null), 0.001);
+        assertEquals(10., matrix.getTransportTime(loc(0), loc(1), 30., null, null), 0.001);
+        assertEquals(10., matrix.getTransportTime(loc(0), loc(1), 45., null, null), 0.001);
+        assertEquals(10., matrix.getTransportTime(loc(0), loc(1), 1000., null, null), 0.001);
+        assertEquals(0., matrix.getTransportTime(loc(1), loc(0), 15., null, null), 0.001);
+    }
+
+    @Test
+    @DisplayName("Violations of FIFO are repaired by waiting")
+    void fifoViolationsAreRepaired() {
+        TimeDependentVehicleRoutingTransportCostsMatrix matrix = rushHourMatrix();
+        // departing at 15 would arrive at 45, but waiting until 30 arrives at 40
+        assertEquals(25., matrix.getTransportTime(0, 1, 15.), 0.001);
+        double lastArrival = Double.NEGATIVE_INFINITY;
+        for (double departure = 0; departure < 60; departure += 0.5) {
+            double arrival = departure + matrix.getTransportTime(0, 1, departure);
+            assertTrue(arrival >= lastArrival - 1e-6);
+            lastArrival = arrival;
+        }
+    }
+
+    @Test
+    @DisplayName("Backward transport time yields the latest departure that arrives in time")
+    void backwardTransportTimeInvertsForwardTransportTime() {
+        Random random = new Random(1);
+        int noBuckets = 96;
+        TimeDependentVehicleRoutingTransportCostsMatrix.Builder builder = TimeDependentVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, noBuckets, 15., true);
+        for (int bucket = 0; bucket < noBuckets; bucket++) {
+            builder.addTransportTime(0, 1, bucket, 20 + random.nextInt(40));
+            builder.addTransportTime(1, 2, bucket, 5 + random.nextInt(5));
+        }
+        TimeDependentVehicleRoutingTransportCostsMatrix matrix = builder.build();
+        for (double departure = 0; departure < noBuckets * 15; departure += 3.7) {
+            for (int[] relation : new int[][]{{0, 1}, {1, 0}, {1, 2}}) {
+                double arrival = departure + matrix.getTransportTime(relation[0], relation[1], departure);
+                double backwardTime = matrix.getBackwardTransportTime(relation[0], relation[1], arrival);
+                double latestDeparture = arrival - backwardTime;
+                assertTrue(latestDeparture >= departure - 1e-3);
+                assertEquals(arrival, latestDeparture + matrix.getTransportTime(relation[0], relation[1], latestDeparture), 1e-3);
+                assertEquals(backwardTime, matrix.getBackwardTransportTime(loc(relation[0]), loc(relation[1]), arrival, null, null), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Transport costs consider distance and time dependent transport time")
+    void transportCostsConsiderDistanceAndTime() {
+        TimeDependentVehicleRoutingTransportCostsMatrix matrix = rushHourMatrix();
+        VehicleTypeImpl type = VehicleTypeImpl.Builder.newInstance("t").setCostPerDistance(2.).setCostPerTransportTime(1.).build();
+        Vehicle vehicle = VehicleImpl.Builder.newInstance("v").setStartLocation(loc(0)).setType(type).build();
+        assertEquals(5., matrix.getTransportCost(loc(0), loc(1), 0., null, null), 0.001);
+        assertEquals(5., matrix.getDistance(loc(0), loc(1), 0., null), 0.001);
+        assertEquals(2. * 5. + 10., matrix.getTransportCost(loc(0), loc(1), 0., null, vehicle), 0.001);
+        assertEquals(2. * 5. + 17.5, matrix.getTransportCost(loc(0), loc(1), 7.5, null, vehicle), 0.001);
+        assertEquals(2. * 5. + 17.5, matrix.getBackwardTransportCost(loc(0), loc(1), 25., null, vehicle), 0.001);
+    }
+
+    @Test
+    @DisplayName("Invalid input is rejected")
+    void invalidInputIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TimeDependentVehicleRoutingTransportCostsMatrix.Builder.newInstance(2, 0, 15., false));
+        assertThrows(IllegalArgumentException.class, () -> TimeDependentVehicleRoutingTransportCostsMatrix.Builder.newInstance(2, 4, 0., false));
+        TimeDependentVehicleRoutingTransportCostsMatrix.Builder builder = TimeDependentVehicleRoutingTransportCostsMatrix.Builder.newInstance(2, 4, 15., false);
+        assertThrows(IllegalArgumentException.class, () -> builder.addTransportTimes(0, 1, new double[]{1., 2.}));
+        assertThrows(IllegalArgumentException.class, () -> builder.addTransportTime(0, 1, 0, -1.));
+        TimeDependentVehicleRoutingTransportCostsMatrix matrix = builder.build();
+        assertThrows(IllegalArgumentException.class, () -> matrix.getTransportTime(Location.newInstance("a"), loc(1), 0., null, null));
+    }
+
+}
@@ -276,4 +276,79 @@ class VehicleRoutingTransportCostsMatrixTest {
         assertEquals(1., matrix.getTransportCost(loc("from"), loc("to"), 0.0, null, vehicle), 0.1);
         assertEquals(1., matrix.getTransportCost(loc("to"), loc("from"), 0.0, null, vehicle), 0.1);
     }
+
+    @Test
+    @DisplayName("When Adding Many Locations _ it Should Return Correct Values For Ids And Dense Indices")
+    void whenAddingManyLocations_itShouldReturnCorrectValuesForIdsAndDenseIndices() {
+        VehicleRoutingTransportCostsMatrix.Builder matrixBuilder = VehicleRoutingTransportCostsMatrix.Builder.newInstance(false);
+        for (int from = 0; from < 40; from++) {
+            for (int to = 0; to < 40; to++) {
+                if (from != to) matrixBuilder.addTransportDistance("l" + from, "l" + to, 100 * from + to);
+            }
+        }
+        VehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+        assertEquals(40, matrix.getNoLocations());
+        assertEquals(-1, matrix.getIndex("unknown"));
+        for (int from = 0; from < 40; from++) {
+            Location indexedFrom = Location.Builder.newInstance().setId("l" + from).setIndex(matrix.getIndex("l" + from)).build();
+            for (int to = 0; to < 40; to++) {
+                if (from == to) continue;
+                Location indexedTo = Location.Builder.newInstance().setId("l" + to).setIndex(matrix.getIndex("l" + to)).build();
+                assertEquals(100 * from + to, matrix.getDistance("l" + from, "l" + to), 0.01);
+                assertEquals(100 * from + to, matrix.getDistance(loc("l" + from), loc("l" + to), 0.0, null), 0.01);
+                assertEquals(100 * from + to, matrix.getDistance(indexedFrom, indexedTo, 0.0, null), 0.01);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("When Adding Times After Matrix Has Grown _ distances And Times Should Be Kept")
+    void whenAddingTimesAfterMatrixHasGrown_distancesAndTimesShouldBeKept() {
+        VehicleRoutingTransportCostsMatrix.Builder matrixBuilder = VehicleRoutingTransportCostsMatrix.Builder.newInstance(false);
+        for (int i = 1; i < 20; i++) matrixBuilder.addTransportDistance("l0", "l" + i, i);
+        for (int i = 1; i < 40; i++) matrixBuilder.addTransportTime("l" + i, "l0", 2 * i);
+        for (int i = 20; i < 40; i++) matrixBuilder.addTransportDistance("l0", "l" + i, i);
+        VehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+        assertEquals(40, matrix.getNoLocations());
+        for (int i = 1; i < 40; i++) {
+            assertEquals(i, matrix.getDistance("l0", "l" + i), 0.01);
+            assertEquals(2 * i, matrix.getTransportTime(loc("l" + i), loc("l0"), 0.0, null, null), 0.01);
+        }
+        assertThrows(IllegalStateException.class, () -> matrix.getDistance("l1", "l0"));
+    }
+
+    @Test
+    @DisplayName("When Only Adding Times _ distances Should Be Zero")
+    void whenOnlyAddingTimes_distancesShouldBeZero() {
+        VehicleRoutingTransportCostsMatrix.Builder matrixBuilder = VehicleRoutingTransportCostsMatrix.Builder.newInstance(true);
+        for (int i = 1; i < 20; i++) matrixBuilder.addTransportTime("l0", "l" + i, i);
+        VehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+        assertEquals(0., matrix.getDistance("l0", "l5"), 0.01);
+        assertEquals(5., matrix.getTransportTime(loc("l5"), loc("l0"), 0.0, null, null), 0.01);
+    }
+
+    @Test
+    @DisplayName("When Location Index Does Not Match Matrix Index _ it Should Fall Back To Id")
+    void whenLocationIndexDoesNotMatchMatrixIndex_itShouldFallBackToId() {
+        VehicleRoutingTransportCostsMatrix.Builder matrixBuilder = VehicleRoutingTransportCostsMatrix.Builder.newInstance(false);
+        matrixBuilder.addTransportDistance("a", "b", 1.);
+        matrixBuilder.addTransportDistance("b", "a", 2.);
+        VehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+        Location a = Location.Builder.newInstance().setId("a").setIndex(1).build();
+        Location b = Location.Builder.newInstance().setId("b").setIndex(0).build();
+        assertEquals(1., matrix.getDistance(a, b, 0.0, null), 0.01);
+        assertEquals(2., matrix.getDistance(b, a, 0.0, null), 0.01);
+        assertThrows(IllegalStateException.class, () -> matrix.getDistance(a, loc("c"), 0.0, null));
+        assertEquals(0., matrix.getDistance(loc("c"), loc("c"), 0.0, null), 0.01);
+    }
+
+    @Test
+    @DisplayName("When Growing Beyond Array Limit _ it Should Cap Capacity And Then Throw Exception")
+    void whenGrowingBeyondArrayLimit_itShouldCapCapacityAndThenThrowException() {
+        int max = VehicleRoutingTransportCostsMatrix.Builder.MAX_LOCATIONS;
+        assertEquals(16, VehicleRoutingTransportCostsMatrix.Builder.capacityFor(1, 0));
+        assertEquals(max, VehicleRoutingTransportCostsMatrix.Builder.capacityFor(32769, 32768));
+        assertEquals(max, VehicleRoutingTransportCostsMatrix.Builder.capacityFor(max, 32768));
+        assertThrows(IllegalStateException.class, () -> VehicleRoutingTransportCostsMatrix.Builder.capacityFor(max + 1, max));
+    }
 }